@@ -51,6 +51,7 @@ public class DMLOptions {
 	public final Options        options;
 	public Map<String, String>  argVals       = new HashMap<>();  // Arguments map containing either named arguments or arguments by position for a DML program
 	public String               configFile    = null;             // Path to config file if default config and default config is to be overridden
+	public String               planFile      = null;             // Path to compiled plan file, reused if valid and written otherwise
 	public boolean              clean         = false;            // Whether to clean up all SystemDS working directories (FS, DFS)
 	public boolean              stats         = false;            // Whether to record and print the statistics
 	public int                  statsCount    = 10;               // Default statistics count
@@ -93,6 +94,7 @@ public class DMLOptions {
 		return "DMLOptions{" +
 			"argVals=" + argVals +
 			", configFile='" + configFile + '\'' +
+			", planFile='" + planFile + '\'' +
 			", clean=" + clean +
 			", stats=" + stats +
 			", statsCount=" + statsCount +
@@ -232,6 +234,10 @@ public class DMLOptions {
 			dmlOptions.configFile = line.getOptionValue("config");
 		}
 		
+		if (line.hasOption("plan")){
+			dmlOptions.planFile = line.getOptionValue("plan");
+		}
+		
 		if (line.hasOption("w")){
 			dmlOptions.fedWorker = true;
 			dmlOptions.fedWorkerPort = Integer.parseInt(line.getOptionValue("w"));
@@ -329,6 +335,9 @@ public class DMLOptions {
 		Option configOpt = OptionBuilder.withArgName("filename")
 			.withDescription("uses a given configuration file (can be on local/hdfs/gpfs; default values in SystemDS-config.xml")
 			.hasArg().create("config");
+		Option planOpt = OptionBuilder.withArgName("filename")
+			.withDescription("executes the compiled plan in the given local file if valid for the script, arguments, configuration, and input meta data; otherwise compiles the script and writes the plan")
+			.hasArg().create("plan");
 		Option cleanOpt = OptionBuilder
 			.withDescription("cleans up all SystemDS working directories (FS, DFS); all other flags are ignored in this mode.")
 			.create("clean");
@@ -394,6 +403,7 @@ public class DMLOptions {
 			.hasArg().create("seed");
 		
 		options.addOption(configOpt);
+		options.addOption(planOpt);
 		options.addOption(cleanOpt);
 		options.addOption(statsOpt);
 		options.addOption(fedStatsOpt);
@@ -76,6 +76,7 @@ import org.apache.sysds.runtime.controlprogram.parfor.util.IDHandler;
 import org.apache.sysds.runtime.instructions.gpu.context.GPUContextPool;
 import org.apache.sysds.runtime.io.IOUtilFunctions;
 import org.apache.sysds.runtime.lineage.LineageCacheConfig;
+import org.apache.sysds.runtime.lineage.LineagePersistentCache;
 import org.apache.sysds.runtime.lineage.LineageCacheConfig.LineageCachePolicy;
 import org.apache.sysds.runtime.lineage.LineageCacheConfig.ReuseCacheType;
 import org.apache.sysds.runtime.privacy.CheckedConstraintsLog;
@@ -148,6 +149,8 @@ public class DMLScript
 
 	// Global seed 
 	public static int               SEED                 = -1;
+	// Compiled plan file (reused if valid, written otherwise)
+	public static String            PLAN_FILE            = DMLOptions.defaultOptions.planFile;
 
 	public static String MONITORING_ADDRESS = null;
 
@@ -271,6 +274,7 @@ public class DMLScript
 			CHECK_PRIVACY         = dmlOptions.checkPrivacy;
 			LINEAGE_DEBUGGER      = dmlOptions.lineage_debugger;
 			SEED                  = dmlOptions.seed;
+			PLAN_FILE             = dmlOptions.planFile;
 
 
 			String fnameOptConfig = dmlOptions.configFile;
@@ -436,28 +440,50 @@ public class DMLScript
 		//Step 2: configure codegen
 		configureCodeGen();
 
-		//Step 3: parse dml script
+		//Step 3: parse dml script, or load valid compiled plan
 		Statistics.startCompileTimer();
-		ParserWrapper parser = ParserFactory.createParser();
-		DMLProgram prog = parser.parse(DML_FILE_PATH_ANTLR_PARSER, dmlScriptStr, argVals);
-		
-		//Step 4: construct HOP DAGs (incl LVA, validate, and setup)
-		DMLTranslator dmlt = new DMLTranslator(prog);
-		dmlt.liveVariableAnalysis(prog);
-		dmlt.validateParseTree(prog);
-		dmlt.constructHops(prog);
-		
-		//init working directories (before usage by following compilation steps)
-		initHadoopExecution( ConfigurationManager.getDMLConfig() );
-	
-		//Step 5: rewrite HOP DAGs (incl IPA and memory estimates)
-		dmlt.rewriteHopsDAG(prog);
-		
-		//Step 6: construct lops (incl exec type and op selection)
-		dmlt.constructLops(prog);
+		Program rtprog = (PLAN_FILE != null) ?
+			PlanArtifact.load(PLAN_FILE, dmlScriptStr, argVals) : null;
+		DMLProgram prog = null;
+		if( rtprog == null ) {
+			//track sourced and builtin scripts, which are part of the plan signature
+			if( PLAN_FILE != null )
+				ParserWrapper.setTrackReadScripts(true);
+			try {
+				ParserWrapper parser = ParserFactory.createParser();
+				prog = parser.parse(DML_FILE_PATH_ANTLR_PARSER, dmlScriptStr, argVals);
+			
+				//Step 4: construct HOP DAGs (incl LVA, validate, and setup)
+				DMLTranslator dmlt = new DMLTranslator(prog);
+				dmlt.liveVariableAnalysis(prog);
+				dmlt.validateParseTree(prog);
+				dmlt.constructHops(prog);
+			
+				//init working directories (before usage by following compilation steps)
+				initHadoopExecution( ConfigurationManager.getDMLConfig() );
 		
-		//Step 7: generate runtime program, incl codegen
-		Program rtprog = dmlt.getRuntimeProgram(prog, ConfigurationManager.getDMLConfig());
+				//Step 5: rewrite HOP DAGs (incl IPA and memory estimates)
+				dmlt.rewriteHopsDAG(prog);
+			
+				//Step 6: construct lops (incl exec type and op selection)
+				dmlt.constructLops(prog);
+			
+				//Step 7: generate runtime program, incl codegen
+				rtprog = dmlt.getRuntimeProgram(prog, ConfigurationManager.getDMLConfig());
+			
+				//Step 8: write compiled plan for subsequent runs
+				if( PLAN_FILE != null )
+					PlanArtifact.write(PLAN_FILE, rtprog, dmlScriptStr, argVals, ParserWrapper.getReadScripts());
+			}
+			finally {
+				//reset tracking also if compilation or the plan write failed
+				if( PLAN_FILE != null )
+					ParserWrapper.setTrackReadScripts(false);
+			}
+		}
+		else {
+			initHadoopExecution( ConfigurationManager.getDMLConfig() );
+		}
 		
 		//Step 9: prepare statistics [and optional explain output]
 		//count number compiled MR jobs / SP instructions	
@@ -466,7 +492,8 @@ public class DMLScript
 		
 		//explain plan of program (hops or runtime)
 		if( EXPLAIN != ExplainType.NONE )
-			System.out.println(Explain.display(prog, rtprog, EXPLAIN, counts));
+			System.out.println((prog != null) ? Explain.display(prog, rtprog, EXPLAIN, counts)
+				: Explain.explain(rtprog, counts));
 		
 		Statistics.stopCompileTimer();
 		
@@ -576,6 +603,9 @@ public class DMLScript
 		//2) cleanup systemds-internal working dirs
 		CacheableData.cleanupCacheDir(); //might be local/hdfs
 		LocalFileUtils.cleanupWorkingDirectory();
+		
+		//3) persist access statistics of the persistent lineage cache
+		LineagePersistentCache.flush();
 	}
 
 	
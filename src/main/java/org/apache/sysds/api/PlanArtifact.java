@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.api;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.hops.OptimizerUtils;
+import org.apache.sysds.lops.Lop;
+import org.apache.sysds.parser.ForStatementBlock;
+import org.apache.sysds.parser.IfStatementBlock;
+import org.apache.sysds.parser.ParserWrapper;
+import org.apache.sysds.parser.StatementBlock;
+import org.apache.sysds.parser.WhileStatementBlock;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.codegen.CodegenUtils;
+import org.apache.sysds.runtime.controlprogram.BasicProgramBlock;
+import org.apache.sysds.runtime.controlprogram.ForProgramBlock;
+import org.apache.sysds.runtime.controlprogram.FunctionProgramBlock;
+import org.apache.sysds.runtime.controlprogram.IfProgramBlock;
+import org.apache.sysds.runtime.controlprogram.ParForProgramBlock;
+import org.apache.sysds.runtime.controlprogram.Program;
+import org.apache.sysds.runtime.controlprogram.ProgramBlock;
+import org.apache.sysds.runtime.controlprogram.WhileProgramBlock;
+import org.apache.sysds.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysds.runtime.instructions.Instruction;
+import org.apache.sysds.runtime.instructions.cp.EvalNaryCPInstruction;
+import org.apache.sysds.runtime.instructions.cp.VariableCPInstruction;
+import org.apache.sysds.runtime.util.HDFSTool;
+import org.apache.sysds.runtime.util.ProgramConverter;
+
+/**
+ * Ahead-of-time compiled plan artifacts, which allow repeated invocations of
+ * the same script to skip parsing, validation, IPA, rewrites, and instruction
+ * generation by starting directly from a runtime program serialized via the
+ * {@link ProgramConverter} (as used for remote parfor workers).
+ * 
+ * A plan is only reused if its signature matches the script, arguments,
+ * configuration, execution mode, and local resources, and the sourced and
+ * builtin scripts as well as the meta data of all persistent reads are
+ * unchanged; otherwise, the script is compiled as
+ * usual and the plan is rewritten. Loaded plans carry no hop DAGs, and thus,
+ * are not dynamically recompiled. Accordingly, plans are only written for
+ * programs without blocks that require dynamic recompilation, parfor, and
+ * eval calls.
+ */
+public class PlanArtifact
+{
+	private static final Log LOG = LogFactory.getLog(PlanArtifact.class.getName());
+	
+	private static final String FORMAT = "2";
+	private static final String KEY_FORMAT = "format";
+	private static final String KEY_SIGNATURE = "signature";
+	private static final String KEY_UUID = "uuid";
+	private static final String KEY_PROGRAM = "program";
+	private static final String PREFIX_INPUT = "input.";
+	private static final String PREFIX_CLASS = "class.";
+	private static final String PREFIX_SCRIPT = "script.";
+	private static final String NO_META_DATA = "-";
+	
+	private static final LongAdder _loaded = new LongAdder();
+	private static final LongAdder _written = new LongAdder();
+	
+	/**
+	 * Loads the runtime program from the given plan file, if the plan exists
+	 * and is still valid for the given script and arguments.
+	 * 
+	 * @param fname plan file name
+	 * @param dmlScriptStr script string
+	 * @param argVals script arguments
+	 * @return runtime program, or null if not existing or stale
+	 */
+	public static Program load(String fname, String dmlScriptStr, Map<String, String> argVals) {
+		Path path = Paths.get(fname);
+		if( !Files.exists(path) )
+			return null;
+		try {
+			Properties plan = new Properties();
+			try( Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8) ) {
+				plan.load(reader);
+			}
+			if( !FORMAT.equals(plan.getProperty(KEY_FORMAT))
+				|| !createSignature(dmlScriptStr, argVals).equals(plan.getProperty(KEY_SIGNATURE)) ) {
+				LOG.info("Stale compiled plan (signature): " + fname);
+				return null;
+			}
+			for( String key : plan.stringPropertyNames() )
+				if( key.startsWith(PREFIX_INPUT) && !plan.getProperty(key)
+					.equals(getInputFingerprint(key.substring(PREFIX_INPUT.length()))) ) {
+					LOG.info("Stale compiled plan (input " + key.substring(PREFIX_INPUT.length()) + "): " + fname);
+					return null;
+				}
+			for( String key : plan.stringPropertyNames() )
+				if( key.startsWith(PREFIX_SCRIPT) && !plan.getProperty(key)
+					.equals(getScriptFingerprint(key.substring(PREFIX_SCRIPT.length()))) ) {
+					LOG.info("Stale compiled plan (script " + key.substring(PREFIX_SCRIPT.length()) + "): " + fname);
+					return null;
+				}
+			
+			//load generated classes before parsing the instructions
+			for( String key : plan.stringPropertyNames() )
+				if( key.startsWith(PREFIX_CLASS) )
+					CodegenUtils.getClassSync(key.substring(PREFIX_CLASS.length()),
+						Base64.getDecoder().decode(plan.getProperty(key)));
+			
+			//replace the process id of scratch space files with the current one
+			String progStr = plan.getProperty(KEY_PROGRAM).replace(
+				Lop.PROCESS_PREFIX + plan.getProperty(KEY_UUID), Lop.PROCESS_PREFIX + DMLScript.getUUID());
+			Program prog = ProgramConverter.parseRuntimeProgram(progStr);
+			_loaded.increment();
+			LOG.info("Loaded compiled plan: " + fname);
+			return prog;
+		}
+		catch(Exception ex) {
+			LOG.warn("Failed to load compiled plan: " + fname, ex);
+			return null;
+		}
+	}
+	
+	/**
+	 * Writes the given runtime program as plan file, if the program can be
+	 * executed without hop DAGs (see class description).
+	 * 
+	 * @param fname plan file name
+	 * @param prog runtime program
+	 * @param dmlScriptStr script string
+	 * @param argVals script arguments
+	 * @param scripts sourced and builtin scripts read during compilation (path and script string)
+	 * @return true if the plan was written
+	 */
+	public static boolean write(String fname, Program prog, String dmlScriptStr,
+		Map<String, String> argVals, Map<String, String> scripts)
+	{
+		TreeSet<String> inputs = new TreeSet<>();
+		if( !rCollectInputs(prog.getProgramBlocks(), inputs) || !prog.getFunctionProgramBlocks().values()
+			.stream().allMatch(fpb -> !requiresRecompilation(fpb) && rCollectInputs(fpb.getChildBlocks(), inputs)) ) {
+			LOG.warn("Compiled plan not written, because the program requires "
+				+ "dynamic recompilation, parfor, or eval: " + fname);
+			return false;
+		}
+		try {
+			HashMap<String, byte[]> clsMap = new HashMap<>();
+			String progStr = ProgramConverter.serializeRuntimeProgram(prog, clsMap);
+			Properties plan = new Properties();
+			plan.setProperty(KEY_FORMAT, FORMAT);
+			plan.setProperty(KEY_SIGNATURE, createSignature(dmlScriptStr, argVals));
+			plan.setProperty(KEY_UUID, DMLScript.getUUID());
+			for( String input : inputs )
+				plan.setProperty(PREFIX_INPUT + input, getInputFingerprint(input));
+			if( scripts != null )
+				for( Entry<String, String> e : scripts.entrySet() )
+					plan.setProperty(PREFIX_SCRIPT + e.getKey(), digest(e.getValue()));
+			for( Entry<String, byte[]> e : clsMap.entrySet() )
+				plan.setProperty(PREFIX_CLASS + e.getKey(),
+					Base64.getEncoder().encodeToString(e.getValue()));
+			plan.setProperty(KEY_PROGRAM, progStr);
+			
+			//write to temporary file and move for atomic replacement
+			Path path = Paths.get(fname).toAbsolutePath();
+			Files.createDirectories(path.getParent());
+			Path tmp = Files.createTempFile(path.getParent(), ".plan", ".tmp");
+			try( Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8) ) {
+				plan.store(writer, "SystemDS compiled plan");
+			}
+			Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			_written.increment();
+			LOG.info("Wrote compiled plan: " + fname);
+			return true;
+		}
+		catch(Exception ex) {
+			LOG.warn("Failed to write compiled plan: " + fname, ex);
+			return false;
+		}
+	}
+	
+	public static long getNumLoaded() {
+		return _loaded.longValue();
+	}
+	
+	public static long getNumWritten() {
+		return _written.longValue();
+	}
+	
+	public static void resetStatistics() {
+		_loaded.reset();
+		_written.reset();
+	}
+	
+	private static boolean rCollectInputs(ArrayList<ProgramBlock> pbs, TreeSet<String> inputs) {
+		boolean ret = true;
+		for( ProgramBlock pb : pbs ) {
+			if( pb instanceof ParForProgramBlock || requiresRecompilation(pb) )
+				return false;
+			else if( pb instanceof WhileProgramBlock ) {
+				ret &= collectInputs(((WhileProgramBlock) pb).getPredicate(), inputs)
+					&& rCollectInputs(pb.getChildBlocks(), inputs);
+			}
+			else if( pb instanceof ForProgramBlock ) {
+				ForProgramBlock fpb = (ForProgramBlock) pb;
+				ret &= collectInputs(fpb.getFromInstructions(), inputs)
+					&& collectInputs(fpb.getToInstructions(), inputs)
+					&& collectInputs(fpb.getIncrementInstructions(), inputs)
+					&& rCollectInputs(fpb.getChildBlocks(), inputs);
+			}
+			else if( pb instanceof IfProgramBlock ) {
+				IfProgramBlock ipb = (IfProgramBlock) pb;
+				ret &= collectInputs(ipb.getPredicate(), inputs)
+					&& rCollectInputs(ipb.getChildBlocksIfBody(), inputs)
+					&& rCollectInputs(ipb.getChildBlocksElseBody(), inputs);
+			}
+			else if( pb instanceof FunctionProgramBlock )
+				ret &= rCollectInputs(pb.getChildBlocks(), inputs);
+			else if( pb instanceof BasicProgramBlock )
+				ret &= collectInputs(((BasicProgramBlock) pb).getInstructions(), inputs);
+		}
+		return ret;
+	}
+	
+	private static boolean requiresRecompilation(ProgramBlock pb) {
+		//loaded plans carry no hop DAGs, and thus, would execute
+		//the conservative compile-time plan of such blocks
+		StatementBlock sb = pb.getStatementBlock();
+		if( pb instanceof FunctionProgramBlock )
+			return ((FunctionProgramBlock) pb).isRecompileOnce();
+		else if( sb == null )
+			return false;
+		else if( pb instanceof WhileProgramBlock )
+			return ((WhileStatementBlock) sb).requiresPredicateRecompilation();
+		else if( pb instanceof ForProgramBlock ) {
+			ForStatementBlock fsb = (ForStatementBlock) sb;
+			return fsb.requiresFromRecompilation() || fsb.requiresToRecompilation()
+				|| fsb.requiresIncrementRecompilation();
+		}
+		else if( pb instanceof IfProgramBlock )
+			return ((IfStatementBlock) sb).requiresPredicateRecompilation();
+		return sb.requiresRecompilation();
+	}
+	
+	private static boolean collectInputs(ArrayList<Instruction> insts, TreeSet<String> inputs) {
+		for( Instruction inst : insts ) {
+			if( inst instanceof EvalNaryCPInstruction )
+				return false; //functions compiled on demand
+			if( inst instanceof VariableCPInstruction && ((VariableCPInstruction) inst).isCreateVariable()
+				&& ((VariableCPInstruction) inst).getInput1().getName().startsWith(org.apache.sysds.lops.Data.PREAD_PREFIX) )
+				inputs.add(((VariableCPInstruction) inst).getInput2().getName());
+		}
+		return true;
+	}
+	
+	private static String getInputFingerprint(String fname) throws IOException {
+		//sizes and formats of persistent reads are compiled into the plan
+		String mtd = fname + ".mtd";
+		return HDFSTool.existsFileOnHDFS(mtd) ?
+			digest(HDFSTool.readStringFromHDFSFile(mtd)) : NO_META_DATA;
+	}
+	
+	private static String getScriptFingerprint(String fname) {
+		//missing or unreadable scripts invalidate the plan
+		try {
+			return digest(ParserWrapper.readDMLScript(fname, LOG));
+		}
+		catch(Exception ex) {
+			return NO_META_DATA;
+		}
+	}
+	
+	private static String createSignature(String dmlScriptStr, Map<String, String> argVals) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(getVersion()).append('\n');
+		sb.append(dmlScriptStr).append('\n');
+		if( argVals != null )
+			sb.append(new TreeMap<>(argVals)).append('\n');
+		sb.append(ConfigurationManager.getDMLConfig().serializeDMLConfig()).append('\n');
+		sb.append(DMLScript.getGlobalExecMode()).append('|')
+			.append(OptimizerUtils.getLocalMemBudget()).append('|')
+			.append(InfrastructureAnalyzer.getLocalParallelism()).append('|')
+			.append(ConfigurationManager.isCodegenEnabled()).append('|')
+			.append(DMLScript.USE_ACCELERATOR).append('|')
+			.append(DMLScript.LINEAGE).append('|').append(DMLScript.LINEAGE_DEDUP).append('|')
+			.append(DMLScript.LINEAGE_REUSE).append('|').append(DMLScript.SEED);
+		return digest(sb.toString());
+	}
+	
+	private static String digest(String str) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			StringBuilder sb = new StringBuilder(64);
+			for( byte b : md.digest(str.getBytes(StandardCharsets.UTF_8)) )
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16))
+					.append(Character.forDigit(b & 0xF, 16));
+			return sb.toString();
+		}
+		catch(NoSuchAlgorithmException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	private static String getVersion() {
+		String version = DMLScript.class.getPackage().getImplementationVersion();
+		if( version != null && !version.endsWith("SNAPSHOT") )
+			return version;
+		//snapshot and development builds (w/o manifest): add the build time of
+		//the instruction parser (class or jar), which invalidates plans whenever
+		//rebuilt, even if the instruction format changed without a new version
+		String prefix = (version != null) ? version : "dev";
+		try {
+			URL url = ProgramConverter.class.getResource("ProgramConverter.class");
+			return prefix + "-" + url.openConnection().getLastModified();
+		}
+		catch(Exception ex) {
+			return prefix;
+		}
+	}
+}
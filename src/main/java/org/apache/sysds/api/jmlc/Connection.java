@@ -288,6 +288,38 @@ public class Connection implements Closeable
 		return new PreparedScript(rtprog, inputs, outputs, _dmlconf, _cconf);
 	}
 	
+	/**
+	 * Prepares (precompiles) a script and creates a thread-safe pool for
+	 * concurrent execution with isolated inputs per call.
+	 * 
+	 * @param script string representing the DML or PyDML script
+	 * @param inputs string array of input variables to register
+	 * @param outputs string array of output variables to register
+	 * @param size maximum number of concurrently executing instances,
+	 *   or &lt;=0 for the number of local virtual cores
+	 * @return PreparedScriptPool object representing the precompiled script
+	 */
+	public PreparedScriptPool prepareScriptPool(String script, String[] inputs, String[] outputs, int size) {
+		return prepareScriptPool(script, Collections.emptyMap(), inputs, outputs, size);
+	}
+	
+	/**
+	 * Prepares (precompiles) a script, sets input parameter values, and creates
+	 * a thread-safe pool for concurrent execution with isolated inputs per call.
+	 * The pooled instances share the compiled runtime program and codegen classes.
+	 * 
+	 * @param script string representing the DML or PyDML script
+	 * @param args map of input parameters ($) and their values
+	 * @param inputs string array of input variables to register
+	 * @param outputs string array of output variables to register
+	 * @param size maximum number of concurrently executing instances,
+	 *   or &lt;=0 for the number of local virtual cores
+	 * @return PreparedScriptPool object representing the precompiled script
+	 */
+	public PreparedScriptPool prepareScriptPool(String script, Map<String, String> args, String[] inputs, String[] outputs, int size) {
+		return new PreparedScriptPool(prepareScript(script, args, inputs, outputs), size);
+	}
+	
 	/**
 	 * Close connection to SystemDS, which clears the
 	 * thread-local DML and compiler configurations.
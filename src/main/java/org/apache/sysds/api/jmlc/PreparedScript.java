@@ -93,6 +93,7 @@ public class PreparedScript implements ConfigurableAPI
 		_inVarReuse = new LocalVariableMap(that._inVarReuse);
 		_dmlconf = that._dmlconf;
 		_cconf = that._cconf;
+		_outVarLineage = new HashMap<>();
 	}
 	
 	/**
@@ -256,6 +257,8 @@ public class PreparedScript implements ConfigurableAPI
 		if( !_inVarnames.contains(varname) )
 			throw new DMLException("Unspecified input variable: "+varname);
 		_vars.put(varname, scalar);
+		if( reuse )
+			_inVarReuse.put(varname, scalar);
 	}
 
 	/**
@@ -407,6 +410,39 @@ public class PreparedScript implements ConfigurableAPI
 		}
 	}
 	
+	/**
+	 * Binds an input object of supported type (matrix block, frame block,
+	 * two-dimensional double or string array, scalar object, or boxed
+	 * boolean, long, integer, double, or string) to a registered input variable.
+	 * 
+	 * @param varname input variable name
+	 * @param value input object
+	 * @param reuse if {@code true}, preserve value over multiple {@code executeScript} calls
+	 */
+	protected void setInput(String varname, Object value, boolean reuse) {
+		if( value instanceof MatrixBlock )
+			setMatrix(varname, (MatrixBlock) value, reuse);
+		else if( value instanceof double[][] )
+			setMatrix(varname, (double[][]) value, reuse);
+		else if( value instanceof FrameBlock )
+			setFrame(varname, (FrameBlock) value, reuse);
+		else if( value instanceof String[][] )
+			setFrame(varname, (String[][]) value, reuse);
+		else if( value instanceof ScalarObject )
+			setScalar(varname, (ScalarObject) value, reuse);
+		else if( value instanceof Boolean )
+			setScalar(varname, (boolean) value, reuse);
+		else if( value instanceof Long || value instanceof Integer )
+			setScalar(varname, ((Number) value).longValue(), reuse);
+		else if( value instanceof Double )
+			setScalar(varname, (double) value, reuse);
+		else if( value instanceof String )
+			setScalar(varname, (String) value, reuse);
+		else
+			throw new DMLException("Unsupported type of input variable "+varname+": "
+				+ ((value != null) ? value.getClass().getName() : "null"));
+	}
+	
 	/**
 	 * Remove all current values bound to input or output variables.
 	 * 
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.api.jmlc;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sysds.api.DMLException;
+import org.apache.sysds.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+
+/**
+ * Thread-safe pool of a prepared (precompiled) DML script, which allows
+ * concurrent callers to execute the script without external synchronization.
+ * 
+ * All pooled instances are shallow clones of a single prepared script, i.e.,
+ * they share the compiled runtime program (incl generated codegen classes)
+ * and pinned inputs, but every call binds its inputs to a separate symbol
+ * table. Instances are created lazily up to the pool size; additional
+ * concurrent callers block until an instance is returned to the pool.
+ */
+public class PreparedScriptPool
+{
+	private static final long WAIT_TIMEOUT_MS = 10;
+	
+	private final PreparedScript _template;
+	private final BlockingQueue<Instance> _pool;
+	private final int _size;
+	private final AtomicInteger _created;
+	private volatile int _version;
+	
+	/**
+	 * Meant to be invoked only from Connection.
+	 * 
+	 * @param pscript the prepared script to pool
+	 * @param size maximum number of pooled instances, or &lt;=0
+	 *   for the number of local virtual cores
+	 */
+	protected PreparedScriptPool(PreparedScript pscript, int size) {
+		_template = pscript;
+		_size = (size > 0) ? size : InfrastructureAnalyzer.getLocalParallelism();
+		_pool = new ArrayBlockingQueue<>(_size);
+		_created = new AtomicInteger(0);
+		_version = 0;
+	}
+	
+	/**
+	 * Get the maximum number of concurrently executing instances.
+	 * 
+	 * @return pool size
+	 */
+	public int getSize() {
+		return _size;
+	}
+	
+	/**
+	 * Binds an input object to a registered input variable, which is
+	 * preserved over all subsequent calls (e.g., model weights). Calls
+	 * that are executing concurrently still see the previous value.
+	 * 
+	 * @param varname input variable name
+	 * @param value input object (see {@link #executeScript(Map)})
+	 */
+	public synchronized void setPinnedInput(String varname, Object value) {
+		_template.setInput(varname, value, true);
+		_version++;
+		//discard idle instances with outdated pinned inputs
+		while( _pool.poll() != null )
+			_created.decrementAndGet();
+	}
+	
+	/**
+	 * Executes the script without inputs besides pinned inputs.
+	 * 
+	 * @return ResultVariables object encapsulating output results
+	 */
+	public ResultVariables executeScript() {
+		return executeScript(Collections.emptyMap());
+	}
+	
+	/**
+	 * Executes the script over the given inputs, creating the result
+	 * variables according to the registered outputs. Supported input
+	 * types are matrix blocks, frame blocks, two-dimensional double or
+	 * string arrays, scalar objects, and boxed scalar values.
+	 * 
+	 * @param inputs map of input variable names and values
+	 * @return ResultVariables object encapsulating output results
+	 */
+	public ResultVariables executeScript(Map<String, ?> inputs) {
+		Instance inst = acquire();
+		try {
+			for( Entry<String, ?> e : inputs.entrySet() )
+				inst.pscript.setInput(e.getKey(), e.getValue(), false);
+			return inst.pscript.executeScript();
+		}
+		finally {
+			inst.pscript.clearParameters();
+			release(inst);
+		}
+	}
+	
+	/**
+	 * Explain the pooled DML program and view result as a string.
+	 * 
+	 * @return string results of explain
+	 */
+	public String explain() {
+		return _template.explain();
+	}
+	
+	private Instance acquire() {
+		while( true ) {
+			Instance inst = _pool.poll();
+			if( inst == null ) {
+				//create new instance if below the pool size
+				int created = _created.get();
+				if( created < _size && _created.compareAndSet(created, created+1) ) {
+					synchronized( this ) {
+						return new Instance(_template.clone(false), _version);
+					}
+				}
+				//wait for returned instances, but with timeout to
+				//recheck the pool size after updates of pinned inputs
+				try {
+					inst = _pool.poll(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+				}
+				catch(InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new DMLException(ex);
+				}
+			}
+			if( inst != null && inst.version == _version )
+				return inst;
+			else if( inst != null ) //outdated pinned inputs
+				_created.decrementAndGet();
+		}
+	}
+	
+	private void release(Instance inst) {
+		//drop instances with outdated pinned inputs, which
+		//are recreated on demand from the updated template
+		if( inst.version != _version || !_pool.offer(inst) )
+			_created.decrementAndGet();
+	}
+	
+	private static class Instance {
+		private final PreparedScript pscript;
+		private final int version;
+		
+		private Instance(PreparedScript pscript, int version) {
+			this.pscript = pscript;
+			this.version = version;
+		}
+	}
+}
@@ -549,14 +549,16 @@ public class Types
 		BINARY, // binary block representation (dense/sparse/ultra-sparse)
 		FEDERATED, // A federated matrix
 		PROTO,  // protocol buffer representation
-		HDF5; // Hierarchical Data Format (HDF)
+		HDF5, // Hierarchical Data Format (HDF)
+		COLUMNAR, // single-file columnar frame representation (w/ per-column encoding)
+		PARQUET; // apache parquet (single file or directory of part files)
 		
 		public boolean isIJV() {
 			return this == TEXT || this == MM;
 		}
 		
 		public boolean isTextFormat() {
-			return this != BINARY && this != COMPRESSED;
+			return this != BINARY && this != COMPRESSED && this != COLUMNAR && this != PARQUET;
 		}
 		
 		public static boolean isTextFormat(String fmt) {
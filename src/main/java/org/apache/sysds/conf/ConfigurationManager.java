@@ -191,6 +191,11 @@ public class ConfigurationManager
 		return getDMLConfig().getIntValue(DMLConfig.PARALLEL_ENCODE_APPLY_BLOCKS);
 	}
 
+	public static long getStreamingEncodeBudget(){
+		//budget in MB, <=0 disables streaming transformencode
+		return (long) getDMLConfig().getIntValue(DMLConfig.PARALLEL_ENCODE_STREAM_BUDGET) * 1024 * 1024;
+	}
+
 	public static int getParallelBuildBlocks(){
 		return getDMLConfig().getIntValue(DMLConfig.PARALLEL_ENCODE_BUILD_BLOCKS);
 	}
@@ -208,6 +213,21 @@ public class ConfigurationManager
 			|| getCompilerConfigFlag(ConfigType.CODEGEN_ENABLED));
 	}
 	
+	/**
+	 * Get the configured directory of the persistent codegen class cache.
+	 * 
+	 * @return directory name, or null if disabled
+	 */
+	public static String getCodegenPersistDir() {
+		String dir = getDMLConfig().getTextValue(DMLConfig.CODEGEN_PERSIST_DIR);
+		return (dir == null || dir.isEmpty() || dir.equalsIgnoreCase("none")) ? null : dir;
+	}
+
+	public static long getCodegenPersistSize() {
+		//size cap in MB
+		return (long) getDMLConfig().getIntValue(DMLConfig.CODEGEN_PERSIST_SIZE) * 1024 * 1024;
+	}
+	
 	public static boolean isFederatedRuntimePlanner() {
 		return getCompilerConfigFlag(ConfigType.FEDERATED_RUNTIME);
 	}
@@ -221,6 +241,10 @@ public class ConfigurationManager
 		return CompressConfig.valueOf(getDMLConfig().getTextValue(DMLConfig.COMPRESSED_LINALG).toUpperCase());
 	}
 	
+	public static boolean isMMapEviction() {
+		return getDMLConfig().getBooleanValue(DMLConfig.CACHING_MMAP);
+	}
+	
 	public static int getFederatedTimeout(){
 		return getDMLConfig().getIntValue(DMLConfig.FEDERATED_TIMEOUT);
 	}
@@ -233,11 +257,47 @@ public class ConfigurationManager
 		return getDMLConfig().getBooleanValue(DMLConfig.FEDERATED_READCACHE);
 	}
 
+	public static boolean isFederatedBinaryCodec(){
+		return getDMLConfig().getBooleanValue(DMLConfig.FEDERATED_BINARY_CODEC);
+	}
+
+	public static boolean isFederatedCompression(){
+		return getDMLConfig().getBooleanValue(DMLConfig.FEDERATED_COMPRESSION);
+	}
+
+	public static boolean isFederatedPipeline(){
+		return getDMLConfig().getBooleanValue(DMLConfig.FEDERATED_PIPELINE);
+	}
+
+	public static boolean isParamservAsyncAggregation(){
+		return getDMLConfig().getBooleanValue(DMLConfig.PARAMSERV_ASYNC_AGGREGATION);
+	}
+
+	/**
+	 * Get the configured directory of the persistent lineage cache.
+	 * 
+	 * @return directory name, or null if disabled
+	 */
+	public static String getLineagePersistDir() {
+		String dir = getDMLConfig().getTextValue(DMLConfig.LINEAGE_PERSIST_DIR);
+		return (dir == null || dir.isEmpty() || dir.equalsIgnoreCase("none")) ? null : dir;
+	}
+
+	public static long getLineagePersistSize() {
+		//size cap in MB
+		return (long) getDMLConfig().getIntValue(DMLConfig.LINEAGE_PERSIST_SIZE) * 1024 * 1024;
+	}
+
 	public static boolean isPrefetchEnabled() {
 		return (getDMLConfig().getBooleanValue(DMLConfig.ASYNC_SPARK_PREFETCH)
 			|| OptimizerUtils.ASYNC_PREFETCH_SPARK);
 	}
 
+	public static boolean isAsyncRecompileEnabled() {
+		return (getDMLConfig().getBooleanValue(DMLConfig.ASYNC_RECOMPILE)
+			|| OptimizerUtils.ASYNC_RECOMPILE);
+	}
+
 	public static boolean isMaxPrallelizeEnabled() {
 		return (getLinearizationOrder() == ILinearize.DagLinearization.MAX_PARALLELIZE
 			|| OptimizerUtils.MAX_PARALLELIZE_ORDER);
@@ -75,6 +75,7 @@ public class DMLConfig
 	public static final String PARALLEL_ENCODE_APPLY_BLOCKS = "sysds.parallel.encode.applyBlocks";
 	public static final String PARALLEL_ENCODE_BUILD_BLOCKS = "sysds.parallel.encode.buildBlocks";
 	public static final String PARALLEL_ENCODE_NUM_THREADS  = "sysds.parallel.encode.numThreads";
+	public static final String PARALLEL_ENCODE_STREAM_BUDGET = "sysds.parallel.encode.streamBudget"; // int: MB, streaming transformencode of larger csv inputs (<=0 disabled)
 	public static final String PARALLEL_TOKENIZE = "sysds.parallel.tokenize";
 	public static final String PARALLEL_TOKENIZE_NUM_BLOCKS = "sysds.parallel.tokenize.numBlocks";
 	public static final String COMPRESSED_LINALG    = "sysds.compressed.linalg";
@@ -95,6 +96,8 @@ public class DMLConfig
 	public static final String CODEGEN_OPTIMIZER    = "sysds.codegen.optimizer"; //see SpoofCompiler.PlanSelector
 	public static final String CODEGEN_PLANCACHE    = "sysds.codegen.plancache"; //boolean
 	public static final String CODEGEN_LITERALS     = "sysds.codegen.literals"; //1..heuristic, 2..always
+	public static final String CODEGEN_PERSIST_DIR  = "sysds.codegen.persist.dir"; // string: directory of the persistent codegen class cache, or none
+	public static final String CODEGEN_PERSIST_SIZE = "sysds.codegen.persist.size"; // int: size cap of the persistent codegen class cache in MB
 	public static final String STATS_MAX_WRAP_LEN   = "sysds.stats.maxWrapLength"; //int
 	public static final String AVAILABLE_GPUS       = "sysds.gpu.availableGPUs"; // String to specify which GPUs to use (a range, all GPUs, comma separated list or a specific GPU)
 	public static final String SYNCHRONIZE_GPU      = "sysds.gpu.sync.postProcess"; // boolean: whether to synchronize GPUs after every instruction
@@ -104,8 +107,13 @@ public class DMLConfig
 	public static final String LOCAL_SPARK_NUM_THREADS = "sysds.local.spark.number.threads"; // the number of threads allowed to be used in the local spark configuration, default is * to enable use of all threads.
 	public static final String LINEAGECACHESPILL    = "sysds.lineage.cachespill"; // boolean: whether to spill cache entries to disk
 	public static final String COMPILERASSISTED_RW  = "sysds.lineage.compilerassisted"; // boolean: whether to apply compiler assisted rewrites
+	public static final String LINEAGE_ADMISSION    = "sysds.lineage.admission"; // boolean: whether to filter cache admissions by frequency and compute time
+	public static final String LINEAGE_PERSIST_DIR  = "sysds.lineage.persist.dir"; // string: directory of the persistent lineage cache, or none
+	public static final String LINEAGE_PERSIST_SIZE = "sysds.lineage.persist.size"; // int: size cap of the persistent lineage cache in MB
 	public static final String BUFFERPOOL_LIMIT     = "sysds.caching.bufferpoollimit"; // max buffer pool size in percentage
 	public static final String MEMORY_MANAGER       = "sysds.caching.memorymanager"; // static or unified memory manager
+	public static final String CACHING_OFFHEAP      = "sysds.caching.offheap"; // none, direct, or mmap storage of evicted dense blocks
+	public static final String CACHING_MMAP         = "sysds.caching.mmap"; // boolean: raw memory-mapped eviction of dense/csr blocks
 	
 	// Fraction of available memory to use. The available memory is computer when the GPUContext is created
 	// to handle the tradeoff on calling cudaMemGetInfo too often.
@@ -122,15 +130,24 @@ public class DMLConfig
 	public static final String FEDERATED_PAR_INST = "sysds.federated.par_inst";
 	public static final String FEDERATED_PAR_CONN = "sysds.federated.par_conn";
 	public static final String FEDERATED_READCACHE = "sysds.federated.readcache";
+	public static final String FEDERATED_BINARY_CODEC = "sysds.federated.binarycodec"; // boolean
+	public static final String FEDERATED_COMPRESSION = "sysds.federated.compression"; // boolean
+	public static final String FEDERATED_PIPELINE = "sysds.federated.pipeline"; // boolean
+	public static final String FEDERATED_FAIR_SCHEDULING = "sysds.federated.scheduler.fair"; // boolean
+	public static final String FEDERATED_SCHEDULER_WEIGHTS = "sysds.federated.scheduler.weights"; // host=weight,...
+	public static final String FEDERATED_SESSION_QUOTA = "sysds.federated.session.memquota"; // % of buffer pool
 	public static final String PRIVACY_CONSTRAINT_MOCK = "sysds.federated.priv_mock";
 	/** Trigger frequency of the collecting and parsing statistics process on registered workers for monitoring in seconds */
 	public static final String FEDERATED_MONITOR_FREQUENCY = "sysds.federated.monitorFreq";
 	public static final int DEFAULT_FEDERATED_PORT = 4040; // borrowed default Spark Port
 	public static final int DEFAULT_NUMBER_OF_FEDERATED_WORKER_THREADS = 8;
+	/** Parameter server aggregation of asynchronous (ASP) updates via striped accumulation **/
+	public static final String PARAMSERV_ASYNC_AGGREGATION = "sysds.paramserv.async.aggregation"; // boolean
 	/** Asynchronous triggering of Spark OPs and operator placement **/
 	public static final String ASYNC_SPARK_PREFETCH = "sysds.async.prefetch";  // boolean: enable asynchronous prefetching spark intermediates
 	public static final String ASYNC_SPARK_BROADCAST = "sysds.async.broadcast";  // boolean: enable asynchronous broadcasting CP intermediates
 	public static final String ASYNC_SPARK_CHECKPOINT = "sysds.async.checkpoint";  // boolean: enable asynchronous persisting of Spark intermediates
+	public static final String ASYNC_RECOMPILE = "sysds.async.recompile";  // boolean: enable speculative recompilation of next statement blocks
 	//internal config
 	public static final String DEFAULT_SHARED_DIR_PERMISSION = "777"; //for local fs and DFS
 	
@@ -158,6 +175,7 @@ public class DMLConfig
 		_defaultVals.put(PARALLEL_ENCODE_APPLY_BLOCKS, "-1");
 		_defaultVals.put(PARALLEL_ENCODE_BUILD_BLOCKS, "-1");
 		_defaultVals.put(PARALLEL_ENCODE_NUM_THREADS, "-1");
+		_defaultVals.put(PARALLEL_ENCODE_STREAM_BUDGET, "-1");
 		_defaultVals.put(COMPRESSED_LINALG,      Compression.CompressConfig.FALSE.name() );
 		_defaultVals.put(COMPRESSED_LOSSY,       "false" );
 		_defaultVals.put(COMPRESSED_VALID_COMPRESSIONS, "SDC,DDC");
@@ -174,12 +192,19 @@ public class DMLConfig
 		_defaultVals.put(CODEGEN_OPTIMIZER,      PlanSelector.FUSE_COST_BASED_V2.name());
 		_defaultVals.put(CODEGEN_PLANCACHE,      "true" );
 		_defaultVals.put(CODEGEN_LITERALS,       "1" );
+		_defaultVals.put(CODEGEN_PERSIST_DIR,    "none" );
+		_defaultVals.put(CODEGEN_PERSIST_SIZE,   "64" );
 		_defaultVals.put(NATIVE_BLAS,            "none" );
 		_defaultVals.put(NATIVE_BLAS_DIR,        "none" );
 		_defaultVals.put(LINEAGECACHESPILL,      "true" );
 		_defaultVals.put(COMPILERASSISTED_RW,    "true" );
+		_defaultVals.put(LINEAGE_ADMISSION,      "false" );
+		_defaultVals.put(LINEAGE_PERSIST_DIR,    "none" );
+		_defaultVals.put(LINEAGE_PERSIST_SIZE,   "1024" );
 		_defaultVals.put(BUFFERPOOL_LIMIT,       "15"); // % of total heap
 		_defaultVals.put(MEMORY_MANAGER,         "static"); // static/unified partitioning of heap
+		_defaultVals.put(CACHING_OFFHEAP,        "none"); // none/direct/mmap
+		_defaultVals.put(CACHING_MMAP,           "false" );
 		_defaultVals.put(PRINT_GPU_MEMORY_INFO,  "false" );
 		_defaultVals.put(EVICTION_SHADOW_BUFFERSIZE,  "0.0" );
 		_defaultVals.put(STATS_MAX_WRAP_LEN,     "30" );
@@ -199,11 +224,19 @@ public class DMLConfig
 		_defaultVals.put(FEDERATED_PAR_CONN,     "-1"); // vcores
 		_defaultVals.put(FEDERATED_PAR_INST,     "-1"); // vcores
 		_defaultVals.put(FEDERATED_READCACHE,    "true"); // vcores
+		_defaultVals.put(FEDERATED_BINARY_CODEC, "true"); // probed per worker, fallback to java serialization
+		_defaultVals.put(FEDERATED_COMPRESSION,  "false");
+		_defaultVals.put(FEDERATED_PIPELINE,     "false");
+		_defaultVals.put(FEDERATED_FAIR_SCHEDULING, "false");
+		_defaultVals.put(FEDERATED_SCHEDULER_WEIGHTS, "");
+		_defaultVals.put(FEDERATED_SESSION_QUOTA, "100");
 		_defaultVals.put(FEDERATED_MONITOR_FREQUENCY, "3");
 		_defaultVals.put(PRIVACY_CONSTRAINT_MOCK, null);
+		_defaultVals.put(PARAMSERV_ASYNC_AGGREGATION, "false");
 		_defaultVals.put(ASYNC_SPARK_PREFETCH,   "false" );
 		_defaultVals.put(ASYNC_SPARK_BROADCAST,  "false" );
 		_defaultVals.put(ASYNC_SPARK_CHECKPOINT,  "false" );
+		_defaultVals.put(ASYNC_RECOMPILE,  "false" );
 	}
 	
 	public DMLConfig() {
@@ -452,12 +485,13 @@ public class DMLConfig
 			COMPRESSED_SAMPLING_RATIO, COMPRESSED_SOFT_REFERENCE_COUNT,
 			COMPRESSED_COCODE, COMPRESSED_TRANSPOSE, DAG_LINEARIZATION,
 			CODEGEN, CODEGEN_API, CODEGEN_COMPILER, CODEGEN_OPTIMIZER, CODEGEN_PLANCACHE, CODEGEN_LITERALS,
-			STATS_MAX_WRAP_LEN, LINEAGECACHESPILL, COMPILERASSISTED_RW, BUFFERPOOL_LIMIT, MEMORY_MANAGER,
+			CODEGEN_PERSIST_DIR, CODEGEN_PERSIST_SIZE,
+			STATS_MAX_WRAP_LEN, LINEAGECACHESPILL, COMPILERASSISTED_RW, LINEAGE_ADMISSION, LINEAGE_PERSIST_DIR, LINEAGE_PERSIST_SIZE, BUFFERPOOL_LIMIT, MEMORY_MANAGER,
 			PRINT_GPU_MEMORY_INFO, AVAILABLE_GPUS, SYNCHRONIZE_GPU, EAGER_CUDA_FREE, FLOATING_POINT_PRECISION,
 			GPU_EVICTION_POLICY, LOCAL_SPARK_NUM_THREADS, EVICTION_SHADOW_BUFFERSIZE, GPU_MEMORY_ALLOCATOR,
 			GPU_MEMORY_UTILIZATION_FACTOR, USE_SSL_FEDERATED_COMMUNICATION, DEFAULT_FEDERATED_INITIALIZATION_TIMEOUT,
 			FEDERATED_TIMEOUT, FEDERATED_MONITOR_FREQUENCY, ASYNC_SPARK_PREFETCH, ASYNC_SPARK_BROADCAST,
-			ASYNC_SPARK_CHECKPOINT
+			ASYNC_SPARK_CHECKPOINT, ASYNC_RECOMPILE
 		}; 
 		
 		StringBuilder sb = new StringBuilder();
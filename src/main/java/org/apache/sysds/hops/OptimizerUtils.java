@@ -169,6 +169,21 @@ public class OptimizerUtils
 
 	public static boolean ALLOW_RAND_JOB_RECOMPILE = true;
 
+	/**
+	 * Maximum number of cached recompiled instruction lists per statement block,
+	 * which are reused if the hop DAG inputs have the same size characteristics
+	 * (0 disables the recompile cache).
+	 */
+	public static int RECOMPILE_CACHE_SIZE = 8;
+
+	/**
+	 * Enables speculative recompilation of the next statement blocks on a
+	 * background thread, based on the predicted output statistics of the
+	 * current block. Results are put into the recompile cache and thus only
+	 * reused if the actual input characteristics match at execution time.
+	 */
+	public static boolean ASYNC_RECOMPILE = false;
+
 	/**
 	 * Enables parfor runtime piggybacking of MR jobs into the packed jobs for
 	 * scan sharing.
@@ -482,7 +482,7 @@ public class LiteralReplacement
 		return value;
 	}
 	
-	private static boolean isReplaceableUnaryAggregate( AggUnaryOp auop ) {
+	protected static boolean isReplaceableUnaryAggregate( AggUnaryOp auop ) {
 		boolean cdir = (auop.getDirection() == Direction.RowCol);
 		boolean cop = (auop.getOp() == AggOp.SUM
 			|| auop.getOp() == AggOp.SUM_SQ
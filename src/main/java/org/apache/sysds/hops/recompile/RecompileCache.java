@@ -0,0 +1,416 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.hops.recompile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.common.Types.OpOp1;
+import org.apache.sysds.common.Types.OpOp2;
+import org.apache.sysds.common.Types.OpOpData;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.hops.AggUnaryOp;
+import org.apache.sysds.hops.BinaryOp;
+import org.apache.sysds.hops.DataOp;
+import org.apache.sysds.hops.Hop;
+import org.apache.sysds.hops.IndexingOp;
+import org.apache.sysds.hops.MultiThreadedHop;
+import org.apache.sysds.hops.OptimizerUtils;
+import org.apache.sysds.hops.UnaryOp;
+import org.apache.sysds.hops.rewrite.HopRewriteUtils;
+import org.apache.sysds.runtime.controlprogram.LocalVariableMap;
+import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysds.runtime.controlprogram.caching.FrameObject;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.instructions.Instruction;
+import org.apache.sysds.runtime.instructions.cp.CPInstruction;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.cp.ScalarObject;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.utils.stats.RecompileStatistics;
+
+/**
+ * Bounded cache of recompiled instructions of a single statement block,
+ * which allows loops with stable input characteristics to skip repeated
+ * recompilation of their hop DAGs.
+ * 
+ * Entries are keyed by a signature of the (unmodified) hop DAG and its
+ * inputs: dimensions and nnz buckets of matrices and frames, and values of
+ * scalars (which are replaced by literals). Scalars that change between
+ * executions (e.g., loop counters) but only feed element-wise operations
+ * are excluded from both the signature and literal replacement. Plans that are only valid for
+ * the exact nnz (e.g., non-CP instructions with compile-time nnz meta data,
+ * or rewrites that turn the nnz into literals) additionally require an exact
+ * match. DAGs that are subject to data-dependent literal replacement (e.g.,
+ * as.scalar or small full aggregates of inputs) or that read lists,
+ * tensors, or files with unknown size are not cached. Entries can also be
+ * populated ahead of execution by the {@link SpeculativeRecompiler}.
+ */
+public class RecompileCache
+{
+	private final LinkedHashMap<String, Entry> _entries;
+	private final HashMap<String, String> _scalars = new HashMap<>();
+	private final HashSet<String> _volatile = new HashSet<>();
+	private boolean _lastHit = false;
+	private volatile Future<?> _pending = null;
+	
+	public RecompileCache() {
+		_entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = -3411622826377455297L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > OptimizerUtils.RECOMPILE_CACHE_SIZE;
+			}
+		};
+	}
+	
+	public static boolean isEnabled() {
+		return OptimizerUtils.RECOMPILE_CACHE_SIZE > 0;
+	}
+	
+	/**
+	 * Obtains the cached instructions for the given signature.
+	 * 
+	 * @param sig signature of hop DAG and inputs
+	 * @return copy of the list of instructions, or null
+	 */
+	public ArrayList<Instruction> get(Signature sig) {
+		Entry e = _entries.get(sig.bucketed);
+		ArrayList<Instruction> ret = (e != null && (e.exact == null
+			|| e.exact.equals(sig.exact))) ? new ArrayList<>(e.inst) : null;
+		_lastHit = (ret != null);
+		if( DMLScript.STATISTICS ) {
+			if( ret != null )
+				RecompileStatistics.incrementRecompileCacheHits();
+			else
+				RecompileStatistics.incrementRecompileCacheMisses();
+			if( ret != null && e.speculative )
+				RecompileStatistics.incrementSpeculativeHits();
+		}
+		if( ret != null )
+			e.speculative = false;
+		return ret;
+	}
+	
+	/**
+	 * Indicates if the cache contains instructions for the given signature,
+	 * without affecting the statistics and eviction order.
+	 * 
+	 * @param sig signature of hop DAG and inputs
+	 * @return true if contained
+	 */
+	public boolean contains(Signature sig) {
+		Entry e = _entries.get(sig.bucketed);
+		return e != null && (e.exact == null || e.exact.equals(sig.exact));
+	}
+	
+	/**
+	 * Indicates if the last probe of this cache returned cached instructions.
+	 * 
+	 * @return true if the last probe was a hit
+	 */
+	public boolean isLastProbeHit() {
+		return _lastHit;
+	}
+	
+	/**
+	 * Puts the recompiled instructions for the given signature into the
+	 * cache, evicting the least recently used entry if necessary.
+	 * 
+	 * @param sig signature of hop DAG and inputs
+	 * @param inst list of instructions
+	 */
+	public void put(Signature sig, ArrayList<Instruction> inst) {
+		put(sig, inst, false);
+	}
+	
+	/**
+	 * Puts the recompiled instructions for the given signature into the
+	 * cache, evicting the least recently used entry if necessary.
+	 * 
+	 * @param sig signature of hop DAG and inputs
+	 * @param inst list of instructions
+	 * @param speculative true if recompiled for predicted inputs
+	 */
+	public void put(Signature sig, ArrayList<Instruction> inst, boolean speculative) {
+		boolean exact = sig.requiresExact
+			|| inst.stream().anyMatch(i -> !(i instanceof CPInstruction));
+		_entries.put(sig.bucketed, new Entry(exact ? sig.exact : null,
+			new ArrayList<>(inst), speculative));
+	}
+	
+	/**
+	 * Sets the pending speculative recompilation of this statement block,
+	 * which is awaited before the next probe of the cache.
+	 * 
+	 * @param future future of the background recompilation
+	 */
+	public void setPending(Future<?> future) {
+		_pending = future;
+	}
+	
+	/**
+	 * Waits for a pending speculative recompilation of this statement block,
+	 * in order to reuse its result instead of recompiling concurrently.
+	 */
+	public void waitForPending() {
+		Future<?> f = _pending;
+		if( f == null )
+			return;
+		try {
+			f.get();
+		}
+		catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		catch(ExecutionException | CancellationException ex) {
+			//ignore failed speculation, recompile as usual
+		}
+		_pending = null;
+	}
+	
+	public int size() {
+		return _entries.size();
+	}
+	
+	/**
+	 * Creates the signature of the given hop DAG and the characteristics of its
+	 * inputs in the given symbol table. Scalars whose values changed between
+	 * executions and that only feed element-wise operations or writes are
+	 * marked volatile and excluded from the signature; see
+	 * {@link Signature#getRecompileVariables(LocalVariableMap)}.
+	 * 
+	 * @param hops list of DAG root nodes
+	 * @param vars symbol table
+	 * @return signature, or null if the recompiled instructions cannot be reused
+	 */
+	public Signature createSignature(ArrayList<Hop> hops, LocalVariableMap vars) {
+		return createSignature(hops, vars, false);
+	}
+	
+	/**
+	 * Creates the signature of the given hop DAG and the characteristics of its
+	 * inputs in the given symbol table. Signatures of speculative probes (for
+	 * predicted symbol tables) leave the tracked scalar values, volatile scalars,
+	 * and last probe state untouched, so mispredictions do not affect the plans
+	 * of subsequent executions.
+	 * 
+	 * @param hops list of DAG root nodes
+	 * @param vars symbol table
+	 * @param speculative true if the symbol table is predicted
+	 * @return signature, or null if the recompiled instructions cannot be reused
+	 */
+	public Signature createSignature(ArrayList<Hop> hops, LocalVariableMap vars, boolean speculative) {
+		if( !speculative )
+			_lastHit = false;
+		Signature sig = new Signature();
+		sig.append(DMLScript.getGlobalExecMode().name())
+			.append(Double.doubleToLongBits(OptimizerUtils.getLocalMemBudget()))
+			.append(ConfigurationManager.isCodegenEnabled() ? 1 : 0);
+		Hop.resetVisitStatus(hops);
+		boolean valid = true;
+		for( Hop root : hops )
+			valid &= rAppendSignature(root, vars, sig, speculative);
+		Hop.resetVisitStatus(hops);
+		return valid ? sig.finish() : null;
+	}
+	
+	private boolean rAppendSignature(Hop hop, LocalVariableMap vars, Signature sig, boolean speculative) {
+		if( hop.isVisited() )
+			return true;
+		for( Hop c : hop.getInput() )
+			if( !rAppendSignature(c, vars, sig, speculative) )
+				return false;
+		if( isDataDependentLiteralReplacement(hop) )
+			return false;
+		//rewrite of sum(X!=0) into a literal nnz
+		if( hop instanceof AggUnaryOp && HopRewriteUtils.isBinary(hop.getInput(0), OpOp2.NOTEQUAL) )
+			sig.requiresExact = true;
+		
+		//hop DAG state, which might be modified in-place by the optimizer
+		sig.append(hop.getHopID()).append(hop.getForcedExecType() != null ?
+			hop.getForcedExecType().name() : "-")
+			.append(hop.getDim1()).append(hop.getDim2()).append(hop.getNnz());
+		if( hop instanceof MultiThreadedHop )
+			sig.append(((MultiThreadedHop) hop).getMaxNumThreads());
+		
+		//characteristics of inputs
+		if( HopRewriteUtils.isData(hop, OpOpData.TRANSIENTREAD) ) {
+			Data dat = vars.get(hop.getName());
+			if( dat instanceof MatrixObject ) {
+				MatrixObject mo = (MatrixObject) dat;
+				sig.append(mo.getNumRows()).append(mo.getNumColumns())
+					.appendNnz(mo.getNumRows(), mo.getNumColumns(), mo.getNnz())
+					.append(mo.isCompressed() ? mo.getCompressedSize() : -1);
+				appendCacheState(mo, sig);
+				sig.unknownInputs |= !mo.getDataCharacteristics().dimsKnown();
+			}
+			else if( dat instanceof FrameObject ) {
+				FrameObject fo = (FrameObject) dat;
+				sig.append(fo.getNumRows()).append(fo.getNumColumns());
+				appendCacheState(fo, sig);
+				sig.unknownInputs |= !fo.getDataCharacteristics().dimsKnown();
+			}
+			else if( dat instanceof ScalarObject ) {
+				ScalarObject so = (ScalarObject) dat;
+				String value = so.getStringValue();
+				if( !speculative ) {
+					String prev = _scalars.put(hop.getName(), value);
+					if( prev != null && !prev.equals(value) && rIsElementwiseOnly(hop) )
+						_volatile.add(hop.getName());
+				}
+				if( _volatile.contains(hop.getName()) ) {
+					sig.append(so.getValueType().name()).append("?");
+					sig.volatileVars.add(hop.getName());
+				}
+				else
+					sig.append(so.getValueType().name()).append(value);
+			}
+			else if( dat != null ) //lists, tensors
+				return false;
+			else {
+				sig.append("null");
+				sig.unknownInputs = true;
+			}
+		}
+		else if( HopRewriteUtils.isData(hop, OpOpData.PERSISTENTREAD) && !hop.dimsKnown() )
+			return false; //read of meta data during recompile
+		
+		hop.setVisited();
+		return true;
+	}
+	
+	private static boolean rIsElementwiseOnly(Hop hop) {
+		//scalars that do not affect sizes or operator selection, i.e., only
+		//feed (chains of) element-wise operations or transient writes
+		for( Hop p : hop.getParent() ) {
+			if( HopRewriteUtils.isData(p, OpOpData.TRANSIENTWRITE) )
+				continue;
+			if( !(p instanceof BinaryOp || p instanceof UnaryOp) )
+				return false;
+			if( p.getDataType().isScalar() && !rIsElementwiseOnly(p) )
+				return false;
+		}
+		return true;
+	}
+	
+	private static void appendCacheState(CacheableData<?> cd, Signature sig) {
+		sig.append((!cd.isCached(true) && cd.getRDDHandle() != null) ? 1 : 0)
+			.append(cd.isFederated() ? 1 : 0);
+	}
+	
+	private static boolean isDataDependentLiteralReplacement(Hop hop) {
+		//see LiteralReplacement: as.scalar and full aggregates of (indexed)
+		//matrix reads are replaced by literals of the actual data
+		Hop in = (hop.getInput().size() == 1) ? hop.getInput(0) : null;
+		Hop in2 = (in instanceof IndexingOp) ? in.getInput(0) : in;
+		boolean candidate = (HopRewriteUtils.isUnary(hop, OpOp1.CAST_AS_SCALAR)
+			|| (hop instanceof AggUnaryOp && LiteralReplacement.isReplaceableUnaryAggregate((AggUnaryOp) hop)));
+		return candidate && in2 instanceof DataOp;
+	}
+	
+	public static class Signature {
+		private final StringBuilder _common = new StringBuilder();
+		private final HashSet<String> volatileVars = new HashSet<>();
+		private final StringBuilder _exactNnz = new StringBuilder();
+		private String bucketed = null;
+		private String exact = null;
+		private boolean requiresExact = false;
+		private boolean unknownInputs = false;
+		
+		private Signature append(Object value) {
+			_common.append(value).append(',');
+			return this;
+		}
+		
+		private Signature appendNnz(long rows, long cols, long nnz) {
+			_common.append(getNnzBucket(rows, cols, nnz)).append(',');
+			_exactNnz.append(nnz).append(',');
+			return this;
+		}
+		
+		private static String getNnzBucket(long rows, long cols, long nnz) {
+			if( nnz <= 0 || rows <= 0 || cols <= 0 )
+				return String.valueOf(nnz); //unknown or empty
+			if( nnz == rows * cols )
+				return "F"; //fully dense
+			//quarter-log2 buckets, separated by sparse/dense representation
+			return (MatrixBlock.evalSparseFormatInMemory(rows, cols, nnz) ? "S" : "D")
+				+ (int) Math.floor(Math.log(nnz) / Math.log(2) * 4);
+		}
+		
+		private Signature finish() {
+			bucketed = _common.toString();
+			exact = bucketed + "|" + _exactNnz.toString();
+			return this;
+		}
+		
+		/**
+		 * Gets the symbol table for recompilation, which excludes volatile
+		 * scalars in order to prevent their replacement by literals.
+		 * 
+		 * @param vars symbol table
+		 * @return symbol table w/o volatile scalars
+		 */
+		public LocalVariableMap getRecompileVariables(LocalVariableMap vars) {
+			if( volatileVars.isEmpty() )
+				return vars;
+			LocalVariableMap ret = new LocalVariableMap(vars);
+			for( String name : volatileVars )
+				ret.remove(name);
+			return ret;
+		}
+		
+		/**
+		 * Indicates if the signature includes reads of variables that do not
+		 * exist or have unknown dimensions.
+		 * 
+		 * @return true if inputs are unknown
+		 */
+		public boolean hasUnknownInputs() {
+			return unknownInputs;
+		}
+		
+		@Override
+		public String toString() {
+			return exact;
+		}
+	}
+	
+	private static class Entry {
+		private final String exact;
+		private final ArrayList<Instruction> inst;
+		private boolean speculative;
+		
+		private Entry(String exact, ArrayList<Instruction> inst, boolean speculative) {
+			this.exact = exact;
+			this.inst = inst;
+			this.speculative = speculative;
+		}
+	}
+}
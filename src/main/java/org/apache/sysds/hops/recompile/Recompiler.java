@@ -152,10 +152,28 @@ public class Recompiler {
 	{
 		ArrayList<Instruction> newInst = null;
 
+		//probe cache of recompiled instructions w/ equivalent inputs
+		//(not for parfor workers and in-place recompilation w/ status),
+		//after a pending speculative recompilation of this DAG completed
+		RecompileCache cache = (sb != null && status == null && !inplace && replaceLit
+			&& !ProgramBlock.isThreadID(tid) && RecompileCache.isEnabled()) ?
+			sb.getRecompileCache() : null;
+		if( cache != null )
+			cache.waitForPending();
+		
 		//need for synchronization as we do temp changes in shared hops/lops
 		//however, we create deep copies for most dags to allow for concurrent recompile
 		synchronized( hops ) {
-			newInst = recompile(sb, hops, ec, status, inplace, replaceLit, true, false, false, null, tid);
+			RecompileCache.Signature sig = (cache != null) ?
+				cache.createSignature(hops, ec.getVariables()) : null;
+			newInst = (sig != null) ? cache.get(sig) : null;
+			if( newInst == null && sig != null ) {
+				newInst = recompile(sb, hops, sig.getRecompileVariables(ec.getVariables()),
+					status, inplace, replaceLit, true, false, false, null, tid);
+				cache.put(sig, newInst);
+			}
+			else if( newInst == null )
+				newInst = recompile(sb, hops, ec, status, inplace, replaceLit, true, false, false, null, tid);
 		}
 		
 		// replace thread ids in new instructions
@@ -173,6 +191,29 @@ public class Recompiler {
 		return newInst;
 	}
 
+	/**
+	 * Recompiles the given hop DAG for a predicted symbol table and puts the
+	 * resulting instructions into the recompile cache of the statement block,
+	 * where they are reused if the actual inputs match at execution time.
+	 * 
+	 * @param sb statement block
+	 * @param hops list of DAG root nodes
+	 * @param vars predicted symbol table
+	 * @return true if the DAG was recompiled
+	 */
+	public static boolean recompileHopsDagSpeculative( StatementBlock sb, ArrayList<Hop> hops, LocalVariableMap vars ) {
+		synchronized( hops ) {
+			RecompileCache cache = sb.getRecompileCache();
+			RecompileCache.Signature sig = cache.createSignature(hops, vars, true);
+			if( sig == null || sig.hasUnknownInputs() || cache.contains(sig) )
+				return false;
+			ArrayList<Instruction> newInst = recompile(sb, hops, sig.getRecompileVariables(vars),
+				null, false, true, true, false, false, null, 0);
+			cache.put(sig, newInst, true);
+		}
+		return true;
+	}
+
 	public static ArrayList<Instruction> recompileHopsDag( StatementBlock sb, ArrayList<Hop> hops, 
 			LocalVariableMap vars, RecompileStatus status, boolean inplace, boolean replaceLit, long tid ) 
 	{
@@ -306,6 +347,10 @@ public class Recompiler {
 			&& !(forceEt && et == null ) //not on reset
 			&& SpoofCompiler.RECOMPILE_CODEGEN;
 		
+		// drop cached instructions of DAGs modified in place
+		if( inplace && sb != null )
+			sb.clearRecompileCache();
+		
 		// prepare hops dag for recompile
 		if( !inplace ){ 
 			// deep copy hop dag (for non-reversable rewrites)
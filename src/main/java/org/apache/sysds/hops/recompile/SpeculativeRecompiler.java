@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.hops.recompile;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.conf.CompilerConfig;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.hops.Hop;
+import org.apache.sysds.parser.StatementBlock;
+import org.apache.sysds.runtime.controlprogram.BasicProgramBlock;
+import org.apache.sysds.runtime.controlprogram.ForProgramBlock;
+import org.apache.sysds.runtime.controlprogram.IfProgramBlock;
+import org.apache.sysds.runtime.controlprogram.LocalVariableMap;
+import org.apache.sysds.runtime.controlprogram.ParForProgramBlock;
+import org.apache.sysds.runtime.controlprogram.ProgramBlock;
+import org.apache.sysds.runtime.controlprogram.WhileProgramBlock;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.meta.DataCharacteristics;
+import org.apache.sysds.utils.stats.RecompileStatistics;
+
+/**
+ * Speculative recompilation of the next statement blocks on a background
+ * thread, while the current block executes. The inputs of the next blocks are
+ * predicted from the current symbol table and the output statistics of the
+ * current block (outputs of unknown size retain their previous size, outputs
+ * of unknown nnz are assumed dense). The resulting instructions are put into
+ * the recompile cache of the next blocks, and thus, only reused if the actual
+ * input characteristics still match at execution time.
+ */
+public class SpeculativeRecompiler
+{
+	private static final Log LOG = LogFactory.getLog(SpeculativeRecompiler.class.getName());
+	
+	private static ExecutorService _pool = null;
+	
+	public static boolean isEnabled() {
+		return ConfigurationManager.isAsyncRecompileEnabled()
+			&& ConfigurationManager.isDynamicRecompilation()
+			&& RecompileCache.isEnabled();
+	}
+	
+	/**
+	 * Submits the speculative recompilation of the statement blocks executed
+	 * after the given statement block: the next basic block, or the first basic
+	 * blocks of a subsequent if, while, or for (but not parfor) block.
+	 * 
+	 * @param sb current statement block (after recompilation)
+	 * @param next next program block
+	 * @param vars current symbol table
+	 */
+	public static void submit(StatementBlock sb, ProgramBlock next, LocalVariableMap vars) {
+		ArrayList<StatementBlock> targets = new ArrayList<>();
+		if( next instanceof IfProgramBlock ) {
+			addTarget(((IfProgramBlock)next).getChildBlocksIfBody(), targets);
+			addTarget(((IfProgramBlock)next).getChildBlocksElseBody(), targets);
+		}
+		else if( next instanceof WhileProgramBlock
+			|| (next instanceof ForProgramBlock && !(next instanceof ParForProgramBlock)) )
+			addTarget(next.getChildBlocks(), targets);
+		else if( next instanceof BasicProgramBlock )
+			addTarget(next, targets);
+		if( targets.isEmpty() || sb.getHops() == null )
+			return;
+		
+		//snapshot of symbol table and thread-local configurations
+		LocalVariableMap snapshot = new LocalVariableMap(vars);
+		DMLConfig dconf = ConfigurationManager.getDMLConfig();
+		CompilerConfig cconf = ConfigurationManager.getCompilerConfig();
+		Future<?> f = getPool().submit(() -> {
+			ConfigurationManager.setLocalConfig(dconf);
+			ConfigurationManager.setLocalConfig(cconf);
+			try {
+				LocalVariableMap pvars = getPredictedVariables(sb, snapshot);
+				for( StatementBlock target : targets )
+					if( Recompiler.recompileHopsDagSpeculative(target, target.getHops(), pvars)
+						&& DMLScript.STATISTICS )
+						RecompileStatistics.incrementSpeculativeSB();
+			}
+			catch(Exception ex) {
+				LOG.debug("Failed speculative recompilation.", ex);
+			}
+		});
+		for( StatementBlock target : targets )
+			target.getRecompileCache().setPending(f);
+	}
+	
+	private static void addTarget(ArrayList<ProgramBlock> pbs, ArrayList<StatementBlock> targets) {
+		if( pbs != null && !pbs.isEmpty() )
+			addTarget(pbs.get(0), targets);
+	}
+	
+	private static void addTarget(ProgramBlock pb, ArrayList<StatementBlock> targets) {
+		StatementBlock sb = pb.getStatementBlock();
+		if( pb instanceof BasicProgramBlock && !pb.hasThreadID() && sb != null
+			&& sb.getHops() != null && sb.requiresRecompilation() )
+			targets.add(sb);
+	}
+	
+	private static LocalVariableMap getPredictedVariables(StatementBlock sb, LocalVariableMap vars) {
+		//propagate statistics through a copy of the current DAG
+		ArrayList<Hop> hops = null;
+		synchronized( sb.getHops() ) {
+			hops = Recompiler.deepCopyHopsDag(sb.getHops());
+		}
+		Hop.resetVisitStatus(hops);
+		for( Hop hopRoot : hops )
+			Recompiler.rReplaceLiterals(hopRoot, vars, true);
+		Hop.resetVisitStatus(hops);
+		for( Hop hopRoot : hops )
+			Recompiler.rUpdateStatistics(hopRoot, vars);
+		
+		//extract output statistics, w/ unknown sizes retained from
+		//previous values and unknown nnz set to the dense worst-case
+		LocalVariableMap ret = new LocalVariableMap(vars);
+		Recompiler.extractDAGOutputStatistics(hops, ret, true);
+		for( String varName : new ArrayList<>(ret.keySet()) ) {
+			Data dat = ret.get(varName);
+			if( !(dat instanceof MatrixObject) || dat == vars.get(varName) )
+				continue;
+			DataCharacteristics dc = ((MatrixObject) dat).getDataCharacteristics();
+			if( !dc.dimsKnown() && vars.get(varName) != null )
+				ret.put(varName, vars.get(varName));
+			else if( !dc.dimsKnown() )
+				ret.remove(varName);
+			else if( !dc.nnzKnown() )
+				dc.setNonZeros(dc.getRows() * dc.getCols());
+		}
+		return ret;
+	}
+	
+	private static synchronized ExecutorService getPool() {
+		//single daemon thread, which does not block the JVM shutdown
+		if( _pool == null ) {
+			_pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), r -> {
+					Thread t = new Thread(r, "SystemDS-SpeculativeRecompiler");
+					t.setDaemon(true);
+					return t;
+				});
+		}
+		return _pool;
+	}
+}
@@ -1054,6 +1054,8 @@ public class DMLTranslator
 						case CSV:
 						case LIBSVM:
 						case HDF5:
+						case COLUMNAR:
+						case PARQUET:
 							// write output in textcell format
 							ae.setOutputParams(ae.getDim1(), ae.getDim2(), ae.getNnz(), ae.getUpdateType(), -1);
 							break;
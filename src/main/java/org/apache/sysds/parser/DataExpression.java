@@ -19,6 +19,7 @@
 
 package org.apache.sysds.parser;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -46,6 +47,8 @@ import org.apache.sysds.parser.dml.CustomErrorListener;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.apache.sysds.runtime.io.FileFormatPropertiesMM;
+import org.apache.sysds.runtime.io.ParquetUtils;
+import org.apache.sysds.runtime.io.ParquetUtils.ParquetInfo;
 import org.apache.sysds.runtime.io.IOUtilFunctions;
 import org.apache.sysds.runtime.meta.MetaDataAll;
 import org.apache.sysds.runtime.privacy.PrivacyConstraint;
@@ -1164,6 +1167,26 @@ public class DataExpression extends DataIdentifier
 				handleCSVDefaultParam(LIBSVM_INDEX_DELIM, ValueType.STRING, conditional);
 			}
 			
+			boolean isParquet = (formatTypeString != null && formatTypeString.equalsIgnoreCase(FileFormat.PARQUET.toString()));
+			if (isParquet && (getVarParam(READROWPARAM) == null || getVarParam(READCOLPARAM) == null)
+				&& HDFSTool.existsFileOnHDFS(inputFileName)) {
+				// infer dimensions, nnz, and frame schema from the parquet footers (w/o data pass)
+				try {
+					ParquetInfo info = ParquetUtils.readInfo(inputFileName);
+					addVarParam(READROWPARAM, new IntIdentifier(info.rows, this));
+					addVarParam(READCOLPARAM, new IntIdentifier(info.getNumColumns(), this));
+					if( info.nnz >= 0 && getVarParam(READNNZPARAM) == null )
+						addVarParam(READNNZPARAM, new IntIdentifier(info.nnz, this));
+					if( dataTypeString != null && dataTypeString.equalsIgnoreCase(Statement.FRAME_DATA_TYPE)
+						&& getVarParam(SCHEMAPARAM) == null )
+						addVarParam(SCHEMAPARAM, new StringIdentifier(ParquetUtils.toSchemaString(info.schema), this));
+				}
+				catch(IOException ex) {
+					raiseValidateError("Failed to read parquet meta data of " + inputFileName
+						+ ": " + ex.getMessage(), conditional);
+				}
+			}
+
 			boolean isHDF5 = (formatTypeString != null && formatTypeString.equalsIgnoreCase(FileFormat.HDF5.toString()));
 
 			dataTypeString = (getVarParam(DATATYPEPARAM) == null) ? null : getVarParam(DATATYPEPARAM).toString();
@@ -1325,7 +1348,9 @@ public class DataExpression extends DataIdentifier
 				}
 			
 			//validate read filename
-			if (getVarParam(FORMAT_TYPE) == null || FileFormat.isTextFormat(getVarParam(FORMAT_TYPE).toString()))
+			if (getVarParam(FORMAT_TYPE) == null || FileFormat.isTextFormat(getVarParam(FORMAT_TYPE).toString())
+				|| getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FileFormat.COLUMNAR.toString())
+				|| getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FileFormat.PARQUET.toString()))
 				getOutput().setBlocksize(-1);
 			else if (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FileFormat.BINARY.toString()) || getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FileFormat.COMPRESSED.toString())) {
 				if( getVarParam(ROWBLOCKCOUNTPARAM)!=null )
@@ -29,6 +29,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
@@ -46,6 +47,9 @@ public abstract class ParserWrapper {
 	protected boolean atLeastOneWarning = false;
 	protected List<ParseIssue> parseIssues;
 	private static FileSystem fs = null;
+	
+	//scripts read by the current thread (e.g., sourced and builtin scripts), if tracked
+	private static final ThreadLocal<Map<String, String>> _readScripts = new ThreadLocal<>();
 
 	public abstract DMLProgram parse(String fileName, String dmlScript, Map<String, String> argVals);
 
@@ -81,8 +85,41 @@ public abstract class ParserWrapper {
 	}
 	
 	
+	/**
+	 * Starts or stops tracking all scripts read by the current thread via
+	 * {@link #readDMLScript(String, Log)}, e.g., for detecting changes of
+	 * sourced and builtin scripts of compiled plans.
+	 * 
+	 * @param track true to start tracking (clears previously tracked scripts)
+	 */
+	public static void setTrackReadScripts(boolean track) {
+		if( track )
+			_readScripts.set(new TreeMap<>());
+		else
+			_readScripts.remove();
+	}
+	
+	/**
+	 * Obtains the scripts read by the current thread since tracking started.
+	 * 
+	 * @return map of script paths to script strings, or null if not tracked
+	 */
+	public static Map<String, String> getReadScripts() {
+		return _readScripts.get();
+	}
+	
 	public static String readDMLScript( String script, Log LOG) 
 			throws IOException, LanguageException
+	{
+		String ret = readDMLScriptIntern(script, LOG);
+		Map<String, String> tracked = _readScripts.get();
+		if( tracked != null )
+			tracked.put(script, ret);
+		return ret;
+	}
+	
+	private static String readDMLScriptIntern( String script, Log LOG) 
+			throws IOException, LanguageException
 	{
 		String dmlScriptStr = null;
 		
@@ -78,6 +78,20 @@ public abstract class Statement implements ParseInfo
 	public static final String PS_NBATCHES = "nbatches";
 	public static final String PS_HE = "he";
 	public static final String PS_NUM_BACKUP_WORKERS = "num_backup_workers";
+	public static final String PS_GRAD_COMPRESSION = "compression";
+	public enum PSGradCompression {
+		NONE, // dense gradients
+		TOPK, // top-k sparsification w/ error feedback
+		QUANT8, // 8-bit quantization w/ error feedback
+		TOPK_QUANT8; // top-k sparsification and 8-bit quantization of the kept values
+		public boolean isTopK() {
+			return this == TOPK || this == TOPK_QUANT8;
+		}
+		public boolean isQuantized() {
+			return this == QUANT8 || this == TOPK_QUANT8;
+		}
+	}
+	public static final String PS_GRAD_COMPRESSION_RATIO = "compression_ratio";
 
 	public enum PSModeType {
 		FEDERATED, LOCAL, REMOTE_SPARK
@@ -132,6 +146,9 @@ public abstract class Statement implements ParseInfo
 	public static final String PS_FED_GRADIENTS_FNAME = "1701-NCC-gradients_fname";
 	public static final String PS_FED_AGGREGATION_FNAME = "1701-NCC-aggregation_fname";
 	public static final String PS_FED_MODEL_VARID = "1701-NCC-model_varid";
+	public static final String PS_FED_GRAD_COMPRESSION = "1701-NCC-grad_compression";
+	public static final String PS_FED_GRAD_COMPRESSION_RATIO = "1701-NCC-grad_compression_ratio";
+	public static final String PS_FED_GRAD_RESIDUALS = "1701-NCC-grad_residuals";
 
 	public abstract boolean controlStatement();
 	
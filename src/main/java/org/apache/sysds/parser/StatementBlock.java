@@ -31,6 +31,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.conf.ConfigurationManager;
 import org.apache.sysds.hops.FunctionOp;
 import org.apache.sysds.hops.Hop;
+import org.apache.sysds.hops.recompile.RecompileCache;
 import org.apache.sysds.hops.recompile.Recompiler;
 import org.apache.sysds.hops.rewrite.StatementBlockRewriteRule;
 import org.apache.sysds.lops.Lop;
@@ -64,6 +65,7 @@ public class StatementBlock extends LiveVariableAnalysis implements ParseInfo
 	private boolean _requiresRecompile = false;
 	private boolean _splitDag = false;
 	private boolean _nondeterministic = false;
+	private RecompileCache _recompileCache = null;
 
 	protected double repetitions = 1;
 	public final static double DEFAULT_LOOP_REPETITIONS = 10;
@@ -157,6 +159,23 @@ public class StatementBlock extends LiveVariableAnalysis implements ParseInfo
 
 	public void setHops(ArrayList<Hop> hops) {
 		_hops = hops;
+		_recompileCache = null;
+	}
+
+	/**
+	 * Gets the cache of recompiled instructions of this statement block,
+	 * which is created on demand and dropped whenever the hops change.
+	 * 
+	 * @return recompile cache
+	 */
+	public synchronized RecompileCache getRecompileCache() {
+		if( _recompileCache == null )
+			_recompileCache = new RecompileCache();
+		return _recompileCache;
+	}
+
+	public synchronized void clearRecompileCache() {
+		_recompileCache = null;
 	}
 
 	public void setLops(ArrayList<Lop> lops) {
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.codegen;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.hops.codegen.SpoofCompiler;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.util.LocalFileUtils;
+import org.apache.sysds.utils.stats.CodegenStatistics;
+
+/**
+ * Persistent on-disk cache of compiled classes of generated operators,
+ * which allows short-lived processes (e.g., individual script invocations
+ * or restarted JMLC services) to skip the java compilation of recurring
+ * fused operators.
+ * 
+ * Since class and variable names of generated operators are drawn from
+ * global sequences, the source code is first normalized by renumbering
+ * these names in order of occurrence. Entries are keyed by a digest of the
+ * normalized source, the java compiler, and the SystemDS and java versions,
+ * and the class itself is named after this digest. Every entry is a single
+ * class file, and the directory is the only state, which allows multiple
+ * processes to share the cache. Accesses update the modification time of
+ * the class file, which is used for LRU eviction under a configurable
+ * size cap.
+ */
+public class CodegenPersistentCache
+{
+	private static final Log LOG = LogFactory.getLog(CodegenPersistentCache.class.getName());
+	
+	public static final String CLASS_PREFIX = "TMPC";
+	private static final String CLASS_SUFFIX = ".class";
+	private static final Pattern GENERATED_NAME = Pattern.compile("\\bTMP\\d+\\b");
+	private static final String VERSION = getVersion();
+	
+	public static boolean isEnabled() {
+		return ConfigurationManager.getCodegenPersistDir() != null;
+	}
+	
+	/**
+	 * Indicates if the given class is a generated operator (named TMP[0-9]+),
+	 * whose names are normalized and thus applicable for the persistent cache.
+	 * Other compiled classes (e.g., frame map functions) are not persisted.
+	 * 
+	 * @param name fully qualified class name
+	 * @return true if the class is a generated operator
+	 */
+	public static boolean isGeneratedClass(String name) {
+		return GENERATED_NAME.matcher(name.substring(name.lastIndexOf('.') + 1)).matches();
+	}
+	
+	/**
+	 * Normalizes the source code of a generated class by renumbering all
+	 * generated names in order of their first occurrence, and replacing the
+	 * class name by a name derived from the digest of the normalized source.
+	 * 
+	 * @param name fully qualified class name
+	 * @param src source code
+	 * @return normalized class
+	 */
+	public static NormalizedClass normalize(String name, String src) {
+		int pos = name.lastIndexOf('.');
+		String pkg = (pos >= 0) ? name.substring(0, pos + 1) : "";
+		String cname = name.substring(pos + 1);
+		
+		//renumber generated names, with a placeholder for the class name
+		Map<String, String> names = new HashMap<>();
+		names.put(cname, "%CLASS%");
+		Matcher m = GENERATED_NAME.matcher(src);
+		StringBuffer sb = new StringBuffer(src.length());
+		while( m.find() )
+			m.appendReplacement(sb, names.computeIfAbsent(
+				m.group(), k -> "TMP" + (names.size() - 1)));
+		m.appendTail(sb);
+		
+		String key = getKey(sb.toString());
+		String ncname = CLASS_PREFIX + key.substring(0, 32);
+		return new NormalizedClass(pkg + ncname, sb.toString().replace("%CLASS%", ncname), key);
+	}
+	
+	/**
+	 * Probes the persistent cache and, on a hit, reads the class bytes and
+	 * marks the entry as recently used.
+	 * 
+	 * @param key digest of the normalized source
+	 * @return class bytes, or null
+	 */
+	public static byte[] get(String key) {
+		File f = getClassFile(key);
+		byte[] ret = null;
+		if( f != null && f.exists() ) {
+			try {
+				ret = Files.readAllBytes(f.toPath());
+				f.setLastModified(System.currentTimeMillis());
+			}
+			catch(IOException ex) {
+				LOG.warn("Failed to read persistent codegen class " + f + ".", ex);
+			}
+		}
+		if( DMLScript.STATISTICS ) {
+			if( ret != null )
+				CodegenStatistics.incrementPersistHits();
+			else
+				CodegenStatistics.incrementPersistMisses();
+		}
+		return ret;
+	}
+	
+	/**
+	 * Writes the given class bytes to the persistent cache, and evicts least
+	 * recently used entries if the configured size cap is exceeded.
+	 * 
+	 * @param key digest of the normalized source
+	 * @param classBytes class bytes
+	 */
+	public static void put(String key, byte[] classBytes) {
+		File f = getClassFile(key);
+		long limit = ConfigurationManager.getCodegenPersistSize();
+		if( f == null || classBytes == null || classBytes.length > limit )
+			return;
+		//write to temporary file and atomically move it into place,
+		//so that concurrent processes never read partially written classes
+		File tmp = null;
+		try {
+			tmp = File.createTempFile(key, ".tmp", f.getParentFile());
+			Files.write(tmp.toPath(), classBytes);
+			Files.move(tmp.toPath(), f.toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to write persistent codegen class " + f + ".", ex);
+			if( tmp != null )
+				LocalFileUtils.deleteFileIfExists(tmp.getPath(), true);
+			return;
+		}
+		makeSpace(f.getParentFile(), limit);
+	}
+	
+	/**
+	 * Removes an entry, e.g., if its class bytes failed to load.
+	 * 
+	 * @param key digest of the normalized source
+	 */
+	public static void remove(String key) {
+		File f = getClassFile(key);
+		if( f != null )
+			LocalFileUtils.deleteFileIfExists(f.getPath(), true);
+	}
+	
+	public static int getNumEntries() {
+		File[] files = listClassFiles();
+		return (files != null) ? files.length : 0;
+	}
+	
+	public static long getSize() {
+		File[] files = listClassFiles();
+		return (files != null) ? Arrays.stream(files).mapToLong(File::length).sum() : 0;
+	}
+	
+	//----------------- INTERNAL CACHE LOGIC IMPLEMENTATION --------------//
+	
+	private static File getClassFile(String key) {
+		String dir = ConfigurationManager.getCodegenPersistDir();
+		if( dir == null )
+			return null;
+		LocalFileUtils.createLocalFileIfNotExist(dir);
+		return new File(dir, key + CLASS_SUFFIX);
+	}
+	
+	private static File[] listClassFiles() {
+		String dir = ConfigurationManager.getCodegenPersistDir();
+		return (dir != null) ? new File(dir).listFiles(
+			(d, fname) -> fname.endsWith(CLASS_SUFFIX)) : null;
+	}
+	
+	private static void makeSpace(File dir, long limit) {
+		File[] files = dir.listFiles((d, fname) -> fname.endsWith(CLASS_SUFFIX));
+		if( files == null )
+			return;
+		long size = Arrays.stream(files).mapToLong(File::length).sum();
+		if( size <= limit )
+			return;
+		//evict least recently used entries (oldest modification time)
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		for( int i=0; i<files.length && size > limit; i++ ) {
+			size -= files[i].length();
+			LocalFileUtils.deleteFileIfExists(files[i].getPath(), true);
+		}
+	}
+	
+	private static String getKey(String src) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			md.update(src.getBytes(StandardCharsets.UTF_8));
+			md.update((SpoofCompiler.JAVA_COMPILER.name() + "|" + VERSION + "|"
+				+ System.getProperty("java.specification.version")).getBytes(StandardCharsets.UTF_8));
+			StringBuilder sb = new StringBuilder(64);
+			for( byte b : md.digest() )
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16))
+					.append(Character.forDigit(b & 0xF, 16));
+			return sb.toString();
+		}
+		catch(NoSuchAlgorithmException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	private static String getVersion() {
+		String version = DMLScript.class.getPackage().getImplementationVersion();
+		if( version != null )
+			return version;
+		//development builds w/o manifest: use the build time of the codegen
+		//runtime, which invalidates the cache whenever it is recompiled
+		try {
+			URL url = SpoofOperator.class.getResource("SpoofOperator.class");
+			return "dev-" + url.openConnection().getLastModified();
+		}
+		catch(Exception ex) {
+			return "dev";
+		}
+	}
+	
+	public static class NormalizedClass {
+		public final String name;
+		public final String src;
+		public final String key;
+		
+		private NormalizedClass(String name, String src, String key) {
+			this.name = name;
+			this.src = src;
+			this.key = key;
+		}
+	}
+}
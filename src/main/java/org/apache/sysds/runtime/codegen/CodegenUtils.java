@@ -25,6 +25,8 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.hops.codegen.SpoofCompiler;
 import org.apache.sysds.hops.codegen.SpoofCompiler.CompilerType;
+import org.apache.sysds.hops.codegen.SpoofCompiler.GeneratorAPI;
+import org.apache.sysds.runtime.codegen.CodegenPersistentCache.NormalizedClass;
 import org.apache.sysds.runtime.codegen.SpoofOperator.SideInput;
 import org.apache.sysds.runtime.codegen.SpoofOperator.SideInputSparseCell;
 import org.apache.sysds.runtime.DMLRuntimeException;
@@ -32,7 +34,12 @@ import org.apache.sysds.runtime.io.IOUtilFunctions;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.util.LocalFileUtils;
 import org.apache.sysds.utils.stats.CodegenStatistics;
+import org.codehaus.janino.ClassLoaderIClassLoader;
+import org.codehaus.janino.Java;
+import org.codehaus.janino.Parser;
 import org.codehaus.janino.SimpleCompiler;
+import org.codehaus.janino.UnitCompiler;
+import org.codehaus.janino.util.ClassFile;
 
 import javax.tools.Diagnostic;
 import javax.tools.Diagnostic.Kind;
@@ -46,8 +53,10 @@ import javax.tools.ToolProvider;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -87,19 +96,26 @@ public class CodegenUtils
 
 		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
 
-		//compile java source w/ specific compiler
-		if( SpoofCompiler.JAVA_COMPILER == CompilerType.JANINO )
-			ret = compileClassJanino(name, src);
-		else
-			ret = compileClassJavac(name, src);
+		//compile java source w/ specific compiler, or obtain the class
+		//from the persistent class cache (only for generated java operators,
+		//not for cuda operators or other classes like frame map functions)
+		if( CodegenPersistentCache.isEnabled() && SpoofCompiler.API == GeneratorAPI.JAVA
+			&& CodegenPersistentCache.isGeneratedClass(name) )
+			ret = compileClassPersistent(name, src);
+		else {
+			if( SpoofCompiler.JAVA_COMPILER == CompilerType.JANINO )
+				ret = compileClassJanino(name, src);
+			else
+				ret = compileClassJavac(name, src);
+			if( DMLScript.STATISTICS )
+				CodegenStatistics.incrementClassCompile();
+		}
 
 		//keep compiled class for reuse
 		_cache.put(name, ret);
 
-		if( DMLScript.STATISTICS ) {
-			CodegenStatistics.incrementClassCompile();
+		if( DMLScript.STATISTICS )
 			CodegenStatistics.incrementClassCompileTime(System.nanoTime()-t0);
-		}
 
 		return ret;
 	}
@@ -188,6 +204,79 @@ public class CodegenUtils
 		return (ret.mdat != null) ? new SideInputSparseCell(ret) : ret;
 	}
 
+	////////////////////////////
+	//Persistent class cache methods
+
+	private static Class<?> compileClassPersistent(String name, String src) {
+		//normalize generated names, which makes the class independent of
+		//the compilation order and allows reusing equivalent operators
+		NormalizedClass ncla = CodegenPersistentCache.normalize(name, src);
+		Class<?> ret = _cache.get(ncla.name);
+		if( ret != null )
+			return ret;
+
+		//probe persistent class cache, and drop unloadable entries
+		byte[] classBytes = CodegenPersistentCache.get(ncla.key);
+		if( classBytes != null ) {
+			try {
+				ret = loadFromPersistentClass(ncla, classBytes);
+			}
+			catch(LinkageError | DMLRuntimeException ex) {
+				LOG.warn("Failed to load persistent codegen class "+ncla.name+", recompiling it.", ex);
+				CodegenPersistentCache.remove(ncla.key);
+			}
+		}
+
+		//compile normalized source and write class bytes to the persistent cache
+		if( ret == null ) {
+			if( SpoofCompiler.JAVA_COMPILER == CompilerType.JANINO ) {
+				classBytes = compileClassJaninoToBytes(ncla.name, ncla.src);
+				ret = (classBytes != null) ? loadFromPersistentClass(ncla, classBytes) :
+					compileClassJanino(ncla.name, ncla.src);
+			}
+			else {
+				ret = compileClassJavac(ncla.name, ncla.src);
+				classBytes = !hasNestedClasses(ncla.name) ? getClassAsByteArray(ncla.name) : null;
+			}
+			if( classBytes != null )
+				CodegenPersistentCache.put(ncla.key, classBytes);
+			if( DMLScript.STATISTICS )
+				CodegenStatistics.incrementClassCompile();
+		}
+
+		_cache.put(ncla.name, ret);
+		return ret;
+	}
+
+	private static Class<?> loadFromPersistentClass(NormalizedClass ncla, byte[] classBytes) {
+		if( SpoofCompiler.JAVA_COMPILER == CompilerType.JANINO ) {
+			//keep source code for later re-construction
+			_src.put(ncla.name, ncla.src);
+			try(ByteClassLoader byteLoader = new ByteClassLoader(new URL[]{},
+				getJaninoParentClassLoader(), classBytes))
+			{
+				return byteLoader.findClass(ncla.name);
+			}
+			catch(IOException | ClassNotFoundException ex) {
+				throw new DMLRuntimeException(ex);
+			}
+		}
+		else {
+			//write class file into the working dir for later transfer
+			if( _workingDir == null )
+				createWorkingDir();
+			try {
+				File fclass = new File(_workingDir+"/"+ncla.name.replace(".", "/")+".class");
+				fclass.getParentFile().mkdirs();
+				Files.write(fclass.toPath(), classBytes);
+			}
+			catch(IOException ex) {
+				throw new DMLRuntimeException(ex);
+			}
+			return loadFromClassFile(ncla.name, classBytes);
+		}
+	}
+
 	////////////////////////////
 	//JANINO-specific methods (used for spark environments)
 
@@ -212,6 +301,27 @@ public class CodegenUtils
 		}
 	}
 
+	private synchronized static byte[] compileClassJaninoToBytes(String name, String src) {
+		try {
+			//compile source code to class files w/o loading
+			Java.AbstractCompilationUnit cu = new Parser(
+				new org.codehaus.janino.Scanner(null, new StringReader(src))).parseAbstractCompilationUnit();
+			ClassFile[] classFiles = new UnitCompiler(cu,
+				new ClassLoaderIClassLoader(getJaninoParentClassLoader())).compileUnit(false, false, false);
+			return (classFiles.length == 1) ? classFiles[0].toByteArray() : null;
+		}
+		catch(Exception ex) {
+			LOG.error("Failed to compile class "+name+": \n"+src);
+			throw new DMLRuntimeException("Failed to compile class "+name+".", ex);
+		}
+	}
+
+	private static ClassLoader getJaninoParentClassLoader() {
+		//consistent with the default parent of janino's SimpleCompiler
+		return (_mainClassLoader != null) ? _mainClassLoader :
+			Thread.currentThread().getContextClassLoader();
+	}
+
 	////////////////////////////
 	//JAVAC-specific methods (used for hadoop environments)
 
@@ -323,6 +433,13 @@ public class CodegenUtils
 		}
 	}
 
+	private static boolean hasNestedClasses(String name) {
+		File fclass = new File(_workingDir+"/"+name.replace(".", "/")+".class");
+		String[] nested = fclass.getParentFile().list(
+			(dir, fname) -> fname.startsWith(fclass.getName().replace(".class", "$")));
+		return nested != null && nested.length > 0;
+	}
+
 	private static void createWorkingDir() {
 		if( _workingDir != null )
 			return;
@@ -132,8 +132,7 @@ public class ColGroupDDC extends APreAgg implements AMapToDataGroup {
 	private void decompressToDenseBlockDenseDictSingleColOutContiguous(DenseBlock db, int rl, int ru, int offR, int offC,
 		double[] values) {
 		final double[] c = db.values(0);
-		for(int i = rl, offT = rl + offR + _colIndexes[0] + offC; i < ru; i++, offT++)
-			c[offT] += values[_data.getIndex(i)];
+		_data.decompressToRange(c, rl, ru, offR + _colIndexes[0] + offC, values);
 	}
 
 	private void decompressToDenseBlockDenseDictAllColumnsContiguous(DenseBlock db, int rl, int ru, int offR,
@@ -366,6 +366,33 @@ public abstract class AMapToData implements Serializable {
 		}
 	}
 
+	/**
+	 * Decompress a single column of values into a contiguous dense output, i.e., c[offR + i] += values[getIndex(i)]
+	 * for all rows i in [rl, ru). This is the dominating kernel of matrix-vector multiplications, where the dictionary
+	 * already contains the pre-multiplied values.
+	 * 
+	 * @param c      The contiguous output values
+	 * @param rl     The row to start at
+	 * @param ru     The row to end at (not inclusive)
+	 * @param offR   The offset into c for row 0
+	 * @param values The dictionary values of a single column
+	 */
+	public void decompressToRange(double[] c, int rl, int ru, int offR, double[] values) {
+		final int h = (ru - rl) % 8;
+		for(int rc = rl; rc < rl + h; rc++)
+			c[offR + rc] += values[getIndex(rc)];
+		for(int rc = rl + h, off = offR + rl + h; rc < ru; rc += 8, off += 8) {
+			c[off] += values[getIndex(rc)];
+			c[off + 1] += values[getIndex(rc + 1)];
+			c[off + 2] += values[getIndex(rc + 2)];
+			c[off + 3] += values[getIndex(rc + 3)];
+			c[off + 4] += values[getIndex(rc + 4)];
+			c[off + 5] += values[getIndex(rc + 5)];
+			c[off + 6] += values[getIndex(rc + 6)];
+			c[off + 7] += values[getIndex(rc + 7)];
+		}
+	}
+
 	/**
 	 * Get the number of counts of each unique value contained in this map. Note that in the case the mapping is shorter
 	 * than number of rows the counts sum to the number of mapped values not the number of rows.
@@ -151,6 +151,41 @@ public class MapToBit extends AMapToData {
 		return ret;
 	}
 
+	@Override
+	protected void preAggregateDenseSingleRow(double[] mV, int off, double[] preAV, int cl, int cu) {
+		// accumulate into a local pre-aggregate, indexed by the bits of the
+		// expanded words to avoid branch mispredictions on random bits
+		final long[] words = _data.get(cl, cu).toLongArray();
+		final double[] tmp = new double[2];
+		off += cl;
+		for(int rc = cl; rc < cu; rc += 64) {
+			final int wi = (rc - cl) >> 6;
+			final long w = wi < words.length ? words[wi] : 0;
+			final int len = Math.min(64, cu - rc);
+			for(int b = 0; b < len; b++, off++)
+				tmp[(int) ((w >>> b) & 1L)] += mV[off];
+		}
+		preAV[0] += tmp[0];
+		if(getUnique() > 1)
+			preAV[1] += tmp[1];
+	}
+
+	@Override
+	public void decompressToRange(double[] c, int rl, int ru, int offR, double[] values) {
+		// expand the bit words directly instead of testing individual bits,
+		// and look up the values by bit to avoid branch mispredictions
+		final long[] words = _data.get(rl, ru).toLongArray();
+		final double[] vals = getUnique() > 1 ? values : new double[] {values[0], values[0]};
+		int off = offR + rl;
+		for(int rc = rl; rc < ru; rc += 64) {
+			final int wi = (rc - rl) >> 6;
+			final long w = wi < words.length ? words[wi] : 0;
+			final int len = Math.min(64, ru - rc);
+			for(int b = 0; b < len; b++, off++)
+				c[off] += vals[(int) ((w >>> b) & 1L)];
+		}
+	}
+
 	@Override
 	public void preAggregateDDC_DDCSingleCol(AMapToData tm, double[] td, double[] v) {
 		if(tm instanceof MapToBit)
@@ -170,6 +170,52 @@ public class MapToByte extends AMapToData {
 		}
 	}
 
+	@Override
+	protected void preAggregateDenseMultiRowContiguousBy8(double[] mV, int nCol, int nVal, double[] preAV, int rl,
+		int ru, int cl, int cu) {
+		final int h = (cu - cl) % 8;
+		preAggregateDenseMultiRowContiguousBy1(mV, nCol, nVal, preAV, rl, ru, cl, cl + h);
+		final int offR = nCol * rl;
+		final int offE = nCol * ru;
+		for(int c = cl + h; c < cu; c += 8) {
+			final int id1 = _data[c] & 0xFF, id2 = _data[c + 1] & 0xFF, id3 = _data[c + 2] & 0xFF,
+				id4 = _data[c + 3] & 0xFF, id5 = _data[c + 4] & 0xFF, id6 = _data[c + 5] & 0xFF,
+				id7 = _data[c + 6] & 0xFF, id8 = _data[c + 7] & 0xFF;
+
+			final int start = c + offR;
+			final int end = c + offE;
+			int nValOff = 0;
+			for(int off = start; off < end; off += nCol) {
+				preAV[id1 + nValOff] += mV[off];
+				preAV[id2 + nValOff] += mV[off + 1];
+				preAV[id3 + nValOff] += mV[off + 2];
+				preAV[id4 + nValOff] += mV[off + 3];
+				preAV[id5 + nValOff] += mV[off + 4];
+				preAV[id6 + nValOff] += mV[off + 5];
+				preAV[id7 + nValOff] += mV[off + 6];
+				preAV[id8 + nValOff] += mV[off + 7];
+				nValOff += nVal;
+			}
+		}
+	}
+
+	@Override
+	public void decompressToRange(double[] c, int rl, int ru, int offR, double[] values) {
+		final int h = (ru - rl) % 8;
+		for(int rc = rl; rc < rl + h; rc++)
+			c[offR + rc] += values[_data[rc] & 0xFF];
+		for(int rc = rl + h, off = offR + rl + h; rc < ru; rc += 8, off += 8) {
+			c[off] += values[_data[rc] & 0xFF];
+			c[off + 1] += values[_data[rc + 1] & 0xFF];
+			c[off + 2] += values[_data[rc + 2] & 0xFF];
+			c[off + 3] += values[_data[rc + 3] & 0xFF];
+			c[off + 4] += values[_data[rc + 4] & 0xFF];
+			c[off + 5] += values[_data[rc + 5] & 0xFF];
+			c[off + 6] += values[_data[rc + 6] & 0xFF];
+			c[off + 7] += values[_data[rc + 7] & 0xFF];
+		}
+	}
+
 	@Override
 	public int getUpperBoundValue() {
 		return 255;
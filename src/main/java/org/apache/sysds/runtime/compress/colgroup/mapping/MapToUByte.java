@@ -108,6 +108,23 @@ public class MapToUByte extends MapToByte {
 		}
 	}
 
+	@Override
+	public void decompressToRange(double[] c, int rl, int ru, int offR, double[] values) {
+		final int h = (ru - rl) % 8;
+		for(int rc = rl; rc < rl + h; rc++)
+			c[offR + rc] += values[_data[rc]];
+		for(int rc = rl + h, off = offR + rl + h; rc < ru; rc += 8, off += 8) {
+			c[off] += values[_data[rc]];
+			c[off + 1] += values[_data[rc + 1]];
+			c[off + 2] += values[_data[rc + 2]];
+			c[off + 3] += values[_data[rc + 3]];
+			c[off + 4] += values[_data[rc + 4]];
+			c[off + 5] += values[_data[rc + 5]];
+			c[off + 6] += values[_data[rc + 6]];
+			c[off + 7] += values[_data[rc + 7]];
+		}
+	}
+
 	@Override
 	public int getUpperBoundValue() {
 		return 127;
@@ -25,6 +25,7 @@ import java.util.List;
 import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.conf.ConfigurationManager;
 import org.apache.sysds.hops.recompile.Recompiler;
+import org.apache.sysds.hops.recompile.SpeculativeRecompiler;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.instructions.Instruction;
@@ -38,6 +39,7 @@ import org.apache.sysds.utils.stats.RecompileStatistics;
 public class BasicProgramBlock extends ProgramBlock 
 {
 	protected ArrayList<Instruction> _inst;
+	private ProgramBlock _successor = null;
 
 	public BasicProgramBlock(Program prog) {
 		super(prog);
@@ -68,6 +70,10 @@ public class BasicProgramBlock extends ProgramBlock
 		return _inst.size();
 	}
 	
+	public void setSuccessor(ProgramBlock pb) {
+		_successor = pb;
+	}
+	
 	@Override
 	public ArrayList<ProgramBlock> getChildBlocks() {
 		return null;
@@ -106,6 +112,12 @@ public class BasicProgramBlock extends ProgramBlock
 			throw new DMLRuntimeException("Unable to recompile program block.", ex);
 		}
 		
+		//speculative recompilation of the next blocks, if this block was
+		//recompiled for new inputs (otherwise the recompile cache applies)
+		if( _successor != null && tmp != _inst && !isThreadID(_tid)
+			&& SpeculativeRecompiler.isEnabled() && !_sb.getRecompileCache().isLastProbeHit() )
+			SpeculativeRecompiler.submit(_sb, _successor, ec.getVariables());
+		
 		//statement-block-level, lineage-based reuse
 		LineageItem[] liInputs = null;
 		long t0 = 0;
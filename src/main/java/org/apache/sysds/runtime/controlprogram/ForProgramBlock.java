@@ -139,8 +139,7 @@ public class ForProgramBlock extends ProgramBlock
 					ec.getLineage().createDedupPatch(this, ec);
 				
 				//execute all child blocks
-				for (int i = 0; i < _childBlocks.size(); i++)
-					_childBlocks.get(i).execute(ec);
+				executeBlocks(_childBlocks, ec);
 				
 				if (DMLScript.LINEAGE_DEDUP) {
 					LineageDedupUtils.replaceLineage(ec);
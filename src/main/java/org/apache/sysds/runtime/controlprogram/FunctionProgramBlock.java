@@ -151,9 +151,7 @@ public class FunctionProgramBlock extends ProgramBlock implements FunctionBlock
 		
 		// for each program block
 		try {
-			for (int i=0 ; i < this._childBlocks.size() ; i++) {
-				_childBlocks.get(i).execute(ec);
-			}
+			executeBlocks(_childBlocks, ec);
 		}
 		catch (DMLScriptException e) {
 			throw e;
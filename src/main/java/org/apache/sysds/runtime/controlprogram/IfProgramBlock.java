@@ -102,9 +102,7 @@ public class IfProgramBlock extends ProgramBlock
 		//execute if statement
 		if(predResult.getBooleanValue()) {
 			try  {
-				for (int i=0 ; i < _childBlocksIfBody.size() ; i++) {
-					_childBlocksIfBody.get(i).execute(ec);
-				}
+				executeBlocks(_childBlocksIfBody, ec);
 			}
 			catch(DMLScriptException e) {
 				throw e;
@@ -115,9 +113,7 @@ public class IfProgramBlock extends ProgramBlock
 		}
 		else {
 			try {
-				for (int i=0 ; i < _childBlocksElseBody.size() ; i++) {
-					_childBlocksElseBody.get(i).execute(ec);
-				}
+				executeBlocks(_childBlocksElseBody, ec);
 			}
 			catch(DMLScriptException e) {
 				throw e;
@@ -37,6 +37,7 @@ import org.apache.sysds.parser.ParForStatementBlock.ResultVar;
 import org.apache.sysds.parser.StatementBlock;
 import org.apache.sysds.parser.VariableSet;
 import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.BufferPoolSession;
 import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
 import org.apache.sysds.runtime.controlprogram.caching.FrameObject;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
@@ -748,9 +749,10 @@ public class ParForProgramBlock extends ForProgramBlock
 			LocalTaskQueue<Task> queue = new LocalTaskQueue<>();
 			Thread[] threads         = new Thread[_numThreads];
 			LocalParWorker[] workers = new LocalParWorker[_numThreads];
+			BufferPoolSession session = BufferPoolSession.getCurrent();
 			IntStream.range(0, _numThreads).parallel().forEach(i -> {
 				workers[i] = createParallelWorker( _pwIDs[i], queue, ec, i);
-				threads[i] = new Thread( workers[i] );
+				threads[i] = new Thread( BufferPoolSession.wrap(session, workers[i]) );
 				threads[i].setPriority(Thread.MAX_PRIORITY);
 			});
 			
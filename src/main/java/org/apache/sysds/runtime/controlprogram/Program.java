@@ -154,8 +154,8 @@ public class Program
 
 	public void execute(ExecutionContext ec) {
 		try{
-			for (int i=0; i<_programBlocks.size(); i++)
-				_programBlocks.get(i).execute(ec);
+			//flush pipelined federated requests after each top-level block
+			ProgramBlock.executeBlocks(_programBlocks, ec, true);
 		}
 		catch(DMLScriptException e) {
 			throw e;
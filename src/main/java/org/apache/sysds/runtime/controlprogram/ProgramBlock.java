@@ -30,6 +30,7 @@ import org.apache.sysds.conf.ConfigurationManager;
 import org.apache.sysds.hops.Hop;
 import org.apache.sysds.hops.OptimizerUtils;
 import org.apache.sysds.hops.recompile.Recompiler;
+import org.apache.sysds.hops.recompile.SpeculativeRecompiler;
 import org.apache.sysds.lops.Lop;
 import org.apache.sysds.parser.ParseInfo;
 import org.apache.sysds.parser.StatementBlock;
@@ -40,6 +41,7 @@ import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedRequestBatcher;
 import org.apache.sysds.runtime.instructions.Instruction;
 import org.apache.sysds.runtime.instructions.cp.BooleanObject;
 import org.apache.sysds.runtime.instructions.cp.Data;
@@ -135,6 +137,40 @@ public abstract class ProgramBlock implements ParseInfo {
 	 */
 	public abstract boolean isNested();
 
+	/**
+	 * Executes the given sequence of program blocks. If speculative recompilation
+	 * is enabled, basic program blocks are linked to their successors in order to
+	 * recompile the successors in the background (see {@link SpeculativeRecompiler}).
+	 * 
+	 * @param pbs list of program blocks
+	 * @param ec execution context
+	 */
+	public static void executeBlocks(ArrayList<ProgramBlock> pbs, ExecutionContext ec) {
+		executeBlocks(pbs, ec, false);
+	}
+	
+	/**
+	 * Executes the given sequence of program blocks, and optionally sends pending
+	 * pipelined federated requests after each block (see {@link FederatedRequestBatcher}),
+	 * which bounds the deferral of requests whose results are never consumed (e.g.,
+	 * rmvar cleanups), while retaining batches across iterations of nested blocks.
+	 * 
+	 * @param pbs list of program blocks
+	 * @param ec execution context
+	 * @param flushFederated true to flush pipelined federated requests after each block
+	 */
+	public static void executeBlocks(ArrayList<ProgramBlock> pbs, ExecutionContext ec, boolean flushFederated) {
+		boolean speculative = SpeculativeRecompiler.isEnabled();
+		for( int i=0; i < pbs.size(); i++ ) {
+			ProgramBlock pb = pbs.get(i);
+			if( speculative && pb instanceof BasicProgramBlock )
+				((BasicProgramBlock) pb).setSuccessor((i+1 < pbs.size()) ? pbs.get(i+1) : null);
+			pb.execute(ec);
+			if( flushFederated )
+				FederatedRequestBatcher.flush();
+		}
+	}
+
 	//////////////////////////////////////////////////////////
 	// core instruction execution (program block, predicate)
 	//////////////////////////////////////////////////////////
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.controlprogram.caching;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memory accounting of a session (e.g., a coordinator at a federated worker) in the shared
+ * buffer pool. Buffer pool entries written by a thread are attached to the thread's current
+ * session, and if a memory quota is configured (see {@link LazyWriteBuffer#setSessionLimit(long)}),
+ * a session exceeding its quota evicts its own entries before any entries of other sessions.
+ * 
+ * The session is propagated to the tasks of the {@code CommonThreadPool} (used by multi-threaded
+ * operators) and to local parfor workers via {@link #wrap(Runnable)}. Threads created otherwise,
+ * including parallel streams on the fork-join common pool, write their entries without session.
+ */
+public class BufferPoolSession
+{
+	private static final ThreadLocal<BufferPoolSession> _current = new ThreadLocal<>();
+
+	private final String _name;
+	private final AtomicLong _size = new AtomicLong();
+	private final LongAdder _numEvicted = new LongAdder();
+	private final LongAdder _evictedBytes = new LongAdder();
+
+	public BufferPoolSession(String name) {
+		_name = name;
+	}
+
+	/**
+	 * Sets the session of the current thread, to which subsequently written
+	 * buffer pool entries are attached.
+	 * 
+	 * @param session buffer pool session, or null to reset
+	 */
+	public static void setCurrent(BufferPoolSession session) {
+		if( session == null )
+			_current.remove();
+		else
+			_current.set(session);
+	}
+
+	public static BufferPoolSession getCurrent() {
+		return _current.get();
+	}
+
+	/**
+	 * Wraps the given task to run with the session of the calling thread.
+	 * 
+	 * @param task task to be executed by another thread
+	 * @return wrapped task, or the given task if the calling thread has no session
+	 */
+	public static Runnable wrap(Runnable task) {
+		return wrap(getCurrent(), task);
+	}
+
+	public static Runnable wrap(BufferPoolSession session, Runnable task) {
+		if( session == null )
+			return task;
+		return () -> {
+			BufferPoolSession prev = getCurrent();
+			setCurrent(session);
+			try {
+				task.run();
+			}
+			finally {
+				setCurrent(prev);
+			}
+		};
+	}
+
+	/**
+	 * Wraps the given task to run with the session of the calling thread.
+	 * 
+	 * @param <T>  result type
+	 * @param task task to be executed by another thread
+	 * @return wrapped task, or the given task if the calling thread has no session
+	 */
+	public static <T> Callable<T> wrap(Callable<T> task) {
+		final BufferPoolSession session = getCurrent();
+		if( session == null )
+			return task;
+		return () -> {
+			BufferPoolSession prev = getCurrent();
+			setCurrent(session);
+			try {
+				return task.call();
+			}
+			finally {
+				setCurrent(prev);
+			}
+		};
+	}
+
+	public String getName() {
+		return _name;
+	}
+
+	/**
+	 * Returns the size of the session's entries in the buffer pool.
+	 * 
+	 * @return size in bytes
+	 */
+	public long getSize() {
+		return _size.get();
+	}
+
+	/**
+	 * Returns the number of entries evicted due to the session's memory quota.
+	 * 
+	 * @return number of quota evictions
+	 */
+	public long getNumEvicted() {
+		return _numEvicted.longValue();
+	}
+
+	public long getEvictedBytes() {
+		return _evictedBytes.longValue();
+	}
+
+	protected long reserve(long size) {
+		return _size.addAndGet(size);
+	}
+
+	protected void release(long size) {
+		_size.addAndGet(-size);
+	}
+
+	protected void incEvicted(long size) {
+		_numEvicted.increment();
+		_evictedBytes.add(size);
+	}
+
+	@Override
+	public String toString() {
+		return _name + "[size=" + getSize() + ", evicted=" + getNumEvicted() + "]";
+	}
+}
@@ -41,12 +41,18 @@ public class ByteBuffer
 	private volatile boolean _shallow;
 	private volatile boolean _matrix;
 	private final long _size;
+	private BufferPoolSession _session; //owning session or null
 	
 	protected byte[]     _bdata = null; //sparse matrix
 	protected CacheBlock<?> _cdata = null; //dense matrix/frame
 	
 	public ByteBuffer( long size ) {
+		this(size, null);
+	}
+	
+	public ByteBuffer( long size, BufferPoolSession session ) {
 		_size = size;
+		_session = session;
 		_serialized = false;
 	}
 
@@ -105,14 +111,20 @@ public class ByteBuffer
 
 	public void evictBuffer( String fname ) 
 		throws IOException
+	{
+		evictBuffer(fname, false);
+	}
+	
+	public void evictBuffer( String fname, boolean offHeap ) 
+		throws IOException
 	{
 		if( !_shallow ) {
 			//write out byte serialized array
 			LocalFileUtils.writeByteArrayToLocal(fname, _bdata);
 		}
-		else {
+		else if( !(offHeap && LazyWriteBuffer.writeOffHeap(fname, _cdata)) ) {
 			//serialize cache block to output stream
-			LocalFileUtils.writeCacheBlockToLocal(fname, _cdata);
+			CacheMappedIO.writeCacheBlock(fname, _cdata);
 		}
 	}
 	
@@ -129,8 +141,18 @@ public class ByteBuffer
 		return _shallow;
 	}
 	
+	public BufferPoolSession getSession() {
+		return _session;
+	}
+	
 	public void freeMemory()
 	{
+		//release memory of owning session (once)
+		if( _session != null ) {
+			_session.release(_size);
+			_session = null;
+		}
+		
 		//clear strong references to buffer/matrix
 		if( !_shallow ) {
 			if( CacheableData.CACHING_BUFFER_PAGECACHE )
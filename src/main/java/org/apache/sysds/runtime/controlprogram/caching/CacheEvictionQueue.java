@@ -17,48 +17,240 @@
  * under the License.
  */
 
+
 package org.apache.sysds.runtime.controlprogram.caching;
 
-import java.util.Iterator;
+import java.io.IOException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class CacheEvictionQueue extends LinkedHashMap<String, ByteBuffer>
+/**
+ * Lock-striped eviction queue of &lt;filename,buffer&gt; pairs. Entries are
+ * partitioned by file name into independently synchronized linked hash maps
+ * (constant time get/insert/delete), which allows concurrent parfor workers
+ * to probe, insert, and delete buffer pool entries without a global monitor.
+ * 
+ * The global queue order (FIFO, or LRU if entries are touched on access) is
+ * maintained via a monotonically increasing sequence number per entry. Since
+ * every stripe is internally ordered by this sequence number, the globally
+ * first entry is the stripe head with the minimum sequence number.
+ * Evictions of an entry (including the write to local FS) happen under the
+ * lock of its stripe, which guarantees that concurrent reads of the same file
+ * either find the buffer or the completely written file.
+ */
+public class CacheEvictionQueue
 {
+	private final Stripe[] _stripes;
+	private final AtomicLong _seq = new AtomicLong();
+	private final AtomicInteger _size = new AtomicInteger();
+	private final boolean _offHeap; //evict into off-heap storage if configured
+
+	public CacheEvictionQueue() {
+		this(false);
+	}
+
+	public CacheEvictionQueue(boolean offHeap) {
+		this(Runtime.getRuntime().availableProcessors() * 4, offHeap);
+	}
+
+	public CacheEvictionQueue(int numStripes) {
+		this(numStripes, false);
+	}
+
+	public CacheEvictionQueue(int numStripes, boolean offHeap) {
+		_offHeap = offHeap;
+		//round up to power of two for cheap stripe selection
+		int len = Integer.highestOneBit(Math.max(numStripes, 1) * 2 - 1);
+		_stripes = new Stripe[len];
+		for( int i=0; i<len; i++ )
+			_stripes[i] = new Stripe();
+	}
+
+	public int getNumStripes() {
+		return _stripes.length;
+	}
+
+	public void addLast(String fname, ByteBuffer bbuff) {
+		//put entry into eviction queue w/ 'addLast' semantics
+		Stripe s = getStripe(fname);
+		synchronized( s ) {
+			if( s.remove(fname) == null )
+				_size.incrementAndGet();
+			s.put(fname, new Node(bbuff, _seq.incrementAndGet()));
+		}
+	}
+
+	public ByteBuffer get(String fname) {
+		return get(fname, false);
+	}
+
 	/**
-	 * Extended LinkedHashMap with convenience methods for adding and removing
-	 * last/first entries.
-	 *
+	 * Probes the queue for the given file name and optionally moves
+	 * a found entry to the end of the eviction queue (LRU semantics).
+	 * 
+	 * @param fname file name
+	 * @param touch if true, reinsert an existing entry at the end
+	 * @return buffer or null if not existing
 	 */
-	private static final long serialVersionUID = -5208333402581364859L;
+	public ByteBuffer get(String fname, boolean touch) {
+		Stripe s = getStripe(fname);
+		synchronized( s ) {
+			Node n = touch ? s.remove(fname) : s.get(fname);
+			if( n != null && touch ) {
+				n.seq = _seq.incrementAndGet();
+				s.put(fname, n);
+			}
+			return (n != null) ? n.buff : null;
+		}
+	}
 
-	public void addLast( String fname, ByteBuffer bbuff ) {
-		//put entry into eviction queue w/ 'addLast' semantics
-		put(fname, bbuff);
+	public boolean containsKey(String fname) {
+		Stripe s = getStripe(fname);
+		synchronized( s ) {
+			return s.containsKey(fname);
+		}
 	}
 
-	public Map.Entry<String, ByteBuffer> removeFirst()
-	{
-		//move iterator to first entry
-		Iterator<Map.Entry<String, ByteBuffer>> iter = entrySet().iterator();
-		Map.Entry<String, ByteBuffer> entry = iter.next();
+	public ByteBuffer remove(String fname) {
+		Stripe s = getStripe(fname);
+		synchronized( s ) {
+			Node n = s.remove(fname);
+			if( n == null )
+				return null;
+			_size.decrementAndGet();
+			return n.buff;
+		}
+	}
+
+	/**
+	 * Removes the first (not pinned) entry of the eviction queue, and
+	 * writes the buffer to local FS and frees its memory.
+	 * 
+	 * @param pinned list of pinned file names, or null
+	 * @return size of the evicted buffer, or -1 if no entry was evictable
+	 * @throws IOException if IOException occurs
+	 */
+	public long evictFirst(Collection<String> pinned) throws IOException {
+		return evictFirst(pinned, null);
+	}
+
+	/**
+	 * Removes the first (not pinned) entry of the given session from the eviction
+	 * queue, and writes the buffer to local FS and frees its memory.
+	 * 
+	 * @param pinned list of pinned file names, or null
+	 * @param session owning session of evicted entries, or null for any entry
+	 * @return size of the evicted buffer, or -1 if no entry was evictable
+	 * @throws IOException if IOException occurs
+	 */
+	public long evictFirst(Collection<String> pinned, BufferPoolSession session) throws IOException {
+		while( !isEmpty() ) {
+			//find stripe with globally first entry
+			Stripe min = null;
+			long minSeq = Long.MAX_VALUE;
+			for( Stripe s : _stripes ) {
+				synchronized( s ) {
+					Map.Entry<String,Node> e = s.first(pinned, session);
+					if( e != null && e.getValue().seq < minSeq ) {
+						min = s;
+						minSeq = e.getValue().seq;
+					}
+				}
+			}
+			if( min == null )
+				return -1;
+			
+			//remove and evict entry under stripe lock (retry if
+			//the first entry changed due to concurrent updates)
+			synchronized( min ) {
+				Map.Entry<String,Node> e = min.first(pinned, session);
+				if( e == null || e.getValue().seq != minSeq )
+					continue;
+				min.remove(e.getKey());
+				_size.decrementAndGet();
+				ByteBuffer bb = e.getValue().buff;
+				if( bb == null )
+					return 0;
+				//wait for pending serialization
+				bb.checkSerialized();
+				//evict matrix
+				bb.evictBuffer(e.getKey(), _offHeap);
+				bb.freeMemory();
+				return bb.getSize();
+			}
+		}
+		return -1;
+	}
+
+	public int size() {
+		return _size.get();
+	}
+
+	public boolean isEmpty() {
+		return _size.get() == 0;
+	}
+
+	public void clear() {
+		for( Stripe s : _stripes ) {
+			synchronized( s ) {
+				_size.addAndGet(-s.size());
+				s.clear();
+			}
+		}
+	}
+
+	/**
+	 * Obtains a snapshot of all entries in eviction order.
+	 * NOTE: use only for debugging or testing.
+	 * 
+	 * @return list of entries
+	 */
+	public List<Map.Entry<String, ByteBuffer>> entries() {
+		List<Map.Entry<String, Node>> tmp = new ArrayList<>();
+		for( Stripe s : _stripes ) {
+			synchronized( s ) {
+				for( Map.Entry<String,Node> e : s.entrySet() )
+					tmp.add(new SimpleEntry<>(e.getKey(), new Node(e.getValue().buff, e.getValue().seq)));
+			}
+		}
+		tmp.sort(Comparator.comparingLong(e -> e.getValue().seq));
+		List<Map.Entry<String, ByteBuffer>> ret = new ArrayList<>(tmp.size());
+		for( Map.Entry<String,Node> e : tmp )
+			ret.add(new SimpleEntry<>(e.getKey(), e.getValue().buff));
+		return ret;
+	}
+
+	private Stripe getStripe(String fname) {
+		int h = fname.hashCode();
+		return _stripes[(h ^ (h >>> 16)) & (_stripes.length-1)];
+	}
 
-		//remove current iterator entry
-		iter.remove();
+	private static class Node {
+		private final ByteBuffer buff;
+		private long seq;
 
-		return entry;
+		public Node(ByteBuffer buff, long seq) {
+			this.buff = buff;
+			this.seq = seq;
+		}
 	}
 
-	public Map.Entry<String, ByteBuffer> removeFirstUnpinned(List<String> pinnedList) {
-		//move iterator to first entry
-		Iterator<Map.Entry<String, ByteBuffer>> iter = entrySet().iterator();
-		var entry = iter.next();
-		while (pinnedList.contains(entry.getKey()))
-			entry = iter.next();
+	private static class Stripe extends LinkedHashMap<String, Node> {
+		private static final long serialVersionUID = -5208333402581364859L;
 
-		//remove current iterator entry
-		iter.remove();
-		return entry;
+		public Map.Entry<String, Node> first(Collection<String> pinned, BufferPoolSession session) {
+			for( Map.Entry<String, Node> e : entrySet() )
+				if( (pinned == null || !pinned.contains(e.getKey()))
+					&& (session == null || (e.getValue().buff != null && e.getValue().buff.getSession() == session)) )
+					return e;
+			return null;
+		}
 	}
 }
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.caching;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.DenseBlockFP64;
+import org.apache.sysds.runtime.data.DenseBlockLFP64;
+import org.apache.sysds.runtime.data.SparseBlockCSR;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.DirectBufferUtils;
+import org.apache.sysds.runtime.util.LocalFileUtils;
+
+/**
+ * Eviction of dense and CSR matrix blocks to local files in a raw layout
+ * (instead of the serialized writable format), which is written and read
+ * via memory-mapped file regions. Restoring a block is a bulk copy from the
+ * page cache into the newly allocated arrays (pages are loaded on demand),
+ * which avoids the per-value deserialization of the default eviction path.
+ * 
+ * File layout (native byte order, 8 byte aligned payload):
+ * [magic:int, type:byte, pad, rows:int, cols:int, nnz:long, pad]
+ * dense: [values:double[rows*cols]]
+ * csr: [rowptr:int[rows+1], colidx:int[nnz], pad, values:double[nnz]]
+ */
+public class CacheMappedIO
+{
+	//magic number in native byte order, whose first byte is distinct
+	//from the first byte (block type) of serialized matrix blocks
+	private static final int MAGIC = 0x4D4D4453;
+	private static final int HEADER_SIZE = 32;
+	private static final byte TYPE_DENSE = 1;
+	private static final byte TYPE_CSR = 2;
+
+	//maximum number of values per mapped file region (1GB for doubles)
+	private static final int MAX_REGION_LENGTH = 1 << 27;
+
+	/**
+	 * Indicates if memory-mapped eviction is enabled (sysds.caching.mmap).
+	 * 
+	 * @return true if enabled
+	 */
+	public static boolean isEnabled() {
+		return ConfigurationManager.getDMLConfig() != null
+			&& ConfigurationManager.isMMapEviction();
+	}
+
+	/**
+	 * Indicates if the given cache block can be written in raw layout,
+	 * which is the case for uncompressed FP64 dense and CSR matrix blocks.
+	 * 
+	 * @param cb cache block
+	 * @return true if applicable
+	 */
+	public static boolean isApplicable(CacheBlock<?> cb) {
+		if( !(cb instanceof MatrixBlock) || cb instanceof CompressedMatrixBlock )
+			return false;
+		MatrixBlock mb = (MatrixBlock) cb;
+		if( mb.isEmptyBlock(false) )
+			return false;
+		return mb.isInSparseFormat() ?
+			mb.getSparseBlock() instanceof SparseBlockCSR :
+			mb.getDenseBlock() instanceof DenseBlockFP64 || mb.getDenseBlock() instanceof DenseBlockLFP64;
+	}
+
+	/**
+	 * Writes the given cache block to the local file system, in raw
+	 * layout if enabled and applicable, otherwise as serialized block.
+	 * 
+	 * @param fname file name
+	 * @param cb cache block
+	 * @throws IOException if IOException occurs
+	 */
+	public static void writeCacheBlock(String fname, CacheBlock<?> cb) throws IOException {
+		if( isEnabled() && isApplicable(cb) )
+			writeMatrixBlock(fname, (MatrixBlock) cb);
+		else
+			LocalFileUtils.writeCacheBlockToLocal(fname, cb);
+	}
+
+	/**
+	 * Reads a cache block from the local file system, which was
+	 * written via {@link #writeCacheBlock(String, CacheBlock)}.
+	 * 
+	 * @param fname file name
+	 * @param matrix if true, read matrix, otherwise frame
+	 * @return cache block
+	 * @throws IOException if IOException occurs
+	 */
+	public static CacheBlock<?> readCacheBlock(String fname, boolean matrix) throws IOException {
+		if( matrix && isEnabled() && isMappedFile(fname) )
+			return readMatrixBlock(fname);
+		return LocalFileUtils.readCacheBlockFromLocal(fname, matrix);
+	}
+
+	/**
+	 * Indicates if the given local file was written in raw layout.
+	 * 
+	 * @param fname file name
+	 * @return true if the file starts with the raw layout header
+	 * @throws IOException if IOException occurs
+	 */
+	public static boolean isMappedFile(String fname) throws IOException {
+		try( RandomAccessFile raf = new RandomAccessFile(fname, "r") ) {
+			if( raf.length() < HEADER_SIZE )
+				return false;
+			java.nio.ByteBuffer header = java.nio.ByteBuffer.allocate(4).order(ByteOrder.nativeOrder());
+			while( header.hasRemaining() && raf.getChannel().read(header, header.position()) >= 0 );
+			return header.getInt(0) == MAGIC;
+		}
+	}
+
+	/**
+	 * Writes a dense or CSR matrix block in raw layout via mapped file regions.
+	 * 
+	 * @param fname file name
+	 * @param mb matrix block
+	 * @throws IOException if IOException occurs
+	 */
+	public static void writeMatrixBlock(String fname, MatrixBlock mb) throws IOException {
+		int rows = mb.getNumRows();
+		int cols = mb.getNumColumns();
+		boolean sparse = mb.isInSparseFormat();
+		//the sparse payload size defines the nnz, while an
+		//unknown nnz of dense blocks is recomputed on write
+		long nnz = sparse ? mb.getSparseBlock().size() :
+			(mb.getNonZeros() < 0) ? mb.recomputeNonZeros() : mb.getNonZeros();
+
+		try( RandomAccessFile raf = new RandomAccessFile(fname, "rw") ) {
+			FileChannel ch = raf.getChannel();
+			java.nio.ByteBuffer header = java.nio.ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.nativeOrder());
+			header.putInt(0, MAGIC);
+			header.put(4, sparse ? TYPE_CSR : TYPE_DENSE);
+			header.putInt(8, rows);
+			header.putInt(12, cols);
+			header.putLong(16, nnz);
+			ch.write(header, 0);
+
+			long pos = HEADER_SIZE;
+			if( !sparse ) {
+				DenseBlock db = mb.getDenseBlock();
+				raf.setLength(pos + (long) rows * cols * Double.BYTES);
+				for( int bix = 0; bix < db.numBlocks(); bix++ ) {
+					int len = db.size(bix);
+					writeDoubles(ch, pos, db.valuesAt(bix), len);
+					pos += (long) len * Double.BYTES;
+				}
+			}
+			else {
+				SparseBlockCSR sb = (SparseBlockCSR) mb.getSparseBlock();
+				int snnz = (int) sb.size();
+				long vpos = align(pos + (long) (rows + 1 + snnz) * Integer.BYTES);
+				raf.setLength(vpos + (long) snnz * Double.BYTES);
+				writeInts(ch, pos, sb.rowPointers(), rows + 1);
+				writeInts(ch, pos + (long) (rows + 1) * Integer.BYTES, sb.indexes(), snnz);
+				writeDoubles(ch, vpos, sb.values(), snnz);
+			}
+		}
+	}
+
+	/**
+	 * Reads a matrix block in raw layout via read-only mapped file regions.
+	 * 
+	 * @param fname file name
+	 * @return matrix block
+	 * @throws IOException if IOException occurs
+	 */
+	public static MatrixBlock readMatrixBlock(String fname) throws IOException {
+		try( RandomAccessFile raf = new RandomAccessFile(fname, "r") ) {
+			FileChannel ch = raf.getChannel();
+			java.nio.ByteBuffer header = java.nio.ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.nativeOrder());
+			while( header.hasRemaining() && ch.read(header, header.position()) >= 0 );
+			if( header.getInt(0) != MAGIC )
+				throw new IOException("Invalid raw cache block file: " + fname);
+			byte type = header.get(4);
+			int rows = header.getInt(8);
+			int cols = header.getInt(12);
+			long nnz = header.getLong(16);
+
+			long pos = HEADER_SIZE;
+			MatrixBlock ret;
+			if( type == TYPE_DENSE ) {
+				ret = new MatrixBlock(rows, cols, false);
+				ret.allocateDenseBlock();
+				DenseBlock db = ret.getDenseBlock();
+				for( int bix = 0; bix < db.numBlocks(); bix++ ) {
+					int len = db.size(bix);
+					readDoubles(ch, pos, db.valuesAt(bix), len);
+					pos += (long) len * Double.BYTES;
+				}
+			}
+			else {
+				int snnz = (int) nnz;
+				int[] rowptr = new int[rows + 1];
+				int[] colidx = new int[snnz];
+				double[] values = new double[snnz];
+				long vpos = align(pos + (long) (rows + 1 + snnz) * Integer.BYTES);
+				readInts(ch, pos, rowptr, rows + 1);
+				readInts(ch, pos + (long) (rows + 1) * Integer.BYTES, colidx, snnz);
+				readDoubles(ch, vpos, values, snnz);
+				ret = new MatrixBlock(rows, cols, nnz,
+					new SparseBlockCSR(rowptr, colidx, values, snnz));
+			}
+			ret.setNonZeros(nnz);
+			return ret;
+		}
+	}
+
+	private static long align(long pos) {
+		return (pos + 7) / 8 * 8;
+	}
+
+	private static void writeDoubles(FileChannel ch, long pos, double[] a, int len) throws IOException {
+		for( int i = 0; i < len; i += MAX_REGION_LENGTH ) {
+			int n = Math.min(MAX_REGION_LENGTH, len - i);
+			MappedByteBuffer buff = ch.map(MapMode.READ_WRITE, pos + (long) i * Double.BYTES, (long) n * Double.BYTES);
+			buff.order(ByteOrder.nativeOrder()).asDoubleBuffer().put(a, i, n);
+			DirectBufferUtils.free(buff);
+		}
+	}
+
+	private static void writeInts(FileChannel ch, long pos, int[] a, int len) throws IOException {
+		for( int i = 0; i < len; i += MAX_REGION_LENGTH ) {
+			int n = Math.min(MAX_REGION_LENGTH, len - i);
+			MappedByteBuffer buff = ch.map(MapMode.READ_WRITE, pos + (long) i * Integer.BYTES, (long) n * Integer.BYTES);
+			buff.order(ByteOrder.nativeOrder()).asIntBuffer().put(a, i, n);
+			DirectBufferUtils.free(buff);
+		}
+	}
+
+	private static void readDoubles(FileChannel ch, long pos, double[] a, int len) throws IOException {
+		for( int i = 0; i < len; i += MAX_REGION_LENGTH ) {
+			int n = Math.min(MAX_REGION_LENGTH, len - i);
+			MappedByteBuffer buff = ch.map(MapMode.READ_ONLY, pos + (long) i * Double.BYTES, (long) n * Double.BYTES);
+			buff.order(ByteOrder.nativeOrder()).asDoubleBuffer().get(a, i, n);
+			DirectBufferUtils.free(buff);
+		}
+	}
+
+	private static void readInts(FileChannel ch, long pos, int[] a, int len) throws IOException {
+		for( int i = 0; i < len; i += MAX_REGION_LENGTH ) {
+			int n = Math.min(MAX_REGION_LENGTH, len - i);
+			MappedByteBuffer buff = ch.map(MapMode.READ_ONLY, pos + (long) i * Integer.BYTES, (long) n * Integer.BYTES);
+			buff.order(ByteOrder.nativeOrder()).asIntBuffer().get(a, i, n);
+			DirectBufferUtils.free(buff);
+		}
+	}
+}
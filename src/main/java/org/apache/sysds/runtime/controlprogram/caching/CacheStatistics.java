@@ -21,6 +21,8 @@ package org.apache.sysds.runtime.controlprogram.caching;
 
 import java.util.concurrent.atomic.LongAdder;
 
+import org.apache.sysds.runtime.data.DenseBlockFP64OffHeap;
+
 /**
  * This singleton provides basic caching statistics in CP.
  * 
@@ -41,10 +43,12 @@ public class CacheStatistics
 		CACHE_HITS_FS,
 		CACHE_HITS_HDFS,
 		CACHE_HITS_LIN,
+		CACHE_HITS_OFFHEAP,
 		CACHE_WRITES_FSBUFF,
 		CACHE_WRITES_FS,
 		CACHE_WRITES_HDFS,
 		CACHE_WRITES_LIN,
+		CACHE_WRITES_OFFHEAP,
 		CACHE_TIME_ACQR, //acquire read
 		CACHE_TIME_ACQM, //acquire read
 		CACHE_TIME_RLS, //release
@@ -57,12 +61,19 @@ public class CacheStatistics
 	private static final LongAdder _numHitsFS       = new LongAdder();
 	private static final LongAdder _numHitsHDFS     = new LongAdder();
 	private static final LongAdder _numHitsLin      = new LongAdder();
+	private static final LongAdder _numHitsOffHeap  = new LongAdder();
+	private static final LongAdder _numHitsProj     = new LongAdder();
 
 	//write statistics caching
 	private static final LongAdder _numWritesBPool = new LongAdder();
 	private static final LongAdder _numWritesFS     = new LongAdder();
 	private static final LongAdder _numWritesHDFS   = new LongAdder();
 	private static final LongAdder _numWritesLin    = new LongAdder();
+	private static final LongAdder _numWritesOffHeap = new LongAdder();
+	
+	//session quota evictions of the buffer pool
+	private static final LongAdder _numQuotaEvicts  = new LongAdder();
+	private static final LongAdder _quotaEvictBytes = new LongAdder();
 	
 	//time statistics caching
 	private static final LongAdder _ctimeAcquireR   = new LongAdder(); //in nano sec
@@ -76,11 +87,16 @@ public class CacheStatistics
 		_numHitsFSBuff.reset();
 		_numHitsFS.reset();
 		_numHitsHDFS.reset();
+		_numHitsOffHeap.reset();
+		_numHitsProj.reset();
 		
 		_numWritesBPool.reset();
 		_numWritesFS.reset();
 		_numWritesHDFS.reset();
 		_numWritesLin.reset();
+		_numWritesOffHeap.reset();
+		_numQuotaEvicts.reset();
+		_quotaEvictBytes.reset();
 		
 		_ctimeAcquireR.reset();
 		_ctimeAcquireM.reset();
@@ -196,6 +212,30 @@ public class CacheStatistics
 		return _numWritesLin.longValue();
 	}
 	
+	public static void incrementOffHeapHits() {
+		_numHitsOffHeap.increment();
+	}
+	
+	public static long getOffHeapHits() {
+		return _numHitsOffHeap.longValue();
+	}
+	
+	public static void incrementProjectionHits() {
+		_numHitsProj.increment();
+	}
+	
+	public static long getProjectionHits() {
+		return _numHitsProj.longValue();
+	}
+	
+	public static void incrementOffHeapWrites() {
+		_numWritesOffHeap.increment();
+	}
+	
+	public static long getOffHeapWrites() {
+		return _numWritesOffHeap.longValue();
+	}
+	
 	public static void incrementAcquireRTime(long delta) {
 		_ctimeAcquireR.add(delta);
 	}
@@ -228,6 +268,19 @@ public class CacheStatistics
 		return _ctimeExport.longValue();
 	}
 	
+	public static void incrementQuotaEvictions(long bytes) {
+		_numQuotaEvicts.increment();
+		_quotaEvictBytes.add(bytes);
+	}
+	
+	public static long getQuotaEvictions() {
+		return _numQuotaEvicts.longValue();
+	}
+	
+	public static long getQuotaEvictedBytes() {
+		return _quotaEvictBytes.longValue();
+	}
+	
 	public static String displayHits() {
 		StringBuilder sb = new StringBuilder();
 		sb.append(_numHitsMem.longValue());
@@ -256,6 +309,17 @@ public class CacheStatistics
 		return sb.toString();
 	}
 	
+	public static String displayOffHeap() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numWritesOffHeap.longValue());
+		sb.append("/");
+		sb.append(_numHitsOffHeap.longValue());
+		sb.append("/");
+		sb.append(DenseBlockFP64OffHeap.getAllocatedSize());
+		
+		return sb.toString();
+	}
+	
 	public static String displayTime() {
 		StringBuilder sb = new StringBuilder();
 		sb.append(String.format("%.3f", ((double)_ctimeAcquireR.longValue())/1000000000)); //in sec
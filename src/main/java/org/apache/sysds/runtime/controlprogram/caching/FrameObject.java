@@ -23,6 +23,7 @@ package org.apache.sysds.runtime.controlprogram.caching;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.mutable.MutableBoolean;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.common.Types.DataType;
 import org.apache.sysds.common.Types.FileFormat;
 import org.apache.sysds.common.Types.ValueType;
@@ -36,6 +37,7 @@ import org.apache.sysds.runtime.controlprogram.federated.FederationMap;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.instructions.spark.data.RDDObject;
 import org.apache.sysds.runtime.io.FileFormatProperties;
+import org.apache.sysds.runtime.io.FrameReaderColumnar;
 import org.apache.sysds.runtime.io.FrameReaderFactory;
 import org.apache.sysds.runtime.io.FrameWriter;
 import org.apache.sysds.runtime.io.FrameWriterFactory;
@@ -48,8 +50,10 @@ import org.apache.sysds.runtime.meta.MetaDataFormat;
 import org.apache.sysds.runtime.util.UtilFunctions;
 
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
 
@@ -59,6 +63,9 @@ public class FrameObject extends CacheableData<FrameBlock>
 
 	private ValueType[] _schema = null;
 	
+	//column projections read from a columnar input file, keyed by file and column range
+	private transient ConcurrentHashMap<String, SoftReference<FrameBlock>> _projections = null;
+	
 	protected FrameObject() {
 		super(DataType.FRAME, ValueType.STRING);
 	}
@@ -184,6 +191,67 @@ public class FrameObject extends CacheableData<FrameBlock>
 		return fb;
 	}
 
+	/**
+	 * Indicates if a column range of this frame can be read directly from
+	 * its columnar input file without reading the entire frame.
+	 * 
+	 * @return true if the frame is not yet in memory and stored in columnar format
+	 */
+	public boolean isColumnProjectable() {
+		return getStatus() == CacheStatus.EMPTY && !isDirty() && !hasRDDHandle() && !isFederated()
+			&& _metaData instanceof MetaDataFormat
+			&& ((MetaDataFormat) _metaData).getFileFormat() == FileFormat.COLUMNAR;
+	}
+
+	/**
+	 * Reads the column range [cl, cu] (0-based, inclusive) from the columnar input
+	 * file, while leaving the frame object itself unchanged (projection pushdown).
+	 * 
+	 * @param cl lower column index (0-based, inclusive)
+	 * @param cu upper column index (0-based, inclusive)
+	 * @return frame block of the projected columns
+	 */
+	public synchronized FrameBlock readColumns(int cl, int cu) {
+		if( !isColumnProjectable() )
+			throw new DMLRuntimeException("Frame "+hashCode()+" does not support column projection.");
+		//probe soft-referenced projections of repeated indexing (e.g., in loops)
+		String key = _hdfsFileName + "|" + cl + "|" + cu;
+		SoftReference<FrameBlock> ref = (_projections != null) ? _projections.get(key) : null;
+		FrameBlock ret = (ref != null) ? ref.get() : null;
+		if( ret != null ) {
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementProjectionHits();
+			return ret;
+		}
+		try {
+			ret = ((FrameReaderColumnar) FrameReaderFactory.createFrameReader(FileFormat.COLUMNAR))
+				.readFrameFromHDFS(_hdfsFileName, cl, cu);
+			if( _projections == null )
+				_projections = new ConcurrentHashMap<>();
+			_projections.put(key, new SoftReference<>(ret));
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementHDFSHits();
+			return ret;
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException("Failed to read columns ["+(cl+1)+":"+(cu+1)+"] of frame "+_hdfsFileName, ex);
+		}
+	}
+
+	@Override
+	public void setDirty(boolean flag) {
+		super.setDirty(flag);
+		//projections are only valid as long as the input file is unchanged
+		if( flag )
+			_projections = null;
+	}
+	
+	@Override
+	public synchronized void clearData(long tid) {
+		super.clearData(tid);
+		_projections = null;
+	}
+
 	@Override
 	protected FrameBlock readBlobFromHDFS(String fname, long[] dims)
 		throws IOException
@@ -21,14 +21,25 @@ package org.apache.sysds.runtime.controlprogram.caching;
 
 import java.io.IOException;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
 import org.apache.sysds.hops.OptimizerUtils;
-import org.apache.sysds.runtime.util.LocalFileUtils;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.data.DenseBlockFP64OffHeap;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 
 public class LazyWriteBuffer 
 {
+	private static final Log LOG = LogFactory.getLog(LazyWriteBuffer.class.getName());
+	
 	public enum RPolicy {
 		FIFO, //first-in, first-out eviction
 		LRU   //least recently used eviction
@@ -37,60 +48,80 @@ public class LazyWriteBuffer
 	//global size limit in bytes
 	private static long _limit;
 	
-	//current size in bytes
-	private static long _size;
+	//current size in bytes (atomic, reserved before insert)
+	private static final AtomicLong _size = new AtomicLong();
+	
+	//size limit per buffer pool session in bytes (-1 if no quota)
+	private static long _sessionLimit = -1;
 	
-	//eviction queue of <filename,buffer> pairs (implemented via linked hash map
-	//for (1) queue semantics and (2) constant time get/insert/delete operations)
+	//eviction queue of <filename,buffer> pairs (implemented via lock-striped
+	//linked hash maps for (1) queue semantics, (2) constant time get/insert/delete
+	//operations, and (3) concurrent access by parfor workers)
 	private static CacheEvictionQueue _mQueue;
 	
 	//maintenance service for synchronous or asynchronous delete of evicted files
 	private static CacheMaintenanceService _fClean;
 	
+	//off-heap copies of evicted dense blocks (see sysds.caching.offheap), which
+	//replace local FS writes on eviction as long as they fit into the size limit
+	private static final ConcurrentHashMap<String, MatrixBlock> _offHeap = new ConcurrentHashMap<>();
+	
+	//current size of off-heap copies in bytes (reserved before copy)
+	private static final AtomicLong _offHeapSize = new AtomicLong();
+	
 	public static int writeBlock(String fname, CacheBlock<?> cb)
 		throws IOException
 	{
+		//drop outdated off-heap copy of a previous eviction
+		deleteOffHeap(fname);
+		
 		//obtain basic meta data of cache block
 		long lSize = getCacheBlockSize(cb);
+		BufferPoolSession session = (_sessionLimit >= 0) ?
+			BufferPoolSession.getCurrent() : null;
 		boolean requiresWrite = (lSize > _limit        //global buffer limit
-			|| !ByteBuffer.isValidCapacity(lSize, cb)); //local buffer limit
+			|| !ByteBuffer.isValidCapacity(lSize, cb)  //local buffer limit
+			|| (session != null && lSize > _sessionLimit)); //session quota
 		int numEvicted = 0;
 		
 		//handle caching/eviction if it fits in writebuffer
 		if( !requiresWrite ) 
 		{
 			//create byte buffer handle (no block allocation yet)
-			ByteBuffer bbuff = new ByteBuffer( lSize );
+			ByteBuffer bbuff = new ByteBuffer( lSize, session );
 			
-			//modify buffer pool
-			synchronized( _mQueue )
-			{
-				//evict matrices to make room (by default FIFO)
-				while( _size+lSize > _limit && !_mQueue.isEmpty() )
-				{
-					//remove first entry from eviction queue
-					Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
-					String ftmp = entry.getKey();
-					ByteBuffer tmp = entry.getValue();
-					
-					if( tmp != null ) {
-						//wait for pending serialization
-						tmp.checkSerialized();
-						
-						//evict matrix
-						tmp.evictBuffer(ftmp);
-						tmp.freeMemory();
-						_size -= tmp.getSize();
-						numEvicted++;
-					}
+			//reserve session memory and evict the session's own entries
+			//to stay within its quota (before affecting other sessions)
+			if( session != null ) {
+				long ssize = session.reserve(lSize);
+				while( ssize > _sessionLimit ) {
+					long freed = _mQueue.evictFirst(null, session);
+					if( freed < 0 )
+						break;
+					_size.addAndGet(-freed);
+					session.incEvicted(freed);
+					if( DMLScript.STATISTICS )
+						CacheStatistics.incrementQuotaEvictions(freed);
+					ssize = session.getSize();
+					numEvicted++;
 				}
-				
-				//put placeholder into buffer pool (reserve mem)
-				_mQueue.addLast(fname, bbuff);
-				_size += lSize;
 			}
 			
-			//serialize matrix (outside synchronized critical path)
+			//reserve memory and evict matrices to make room (by default FIFO),
+			//where evictions only lock the stripe of the evicted entry
+			long size = _size.addAndGet(lSize);
+			while( size > _limit ) {
+				long freed = _mQueue.evictFirst(null);
+				if( freed < 0 )
+					break;
+				size = _size.addAndGet(-freed);
+				numEvicted++;
+			}
+			
+			//put placeholder into buffer pool
+			_mQueue.addLast(fname, bbuff);
+			
+			//serialize matrix (outside critical path)
 			_fClean.serializeData(bbuff, cb);
 			
 			if( DMLScript.STATISTICS ) {
@@ -101,7 +132,7 @@ public class LazyWriteBuffer
 		else
 		{
 			//write directly to local FS (bypass buffer if too large)
-			LocalFileUtils.writeCacheBlockToLocal(fname, cb);
+			CacheMappedIO.writeCacheBlock(fname, cb);
 			if( DMLScript.STATISTICS ) {
 				CacheStatistics.incrementFSWrites();
 			}
@@ -115,19 +146,16 @@ public class LazyWriteBuffer
 	{
 		boolean requiresDelete = true;
 		
-		synchronized( _mQueue )
-		{
-			//remove queue entry 
-			ByteBuffer ldata = _mQueue.remove(fname);
-			if( ldata != null ) {
-				_size -= ldata.getSize();
-				requiresDelete = false;
-				ldata.freeMemory(); //cleanup
-			}
+		//remove queue entry 
+		ByteBuffer ldata = _mQueue.remove(fname);
+		if( ldata != null ) {
+			_size.addAndGet(-ldata.getSize());
+			requiresDelete = false;
+			ldata.freeMemory(); //cleanup
 		}
 		
-		//delete from FS if required
-		if( requiresDelete )
+		//delete off-heap copy or from FS if required
+		if( requiresDelete && !deleteOffHeap(fname) )
 			_fClean.deleteFile(fname);
 	}
 	
@@ -137,31 +165,24 @@ public class LazyWriteBuffer
 		CacheBlock<?> cb = null;
 		ByteBuffer ldata = null;
 		
-		//probe write buffer
-		synchronized( _mQueue )
-		{
-			ldata = _mQueue.get(fname);
-			
-			//modify eviction order (accordingly to access)
-			if(    CacheableData.CACHING_BUFFER_POLICY == RPolicy.LRU
-				&& ldata != null )
-			{
-				//reinsert entry at end of eviction queue
-				_mQueue.remove( fname );
-				_mQueue.addLast( fname, ldata );
-			}
-		}
+		//probe write buffer and modify eviction order (accordingly to access)
+		ldata = _mQueue.get(fname, CacheableData.CACHING_BUFFER_POLICY == RPolicy.LRU);
 		
-		//deserialize or read from FS if required
+		//deserialize, restore from off-heap, or read from FS if required
 		if( ldata != null )
 		{
 			cb = ldata.deserializeBlock();
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSBuffHits();
 		}
+		else if( (cb = readOffHeap(fname)) != null )
+		{
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementOffHeapHits();
+		}
 		else
 		{
-			cb = LocalFileUtils.readCacheBlockFromLocal(fname, matrix);
+			cb = CacheMappedIO.readCacheBlock(fname, matrix);
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSHits();
 		}
@@ -169,11 +190,95 @@ public class LazyWriteBuffer
 		return cb;
 	}
 
+	/**
+	 * Writes an evicted dense FP64 matrix block into off-heap storage instead
+	 * of the local FS, if configured (see sysds.caching.offheap). The off-heap
+	 * bytes are not part of the (on-heap) buffer pool size but bounded by a
+	 * separate off-heap budget of the same size as the buffer pool limit, i.e.,
+	 * blocks that do not fit anymore are written to local FS.
+	 * 
+	 * @param fname file name of the evicted block
+	 * @param cb evicted cache block
+	 * @return true if the block was written off-heap
+	 */
+	protected static boolean writeOffHeap(String fname, CacheBlock<?> cb) {
+		DenseBlockFP64OffHeap.Storage storage = getOffHeapStorage();
+		if( storage == null || !(cb instanceof MatrixBlock) || cb instanceof CompressedMatrixBlock )
+			return false;
+		MatrixBlock mb = (MatrixBlock) cb;
+		if( mb.isInSparseFormat() || mb.isEmptyBlock(false)
+			|| !mb.getDenseBlock().isNumeric(ValueType.FP64) )
+			return false;
+		
+		//reserve off-heap memory within the separate off-heap budget
+		long size = getOffHeapSize(mb);
+		if( _offHeapSize.addAndGet(size) > _limit ) {
+			_offHeapSize.addAndGet(-size);
+			return false;
+		}
+		try {
+			MatrixBlock ret = new MatrixBlock(mb.getNumRows(), mb.getNumColumns(),
+				DenseBlockFP64OffHeap.copyOf(mb.getDenseBlock(), storage));
+			ret.setNonZeros(mb.getNonZeros());
+			MatrixBlock old = _offHeap.put(fname, ret);
+			if( old != null )
+				freeOffHeap(old);
+		}
+		catch(OutOfMemoryError ex) {
+			//fallback to local FS if direct memory exhausted
+			LOG.warn("Failed to allocate off-heap dense block, fallback to local FS: " + ex.getMessage());
+			_offHeapSize.addAndGet(-size);
+			return false;
+		}
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementOffHeapWrites();
+		return true;
+	}
+	
+	private static DenseBlockFP64OffHeap.Storage getOffHeapStorage() {
+		String storage = ConfigurationManager.getDMLConfig().getTextValue(DMLConfig.CACHING_OFFHEAP);
+		return (storage == null || storage.equalsIgnoreCase("none")) ? null :
+			DenseBlockFP64OffHeap.Storage.valueOf(storage.toUpperCase());
+	}
+	
+	private static MatrixBlock readOffHeap(String fname) {
+		MatrixBlock mb = _offHeap.get(fname);
+		if( mb == null )
+			return null;
+		//restore on-heap copy, while keeping the off-heap copy until deleted
+		DenseBlockFP64OffHeap db = (DenseBlockFP64OffHeap) mb.getDenseBlock();
+		MatrixBlock ret = new MatrixBlock(mb.getNumRows(), mb.getNumColumns(), db.toOnHeap());
+		ret.setNonZeros(mb.getNonZeros());
+		return ret;
+	}
+	
+	private static boolean deleteOffHeap(String fname) {
+		MatrixBlock mb = _offHeap.remove(fname);
+		if( mb != null )
+			freeOffHeap(mb);
+		return mb != null;
+	}
+	
+	private static void freeOffHeap(MatrixBlock mb) {
+		((DenseBlockFP64OffHeap) mb.getDenseBlock()).release();
+		_offHeapSize.addAndGet(-getOffHeapSize(mb));
+	}
+	
+	private static long getOffHeapSize(MatrixBlock mb) {
+		return (long) mb.getNumRows() * mb.getNumColumns() * Double.BYTES;
+	}
+	
+	private static void clearOffHeap() {
+		for( String fname : _offHeap.keySet() )
+			deleteOffHeap(fname);
+	}
+	
 	public static void init() {
-		_mQueue = new CacheEvictionQueue();
+		clearOffHeap();
+		_mQueue = new CacheEvictionQueue(true);
 		_fClean = new CacheMaintenanceService();
 		_limit = OptimizerUtils.getBufferPoolLimit();
-		_size = 0;
+		_size.set(0);
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.init();
 	}
@@ -185,6 +290,8 @@ public class LazyWriteBuffer
 			_fClean.close();
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.clear();
+		clearOffHeap();
+		_size.set(0);
 	}
 
 	public static long getWriteBufferLimit() {
@@ -197,14 +304,29 @@ public class LazyWriteBuffer
 		_limit = limit;
 	}
 	
+	/**
+	 * Sets the buffer pool quota of sessions (see {@link BufferPoolSession}).
+	 * 
+	 * @param limit size limit per session in bytes, or -1 to disable quotas
+	 */
+	public static void setSessionLimit(long limit) {
+		_sessionLimit = limit;
+	}
+	
+	public static long getSessionLimit() {
+		return _sessionLimit;
+	}
+	
 	public static long getWriteBufferSize() {
-		synchronized( _mQueue ) {
-			return _size; }
+		return _size.get();
 	}
 	
 	public static long getWriteBufferFree() {
-		synchronized( _mQueue ) {
-			return _limit - _size; }
+		return _limit - _size.get();
+	}
+	
+	public static long getOffHeapBufferSize() {
+		return _offHeapSize.get();
 	}
 	
 	public static int getQueueSize() {
@@ -226,23 +348,21 @@ public class LazyWriteBuffer
 	{
 		System.out.println("WRITE BUFFER STATUS ("+position+") --");
 		
-		synchronized( _mQueue ) {
-			//print buffer meta data
-			System.out.println("\tWB: Buffer Meta Data: " +
-				"limit="+_limit+", " +
-				"size[bytes]="+_size+", " +
-				"size[elements]="+_mQueue.size()+"/"+_mQueue.size());
-			
-			//print current buffer entries
-			int count = _mQueue.size();
-			for( Entry<String, ByteBuffer> entry : _mQueue.entrySet() ) {
-				String fname = entry.getKey();
-				ByteBuffer bbuff = entry.getValue();
-				System.out.println("\tWB: buffer element ("+count+"): "
-					+fname+", "+(bbuff.isShallow()?bbuff._cdata.getClass().getSimpleName():"?")
-					+", "+bbuff.getSize()+", "+bbuff.isShallow());
-				count--;
-			}
+		//print buffer meta data
+		System.out.println("\tWB: Buffer Meta Data: " +
+			"limit="+_limit+", " +
+			"size[bytes]="+_size.get()+", " +
+			"size[elements]="+_mQueue.size()+"/"+_mQueue.size());
+		
+		//print current buffer entries
+		int count = _mQueue.size();
+		for( Entry<String, ByteBuffer> entry : _mQueue.entries() ) {
+			String fname = entry.getKey();
+			ByteBuffer bbuff = entry.getValue();
+			System.out.println("\tWB: buffer element ("+count+"): "
+				+fname+", "+(bbuff.isShallow()?bbuff._cdata.getClass().getSimpleName():"?")
+				+", "+bbuff.getSize()+", "+bbuff.isShallow());
+			count--;
 		}
 	}
 	
@@ -256,21 +376,9 @@ public class LazyWriteBuffer
 		throws IOException 
 	{
 		//evict all matrices and frames
-		while( !_mQueue.isEmpty() )
-		{
-			//remove first entry from eviction queue
-			Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
-			ByteBuffer tmp = entry.getValue();
-			
-			if( tmp != null ) {
-				//wait for pending serialization
-				tmp.checkSerialized();
-				
-				//evict matrix
-				tmp.evictBuffer(entry.getKey());
-				tmp.freeMemory();
-			}
-		}
+		long freed = 0;
+		while( (freed = _mQueue.evictFirst(null)) >= 0 )
+			_size.addAndGet(-freed);
 	}
 	
 	public static ExecutorService getUtilThreadPool() {
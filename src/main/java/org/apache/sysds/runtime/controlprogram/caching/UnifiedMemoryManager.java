@@ -23,12 +23,13 @@ import org.apache.commons.lang.NotImplementedException;
 import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.hops.OptimizerUtils;
 import org.apache.sysds.runtime.DMLRuntimeException;
-import org.apache.sysds.runtime.util.LocalFileUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Unified Memory Manager - Initial Design
@@ -82,10 +83,10 @@ import java.util.Map;
  *  	Evict cached objects to reserve worst-case output memory.
  *
  * Thread-safeness:
- * Initially, the UMM will be used in an instance-based manner. For global visibility and
- * use in parallel for loops, the UMM would need to provide a static, synchronized API, but
- * this constitutes a source of severe contention. In the future, we will consider a design
- * with thread-local UMMs for the individual parfor workers.
+ * The UMM provides a static API for global visibility and use in parallel for loops. In
+ * order to avoid a global monitor (and thus severe contention), the eviction queue is
+ * lock-striped and all size accounting uses atomic counters. In the future, we will
+ * consider a design with thread-local UMMs for the individual parfor workers.
  */
 
 public class UnifiedMemoryManager
@@ -93,14 +94,15 @@ public class UnifiedMemoryManager
 	// Maximum size of UMM in bytes (default 85%)
 	private static long _limit;
 	// Current total size of the cached objects
-	private static long _totCachedSize;
+	private static final AtomicLong _totCachedSize = new AtomicLong();
 	// Operational memory limit in bytes (70%)
 	private static long _opMemLimit;
 	// List of pinned entries
-	private static final List<String> _pinnedEntries = new ArrayList<String>();
+	private static final List<String> _pinnedEntries = Collections.synchronizedList(new ArrayList<String>());
 
-	// Eviction queue of <filename,buffer> pairs (implemented via linked hash map
-	// for (1) queue semantics and (2) constant time get/insert/delete operations)
+	// Eviction queue of <filename,buffer> pairs (implemented via lock-striped linked
+	// hash maps for (1) queue semantics, (2) constant time get/insert/delete operations,
+	// and (3) concurrent access by parfor workers)
 	private static CacheEvictionQueue _mQueue;
 
 	// Maintenance service for synchronous or asynchronous delete of evicted files
@@ -108,10 +110,10 @@ public class UnifiedMemoryManager
 
 	// Pinned size of physical memory. Starts from 0 for each operation. Max is 70% of heap
 	// This increases only if the input is not present in the cache and read from FS/rdd/fed/gpu
-	private static long _pinnedPhysicalMemSize = 0;
+	private static final AtomicLong _pinnedPhysicalMemSize = new AtomicLong();
 	// Size of pinned virtual memory. This tracks the total input size
 	// This increases if the input is available in the cache.
-	private static long _pinnedVirtualMemSize = 0;
+	private static final AtomicLong _pinnedVirtualMemSize = new AtomicLong();
 
 	//---------------- OPERATION MEMORY MAINTENANCE -------------------//
 
@@ -126,12 +128,12 @@ public class UnifiedMemoryManager
 		if (probe(cd))
 			// Availability in the cache means no memory overhead.
 			// We still need to track to derive the worst-case output memory
-			_pinnedVirtualMemSize += estimatedSize;
+			_pinnedVirtualMemSize.addAndGet(estimatedSize);
 		else {
 			// The blob will be restored from local FS, or will be read
 			// from other backends. Make space if not available.
 			makeSpace(estimatedSize);
-			_pinnedPhysicalMemSize += estimatedSize;
+			_pinnedPhysicalMemSize.addAndGet(estimatedSize);
 		}
 		// Track the pinned entries to protect from evictions
 		_pinnedEntries.add(cd.getCacheFilePathAndName());
@@ -150,7 +152,7 @@ public class UnifiedMemoryManager
 
 		// Worst case upper bound for output = 70% - size(inputs)
 		// FIXME: Parfor splits this 70% into smaller limits
-		long maxOutputSize = _opMemLimit - (_pinnedVirtualMemSize + _pinnedPhysicalMemSize);
+		long maxOutputSize = _opMemLimit - (_pinnedVirtualMemSize.get() + _pinnedPhysicalMemSize.get());
 		// Evict cached entries to make space in operation memory if needed
 		makeSpace(maxOutputSize);
 	}
@@ -168,9 +170,9 @@ public class UnifiedMemoryManager
 		// This makes sure we are subtracting exactly what we added during pinning.
 		long estimatedSize = OptimizerUtils.estimateSize(cd.getDataCharacteristics());
 		if (probe(cd))
-			_pinnedVirtualMemSize -= estimatedSize;
+			_pinnedVirtualMemSize.addAndGet(-estimatedSize);
 		else
-			_pinnedPhysicalMemSize -= estimatedSize;
+			_pinnedPhysicalMemSize.addAndGet(-estimatedSize);
 
 		_pinnedEntries.remove(cd.getCacheFilePathAndName());
 	}
@@ -183,9 +185,9 @@ public class UnifiedMemoryManager
 		_fClean = new CacheMaintenanceService();
 		_limit = OptimizerUtils.getBufferPoolLimit();
 		_opMemLimit = (long)(OptimizerUtils.getLocalMemBudget()); //70% of heap
-		_totCachedSize = 0;
-		_pinnedPhysicalMemSize = 0;
-		_pinnedVirtualMemSize = 0;
+		_totCachedSize.set(0);
+		_pinnedPhysicalMemSize.set(0);
+		_pinnedVirtualMemSize.set(0);
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.init();
 	}
@@ -198,9 +200,9 @@ public class UnifiedMemoryManager
 			_fClean.close();
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.clear();
-		_totCachedSize = 0;
-		_pinnedPhysicalMemSize = 0;
-		_pinnedVirtualMemSize = 0;
+		_totCachedSize.set(0);
+		_pinnedPhysicalMemSize.set(0);
+		_pinnedVirtualMemSize.set(0);
 	}
 
 	/**
@@ -213,25 +215,23 @@ public class UnifiedMemoryManager
 	{
 		System.out.println("UMM STATUS AT "+operation+" --");
 
-		synchronized (_mQueue) {
-			// print UMM meta data
-			System.out.println("\tUMM: Meta Data: " +
-				"UMM limit="+_limit+", " +
-				"size[bytes]="+_totCachedSize+", " +
-				"size[elements]="+_mQueue.size()+", " +
-				"pinned[elements]="+_pinnedEntries.size()+", " +
-				"pinned[bytes]="+_pinnedPhysicalMemSize);
-
-			// print current cached entries
-			int count = _mQueue.size();
-			for (Map.Entry<String, ByteBuffer> entry : _mQueue.entrySet()) {
-				String fname = entry.getKey();
-				ByteBuffer bbuff = entry.getValue();
-				System.out.println("\tUMM: Cached element ("+count+"): "
-					+fname+", "+(bbuff.isShallow()?bbuff._cdata.getClass().getSimpleName():"?")
-					+", "+bbuff.getSize()+", "+bbuff.isShallow());
-				count--;
-			}
+		// print UMM meta data
+		System.out.println("\tUMM: Meta Data: " +
+			"UMM limit="+_limit+", " +
+			"size[bytes]="+_totCachedSize.get()+", " +
+			"size[elements]="+_mQueue.size()+", " +
+			"pinned[elements]="+_pinnedEntries.size()+", " +
+			"pinned[bytes]="+_pinnedPhysicalMemSize.get());
+
+		// print current cached entries
+		int count = _mQueue.size();
+		for (Map.Entry<String, ByteBuffer> entry : _mQueue.entries()) {
+			String fname = entry.getKey();
+			ByteBuffer bbuff = entry.getValue();
+			System.out.println("\tUMM: Cached element ("+count+"): "
+				+fname+", "+(bbuff.isShallow()?bbuff._cdata.getClass().getSimpleName():"?")
+				+", "+bbuff.getSize()+", "+bbuff.isShallow());
+			count--;
 		}
 	}
 
@@ -240,16 +240,12 @@ public class UnifiedMemoryManager
 	}
 
 	public static long getUMMSize() {
-		synchronized(_mQueue) {
-			return _limit;
-		}
+		return _limit;
 	}
 
 	// Get the available memory in UMM
 	public static long getUMMFree() {
-		synchronized(_mQueue) {
-			return _limit - (_totCachedSize + _pinnedPhysicalMemSize);
-		}
+		return _limit - (_totCachedSize.get() + _pinnedPhysicalMemSize.get());
 	}
 
 	// Reads a cached object. This is called from cacheabledata implementations
@@ -259,20 +255,8 @@ public class UnifiedMemoryManager
 		CacheBlock<?> cb = null;
 		ByteBuffer ldata = null;
 
-		//probe write buffer
-		synchronized (_mQueue)
-		{
-			ldata = _mQueue.get(fname);
-
-			//modify eviction order (accordingly to access)
-			if (CacheableData.CACHING_BUFFER_POLICY == LazyWriteBuffer.RPolicy.LRU
-				&& ldata != null)
-			{
-				//reinsert entry at end of eviction queue
-				_mQueue.remove (fname);
-				_mQueue.addLast (fname, ldata);
-			}
-		}
+		//probe write buffer and modify eviction order (accordingly to access)
+		ldata = _mQueue.get(fname, CacheableData.CACHING_BUFFER_POLICY == LazyWriteBuffer.RPolicy.LRU);
 
 		//deserialize or read from FS if required
 		if( ldata != null )
@@ -283,7 +267,7 @@ public class UnifiedMemoryManager
 		}
 		else
 		{
-			cb = LocalFileUtils.readCacheBlockFromLocal(fname, matrix);
+			cb = CacheMappedIO.readCacheBlock(fname, matrix);
 			if (DMLScript.STATISTICS)
 				CacheStatistics.incrementFSHits();
 		}
@@ -305,24 +289,15 @@ public class UnifiedMemoryManager
 
 		// Evict cached objects to make space
 		try {
-			synchronized(_mQueue) {
-				// Evict blobs to make room (by default FIFO)
-				while (getUMMFree() < reqSpace && !_mQueue.isEmpty()) {
-					//remove first unpinned entry from eviction queue
-					var entry = _mQueue.removeFirstUnpinned(_pinnedEntries);
-					String ftmp = entry.getKey();
-					ByteBuffer bb = entry.getValue();
-
-					if(bb != null) {
-						// Wait for pending serialization
-						bb.checkSerialized();
-						// Evict object
-						bb.evictBuffer(ftmp);
-						bb.freeMemory();
-						_totCachedSize -= bb.getSize();
-						numEvicted++;
-					}
-				}
+			// Evict blobs to make room (by default FIFO), where
+			// evictions only lock the stripe of the evicted entry
+			while (getUMMFree() < reqSpace) {
+				//remove and evict first unpinned entry from eviction queue
+				long freed = _mQueue.evictFirst(_pinnedEntries);
+				if (freed < 0)
+					break;
+				_totCachedSize.addAndGet(-freed);
+				numEvicted++;
 			}
 		}
 		catch (Exception e) {
@@ -351,17 +326,13 @@ public class UnifiedMemoryManager
 			// Create byte buffer handle (no block allocation yet)
 			ByteBuffer bbuff = new ByteBuffer( lSize );
 
-			// Modify buffer pool
-			synchronized( _mQueue )
-			{
-				// Evict blocks to make room if required
-				numEvicted += makeSpace(lSize);
-				// Put placeholder into buffer pool (reserve mem)
-				_mQueue.addLast(fname, bbuff);
-				_totCachedSize += lSize;
-			}
+			// Reserve memory and evict blocks to make room if required
+			_totCachedSize.addAndGet(lSize);
+			numEvicted += makeSpace(0);
+			// Put placeholder into buffer pool
+			_mQueue.addLast(fname, bbuff);
 
-			// Serialize matrix (outside synchronized critical path)
+			// Serialize matrix (outside critical path)
 			_fClean.serializeData(bbuff, cb);
 
 			if( DMLScript.STATISTICS )
@@ -370,7 +341,7 @@ public class UnifiedMemoryManager
 		else
 		{
 			// Write directly to local FS (bypass buffer if too large)
-			LocalFileUtils.writeCacheBlockToLocal(fname, cb);
+			CacheMappedIO.writeCacheBlock(fname, cb);
 			if( DMLScript.STATISTICS ) {
 				CacheStatistics.incrementFSWrites();
 			}
@@ -389,15 +360,12 @@ public class UnifiedMemoryManager
 	{
 		boolean requiresDelete = true;
 
-		synchronized( _mQueue )
-		{
-			//remove queue entry
-			ByteBuffer ldata = _mQueue.remove(fname);
-			if( ldata != null ) {
-				_totCachedSize -= ldata.getSize();
-				requiresDelete = false;
-				ldata.freeMemory(); //cleanup
-			}
+		//remove queue entry
+		ByteBuffer ldata = _mQueue.remove(fname);
+		if( ldata != null ) {
+			_totCachedSize.addAndGet(-ldata.getSize());
+			requiresDelete = false;
+			ldata.freeMemory(); //cleanup
 		}
 
 		//delete from FS if required
@@ -425,20 +393,8 @@ public class UnifiedMemoryManager
 		throws IOException
 	{
 		//evict all matrices and frames
-		while( !_mQueue.isEmpty() )
-		{
-			//remove first entry from eviction queue
-			Map.Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
-			ByteBuffer tmp = entry.getValue();
-
-			if( tmp != null ) {
-				//wait for pending serialization
-				tmp.checkSerialized();
-
-				//evict matrix
-				tmp.evictBuffer(entry.getKey());
-				tmp.freeMemory();
-			}
-		}
+		long freed = 0;
+		while( (freed = _mQueue.evictFirst(null)) >= 0 )
+			_totCachedSize.addAndGet(-freed);
 	}
 }
@@ -96,6 +96,7 @@ import org.apache.sysds.runtime.matrix.data.MatrixCell;
 import org.apache.sysds.runtime.matrix.data.MatrixIndexes;
 import org.apache.sysds.runtime.meta.DataCharacteristics;
 import org.apache.sysds.runtime.meta.MatrixCharacteristics;
+import org.apache.sysds.runtime.meta.MetaDataFormat;
 import org.apache.sysds.runtime.meta.TensorCharacteristics;
 import org.apache.sysds.runtime.util.CommonThreadPool;
 import org.apache.sysds.runtime.util.HDFSTool;
@@ -610,7 +611,15 @@ public class SparkExecutionContext extends ExecutionContext
 		{
 			// parallelize hdfs-resident file
 			// For binary block, these are: SequenceFileInputFormat.class, MatrixIndexes.class, MatrixBlock.class
-			if(fmt == FileFormat.BINARY) {
+			if(fo.getMetaData() instanceof MetaDataFormat
+				&& (((MetaDataFormat)fo.getMetaData()).getFileFormat() == FileFormat.COLUMNAR
+				|| ((MetaDataFormat)fo.getMetaData()).getFileFormat() == FileFormat.PARQUET)) {
+				//columnar formats without hadoop input format: read and parallelize
+				FrameBlock fb = fo.acquireRead();
+				rdd = toFrameJavaPairRDD(sc, fb);
+				fo.release();
+			}
+			else if(fmt == FileFormat.BINARY) {
 				rdd = sc.hadoopFile( fo.getFileName(), inputInfo2.inputFormatClass, inputInfo2.keyClass, inputInfo2.valueClass);
 				//note: this copy is still required in Spark 1.4 because spark hands out whatever the inputformat
 				//recordreader returns; the javadoc explicitly recommend to copy all key/value pairs
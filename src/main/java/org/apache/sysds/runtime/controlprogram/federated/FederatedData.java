@@ -22,10 +22,14 @@ package org.apache.sysds.runtime.controlprogram.federated;
 import java.io.Serializable;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 import javax.net.ssl.SSLException;
 
@@ -42,6 +46,7 @@ import org.apache.sysds.runtime.meta.MetaData;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -62,6 +67,8 @@ import io.netty.util.concurrent.Promise;
 public class FederatedData {
 	private static final Log LOG = LogFactory.getLog(FederatedData.class.getName());
 	private static final Set<InetSocketAddress> _allFedSites = new HashSet<>();
+	/** Support of the binary wire format per federated site, probed on first use */
+	private static final Map<InetSocketAddress, Boolean> _binaryFedSites = new ConcurrentHashMap<>();
 
 	/** Thread pool specific for the federated requests */
 	private static EventLoopGroup workerGroup = null;
@@ -175,8 +182,23 @@ public class FederatedData {
 	 * @param request the requested operation
 	 * @return the response
 	 */
-	public synchronized static Future<FederatedResponse> executeFederatedOperation(InetSocketAddress address,
+	public static Future<FederatedResponse> executeFederatedOperation(InetSocketAddress address,
 		FederatedRequest... request) {
+		// defer requests into per-worker batches until a result is consumed
+		if(ConfigurationManager.isFederatedPipeline())
+			return FederatedRequestBatcher.submit(address, request);
+		return sendFederatedOperation(address, request);
+	}
+
+	/**
+	 * Sends a single message (request array or pipelined batch of request arrays) to a federated worker.
+	 *
+	 * @param address socket address (incl host and port)
+	 * @param msg     federated request array or batch of federated request arrays
+	 * @return the response
+	 */
+	protected synchronized static Promise<FederatedResponse> sendFederatedOperation(InetSocketAddress address,
+		Serializable msg) {
 		try {
 			final Bootstrap b = new Bootstrap();
 			if(workerGroup == null)
@@ -184,14 +206,15 @@ public class FederatedData {
 			b.group(workerGroup);
 			b.channel(NioSocketChannel.class);
 			final DataRequestHandler handler = new DataRequestHandler();
+			final boolean binary = ConfigurationManager.isFederatedBinaryCodec() && isBinaryFedSite(address);
 			// Client Netty
 
-			b.handler(createChannel(address, handler));
+			b.handler(createChannel(address, handler, binary));
 
 			ChannelFuture f = b.connect(address).sync();
 			Promise<FederatedResponse> promise = f.channel().eventLoop().newPromise();
 			handler.setPromise(promise);
-			f.channel().writeAndFlush(request);
+			f.channel().writeAndFlush(msg);
 
 			return handler.getProm();
 		}
@@ -200,25 +223,85 @@ public class FederatedData {
 		}
 	}
 
-	private static ChannelInitializer<SocketChannel> createChannel(InetSocketAddress address, DataRequestHandler handler){
+	/**
+	 * Checks if the federated worker at the given address supports the binary wire format. The first call per
+	 * address sends a probe message, and falls back to java serialization if the worker does not echo it.
+	 *
+	 * @param address socket address (incl host and port)
+	 * @return true if the worker supports the binary wire format
+	 */
+	private static boolean isBinaryFedSite(InetSocketAddress address) {
+		// unreachable workers are not recorded, to probe them again on the next request
+		Boolean ret = _binaryFedSites.computeIfAbsent(address, FederatedData::probeBinaryCodec);
+		return ret != null && ret;
+	}
+
+	private static Boolean probeBinaryCodec(InetSocketAddress address) {
 		final int timeout = ConfigurationManager.getFederatedTimeout();
 		final boolean ssl = ConfigurationManager.isFederatedSSL();
+		final Promise<Boolean> promise = workerGroup.next().newPromise();
+		final ProbeHandler handler = new ProbeHandler(promise);
+		final Bootstrap b = new Bootstrap();
+		b.group(workerGroup);
+		b.channel(NioSocketChannel.class);
+		b.handler(new ChannelInitializer<SocketChannel>() {
+			@Override
+			protected void initChannel(SocketChannel ch) throws Exception {
+				final ChannelPipeline cp = ch.pipeline();
+				if(ssl)
+					cp.addLast(createSSLHandler(ch, address));
+				if(timeout > -1)
+					cp.addLast(new ReadTimeoutHandler(timeout));
+				cp.addLast(FederationUtils.decoder(), handler);
+			}
+		});
+		final Channel channel;
+		try {
+			channel = b.connect(address).sync().channel();
+		}
+		catch(Exception e) {
+			return null;
+		}
+		try {
+			ByteBuf probe = channel.alloc().buffer(7);
+			FederatedWireCodec.encodeProbe(probe);
+			channel.writeAndFlush(probe);
+			boolean ret = promise.get();
+			if(!ret)
+				LOG.warn("Federated worker " + address + " does not support the binary wire format, "
+					+ "falling back to java serialization.");
+			return ret;
+		}
+		catch(Exception e) {
+			LOG.warn("Failed to probe the wire format of federated worker " + address, e);
+			return false;
+		}
+	}
+
+	private static ChannelInitializer<SocketChannel> createChannel(InetSocketAddress address,
+		DataRequestHandler handler, boolean binary)
+	{
+		final int timeout = ConfigurationManager.getFederatedTimeout();
+		final boolean ssl = ConfigurationManager.isFederatedSSL();
+		final boolean compress = ConfigurationManager.isFederatedCompression();
 
 		return new ChannelInitializer<SocketChannel>() {
 			@Override
 			protected void initChannel(SocketChannel ch) throws Exception {
 				final ChannelPipeline cp = ch.pipeline();
-				cp.addLast("NetworkTrafficCounter", new NetworkTrafficCounter(FederatedStatistics::logServerTraffic));
+				cp.addLast("NetworkTrafficCounter", new NetworkTrafficCounter(FederatedStatistics::logServerLinkTraffic));
 				if(ssl)
 					cp.addLast(createSSLHandler(ch, address));
 				if(timeout > -1)
 					cp.addLast(new ReadTimeoutHandler(timeout));
-				cp.addLast(FederationUtils.decoder(), new FederatedRequestEncoder(), handler);
+				cp.addLast(FederationUtils.decoder(), new FederatedRequestEncoder(binary, compress), handler);
 			}
 		};
 	}
 
 	public static void clearFederatedWorkers() {
+		// send pipelined requests that were never consumed (e.g., cleanups)
+		FederatedRequestBatcher.flush();
 		if(_allFedSites.isEmpty())
 			return;
 
@@ -247,6 +330,7 @@ public class FederatedData {
 
 	public static void resetFederatedSites() {
 		_allFedSites.clear();
+		_binaryFedSites.clear();
 	}
 
 	public static void clearWorkGroup() {
@@ -281,6 +365,35 @@ public class FederatedData {
 		}
 	}
 
+	/**
+	 * Handler of the wire format probe, which succeeds only if the worker echoes the probe message, while older
+	 * workers close the connection after failing to decode it.
+	 */
+	private static class ProbeHandler extends ChannelInboundHandlerAdapter {
+		private final Promise<Boolean> _prom;
+
+		public ProbeHandler(Promise<Boolean> prom) {
+			_prom = prom;
+		}
+
+		@Override
+		public void channelRead(ChannelHandlerContext ctx, Object msg) {
+			_prom.trySuccess(msg == FederatedWireCodec.PROBE);
+			ctx.close();
+		}
+
+		@Override
+		public void channelInactive(ChannelHandlerContext ctx) {
+			_prom.trySuccess(false);
+		}
+
+		@Override
+		public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+			_prom.trySuccess(false);
+			ctx.close();
+		}
+	}
+
 	private static class SslContextMan {
 		protected final SslContext context;
 
@@ -312,14 +425,40 @@ public class FederatedData {
 	}
 
 	public static class FederatedRequestEncoder extends ObjectEncoder {
+		private final boolean _binary;
+		private final boolean _compress;
+
+		public FederatedRequestEncoder() {
+			this(false, false);
+		}
+
+		public FederatedRequestEncoder(boolean binary) {
+			this(binary, false);
+		}
+
+		public FederatedRequestEncoder(boolean binary, boolean compress) {
+			_binary = binary;
+			_compress = compress;
+		}
+
+		@Override
+		protected void encode(ChannelHandlerContext ctx, Serializable msg, ByteBuf out) throws Exception {
+			if(_binary && (msg instanceof FederatedRequest[] || msg instanceof FederatedRequest[][]))
+				FederatedWireCodec.encode(msg, out, _compress);
+			else
+				super.encode(ctx, msg, out);
+		}
+
 		@Override
 		protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, Serializable msg,
 		boolean preferDirect) throws Exception {
 			int initCapacity = 256; // default initial capacity
-			if(msg instanceof FederatedRequest[]) {
+			if(msg instanceof FederatedRequest[] || msg instanceof FederatedRequest[][]) {
+				FederatedRequest[] frs = (msg instanceof FederatedRequest[][]) ? Arrays.stream(
+					(FederatedRequest[][]) msg).flatMap(Stream::of).toArray(FederatedRequest[]::new) : (FederatedRequest[]) msg;
 				initCapacity = 0;
 				try {
-					for(FederatedRequest fr : (FederatedRequest[])msg) {
+					for(FederatedRequest fr : frs) {
 						int frSize = Math.toIntExact(fr.estimateSerializationBufferSize());
 						if(Integer.MAX_VALUE - initCapacity < frSize) // summed sizes exceed integer limits
 							throw new ArithmeticException("Overflow.");
@@ -61,6 +61,10 @@ public class FederatedRequest implements Serializable {
 	private long _pid;
 	private String _lineageTrace; // the serialized lineage trace of a put object
 
+	private FederatedRequest() {
+		// for deserialization via the binary wire codec
+	}
+
 	public FederatedRequest(RequestType method) {
 		this(method, FederationUtils.getNextFedDataID(), new ArrayList<>());
 	}
@@ -208,6 +212,43 @@ public class FederatedRequest implements Serializable {
 		return minBufferSize;
 	}
 
+	void write(FederatedWireCodec.ByteBufDataOutput out) throws IOException {
+		out.writeByte(_method.ordinal());
+		out.writeLong(_id);
+		out.writeLong(_tid);
+		out.writeLong(_pid);
+		out.writeBoolean(_checkPrivacy);
+		FederatedWireCodec.writeString(out, _lineageTrace);
+		out.writeInt(_checksums != null ? _checksums.size() : -1);
+		if(_checksums != null)
+			for(Long cs : _checksums)
+				out.writeLong(cs);
+		out.writeInt(_data.size());
+		for(Object obj : _data)
+			FederatedWireCodec.writeObject(out, obj);
+	}
+
+	static FederatedRequest read(FederatedWireCodec.ByteBufDataInput in) throws IOException {
+		FederatedRequest ret = new FederatedRequest();
+		ret._method = RequestType.values()[in.readByte()];
+		ret._id = in.readLong();
+		ret._tid = in.readLong();
+		ret._pid = in.readLong();
+		ret._checkPrivacy = in.readBoolean();
+		ret._lineageTrace = FederatedWireCodec.readString(in);
+		final int ncs = in.readInt();
+		if(ncs >= 0) {
+			ret._checksums = new ArrayList<>(ncs);
+			for(int i = 0; i < ncs; i++)
+				ret._checksums.add(in.readLong());
+		}
+		final int ndata = in.readInt();
+		ret._data = new ArrayList<>(ndata);
+		for(int i = 0; i < ndata; i++)
+			ret._data.add(FederatedWireCodec.readObject(in));
+		return ret;
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder("FederatedRequest[");
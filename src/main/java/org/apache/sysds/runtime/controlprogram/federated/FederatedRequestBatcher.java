@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.controlprogram.federated;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedRequest.RequestType;
+
+import io.netty.util.concurrent.Promise;
+
+/**
+ * Coordinator-side pipelining of federated requests (sysds.federated.pipeline). Instead of sending every request
+ * array as a separate message, consecutive request arrays for the same worker are buffered and sent as one batch,
+ * which the worker executes in order and answers with one response per request array. The returned futures are
+ * lazy: consuming any of them flushes all pending batches, while requests that fetch data (GET_VAR) flush their
+ * batch eagerly to retain the overlap of asynchronous prefetches. Since the worker executes concurrent messages in
+ * parallel, a batch is only sent once the previous batch to the same worker completed.
+ */
+public class FederatedRequestBatcher {
+	/** maximum number of request arrays per batch before the batch is sent eagerly */
+	public static final int MAX_BATCH_SIZE = 64;
+
+	/** pending batches per worker, in order of first use */
+	private static final Map<InetSocketAddress, Batch> _pending = new LinkedHashMap<>();
+
+	/** last sent batch per worker, which the next batch to the same worker is chained on */
+	private static final Map<InetSocketAddress, CompletableFuture<Void>> _inflight = new ConcurrentHashMap<>();
+
+	private FederatedRequestBatcher() {
+		// private constructor for static utility class
+	}
+
+	/**
+	 * Appends the given request array to the pending batch of the given worker.
+	 * 
+	 * @param address socket address of the federated worker
+	 * @param request request array executed as a unit at the worker
+	 * @return lazy future of the response to this request array
+	 */
+	public static synchronized Future<FederatedResponse> submit(InetSocketAddress address,
+		FederatedRequest... request) {
+		Batch batch = _pending.computeIfAbsent(address, k -> new Batch());
+		DeferredResponse ret = batch.add(request);
+		if(batch.size() >= MAX_BATCH_SIZE || containsGet(request))
+			flush(address);
+		return ret;
+	}
+
+	/**
+	 * Sends the pending batches of all workers. This is invoked after every top-level program block and before
+	 * clearing the federated workers, so that requests whose futures are never consumed (e.g., rmvar cleanups)
+	 * are not deferred indefinitely.
+	 */
+	public static synchronized void flush() {
+		if(_pending.isEmpty())
+			return;
+		for(InetSocketAddress address : new ArrayList<>(_pending.keySet()))
+			flush(address);
+	}
+
+	/**
+	 * Sends the pending batch of the given worker, if any.
+	 * 
+	 * @param address socket address of the federated worker
+	 */
+	public static synchronized void flush(InetSocketAddress address) {
+		Batch batch = _pending.remove(address);
+		if(batch == null)
+			return;
+		// chain the batch on its predecessor to preserve the order of requests across batches
+		CompletableFuture<Void> prev = _inflight.put(address, batch._done);
+		batch._done.whenComplete((r, e) -> _inflight.remove(address, batch._done));
+		if(prev == null || prev.isDone())
+			batch.send(address);
+		else
+			prev.whenCompleteAsync((r, e) -> batch.send(address));
+	}
+
+	public static synchronized int getNumPending() {
+		return _pending.values().stream().mapToInt(Batch::size).sum();
+	}
+
+	private static boolean containsGet(FederatedRequest[] request) {
+		for(FederatedRequest fr : request)
+			if(fr.getType() == RequestType.GET_VAR)
+				return true;
+		return false;
+	}
+
+	private static class Batch {
+		private final List<FederatedRequest[]> _requests = new ArrayList<>();
+		private final List<DeferredResponse> _responses = new ArrayList<>();
+		private final CompletableFuture<Void> _done = new CompletableFuture<>();
+
+		public DeferredResponse add(FederatedRequest[] request) {
+			DeferredResponse ret = new DeferredResponse();
+			_requests.add(request);
+			_responses.add(ret);
+			return ret;
+		}
+
+		public int size() {
+			return _requests.size();
+		}
+
+		public void send(InetSocketAddress address) {
+			int numRequests = 0;
+			for(FederatedRequest[] request : _requests)
+				numRequests += request.length;
+			FederatedStatistics.incPipelinedBatch(_requests.size(), numRequests);
+			for(DeferredResponse r : _responses)
+				r._sent = true;
+
+			// single request arrays are sent as regular messages
+			final boolean single = _requests.size() == 1;
+			final Promise<FederatedResponse> prom;
+			try {
+				prom = FederatedData.sendFederatedOperation(address,
+					single ? _requests.get(0) : _requests.toArray(new FederatedRequest[0][]));
+			}
+			catch(DMLRuntimeException ex) {
+				for(DeferredResponse r : _responses)
+					r._result.completeExceptionally(ex);
+				_done.complete(null);
+				throw ex;
+			}
+			prom.addListener(f -> {
+				if(!f.isSuccess())
+					for(DeferredResponse r : _responses)
+						r._result.completeExceptionally(f.cause());
+				else if(single)
+					_responses.get(0)._result.complete(prom.getNow());
+				else
+					split(prom.getNow());
+				_done.complete(null);
+			});
+		}
+
+		private void split(FederatedResponse response) {
+			// errors of the batch itself (e.g., unsupported message) are returned for all request arrays
+			if(!response.isSuccessful()) {
+				for(DeferredResponse r : _responses)
+					r._result.complete(response);
+				return;
+			}
+			try {
+				Object[] data = response.getData();
+				for(int i = 0; i < _responses.size(); i++)
+					_responses.get(i)._result.complete((FederatedResponse) data[i]);
+			}
+			catch(Exception ex) {
+				for(DeferredResponse r : _responses)
+					r._result.completeExceptionally(ex);
+			}
+		}
+	}
+
+	/**
+	 * Future of a pipelined request array, which flushes the pending batches on first access of the result.
+	 */
+	private static class DeferredResponse implements Future<FederatedResponse> {
+		private final CompletableFuture<FederatedResponse> _result = new CompletableFuture<>();
+		private volatile boolean _sent = false;
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			return false;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return false;
+		}
+
+		@Override
+		public boolean isDone() {
+			return _result.isDone();
+		}
+
+		@Override
+		public FederatedResponse get() throws InterruptedException, ExecutionException {
+			if(!_sent)
+				flush();
+			return _result.get();
+		}
+
+		@Override
+		public FederatedResponse get(long timeout, TimeUnit unit)
+			throws InterruptedException, ExecutionException, TimeoutException {
+			if(!_sent)
+				flush();
+			return _result.get(timeout, unit);
+		}
+	}
+}
@@ -19,9 +19,11 @@
 
 package org.apache.sysds.runtime.controlprogram.federated;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.commons.lang.exception.ExceptionUtils;
@@ -140,6 +142,44 @@ public class FederatedResponse implements Serializable {
 			CheckedConstraintsLog.addCheckedConstraints(checkedConstraints);
 	}
 
+	void write(FederatedWireCodec.ByteBufDataOutput out) throws IOException {
+		out.writeByte(_status.ordinal());
+		out.writeInt(_data != null ? _data.length : -1);
+		if(_data != null)
+			for(Object obj : _data)
+				FederatedWireCodec.writeObject(out, obj);
+		out.writeInt(checkedConstraints != null ? checkedConstraints.size() : -1);
+		if(checkedConstraints != null)
+			for(Entry<PrivacyLevel, LongAdder> e : checkedConstraints.entrySet()) {
+				out.writeByte(e.getKey().ordinal());
+				out.writeLong(e.getValue().longValue());
+			}
+	}
+
+	static FederatedResponse read(FederatedWireCodec.ByteBufDataInput in) throws IOException {
+		ResponseType status = ResponseType.values()[in.readByte()];
+		final int ndata = in.readInt();
+		Object[] data = null;
+		if(ndata >= 0) {
+			data = new Object[ndata];
+			for(int i = 0; i < ndata; i++)
+				data[i] = FederatedWireCodec.readObject(in);
+		}
+		FederatedResponse ret = new FederatedResponse(status, data);
+		ret._status = status; // keep the sent status of empty responses
+		final int ncc = in.readInt();
+		if(ncc >= 0) {
+			ret.checkedConstraints = new EnumMap<>(PrivacyLevel.class);
+			for(int i = 0; i < ncc; i++) {
+				LongAdder cnt = new LongAdder();
+				PrivacyLevel level = PrivacyLevel.values()[in.readByte()];
+				cnt.add(in.readLong());
+				ret.checkedConstraints.put(level, cnt);
+			}
+		}
+		return ret;
+	}
+
 	public LineageItem getLineageItem() {
 		return _linItem;
 	}
@@ -22,6 +22,7 @@ package org.apache.sysds.runtime.controlprogram.federated;
 import java.io.Serializable;
 import java.lang.management.ManagementFactory;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.text.DecimalFormat;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -33,7 +34,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAccumulator;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -54,8 +58,10 @@ import org.apache.sysds.runtime.controlprogram.federated.FederatedStatistics.Fed
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.DataObjectModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.EventModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.RequestModel;
+import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.SessionModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.TrafficModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.UtilizationModel;
+import org.apache.sysds.runtime.controlprogram.paramserv.NetworkTrafficCounter;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.instructions.InstructionUtils;
 import org.apache.sysds.runtime.instructions.cp.Data;
@@ -94,6 +100,22 @@ public class FederatedStatistics {
 	private static final LongAdder fedReuseReadBytesCount = new LongAdder();
 	private static final LongAdder fedBytesSent = new LongAdder();
 	private static final LongAdder fedBytesReceived = new LongAdder();
+	// compressed transfers of the binary wire format
+	private static final LongAdder compressedTransferCount = new LongAdder();
+	private static final LongAdder compressedTransferSkipped = new LongAdder();
+	private static final LongAdder compressionRawBytes = new LongAdder();
+	private static final LongAdder compressionWireBytes = new LongAdder();
+	// per-link bytes read and written (remote address -> [read, written])
+	private static final Map<String, LongAdder[]> linkTrafficBytes = new ConcurrentHashMap<>();
+	// pipelined request batches of the coordinator
+	private static final LongAdder pipelinedBatchCount = new LongAdder();
+	private static final LongAdder pipelinedMessageCount = new LongAdder();
+	private static final LongAdder pipelinedRequestCount = new LongAdder();
+	private static final LongAccumulator pipelinedMaxBatchSize = new LongAccumulator(Long::max, 0);
+	// fair scheduling of requests in the federated worker
+	private static final LongAdder schedulerTaskCount = new LongAdder();
+	private static final LongAdder schedulerQueueTime = new LongAdder(); // in nano sec
+	private static FederatedWorkerScheduler workerScheduler = null;
 
 	private static final LongAdder fedPutLineageCount = new LongAdder();
 	private static final LongAdder fedPutLineageItems = new LongAdder();
@@ -114,6 +136,102 @@ public class FederatedStatistics {
 		fedBytesSent.add(written);
 	}
 
+	public static void logServerLinkTraffic(SocketAddress link, long read, long written) {
+		logServerTraffic(read, written);
+		logLinkTraffic(NetworkTrafficCounter.getLinkName(link, true), read, written);
+	}
+
+	public static void logWorkerLinkTraffic(SocketAddress link, long read, long written) {
+		// incoming connections use ephemeral ports, so only the host identifies the link
+		logWorkerTraffic(read, written);
+		logLinkTraffic(NetworkTrafficCounter.getLinkName(link, false), read, written);
+	}
+
+	private static void logLinkTraffic(String link, long read, long written) {
+		LongAdder[] cnt = linkTrafficBytes.computeIfAbsent(link, k -> new LongAdder[] {new LongAdder(), new LongAdder()});
+		cnt[0].add(read);
+		cnt[1].add(written);
+	}
+
+	public static void incCompressedTransfer(long rawBytes, long wireBytes) {
+		compressedTransferCount.increment();
+		compressionRawBytes.add(rawBytes);
+		compressionWireBytes.add(wireBytes);
+	}
+
+	public static void incCompressedTransferSkipped() {
+		compressedTransferSkipped.increment();
+	}
+
+	public static void setWorkerScheduler(FederatedWorkerScheduler scheduler) {
+		workerScheduler = scheduler;
+	}
+
+	public static void incSchedulerQueueTime(long nanos) {
+		schedulerTaskCount.increment();
+		schedulerQueueTime.add(nanos);
+	}
+
+	public static long getSchedulerTaskCount() {
+		return schedulerTaskCount.longValue();
+	}
+
+	public static long getSchedulerQueueTime() {
+		return schedulerQueueTime.longValue();
+	}
+
+	public static List<SessionModel> getWorkerSessions() {
+		List<SessionModel> ret = new ArrayList<>();
+		if(workerScheduler != null)
+			for(FederatedWorkerScheduler.Session s : workerScheduler.getSessions())
+				ret.add(s.toModel());
+		return ret;
+	}
+
+	public static void incPipelinedBatch(int numMessages, int numRequests) {
+		pipelinedBatchCount.increment();
+		pipelinedMessageCount.add(numMessages);
+		pipelinedRequestCount.add(numRequests);
+		pipelinedMaxBatchSize.accumulate(numMessages);
+	}
+
+	public static long getPipelinedBatchCount() {
+		return pipelinedBatchCount.longValue();
+	}
+
+	public static long getPipelinedMessageCount() {
+		return pipelinedMessageCount.longValue();
+	}
+
+	public static long getPipelinedRequestCount() {
+		return pipelinedRequestCount.longValue();
+	}
+
+	public static long getPipelinedMaxBatchSize() {
+		return pipelinedMaxBatchSize.longValue();
+	}
+
+	public static long getCompressedTransferCount() {
+		return compressedTransferCount.longValue();
+	}
+
+	public static long getCompressedTransferSkipped() {
+		return compressedTransferSkipped.longValue();
+	}
+
+	public static long getCompressionRawBytes() {
+		return compressionRawBytes.longValue();
+	}
+
+	public static long getCompressionWireBytes() {
+		return compressionWireBytes.longValue();
+	}
+
+	public static long[] getLinkTrafficBytes(String link) {
+		LongAdder[] cnt = linkTrafficBytes.get(link);
+		return (cnt == null) ? null : new long[] {cnt[0].longValue(), cnt[1].longValue()};
+	}
+
 	public static synchronized void incFederated(RequestType rqt, List<Object> data){
 		switch (rqt) {
 			case READ_VAR:
@@ -221,6 +339,17 @@ public class FederatedStatistics {
 		bytesReceived.reset();
 		fedBytesSent.reset();
 		fedBytesReceived.reset();
+		compressedTransferCount.reset();
+		compressedTransferSkipped.reset();
+		compressionRawBytes.reset();
+		compressionWireBytes.reset();
+		schedulerTaskCount.reset();
+		schedulerQueueTime.reset();
+		pipelinedBatchCount.reset();
+		pipelinedMessageCount.reset();
+		pipelinedRequestCount.reset();
+		pipelinedMaxBatchSize.reset();
+		linkTrafficBytes.clear();
 		//TODO merge with existing
 		coordinatorsTrafficBytes.clear();
 		workerEvents.clear();
@@ -250,11 +379,40 @@ public class FederatedStatistics {
 					transferredFrameBytes.longValue() + " Bytes.\n");
 			sb.append("Federated prefetch count:\t" +
 				asyncPrefetchCount.longValue() + ".\n");
+			sb.append(displayFedLinkStatistics());
 			return sb.toString();
 		}
 		return "";
 	}
 
+	public static String displayFedLinkStatistics() {
+		StringBuilder sb = new StringBuilder();
+		if(pipelinedBatchCount.longValue() > 0) {
+			sb.append("Fed pipelined batches (num/msg/req):\t" +
+				pipelinedBatchCount.longValue() + "/" +
+				pipelinedMessageCount.longValue() + "/" +
+				pipelinedRequestCount.longValue() + ".\n");
+			sb.append("Fed pipelined batch size (avg/max):\t" +
+				String.format("%.2f", (double) pipelinedMessageCount.longValue() / pipelinedBatchCount.longValue())
+				+ "/" + pipelinedMaxBatchSize.longValue() + ".\n");
+		}
+		if(compressedTransferCount.longValue() > 0 || compressedTransferSkipped.longValue() > 0) {
+			sb.append("Fed compression (comp/skip):\t" +
+				compressedTransferCount.longValue() + "/" +
+				compressedTransferSkipped.longValue() + ".\n");
+			sb.append("Fed compression (raw/wire):\t" +
+				compressionRawBytes.longValue() + "/" +
+				compressionWireBytes.longValue() + " Bytes.\n");
+		}
+		if(!linkTrafficBytes.isEmpty()) {
+			sb.append("Fed link I/O bytes (read/written):\n");
+			for(Entry<String, LongAdder[]> e : new TreeMap<>(linkTrafficBytes).entrySet())
+				sb.append("  " + e.getKey() + "\t" + e.getValue()[0].longValue()
+					+ "/" + e.getValue()[1].longValue() + "\n");
+		}
+		return sb.toString();
+	}
+
 	public static String displayNetworkTrafficStatistics() {
 		return "Server I/O bytes (read/written):\t" +
 				bytesReceived.longValue() +
@@ -290,6 +448,7 @@ public class FederatedStatistics {
 			sb.append(displayFedReuseReadStats());
 			sb.append(displayFedPutLineageStats());
 			sb.append(displayFedSerializationReuseStats());
+			sb.append(displayFedSchedulerStats());
 
 			//sb.append(displayFedTransfer());
 			//sb.append(displayCPUUsage());
@@ -354,6 +513,8 @@ public class FederatedStatistics {
 		sb.append(displayFedReuseReadStats(mtsc.reuseReadHits, mtsc.reuseReadBytes));
 		sb.append(displayFedPutLineageStats(mtsc.putLineageCount, mtsc.putLineageItems));
 		sb.append(displayFedSerializationReuseStats(mtsc.serializationReuseCount, mtsc.serializationReuseBytes));
+		sb.append(displayFedSchedulerStats(mtsc.schedTaskCount, mtsc.schedQueueTime,
+			mtsc.quotaEvictCount, mtsc.quotaEvictBytes));
 		return sb.toString();
 	}
 
@@ -653,6 +814,22 @@ public class FederatedStatistics {
 		return "";
 	}
 
+	public static String displayFedSchedulerStats() {
+		return displayFedSchedulerStats(schedulerTaskCount.longValue(),
+			schedulerQueueTime.doubleValue() / 1000000000, CacheStatistics.getQuotaEvictions(),
+			CacheStatistics.getQuotaEvictedBytes());
+	}
+
+	public static String displayFedSchedulerStats(long stCount, double sqTime, long qeCount, long qeBytes) {
+		StringBuilder sb = new StringBuilder();
+		if(stCount > 0)
+			sb.append(String.format("Fed Scheduler (Tasks, Queue):\t%d/%.3f sec.\n", stCount, sqTime));
+		if(qeCount > 0)
+			sb.append(InstructionUtils.concatStrings("Fed QuotaEvict (Count, Bytes):\t",
+				String.valueOf(qeCount), "/", String.valueOf(qeBytes), ".\n"));
+		return sb.toString();
+	}
+
 	public static class FedStatsCollectFunction extends FederatedUDF {
 		private static final long serialVersionUID = 1L;
 
@@ -688,6 +865,7 @@ public class FederatedStatistics {
 			workerEvents = getWorkerEvents();
 			workerDataObjects = getWorkerDataObjects();
 			workerRequests = getWorkerRequests();
+			workerSessions = getWorkerSessions();
 		}
 		
 		public void aggregate(FedStatsCollection that) {
@@ -705,6 +883,7 @@ public class FederatedStatistics {
 			workerEvents.addAll(that.workerEvents);
 			workerDataObjects.addAll(that.workerDataObjects);
 			workerRequests.addAll(that.workerRequests);
+			workerSessions.addAll(that.workerSessions);
 		}
 
 		protected static class CacheStatsCollection implements Serializable {
@@ -825,6 +1004,10 @@ public class FederatedStatistics {
 				putLineageItems = getFedPutLineageItems();
 				serializationReuseCount = getFedSerializationReuseCount();
 				serializationReuseBytes = getFedSerializationReuseBytes();
+				schedTaskCount = getSchedulerTaskCount();
+				schedQueueTime = ((double)getSchedulerQueueTime()) / 1000000000; // in sec
+				quotaEvictCount = CacheStatistics.getQuotaEvictions();
+				quotaEvictBytes = CacheStatistics.getQuotaEvictedBytes();
 			}
 
 			private void aggregate(MultiTenantStatsCollection that) {
@@ -837,6 +1020,10 @@ public class FederatedStatistics {
 				putLineageItems += that.putLineageItems;
 				serializationReuseCount += that.serializationReuseCount;
 				serializationReuseBytes += that.serializationReuseBytes;
+				schedTaskCount += that.schedTaskCount;
+				schedQueueTime += that.schedQueueTime;
+				quotaEvictCount += that.quotaEvictCount;
+				quotaEvictBytes += that.quotaEvictBytes;
 			}
 
 			private long fLTGetCount = 0;
@@ -848,6 +1035,10 @@ public class FederatedStatistics {
 			private long putLineageItems = 0;
 			private long serializationReuseCount = 0;
 			private long serializationReuseBytes = 0;
+			private long schedTaskCount = 0;
+			private double schedQueueTime = 0;
+			private long quotaEvictCount = 0;
+			private long quotaEvictBytes = 0;
 		}
 
 		private CacheStatsCollection cacheStats = new CacheStatsCollection();
@@ -862,5 +1053,6 @@ public class FederatedStatistics {
 		public List<DataObjectModel> workerDataObjects = new ArrayList<>();
 
 		public List<RequestModel> workerRequests = new ArrayList<>();
+		public List<SessionModel> workerSessions = new ArrayList<>();
 	}
 }
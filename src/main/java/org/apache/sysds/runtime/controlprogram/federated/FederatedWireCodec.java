@@ -0,0 +1,543 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.federated;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysds.runtime.controlprogram.caching.CacheDataOutput;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.instructions.cp.ScalarObject;
+import org.apache.sysds.runtime.instructions.cp.ScalarObjectFactory;
+import org.apache.sysds.runtime.lineage.LineageItem;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixBlockDataInput;
+import org.apache.sysds.runtime.matrix.data.MatrixBlockDataOutput;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.serialization.ClassResolvers;
+import io.netty.handler.codec.serialization.ObjectDecoder;
+import io.netty.util.AttributeKey;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+
+/**
+ * Compact binary wire format for federated requests and responses.
+ * 
+ * Messages use the same 4-byte length prefix as Netty's object serialization, followed by a magic byte that never
+ * starts a java serialization stream. This allows the {@link Decoder} to accept both formats on the same channel,
+ * and the federated worker to answer in the format of the received request. Matrix and frame payloads are written
+ * directly into the pooled Netty buffers via their block serialization, while all other objects without a dedicated
+ * tag fall back to java serialization. Compressed matrix blocks are sent as their column groups, and large
+ * uncompressed matrix and frame payloads are optionally LZ4-compressed if a sample indicates a sufficient ratio.
+ * 
+ * Before sending binary requests to a worker, the coordinator sends a single probe message, which workers with
+ * binary support echo. Older workers fail to decode the probe and close the connection, in which case the
+ * coordinator falls back to java serialization for this worker.
+ */
+public class FederatedWireCodec {
+	/** first payload byte of binary messages (java serialization streams start with version 5) */
+	public static final byte MAGIC = (byte) 0xFD;
+	public static final byte VERSION = 1;
+
+	/** channel attribute that records if the last received message was binary */
+	public static final AttributeKey<Boolean> BINARY = AttributeKey.valueOf("sysds.federated.binary");
+
+	private static final byte MSG_REQUESTS = 1;
+	private static final byte MSG_RESPONSE = 2;
+	private static final byte MSG_BATCH = 3;
+	private static final byte MSG_PROBE = 4;
+
+	/** decoded probe message, answered by workers with a probe message */
+	public static final Object PROBE = new Object();
+
+	private static final byte T_NULL = 0;
+	private static final byte T_STRING = 1;
+	private static final byte T_LONG = 2;
+	private static final byte T_INT = 3;
+	private static final byte T_DOUBLE = 4;
+	private static final byte T_BOOLEAN = 5;
+	private static final byte T_MATRIX = 6;
+	private static final byte T_FRAME = 7;
+	private static final byte T_SCALAR = 8;
+	private static final byte T_SERIALIZED = 9;
+	private static final byte T_CMATRIX = 10;
+	private static final byte T_PACKED = 11;
+	private static final byte T_RESPONSE = 12;
+
+	/** minimum serialized size of payloads considered for compression */
+	public static final int MIN_COMPRESS_SIZE = 64 * 1024;
+	/** maximum ratio (compressed / raw size) of a sample or payload to send it compressed */
+	public static final double MAX_COMPRESS_RATIO = 0.9;
+	private static final int SAMPLE_SIZE = 64 * 1024;
+
+	private static final LZ4Factory LZ4 = LZ4Factory.fastestJavaInstance();
+
+	private FederatedWireCodec() {
+		// private constructor for static utility class
+	}
+
+	/**
+	 * Encodes the given message (a request batch or response) including its length prefix into the given buffer.
+	 * 
+	 * @param msg federated request array, pipelined request batch, or federated response
+	 * @param out output buffer
+	 * @throws IOException if the message cannot be serialized
+	 */
+	public static void encode(Object msg, ByteBuf out) throws IOException {
+		encode(msg, out, false);
+	}
+
+	/**
+	 * Encodes the given message (a request batch or response) including its length prefix into the given buffer.
+	 * 
+	 * @param msg      federated request array, pipelined request batch, or federated response
+	 * @param out      output buffer
+	 * @param compress compress large matrix and frame payloads if beneficial
+	 * @throws IOException if the message cannot be serialized
+	 */
+	public static void encode(Object msg, ByteBuf out, boolean compress) throws IOException {
+		final int start = out.writerIndex();
+		out.writeInt(0); // placeholder for length
+		out.writeByte(MAGIC);
+		out.writeByte(VERSION);
+		ByteBufDataOutput dout = new ByteBufDataOutput(out, compress);
+		if(msg instanceof FederatedRequest[]) {
+			FederatedRequest[] reqs = (FederatedRequest[]) msg;
+			out.writeByte(MSG_REQUESTS);
+			out.writeInt(reqs.length);
+			for(FederatedRequest req : reqs)
+				req.write(dout);
+		}
+		else if(msg instanceof FederatedRequest[][]) {
+			FederatedRequest[][] batch = (FederatedRequest[][]) msg;
+			out.writeByte(MSG_BATCH);
+			out.writeInt(batch.length);
+			for(FederatedRequest[] reqs : batch) {
+				out.writeInt(reqs.length);
+				for(FederatedRequest req : reqs)
+					req.write(dout);
+			}
+		}
+		else if(msg instanceof FederatedResponse) {
+			out.writeByte(MSG_RESPONSE);
+			((FederatedResponse) msg).write(dout);
+		}
+		else
+			throw new IOException("Unsupported federated message type: " + msg.getClass().getName());
+		out.setInt(start, out.writerIndex() - start - 4);
+	}
+
+	/**
+	 * Encodes a probe message including its length prefix into the given buffer.
+	 * 
+	 * @param out output buffer
+	 */
+	public static void encodeProbe(ByteBuf out) {
+		out.writeInt(3);
+		out.writeByte(MAGIC);
+		out.writeByte(VERSION);
+		out.writeByte(MSG_PROBE);
+	}
+
+	/**
+	 * Decodes a binary message from the given buffer, whose reader index is positioned at the magic byte.
+	 * 
+	 * @param in input buffer of exactly one message
+	 * @return federated request array, pipelined request batch, federated response, or {@link #PROBE}
+	 * @throws IOException if the message cannot be deserialized
+	 */
+	public static Object decode(ByteBuf in) throws IOException {
+		if(in.readByte() != MAGIC)
+			throw new IOException("Invalid federated message: missing magic byte.");
+		final byte version = in.readByte();
+		if(version != VERSION)
+			throw new IOException("Unsupported federated message version: " + version);
+		ByteBufDataInput din = new ByteBufDataInput(in);
+		final byte type = in.readByte();
+		switch(type) {
+			case MSG_REQUESTS: {
+				FederatedRequest[] reqs = new FederatedRequest[in.readInt()];
+				for(int i = 0; i < reqs.length; i++)
+					reqs[i] = FederatedRequest.read(din);
+				return reqs;
+			}
+			case MSG_BATCH: {
+				FederatedRequest[][] batch = new FederatedRequest[in.readInt()][];
+				for(int i = 0; i < batch.length; i++) {
+					batch[i] = new FederatedRequest[in.readInt()];
+					for(int j = 0; j < batch[i].length; j++)
+						batch[i][j] = FederatedRequest.read(din);
+				}
+				return batch;
+			}
+			case MSG_RESPONSE:
+				return FederatedResponse.read(din);
+			case MSG_PROBE:
+				return PROBE;
+			default:
+				throw new IOException("Unsupported federated message type: " + type);
+		}
+	}
+
+	/**
+	 * Gets the lineage key of serialized responses in the given wire format, because the serialized bytes of the
+	 * same object differ between java serialization, and the binary format with and without compression.
+	 * 
+	 * @param li       lineage item of the response data
+	 * @param binary   binary wire format
+	 * @param compress compression of the binary wire format
+	 * @return lineage item for the reuse of serialized responses
+	 */
+	public static LineageItem getLineageKey(LineageItem li, boolean binary, boolean compress) {
+		return !binary ? li : new LineageItem(compress ? "fedwire_lz4" : "fedwire_bin", new LineageItem[] {li});
+	}
+
+	public static void writeObject(ByteBufDataOutput out, Object obj) throws IOException {
+		if(obj == null)
+			out.writeByte(T_NULL);
+		else if(obj instanceof String) {
+			out.writeByte(T_STRING);
+			writeString(out, (String) obj);
+		}
+		else if(obj instanceof Long) {
+			out.writeByte(T_LONG);
+			out.writeLong((Long) obj);
+		}
+		else if(obj instanceof Integer) {
+			out.writeByte(T_INT);
+			out.writeInt((Integer) obj);
+		}
+		else if(obj instanceof Double) {
+			out.writeByte(T_DOUBLE);
+			out.writeDouble((Double) obj);
+		}
+		else if(obj instanceof Boolean) {
+			out.writeByte(T_BOOLEAN);
+			out.writeBoolean((Boolean) obj);
+		}
+		else if(out.isCompress() && isCompressible(obj))
+			writeCompressed(out, (CacheBlock<?>) obj);
+		// exact classes only, because subclasses like compressed blocks have their own serialization
+		else if(obj.getClass() == MatrixBlock.class) {
+			out.writeByte(T_MATRIX);
+			((MatrixBlock) obj).write(out);
+		}
+		else if(obj.getClass() == FrameBlock.class) {
+			out.writeByte(T_FRAME);
+			((FrameBlock) obj).write(out);
+		}
+		else if(obj instanceof CompressedMatrixBlock) {
+			out.writeByte(T_CMATRIX);
+			((CompressedMatrixBlock) obj).write(out);
+		}
+		else if(obj instanceof FederatedResponse) {
+			// nested responses of pipelined request batches
+			out.writeByte(T_RESPONSE);
+			((FederatedResponse) obj).write(out);
+		}
+		else if(obj instanceof ScalarObject && ((ScalarObject) obj).getPrivacyConstraint() == null) {
+			ScalarObject so = (ScalarObject) obj;
+			out.writeByte(T_SCALAR);
+			out.writeByte(so.getValueType().ordinal());
+			writeString(out, so.getStringValue());
+		}
+		else if(obj instanceof Serializable) {
+			// length-prefixed, to not rely on the read behavior of object streams
+			out.writeByte(T_SERIALIZED);
+			final ByteBuf buf = out.buffer();
+			final int start = buf.writerIndex();
+			buf.writeInt(0);
+			try(ObjectOutputStream oos = new ObjectOutputStream(out)) {
+				oos.writeObject(obj);
+			}
+			buf.setInt(start, buf.writerIndex() - start - 4);
+		}
+		else
+			throw new IOException("Unsupported federated payload: " + obj.getClass().getName());
+	}
+
+	public static Object readObject(ByteBufDataInput in) throws IOException {
+		final byte type = in.readByte();
+		switch(type) {
+			case T_NULL:
+				return null;
+			case T_STRING:
+				return readString(in);
+			case T_LONG:
+				return in.readLong();
+			case T_INT:
+				return in.readInt();
+			case T_DOUBLE:
+				return in.readDouble();
+			case T_BOOLEAN:
+				return in.readBoolean();
+			case T_MATRIX: {
+				MatrixBlock mb = new MatrixBlock();
+				mb.readFields(in);
+				return mb;
+			}
+			case T_FRAME: {
+				FrameBlock fb = new FrameBlock();
+				fb.readFields(in);
+				return fb;
+			}
+			case T_CMATRIX:
+				return CompressedMatrixBlock.read(in);
+			case T_PACKED: {
+				final int rawLen = in.readInt();
+				final int compLen = in.readInt();
+				byte[] raw = new byte[rawLen];
+				ByteBuf comp = in.buffer().readSlice(compLen);
+				LZ4.fastDecompressor().decompress(comp.nioBuffer(), 0, ByteBuffer.wrap(raw), 0, rawLen);
+				return readObject(new ByteBufDataInput(Unpooled.wrappedBuffer(raw)));
+			}
+			case T_RESPONSE:
+				return FederatedResponse.read(in);
+			case T_SCALAR: {
+				ValueType vt = ValueType.values()[in.readByte()];
+				return ScalarObjectFactory.createScalarObject(vt, readString(in));
+			}
+			case T_SERIALIZED: {
+				final ByteBuf buf = in.buffer().readSlice(in.readInt());
+				try(ObjectInputStream ois = new ObjectInputStream(new ByteBufInputStream(buf))) {
+					return ois.readObject();
+				}
+				catch(ClassNotFoundException ex) {
+					throw new IOException("Failed to deserialize federated payload.", ex);
+				}
+			}
+			default:
+				throw new IOException("Unsupported federated payload type: " + type);
+		}
+	}
+
+	private static boolean isCompressible(Object obj) {
+		if(obj.getClass() != MatrixBlock.class && obj.getClass() != FrameBlock.class)
+			return false;
+		final long size = ((CacheBlock<?>) obj).getExactSerializedSize();
+		return size >= MIN_COMPRESS_SIZE && size < Integer.MAX_VALUE / 2;
+	}
+
+	private static void writeCompressed(ByteBufDataOutput out, CacheBlock<?> cb) throws IOException {
+		// serialize into a byte array (incl type tag), then decide on compression by a sample
+		final int len = (int) cb.getExactSerializedSize() + 1;
+		CacheDataOutput dout = new CacheDataOutput(len);
+		dout.writeByte(cb instanceof MatrixBlock ? T_MATRIX : T_FRAME);
+		cb.write(dout);
+		final byte[] raw = dout.getBytes();
+		LZ4Compressor lz4 = LZ4.fastCompressor();
+
+		final int slen = Math.min(len, SAMPLE_SIZE);
+		byte[] sample = new byte[lz4.maxCompressedLength(slen)];
+		if(lz4.compress(raw, 0, slen, sample, 0, sample.length) <= MAX_COMPRESS_RATIO * slen) {
+			byte[] comp = new byte[lz4.maxCompressedLength(len)];
+			final int clen = lz4.compress(raw, 0, len, comp, 0, comp.length);
+			if(clen <= MAX_COMPRESS_RATIO * len) {
+				out.writeByte(T_PACKED);
+				out.writeInt(len);
+				out.writeInt(clen);
+				out.write(comp, 0, clen);
+				FederatedStatistics.incCompressedTransfer(len, clen);
+				return;
+			}
+		}
+		FederatedStatistics.incCompressedTransferSkipped();
+		out.write(raw);
+	}
+
+	public static void writeString(DataOutput out, String str) throws IOException {
+		// length-prefixed to allow strings larger than the 64KB limit of writeUTF
+		if(str == null)
+			out.writeInt(-1);
+		else {
+			byte[] tmp = str.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(tmp.length);
+			out.write(tmp);
+		}
+	}
+
+	public static String readString(DataInput in) throws IOException {
+		final int len = in.readInt();
+		if(len < 0)
+			return null;
+		byte[] tmp = new byte[len];
+		in.readFully(tmp);
+		return new String(tmp, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decoder that accepts both binary messages and java-serialized objects, and records the format of the last
+	 * received message as channel attribute.
+	 */
+	public static class Decoder extends ObjectDecoder {
+		public Decoder() {
+			super(Integer.MAX_VALUE, ClassResolvers.weakCachingResolver(ClassLoader.getSystemClassLoader()));
+		}
+
+		@Override
+		protected Object decode(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+			if(in.readableBytes() < 5)
+				return null;
+			final int off = in.readerIndex();
+			if(in.getByte(off + 4) != MAGIC) {
+				ctx.channel().attr(BINARY).set(false);
+				return super.decode(ctx, in);
+			}
+			final int len = in.getInt(off);
+			if(in.readableBytes() < len + 4)
+				return null; // wait for the entire message
+			ByteBuf frame = in.slice(off + 4, len);
+			in.readerIndex(off + 4 + len);
+			ctx.channel().attr(BINARY).set(true);
+			return FederatedWireCodec.decode(frame);
+		}
+	}
+
+	/**
+	 * Data output into a Netty byte buffer with bulk writes of matrix blocks.
+	 */
+	public static class ByteBufDataOutput extends ByteBufOutputStream implements MatrixBlockDataOutput {
+		private final ByteBuf _buf;
+		private final boolean _compress;
+
+		public ByteBufDataOutput(ByteBuf buf) {
+			this(buf, false);
+		}
+
+		public ByteBufDataOutput(ByteBuf buf, boolean compress) {
+			super(buf);
+			_buf = buf;
+			_compress = compress;
+		}
+
+		public boolean isCompress() {
+			return _compress;
+		}
+
+		@Override
+		public void close() {
+			// the underlying buffer is owned by the channel pipeline
+		}
+
+		@Override
+		public void writeDoubleArray(int len, double[] varr) throws IOException {
+			_buf.ensureWritable(len * 8);
+			if(_buf.nioBufferCount() == 1) {
+				// bulk copy through a big-endian view of the writable region
+				final int wix = _buf.writerIndex();
+				_buf.nioBuffer(wix, len * 8).order(ByteOrder.BIG_ENDIAN).asDoubleBuffer().put(varr, 0, len);
+				_buf.writerIndex(wix + len * 8);
+			}
+			else {
+				for(int i = 0; i < len; i++)
+					_buf.writeDouble(varr[i]);
+			}
+		}
+
+		@Override
+		public void writeSparseRows(int rlen, SparseBlock rows) throws IOException {
+			final int lrlen = Math.min(rows.numRows(), rlen);
+			for(int i = 0; i < lrlen; i++) {
+				if(rows.isEmpty(i)) {
+					_buf.writeInt(0);
+					continue;
+				}
+				final int apos = rows.pos(i);
+				final int alen = rows.size(i);
+				final int[] aix = rows.indexes(i);
+				final double[] avals = rows.values(i);
+				_buf.ensureWritable(4 + alen * 12);
+				_buf.writeInt(alen);
+				for(int j = apos; j < apos + alen; j++) {
+					_buf.writeInt(aix[j]);
+					_buf.writeDouble(avals[j]);
+				}
+			}
+			for(int i = lrlen; i < rlen; i++)
+				_buf.writeInt(0);
+		}
+	}
+
+	/**
+	 * Data input from a Netty byte buffer with bulk reads of matrix blocks.
+	 */
+	public static class ByteBufDataInput extends ByteBufInputStream implements MatrixBlockDataInput {
+		private final ByteBuf _buf;
+
+		public ByteBufDataInput(ByteBuf buf) {
+			super(buf);
+			_buf = buf;
+		}
+
+		@Override
+		public void close() {
+			// the underlying buffer is owned by the channel pipeline
+		}
+
+		public ByteBuf buffer() {
+			return _buf;
+		}
+
+		@Override
+		public long readDoubleArray(int len, double[] varr) throws IOException {
+			long nnz = 0;
+			for(int i = 0; i < len; i++) {
+				varr[i] = _buf.readDouble();
+				nnz += (varr[i] != 0) ? 1 : 0;
+			}
+			return nnz;
+		}
+
+		@Override
+		public long readSparseRows(int rlen, long nnz, SparseBlock rows) throws IOException {
+			long gnnz = 0;
+			for(int i = 0; i < rlen; i++) {
+				final int lnnz = _buf.readInt();
+				if(lnnz > 0) {
+					rows.allocate(i, lnnz);
+					for(int j = 0; j < lnnz; j++) {
+						final int aix = _buf.readInt();
+						rows.append(i, aix, _buf.readDouble());
+					}
+					gnnz += lnnz;
+				}
+			}
+			if(gnnz != nnz)
+				throw new IOException("Invalid number of read nnz: " + gnnz + " vs " + nnz);
+			return nnz;
+		}
+	}
+}
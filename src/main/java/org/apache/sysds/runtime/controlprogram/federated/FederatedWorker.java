@@ -31,8 +31,10 @@ import org.apache.log4j.Logger;
 import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.conf.ConfigurationManager;
 import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.hops.OptimizerUtils;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
 import org.apache.sysds.runtime.controlprogram.paramserv.NetworkTrafficCounter;
 import org.apache.sysds.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.apache.sysds.runtime.lineage.LineageCache;
@@ -55,8 +57,6 @@ import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
 import org.apache.sysds.runtime.controlprogram.parfor.stat.Timing;
-import io.netty.handler.codec.serialization.ObjectDecoder;
-import io.netty.handler.codec.serialization.ClassResolvers;
 
 public class FederatedWorker {
 	protected static Logger log = Logger.getLogger(FederatedWorker.class);
@@ -94,13 +94,14 @@ public class FederatedWorker {
 		ThreadPoolExecutor workerTPE = new ThreadPoolExecutor(1, Integer.MAX_VALUE, 10, TimeUnit.SECONDS,
 			new SynchronousQueue<Runnable>(true));
 		NioEventLoopGroup workerGroup = new NioEventLoopGroup(EVENT_LOOP_THREADS, workerTPE);
+		final FederatedWorkerScheduler scheduler = createScheduler(EVENT_LOOP_THREADS);
 
 		final boolean ssl = ConfigurationManager.isFederatedSSL();
 		try {
 			final ServerBootstrap b = new ServerBootstrap();
 			b.group(bossGroup, workerGroup);
 			b.channel(NioServerSocketChannel.class);
-			b.childHandler(createChannel(ssl));
+			b.childHandler(createChannel(ssl, scheduler));
 			b.option(ChannelOption.SO_BACKLOG, 128);
 			b.childOption(ChannelOption.SO_KEEPALIVE, true);
 
@@ -118,12 +119,24 @@ public class FederatedWorker {
 		}
 		finally {
 			log.info("Federated Worker Shutting down.");
+			if(scheduler != null)
+				scheduler.shutdown();
 			workerGroup.shutdownGracefully();
 			bossGroup.shutdownGracefully();
 		}
 	}
 
 	public static class FederatedResponseEncoder extends ObjectEncoder {
+		private final boolean _compress;
+
+		public FederatedResponseEncoder() {
+			this(false);
+		}
+
+		public FederatedResponseEncoder(boolean compress) {
+			_compress = compress;
+		}
+
 		@Override
 		protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, Serializable msg, boolean preferDirect)
 			throws Exception {
@@ -145,13 +158,17 @@ public class FederatedWorker {
 
 		@Override
 		protected void encode(ChannelHandlerContext ctx, Serializable msg, ByteBuf out) throws Exception {
+			// answer in the wire format of the received request
+			final boolean binary = msg instanceof FederatedResponse
+				&& Boolean.TRUE.equals(ctx.channel().attr(FederatedWireCodec.BINARY).get());
 			LineageItem objLI = null;
 			boolean linReusePossible = (!ReuseCacheType.isNone() && msg instanceof FederatedResponse);
 			if(linReusePossible) {
 				FederatedResponse response = (FederatedResponse)msg;
 				if(response.getData() != null && response.getData().length != 0
-					&& response.getData()[0] instanceof CacheBlock<?>) {
-					objLI = response.getLineageItem();
+					&& response.getData()[0] instanceof CacheBlock<?> && response.getLineageItem() != null) {
+					// the serialized bytes differ per wire format, which is hence part of the key
+					objLI = FederatedWireCodec.getLineageKey(response.getLineageItem(), binary, _compress);
 
 					byte[] cachedBytes = LineageCache.reuseSerialization(objLI);
 					if(cachedBytes != null) {
@@ -165,7 +182,10 @@ public class FederatedWorker {
 
 			int startIdx = linReusePossible ? out.writerIndex() : 0;
 			long t0 = linReusePossible ? System.nanoTime() : 0;
-			super.encode(ctx, msg, out);
+			if(binary)
+				FederatedWireCodec.encode(msg, out, _compress);
+			else
+				super.encode(ctx, msg, out);
 			long t1 = linReusePossible ? System.nanoTime() : 0;
 
 			if(linReusePossible) {
@@ -178,11 +198,28 @@ public class FederatedWorker {
 		}
 	}
 
-	private ChannelInitializer<SocketChannel> createChannel(boolean ssl) {
+	private static FederatedWorkerScheduler createScheduler(int numThreads) {
+		final DMLConfig conf = ConfigurationManager.getDMLConfig();
+		if(!conf.getBooleanValue(DMLConfig.FEDERATED_FAIR_SCHEDULING))
+			return null;
+		// buffer pool quota per coordinator session, enforced in the caching layer
+		final int quota = conf.getIntValue(DMLConfig.FEDERATED_SESSION_QUOTA);
+		LazyWriteBuffer.setSessionLimit((quota > 0 && quota < 100) ?
+			(long) (OptimizerUtils.getBufferPoolLimit() * quota / 100d) : -1);
+		log.info("Using fair scheduling of federated requests with " + numThreads + " threads"
+			+ ((quota > 0 && quota < 100) ? " and a buffer pool quota of " + quota + "% per coordinator." : "."));
+		FederatedWorkerScheduler ret = new FederatedWorkerScheduler(numThreads,
+			conf.getTextValue(DMLConfig.FEDERATED_SCHEDULER_WEIGHTS));
+		FederatedStatistics.setWorkerScheduler(ret);
+		return ret;
+	}
+
+	private ChannelInitializer<SocketChannel> createChannel(boolean ssl, FederatedWorkerScheduler scheduler) {
 		try {
 			// TODO add ability to use real ssl files, not self signed certificates.
 			final SelfSignedCertificate cert = new SelfSignedCertificate();
 			final SslContext cont2 = SslContextBuilder.forServer(cert.certificate(), cert.privateKey()).build();
+			final boolean compress = ConfigurationManager.isFederatedCompression();
 
 			return new ChannelInitializer<SocketChannel>() {
 				@Override
@@ -194,13 +231,11 @@ public class FederatedWorker {
 					}
 					if(ssl)
 						cp.addLast(cont2.newHandler(ch.alloc()));
-					cp.addLast("NetworkTrafficCounter", new NetworkTrafficCounter(FederatedStatistics::logWorkerTraffic));
-					cp.addLast("ObjectDecoder",
-						new ObjectDecoder(Integer.MAX_VALUE,
-							ClassResolvers.weakCachingResolver(ClassLoader.getSystemClassLoader())));
+					cp.addLast("NetworkTrafficCounter", new NetworkTrafficCounter(FederatedStatistics::logWorkerLinkTraffic));
+					cp.addLast("ObjectDecoder", new FederatedWireCodec.Decoder());
 					cp.addLast("ObjectEncoder", new ObjectEncoder());
-					cp.addLast(FederationUtils.decoder(), new FederatedResponseEncoder());
-					cp.addLast(new FederatedWorkerHandler(_flt, _frc, _fan, networkTimer));
+					cp.addLast(FederationUtils.decoder(), new FederatedResponseEncoder(compress));
+					cp.addLast(new FederatedWorkerHandler(_flt, _frc, _fan, networkTimer, scheduler));
 				}
 			};
 		}
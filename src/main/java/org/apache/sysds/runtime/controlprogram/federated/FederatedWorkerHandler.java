@@ -26,6 +26,7 @@ import java.net.SocketAddress;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -82,6 +83,7 @@ import org.apache.sysds.runtime.privacy.PrivacyMonitor;
 import org.apache.sysds.utils.Statistics;
 import org.apache.sysds.utils.stats.ParamServStatistics;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
@@ -106,6 +108,9 @@ public class FederatedWorkerHandler extends ChannelInboundHandlerAdapter {
 
 	private String _remoteAddress = FederatedLookupTable.NOHOST;
 
+	/** Fair scheduler of requests across coordinators (null if requests are executed directly) */
+	private FederatedWorkerScheduler _scheduler = null;
+
 	/**
 	 * Create a Federated Worker Handler.
 	 * 
@@ -126,11 +131,34 @@ public class FederatedWorkerHandler extends ChannelInboundHandlerAdapter {
 		this(flt, frc, fan);
 		_timing = timing;
 	}
+
+	public FederatedWorkerHandler(FederatedLookupTable flt, FederatedReadCache frc, FederatedWorkloadAnalyzer fan,
+		Timing timing, FederatedWorkerScheduler scheduler) {
+		this(flt, frc, fan, timing);
+		_scheduler = scheduler;
+	}
 	
 	@Override
 	public void channelRead(ChannelHandlerContext ctx, Object msg) {
-		ctx.writeAndFlush(createResponse(msg, ctx.channel().remoteAddress()))
-			.addListener(new CloseListener());
+		if(msg == FederatedWireCodec.PROBE) {
+			// advertise the binary wire format to the coordinator
+			ByteBuf probe = ctx.alloc().buffer(7);
+			FederatedWireCodec.encodeProbe(probe);
+			ctx.writeAndFlush(probe).addListener(ChannelFutureListener.CLOSE);
+			return;
+		}
+		final SocketAddress remoteAddress = ctx.channel().remoteAddress();
+		final FederatedRequest[] requests = (msg instanceof FederatedRequest[][]) ? Arrays.stream(
+			(FederatedRequest[][]) msg).flatMap(Stream::of).toArray(FederatedRequest[]::new) :
+			(msg instanceof FederatedRequest[]) ? (FederatedRequest[]) msg : null;
+		if(_scheduler == null || requests == null || requests.length == 0) {
+			ctx.writeAndFlush(createResponse(msg, remoteAddress))
+				.addListener(new CloseListener());
+			return;
+		}
+		// queue the requests in the session of the coordinator, which frees the event loop
+		_scheduler.submit(getRemoteHost(remoteAddress), requests[0].getPID(), requests.length,
+			() -> ctx.writeAndFlush(createResponse(msg, remoteAddress)).addListener(new CloseListener()));
 	}
 
 	protected FederatedResponse createResponse(Object msg) {
@@ -146,28 +174,37 @@ public class FederatedWorkerHandler extends ChannelInboundHandlerAdapter {
 			// ignore timing if it wasn't started yet
 		}
 		
-		String host;
 		_remoteAddress = remoteAddress.toString();
+		FederatedResponse res = createResponse(msg, getRemoteHost(remoteAddress));
+		if (_timing != null) {
+			_timing.start();
+		}
+		return res;
+	}
+
+	private static String getRemoteHost(SocketAddress remoteAddress) {
 		if(remoteAddress instanceof InetSocketAddress) {
-			host = ((InetSocketAddress) remoteAddress).getHostString();
+			return ((InetSocketAddress) remoteAddress).getHostString();
 		}
 		else if(remoteAddress instanceof SocketAddress) {
-			host = remoteAddress.toString().split(":")[0].split("/")[1];
+			return remoteAddress.toString().split(":")[0].split("/")[1];
 		}
 		else {
 			LOG.warn("Given remote address of coordinator is null. Continuing with "
 				+ FederatedLookupTable.NOHOST + " as host identifier.");
-			host = FederatedLookupTable.NOHOST;
+			return FederatedLookupTable.NOHOST;
 		}
-
-		FederatedResponse res = createResponse(msg, host);
-		if (_timing != null) {
-			_timing.start();
-		}
-		return res;
 	}
 
 	private FederatedResponse createResponse(Object msg, String remoteHost) {
+		if(msg instanceof FederatedRequest[][]) {
+			// pipelined batch: execute the request arrays in order, one response each
+			final FederatedRequest[][] batch = (FederatedRequest[][]) msg;
+			final FederatedResponse[] responses = new FederatedResponse[batch.length];
+			for(int i = 0; i < batch.length; i++)
+				responses[i] = createResponse((Object) batch[i], remoteHost);
+			return new FederatedResponse(ResponseType.SUCCESS, (Object[]) responses);
+		}
 		if(!(msg instanceof FederatedRequest[]))
 			return new FederatedResponse(ResponseType.ERROR,
 				new FederatedWorkerHandlerException("Received object of wrong instance 'FederatedRequest[]'."));
@@ -270,6 +307,8 @@ public class FederatedWorkerHandler extends ChannelInboundHandlerAdapter {
 
 		if(containsCLEAR) {
 			_flt.removeECM(remoteHost, clearReqPid);
+			if(_scheduler != null)
+				_scheduler.removeSession(remoteHost, clearReqPid);
 			printStatistics();
 		}
 
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.controlprogram.federated;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.BufferPoolSession;
+import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.SessionModel;
+
+/**
+ * Weighted fair scheduling of federated requests across coordinator sessions (one session per
+ * coordinator host and process, i.e., per execution context map). Received messages are queued
+ * and executed by a fixed number of threads in the order of their virtual start times
+ * (start-time fair queueing), where the cost of a message is its number of requests divided by
+ * the weight of its session. Hence, a long stream of requests of one coordinator cannot starve
+ * other coordinators. Requests are executed with the buffer pool session of their coordinator,
+ * which enforces per-session memory quotas in the caching layer.
+ */
+public class FederatedWorkerScheduler {
+	private static final Log LOG = LogFactory.getLog(FederatedWorkerScheduler.class.getName());
+
+	private final ExecutorService _pool;
+	private final Map<String, Double> _weights;
+	private final Map<String, Session> _sessions = new ConcurrentHashMap<>();
+	private final PriorityQueue<Task> _queue = new PriorityQueue<>();
+	private double _vtime = 0; // virtual time: start time of the last dispatched task
+	private long _seq = 0;
+
+	/**
+	 * Creates a scheduler with the given number of executing threads.
+	 * 
+	 * @param numThreads number of threads executing requests
+	 * @param weights    session weights per coordinator host as comma-separated list of host=weight pairs
+	 */
+	public FederatedWorkerScheduler(int numThreads, String weights) {
+		_pool = Executors.newFixedThreadPool(numThreads,
+			new BasicThreadFactory.Builder().namingPattern("fed-sched-%d").daemon(true).build());
+		_weights = parseWeights(weights);
+	}
+
+	/**
+	 * Queues a task for the given coordinator session.
+	 * 
+	 * @param host coordinator host
+	 * @param pid  coordinator process id
+	 * @param cost cost of the task (e.g., number of requests)
+	 * @param task task, executed with the buffer pool session of the coordinator
+	 */
+	public void submit(String host, long pid, int cost, Runnable task) {
+		Session s = getSession(host, pid);
+		synchronized(this) {
+			// start at the current virtual time or after the previous task of the session
+			double start = Math.max(_vtime, s._finish);
+			s._finish = start + Math.max(cost, 1) / s._weight;
+			_queue.add(new Task(s, task, start, _seq++));
+		}
+		// every submitted task dispatches the next task in fair order
+		_pool.execute(this::runNext);
+	}
+
+	public Session getSession(String host, long pid) {
+		return _sessions.computeIfAbsent(String.format("%s-%d", host, pid),
+			k -> new Session(k, _weights.getOrDefault(host, 1.0)));
+	}
+
+	public Collection<Session> getSessions() {
+		return _sessions.values();
+	}
+
+	public void removeSession(String host, long pid) {
+		_sessions.remove(String.format("%s-%d", host, pid));
+	}
+
+	public void shutdown() {
+		_pool.shutdownNow();
+	}
+
+	private void runNext() {
+		final Task t;
+		synchronized(this) {
+			t = _queue.poll();
+			if(t == null)
+				return;
+			_vtime = t._start;
+		}
+		final Session s = t._session;
+		s.logQueueTime(System.nanoTime() - t._submitted);
+		BufferPoolSession.setCurrent(s._memory);
+		try {
+			t._task.run();
+		}
+		catch(Exception ex) {
+			LOG.error("Failed to execute federated requests of session " + s._name, ex);
+		}
+		finally {
+			BufferPoolSession.setCurrent(null);
+		}
+	}
+
+	private static Map<String, Double> parseWeights(String weights) {
+		Map<String, Double> ret = new HashMap<>();
+		if(weights == null || weights.isBlank())
+			return ret;
+		for(String entry : weights.split(",")) {
+			String[] parts = entry.trim().split("=");
+			double w = -1;
+			if(parts.length == 2) {
+				try {
+					w = Double.parseDouble(parts[1].trim());
+				}
+				catch(NumberFormatException ex) {
+					// handled below as invalid weight
+				}
+			}
+			if(parts.length != 2 || parts[0].isBlank() || !(w > 0))
+				throw new DMLRuntimeException("Invalid federated session weight: '" + entry + "'");
+			ret.put(parts[0].trim(), w);
+		}
+		return ret;
+	}
+
+	/**
+	 * Scheduling state and statistics of a coordinator session.
+	 */
+	public static class Session {
+		private final String _name;
+		private final double _weight;
+		private final BufferPoolSession _memory;
+		private double _finish = 0; // virtual finish time of the last queued task
+		private final LongAdder _numTasks = new LongAdder();
+		private final LongAdder _queueTime = new LongAdder();
+		private final LongAccumulator _maxQueueTime = new LongAccumulator(Long::max, 0);
+
+		private Session(String name, double weight) {
+			_name = name;
+			_weight = weight;
+			_memory = new BufferPoolSession(name);
+		}
+
+		private void logQueueTime(long nanos) {
+			_numTasks.increment();
+			_queueTime.add(nanos);
+			_maxQueueTime.accumulate(nanos);
+			FederatedStatistics.incSchedulerQueueTime(nanos);
+		}
+
+		public String getName() {
+			return _name;
+		}
+
+		public double getWeight() {
+			return _weight;
+		}
+
+		public BufferPoolSession getMemory() {
+			return _memory;
+		}
+
+		public long getNumTasks() {
+			return _numTasks.longValue();
+		}
+
+		/**
+		 * Returns the total time tasks of this session waited in the queue.
+		 * 
+		 * @return queueing delay in nanoseconds
+		 */
+		public long getQueueTime() {
+			return _queueTime.longValue();
+		}
+
+		public long getMaxQueueTime() {
+			return _maxQueueTime.longValue();
+		}
+
+		public SessionModel toModel() {
+			SessionModel ret = new SessionModel(getNumTasks(), getQueueTime() / 1e6, getMaxQueueTime() / 1e6,
+				_weight, _memory.getSize() / 1e6, _memory.getNumEvicted(), _memory.getEvictedBytes() / 1e6);
+			ret.setCoordinatorHostId(_name);
+			return ret;
+		}
+	}
+
+	private static class Task implements Comparable<Task> {
+		private final Session _session;
+		private final Runnable _task;
+		private final double _start;
+		private final long _seq;
+		private final long _submitted = System.nanoTime();
+
+		private Task(Session session, Runnable task, double start, long seq) {
+			_session = session;
+			_task = task;
+			_start = start;
+			_seq = seq;
+		}
+
+		@Override
+		public int compareTo(Task that) {
+			int c = Double.compare(_start, that._start);
+			return (c != 0) ? c : Long.compare(_seq, that._seq);
+		}
+	}
+}
@@ -34,6 +34,7 @@ import java.util.stream.Stream;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.sysds.common.Types.DataType;
 import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
 import org.apache.sysds.hops.fedplanner.FTypes.AlignType;
 import org.apache.sysds.hops.fedplanner.FTypes.FType;
 import org.apache.sysds.lops.RightIndex;
@@ -347,8 +348,7 @@ public class FederationMap {
 
 		// prepare results (future federated responses), with optional wait to ensure the
 		// order of requests without data dependencies (e.g., cleanup RPCs)
-		if(wait)
-			FederationUtils.waitFor(ret);
+		waitFor(wait, ret);
 		return ret.toArray(new Future[0]);
 	}
 
@@ -375,8 +375,7 @@ public class FederationMap {
 
 		// prepare results (future federated responses), with optional wait to ensure the
 		// order of requests without data dependencies (e.g., cleanup RPCs)
-		if( wait )
-			FederationUtils.waitFor(ret);
+		waitFor(wait, ret);
 		return ret.toArray(new Future[0]);
 	}
 
@@ -404,8 +403,7 @@ public class FederationMap {
 
 		// prepare results (future federated responses), with optional wait to ensure the
 		// order of requests without data dependencies (e.g., cleanup RPCs)
-		if(wait)
-			FederationUtils.waitFor(ret);
+		waitFor(wait, ret);
 		return ret.toArray(new Future[0]);
 	}
 
@@ -444,6 +442,13 @@ public class FederationMap {
 		// FederationUtils.waitFor(tmp);
 	}
 
+	private static void waitFor(boolean wait, List<Future<FederatedResponse>> ret) {
+		// pipelined batches are chained per worker and thus executed in order of
+		// submission, so the wait is only needed if requests are sent individually
+		if(wait && !ConfigurationManager.isFederatedPipeline())
+			FederationUtils.waitFor(ret);
+	}
+
 	private static FederatedRequest[] addAll(FederatedRequest a, FederatedRequest[] b) {
 		// empty b array
 		if( b == null || b.length==0 ) {
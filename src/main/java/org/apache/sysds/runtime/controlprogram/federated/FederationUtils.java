@@ -56,7 +56,6 @@ import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
 import org.apache.sysds.runtime.matrix.operators.ScalarOperator;
 import org.apache.sysds.runtime.matrix.operators.SimpleOperator;
 
-import io.netty.handler.codec.serialization.ClassResolvers;
 import io.netty.handler.codec.serialization.ObjectDecoder;
 
 public class FederationUtils {
@@ -574,8 +573,7 @@ public class FederationUtils {
 	}
 
 	public static ObjectDecoder decoder() {
-		return new ObjectDecoder(Integer.MAX_VALUE,
-			ClassResolvers.weakCachingResolver(ClassLoader.getSystemClassLoader()));
+		return new FederatedWireCodec.Decoder();
 	}
 
 	public static long sumNonZeros(Future<FederatedResponse>[] responses) {
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.controlprogram.federated.monitoring.models;
+
+public class SessionModel extends CoordinatorConnectionModel {
+	private static final long serialVersionUID = 3417622839147526741L;
+	public Long workerId;
+	public Long numTasks;
+	public double queueTime; // in ms
+	public double maxQueueTime; // in ms
+	public double weight;
+	public double memorySize; // in MB
+	public Long quotaEvictions;
+	public double quotaEvictedSize; // in MB
+
+	private static final String JsonFormat = "{" +
+			"\"coordinatorId\": %d," +
+			"\"numTasks\": %d," +
+			"\"queueTime\": %.3f," +
+			"\"maxQueueTime\": %.3f," +
+			"\"weight\": %.2f," +
+			"\"memorySize\": %.3f," +
+			"\"quotaEvictions\": %d," +
+			"\"quotaEvictedSize\": %.3f" +
+			"}";
+
+	public SessionModel() {
+		this(-1L);
+	}
+
+	private SessionModel(final Long id) {
+		this.id = id;
+	}
+
+	public SessionModel(final Long numTasks, final double queueTime, final double maxQueueTime, final double weight,
+		final double memorySize, final Long quotaEvictions, final double quotaEvictedSize) {
+		this(-1L, numTasks, queueTime, maxQueueTime, weight, memorySize, quotaEvictions, quotaEvictedSize);
+	}
+
+	public SessionModel(final Long id, final Long numTasks, final double queueTime, final double maxQueueTime,
+		final double weight, final double memorySize, final Long quotaEvictions, final double quotaEvictedSize) {
+		this.id = id;
+		this.numTasks = numTasks;
+		this.queueTime = queueTime;
+		this.maxQueueTime = maxQueueTime;
+		this.weight = weight;
+		this.memorySize = memorySize;
+		this.quotaEvictions = quotaEvictions;
+		this.quotaEvictedSize = quotaEvictedSize;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(JsonFormat, this.coordinatorId, this.numTasks, this.queueTime, this.maxQueueTime,
+			this.weight, this.memorySize, this.quotaEvictions, this.quotaEvictedSize);
+	}
+}
@@ -30,6 +30,7 @@ public class StatisticsModel extends BaseModel {
 	public List<DataObjectModel> dataObjects;
 	public List<RequestModel> requests;
 	public List<HeavyHitterModel> heavyHitters;
+	public List<SessionModel> sessions;
 
 	private static final String JsonFormat = "{" +
 			"\"utilization\": [%s]," +
@@ -37,7 +38,8 @@ public class StatisticsModel extends BaseModel {
 			"\"events\": [%s]," +
 			"\"dataObjects\": [%s]," +
 			"\"requests\": [%s]," +
-			"\"heavyHitters\": [%s]" +
+			"\"heavyHitters\": [%s]," +
+			"\"sessions\": [%s]" +
 			"}";
 
 	public StatisticsModel() { }
@@ -47,19 +49,21 @@ public class StatisticsModel extends BaseModel {
 						   List<EventModel> events,
 						   List<DataObjectModel> dataObjects,
 						   List<RequestModel> requests,
-						   List<HeavyHitterModel> heavyHitters) {
+						   List<HeavyHitterModel> heavyHitters,
+						   List<SessionModel> sessions) {
 		this.utilization = utilization;
 		this.traffic = traffic;
 		this.events = events;
 		this.dataObjects = dataObjects;
 		this.requests = requests;
 		this.heavyHitters = heavyHitters;
+		this.sessions = sessions;
 	}
 
 
 	@Override
 	public String toString() {
-		String utilizationStr = null, trafficStr = null, eventsStr = null, dataObjectsStr = null, requestsStr = null, heavyHittersStr = null;
+		String utilizationStr = null, trafficStr = null, eventsStr = null, dataObjectsStr = null, requestsStr = null, heavyHittersStr = null, sessionsStr = null;
 
 		if (utilization != null) {
 			utilizationStr = utilization.stream()
@@ -97,6 +101,12 @@ public class StatisticsModel extends BaseModel {
 					.collect(Collectors.joining(","));
 		}
 
-		return String.format(JsonFormat, utilizationStr, trafficStr, eventsStr, dataObjectsStr, requestsStr, heavyHittersStr);
+		if (sessions != null) {
+			sessionsStr = sessions.stream()
+					.map(SessionModel::toString)
+					.collect(Collectors.joining(","));
+		}
+
+		return String.format(JsonFormat, utilizationStr, trafficStr, eventsStr, dataObjectsStr, requestsStr, heavyHittersStr, sessionsStr);
 	}
 }
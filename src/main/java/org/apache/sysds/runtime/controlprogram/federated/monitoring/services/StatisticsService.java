@@ -41,6 +41,7 @@ import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.Event
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.EventStageModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.HeavyHitterModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.RequestModel;
+import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.SessionModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.StatisticsModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.StatisticsOptions;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.TrafficModel;
@@ -60,6 +61,7 @@ public class StatisticsService {
 		CompletableFuture<Void> dataObjFuture = null;
 		CompletableFuture<Void> requestsFuture = null;
 		CompletableFuture<Void> heavyHittersFuture = null;
+		CompletableFuture<Void> sessionsFuture = null;
 
 		var stats = new StatisticsModel();
 
@@ -109,7 +111,13 @@ public class StatisticsService {
 					.thenAcceptAsync(result -> stats.heavyHitters = result);
 		}
 
-		List<CompletableFuture<Void>> completableFutures = Arrays.asList(utilizationFuture, trafficFuture, eventsFuture, dataObjFuture, requestsFuture, heavyHittersFuture);
+		if (options.sessions) {
+			sessionsFuture = CompletableFuture
+					.supplyAsync(() -> entityRepository.getAllEntitiesByField(Constants.ENTITY_WORKER_ID_COL, workerId, SessionModel.class))
+					.thenAcceptAsync(result -> stats.sessions = result);
+		}
+
+		List<CompletableFuture<Void>> completableFutures = Arrays.asList(utilizationFuture, trafficFuture, eventsFuture, dataObjFuture, requestsFuture, heavyHittersFuture, sessionsFuture);
 
 		completableFutures.forEach(cf -> {
 			try {
@@ -158,6 +166,7 @@ public class StatisticsService {
 		var events = aggFedStats.workerEvents;
 		var dataObjects = aggFedStats.workerDataObjects;
 		var requests = aggFedStats.workerRequests;
+		var sessions = aggFedStats.workerSessions;
 
 		List<HeavyHitterModel> heavyHitters = new ArrayList<>();
 
@@ -183,12 +192,18 @@ public class StatisticsService {
 			setCoordinatorId(request);
 		}
 
+		for (var session: sessions) {
+			session.workerId = workerId;
+
+			setCoordinatorId(session);
+		}
+
 		for (var heavyHitterEntry: aggFedStats.heavyHitters.entrySet()) {
 			var newHH = new HeavyHitterModel(workerId, heavyHitterEntry.getKey(), heavyHitterEntry.getValue().getValue(), heavyHitterEntry.getValue().getLeft());
 			heavyHitters.add(newHH);
 		}
 
-		return new StatisticsModel(List.of(utilization), traffic, events, dataObjects, requests, heavyHitters);
+		return new StatisticsModel(List.of(utilization), traffic, events, dataObjects, requests, heavyHitters, sessions);
 	}
 
 	private static void setCoordinatorId(CoordinatorConnectionModel entity) {
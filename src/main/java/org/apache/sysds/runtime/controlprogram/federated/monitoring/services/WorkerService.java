@@ -34,6 +34,7 @@ import org.apache.sysds.conf.DMLConfig;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.DataObjectModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.HeavyHitterModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.RequestModel;
+import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.SessionModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.StatisticsModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.WorkerModel;
 import org.apache.sysds.runtime.controlprogram.federated.monitoring.repositories.Constants;
@@ -175,6 +176,17 @@ public class WorkerService {
 					}
 				});
 			}
+			if (stats.sessions != null) {
+				CompletableFuture.runAsync(() -> {
+					entityRepository.removeAllEntitiesByField(Constants.ENTITY_WORKER_ID_COL, id, SessionModel.class);
+
+					for (var sessionEntity : stats.sessions) {
+						if (sessionEntity.coordinatorId > 0) {
+							entityRepository.createEntity(sessionEntity);
+						}
+					}
+				});
+			}
 			if (stats.heavyHitters != null) {
 				CompletableFuture.runAsync(() -> {
 					// entityRepository.removeAllEntitiesByField(Constants.ENTITY_WORKER_ID_COL, id, HeavyHitterModel.class);
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.paramserv;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.cp.ListObject;
+import org.apache.sysds.runtime.io.IOUtilFunctions;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Compressed representation of a list of gradients, as created by the {@link GradientCompressor}
+ * of a paramserv worker and transferred instead of the dense gradients. Every layer is either
+ * dense or top-k sparse (row-major cell indexes), and its values are either kept as doubles
+ * or quantized to 8 bit with a per-layer offset and scale.
+ */
+public class CompressedGradients implements Serializable {
+	private static final long serialVersionUID = -2879213403482517364L;
+
+	private final Layer[] _layers;
+	private final List<String> _names;
+	private final long _rawSize;
+
+	protected CompressedGradients(Layer[] layers, List<String> names, long rawSize) {
+		_layers = layers;
+		_names = names;
+		_rawSize = rawSize;
+	}
+
+	public int getNumLayers() {
+		return _layers.length;
+	}
+
+	/**
+	 * Get the serialized size of the uncompressed gradients.
+	 *
+	 * @return size in bytes
+	 */
+	public long getRawSize() {
+		return _rawSize;
+	}
+
+	/**
+	 * Get the serialized size of the compressed gradients.
+	 *
+	 * @return size in bytes
+	 */
+	public long getExactSerializedSize() {
+		long size = 4 + 8 + 1; // layers, raw size, named
+		if(_names != null)
+			size += _names.stream().mapToLong(s -> IOUtilFunctions.getUTFSize(s)).sum();
+		for(Layer layer : _layers)
+			size += layer.getExactSerializedSize();
+		return size;
+	}
+
+	/**
+	 * Reconstruct the (lossy) gradients as list of matrices.
+	 *
+	 * @return list of gradients
+	 */
+	public ListObject decompress() {
+		List<Data> data = new ArrayList<>(_layers.length);
+		for(Layer layer : _layers)
+			data.add(ParamservUtils.newMatrixObject(layer.decompress(), false));
+		return new ListObject(data, _names);
+	}
+
+	public void write(DataOutput out) throws IOException {
+		out.writeInt(_layers.length);
+		out.writeLong(_rawSize);
+		out.writeBoolean(_names != null);
+		if(_names != null)
+			for(String name : _names)
+				out.writeUTF(name);
+		for(Layer layer : _layers)
+			layer.write(out);
+	}
+
+	public static CompressedGradients read(DataInput in) throws IOException {
+		Layer[] layers = new Layer[in.readInt()];
+		long rawSize = in.readLong();
+		List<String> names = null;
+		if(in.readBoolean()) {
+			names = new ArrayList<>(layers.length);
+			for(int i = 0; i < layers.length; i++)
+				names.add(in.readUTF());
+		}
+		for(int i = 0; i < layers.length; i++)
+			layers[i] = Layer.read(in);
+		return new CompressedGradients(layers, names, rawSize);
+	}
+
+	protected static class Layer implements Serializable {
+		private static final long serialVersionUID = 4406377329540744791L;
+
+		private final int _rows;
+		private final int _cols;
+		private final int[] _indexes; // null if dense
+		private final double[] _values; // null if quantized
+		private final byte[] _qvalues; // null if not quantized
+		private final double _min;
+		private final double _scale;
+
+		protected Layer(int rows, int cols, int[] indexes, double[] values) {
+			this(rows, cols, indexes, values, null, 0, 0);
+		}
+
+		protected Layer(int rows, int cols, int[] indexes, byte[] qvalues, double min, double scale) {
+			this(rows, cols, indexes, null, qvalues, min, scale);
+		}
+
+		private Layer(int rows, int cols, int[] indexes, double[] values, byte[] qvalues, double min, double scale) {
+			_rows = rows;
+			_cols = cols;
+			_indexes = indexes;
+			_values = values;
+			_qvalues = qvalues;
+			_min = min;
+			_scale = scale;
+		}
+
+		protected int getNumValues() {
+			return _values != null ? _values.length : _qvalues.length;
+		}
+
+		protected double getValue(int i) {
+			return _values != null ? _values[i] : dequantize(_qvalues[i], _min, _scale);
+		}
+
+		protected int getIndex(int i) {
+			return _indexes != null ? _indexes[i] : i;
+		}
+
+		protected static double dequantize(byte q, double min, double scale) {
+			return min + (q & 0xFF) * scale;
+		}
+
+		private MatrixBlock decompress() {
+			MatrixBlock ret = new MatrixBlock(_rows, _cols, false);
+			ret.allocateDenseBlock();
+			double[] c = ret.getDenseBlockValues();
+			for(int i = 0; i < getNumValues(); i++)
+				c[getIndex(i)] = getValue(i);
+			ret.recomputeNonZeros();
+			ret.examSparsity();
+			return ret;
+		}
+
+		private long getExactSerializedSize() {
+			long size = 4 + 4 + 1 + 1 + 4; // dims, flags, num values
+			if(_indexes != null)
+				size += 4L * _indexes.length;
+			size += (_values != null) ? 8L * _values.length : 8 + 8 + _qvalues.length;
+			return size;
+		}
+
+		private void write(DataOutput out) throws IOException {
+			out.writeInt(_rows);
+			out.writeInt(_cols);
+			out.writeBoolean(_indexes != null);
+			out.writeBoolean(_qvalues != null);
+			out.writeInt(getNumValues());
+			if(_indexes != null)
+				for(int ix : _indexes)
+					out.writeInt(ix);
+			if(_qvalues != null) {
+				out.writeDouble(_min);
+				out.writeDouble(_scale);
+				out.write(_qvalues);
+			}
+			else
+				for(double v : _values)
+					out.writeDouble(v);
+		}
+
+		private static Layer read(DataInput in) throws IOException {
+			int rows = in.readInt();
+			int cols = in.readInt();
+			boolean sparse = in.readBoolean();
+			boolean quantized = in.readBoolean();
+			int len = in.readInt();
+			int[] indexes = null;
+			if(sparse) {
+				indexes = new int[len];
+				for(int i = 0; i < len; i++)
+					indexes[i] = in.readInt();
+			}
+			if(quantized) {
+				double min = in.readDouble();
+				double scale = in.readDouble();
+				byte[] qvalues = new byte[len];
+				in.readFully(qvalues);
+				return new Layer(rows, cols, indexes, qvalues, min, scale);
+			}
+			double[] values = new double[len];
+			for(int i = 0; i < len; i++)
+				values[i] = in.readDouble();
+			return new Layer(rows, cols, indexes, values);
+		}
+	}
+}
@@ -27,6 +27,7 @@ import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.parser.DataIdentifier;
 import org.apache.sysds.parser.Statement;
 import org.apache.sysds.parser.Statement.PSFrequency;
+import org.apache.sysds.parser.Statement.PSGradCompression;
 import org.apache.sysds.parser.Statement.PSRuntimeBalancing;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.controlprogram.BasicProgramBlock;
@@ -79,9 +80,22 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 	private boolean _use_homomorphic_encryption = false;
 	private PublicKey _partial_public_key;
 
+	// gradient compression on the federated worker
+	private final PSGradCompression _compression;
+	private final double _compressionRatio;
+
 	public FederatedPSControlThread(int workerID, String updFunc, Statement.PSFrequency freq,
 		PSRuntimeBalancing runtimeBalancing, boolean weighting, int epochs, long batchSize,
 		int numBatchesPerGlobalEpoch, ExecutionContext ec, ParamServer ps, int nbatches, boolean modelAvg, boolean use_homomorphic_encryption)
+	{
+		this(workerID, updFunc, freq, runtimeBalancing, weighting, epochs, batchSize, numBatchesPerGlobalEpoch,
+			ec, ps, nbatches, modelAvg, use_homomorphic_encryption, PSGradCompression.NONE, GradientCompressor.DEFAULT_RATIO);
+	}
+
+	public FederatedPSControlThread(int workerID, String updFunc, Statement.PSFrequency freq,
+		PSRuntimeBalancing runtimeBalancing, boolean weighting, int epochs, long batchSize,
+		int numBatchesPerGlobalEpoch, ExecutionContext ec, ParamServer ps, int nbatches, boolean modelAvg, boolean use_homomorphic_encryption,
+		PSGradCompression compression, double compressionRatio)
 	{
 		super(workerID, updFunc, freq, epochs, batchSize, ec, ps, nbatches, modelAvg);
 
@@ -93,6 +107,8 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 		_modelVarID = FederationUtils.getNextFedDataID();
 		_modelAvg = _use_homomorphic_encryption || modelAvg; // we always have to use modelAvg when using homomorphic encryption
 		_use_homomorphic_encryption = use_homomorphic_encryption;
+		_compression = compression;
+		_compressionRatio = compressionRatio;
 	}
 
 	/**
@@ -174,6 +190,7 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 				programSerialized, _inst.getNamespace(), _inst.getFunctionName(),
 				_ps.getAggInst().getFunctionName(), _ec.getListObject("hyperparams"),
 				_modelVarID, _nbatches, _use_homomorphic_encryption || _modelAvg);
+		udf.setCompression(_compression, _compressionRatio);
 
 		udfResponse = _featuresData.executeFederatedOperation(
 				new FederatedRequest(RequestType.EXEC_UDF, _featuresData.getVarID(), udf));
@@ -234,6 +251,8 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 		private long _modelVarID;
 		private boolean _modelAvg;
 		private int _nbatches;
+		private PSGradCompression _compression = PSGradCompression.NONE;
+		private double _compressionRatio;
 		private boolean _params_set = false;
 
 		protected SetupFederatedWorker()
@@ -258,6 +277,11 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 			_params_set = true;
 		}
 
+		public void setCompression(PSGradCompression compression, double compressionRatio) {
+			_compression = compression;
+			_compressionRatio = compressionRatio;
+		}
+
 		@Override
 		public FederatedResponse execute(ExecutionContext ec, Data... data) {
 			if (!_params_set) {
@@ -278,6 +302,8 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 			ec.setVariable(Statement.PS_FED_MODEL_VARID, new IntObject(_modelVarID));
 			ec.setVariable(Statement.PS_NBATCHES, new IntObject(_nbatches));
 			ec.setVariable(Statement.PS_MODELAVG, new BooleanObject(_modelAvg));
+			ec.setVariable(Statement.PS_FED_GRAD_COMPRESSION, new StringObject(_compression.name()));
+			ec.setVariable(Statement.PS_FED_GRAD_COMPRESSION_RATIO, new DoubleObject(_compressionRatio));
 
 			return new FederatedResponse(FederatedResponse.ResponseType.SUCCESS);
 		}
@@ -359,6 +385,10 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 			ec.removeVariable(Statement.PS_FED_GRADIENTS_FNAME);
 			ec.removeVariable(Statement.PS_FED_AGGREGATION_FNAME);
 			ec.removeVariable(Statement.PS_FED_MODEL_VARID);
+			ec.removeVariable(Statement.PS_FED_GRAD_COMPRESSION);
+			ec.removeVariable(Statement.PS_FED_GRAD_COMPRESSION_RATIO);
+			if(ec.containsVariable(Statement.PS_FED_GRAD_RESIDUALS))
+				ParamservUtils.cleanupListObject(ec, Statement.PS_FED_GRAD_RESIDUALS);
 			ParamservUtils.cleanupListObject(ec, Statement.PS_HYPER_PARAMS);
 
 			return new FederatedResponse(FederatedResponse.ResponseType.SUCCESS);
@@ -551,6 +581,11 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 				ParamServStatistics.accFedCommunicationTime(total - workerComputing);
 				ParamServStatistics.accFedNetworkTime(total);
 			}
+			if(responseData[0] instanceof CompressedGradients) {
+				CompressedGradients cgrad = (CompressedGradients) responseData[0];
+				ParamServStatistics.accGradientBytes(cgrad.getRawSize(), cgrad.getExactSerializedSize());
+				return cgrad.decompress();
+			}
 			return (ListObject) responseData[0];
 		}
 		catch(Exception e) {
@@ -671,11 +706,36 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 			ParamservUtils.cleanupListObject(ec, ec.getVariable(Statement.PS_FED_MODEL_VARID).toString());
 			// TODO double check cleanup gradients and models
 
+			// compress the gradients, keeping the compression error for the next request
+			Object ret = modelAvg ? model : compressGradients(ec, accGradients);
+
 			// stop timing
 			DoubleObject gradientsTime = new DoubleObject(tGradients.stop());
 			ParamServStatistics.accGradientComputeTime(gradientsTime.getLongValue());
 			return new FederatedResponse(FederatedResponse.ResponseType.SUCCESS,
-					new Object[]{modelAvg ? model : accGradients, gradientsTime});
+					new Object[]{ret, gradientsTime});
+		}
+
+		private static Object compressGradients(ExecutionContext ec, ListObject gradients) {
+			if(!ec.containsVariable(Statement.PS_FED_GRAD_COMPRESSION))
+				return gradients;
+			PSGradCompression compression = PSGradCompression.valueOf(
+				((StringObject) ec.getVariable(Statement.PS_FED_GRAD_COMPRESSION)).getStringValue());
+			if(compression == PSGradCompression.NONE)
+				return gradients;
+			GradientCompressor compressor = new GradientCompressor(compression,
+				((DoubleObject) ec.getVariable(Statement.PS_FED_GRAD_COMPRESSION_RATIO)).getDoubleValue());
+			ListObject residuals = ec.containsVariable(Statement.PS_FED_GRAD_RESIDUALS) ?
+				ec.getListObject(Statement.PS_FED_GRAD_RESIDUALS) : null;
+			compressor.setResiduals(residuals);
+			CompressedGradients ret = compressor.compress(gradients);
+			ec.setVariable(Statement.PS_FED_GRAD_RESIDUALS, compressor.getResiduals());
+			// clean up the replaced residuals (recreated, not updated in place)
+			// and the accrued gradients, which are fully copied by the compression
+			if(residuals != null)
+				ParamservUtils.cleanupListObject(ec, residuals);
+			ParamservUtils.cleanupListObject(ec, gradients);
+			return ret;
 		}
 
 		@Override
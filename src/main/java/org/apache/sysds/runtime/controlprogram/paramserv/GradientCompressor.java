@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.paramserv;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.sysds.parser.Statement.PSGradCompression;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.controlprogram.paramserv.CompressedGradients.Layer;
+import org.apache.sysds.runtime.data.DenseBlockFactory;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.cp.ListObject;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.DataConverter;
+
+/**
+ * Lossy compression of the gradients pushed by a paramserv worker, via top-k sparsification
+ * (keeping the entries with the largest magnitude) and/or 8-bit min/max quantization. The
+ * compressor is stateful and applies error feedback: the part of the gradients that was not
+ * transferred (dropped or rounded away) is kept as residual and added to the next gradients
+ * of the same worker, so no update is lost but only delayed.
+ */
+public class GradientCompressor {
+	public static final double DEFAULT_RATIO = 0.01;
+
+	private final PSGradCompression _type;
+	private final double _ratio;
+	private MatrixBlock[] _residuals;
+
+	public GradientCompressor(PSGradCompression type, double ratio) {
+		if(type == PSGradCompression.NONE)
+			throw new DMLRuntimeException("GradientCompressor: unsupported compression type " + type);
+		if(ratio <= 0 || ratio > 1)
+			throw new DMLRuntimeException("GradientCompressor: invalid compression ratio " + ratio
+				+ ", expected a fraction in (0, 1].");
+		_type = type;
+		_ratio = ratio;
+	}
+
+	public PSGradCompression getType() {
+		return _type;
+	}
+
+	public double getRatio() {
+		return _ratio;
+	}
+
+	/**
+	 * Compress the given gradients (plus the residuals of previous calls),
+	 * and keep the compression error as residuals for the next call.
+	 *
+	 * @param gradients list of gradient matrices
+	 * @return compressed gradients
+	 */
+	public CompressedGradients compress(ListObject gradients) {
+		int numLayers = gradients.getLength();
+		if(_residuals == null || _residuals.length != numLayers)
+			_residuals = new MatrixBlock[numLayers];
+		Layer[] layers = new Layer[numLayers];
+		long rawSize = 0;
+		for(int i = 0; i < numLayers; i++) {
+			Data d = gradients.getData().get(i);
+			if(!(d instanceof MatrixObject))
+				throw new DMLRuntimeException("GradientCompressor: unsupported gradient "
+					+ d.getDebugName() + ", which is not a matrix.");
+			MatrixBlock mb = ((MatrixObject) d).acquireReadAndRelease();
+			rawSize += mb.getExactSizeOnDisk();
+			layers[i] = compress(mb, i);
+		}
+		return new CompressedGradients(layers,
+			gradients.isNamedList() ? new ArrayList<>(gradients.getNames()) : null, rawSize);
+	}
+
+	/**
+	 * Get the current residuals (compression errors not yet transferred).
+	 *
+	 * @return list of dense residual matrices, or null if nothing was compressed yet
+	 */
+	public ListObject getResiduals() {
+		if(_residuals == null)
+			return null;
+		List<Data> data = new ArrayList<>(_residuals.length);
+		for(MatrixBlock mb : _residuals)
+			data.add(ParamservUtils.newMatrixObject(mb != null ? mb : new MatrixBlock(), false));
+		return new ListObject(data);
+	}
+
+	/**
+	 * Restore the residuals, e.g., of a compressor on a federated worker that
+	 * is recreated for every request.
+	 *
+	 * @param residuals list of residual matrices as obtained from {@link #getResiduals()}
+	 */
+	public void setResiduals(ListObject residuals) {
+		if(residuals == null) {
+			_residuals = null;
+			return;
+		}
+		_residuals = new MatrixBlock[residuals.getLength()];
+		for(int i = 0; i < _residuals.length; i++)
+			_residuals[i] = ((MatrixObject) residuals.getData().get(i)).acquireReadAndRelease();
+	}
+
+	private Layer compress(MatrixBlock mb, int layer) {
+		final int rows = mb.getNumRows();
+		final int cols = mb.getNumColumns();
+		final long llen = (long) rows * cols;
+		if(llen > Integer.MAX_VALUE)
+			throw new DMLRuntimeException("GradientCompressor: gradients of layer " + layer
+				+ " too large for compression: " + rows + "x" + cols);
+		final int len = (int) llen;
+
+		// accumulate gradients and residual of the previous push
+		double[] acc = DataConverter.convertToDoubleVector(mb, true);
+		MatrixBlock res = _residuals[layer];
+		if(res != null && res.getNumRows() == rows && res.getNumColumns() == cols && !res.isEmptyBlock(false)) {
+			double[] r = DataConverter.convertToDoubleVector(res, false);
+			for(int i = 0; i < len; i++)
+				acc[i] += r[i];
+		}
+
+		// top-k sparsification
+		int[] indexes = null;
+		double[] values = null;
+		if(_type.isTopK()) {
+			int k = (int) Math.max(1, Math.ceil(_ratio * len));
+			if(k < len) {
+				indexes = selectTopK(acc, k);
+				values = new double[indexes.length];
+				for(int j = 0; j < indexes.length; j++)
+					values[j] = acc[indexes[j]];
+			}
+		}
+		if(values == null)
+			values = acc.clone();
+
+		// 8-bit quantization
+		Layer ret;
+		if(_type.isQuantized()) {
+			double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+			for(double v : values) {
+				min = Math.min(min, v);
+				max = Math.max(max, v);
+			}
+			if(values.length == 0)
+				min = max = 0;
+			double scale = (max - min) / 255;
+			byte[] qvalues = new byte[values.length];
+			if(scale > 0)
+				for(int j = 0; j < values.length; j++)
+					qvalues[j] = (byte) Math.round((values[j] - min) / scale);
+			ret = new Layer(rows, cols, indexes, qvalues, min, scale);
+		}
+		else
+			ret = new Layer(rows, cols, indexes, values);
+
+		// error feedback: keep the not transferred part of the accumulated gradients
+		for(int j = 0; j < ret.getNumValues(); j++)
+			acc[ret.getIndex(j)] -= ret.getValue(j);
+		_residuals[layer] = new MatrixBlock(rows, cols, DenseBlockFactory.createDenseBlock(acc, rows, cols));
+		_residuals[layer].recomputeNonZeros();
+		return ret;
+	}
+
+	/**
+	 * Select the row-major indexes of the k entries with the largest magnitude.
+	 *
+	 * @param a dense values
+	 * @param k number of entries
+	 * @return sorted indexes
+	 */
+	protected static int[] selectTopK(double[] a, int k) {
+		double[] abs = new double[a.length];
+		for(int i = 0; i < a.length; i++)
+			abs[i] = Math.abs(a[i]);
+		double threshold = selectKthLargest(abs, k);
+
+		// all entries above the threshold, filled up with entries equal to the threshold
+		int[] ret = new int[k];
+		int pos = 0;
+		for(int i = 0; i < a.length && pos < k; i++)
+			if(Math.abs(a[i]) > threshold)
+				ret[pos++] = i;
+		for(int i = 0; i < a.length && pos < k; i++)
+			if(Math.abs(a[i]) == threshold)
+				ret[pos++] = i;
+		Arrays.sort(ret, 0, pos);
+		return pos < k ? Arrays.copyOf(ret, pos) : ret;
+	}
+
+	private static double selectKthLargest(double[] a, int k) {
+		// in-place quickselect of the (n-k)-th smallest value
+		int target = a.length - k;
+		int lo = 0, hi = a.length - 1;
+		while(lo < hi) {
+			double pivot = a[(lo + hi) >>> 1];
+			int i = lo, j = hi;
+			while(i <= j) {
+				while(a[i] < pivot)
+					i++;
+				while(a[j] > pivot)
+					j--;
+				if(i <= j) {
+					double tmp = a[i];
+					a[i++] = a[j];
+					a[j--] = tmp;
+				}
+			}
+			if(target <= j)
+				hi = j;
+			else if(target >= i)
+				lo = i;
+			else
+				break;
+		}
+		return a[target];
+	}
+}
@@ -49,7 +49,10 @@ public class LocalParamServer extends ParamServer {
 
 	@Override
 	public void push(int workerID, ListObject gradients) {
-		updateGlobalModel(workerID, gradients);
+		if(isAsyncAggregation())
+			updateGlobalGradientsAsync(workerID, gradients);
+		else
+			updateGlobalModel(workerID, gradients);
 	}
 
 	@Override
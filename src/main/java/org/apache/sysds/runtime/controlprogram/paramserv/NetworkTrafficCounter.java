@@ -21,11 +21,19 @@ package org.apache.sysds.runtime.controlprogram.paramserv;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.traffic.ChannelTrafficShapingHandler;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.util.function.BiConsumer;
 
 public class NetworkTrafficCounter extends ChannelTrafficShapingHandler {
-	private final BiConsumer<Long, Long> _fn; // (read, written) -> Void, logs bytes read and written
+	private final LinkTrafficConsumer _fn; // (link, read, written) -> Void, logs bytes read and written
+
 	public NetworkTrafficCounter(BiConsumer<Long, Long> fn) {
+		this((link, read, written) -> fn.accept(read, written));
+	}
+
+	public NetworkTrafficCounter(LinkTrafficConsumer fn) {
 		// checkInterval of zero means that doAccounting will not be called
 		super( 0);
 		_fn = fn;
@@ -34,8 +42,29 @@ public class NetworkTrafficCounter extends ChannelTrafficShapingHandler {
 	// log bytes read/written after channel is closed
 	@Override
 	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
-		_fn.accept(trafficCounter.cumulativeReadBytes(), trafficCounter.cumulativeWrittenBytes());
+		_fn.accept(ctx.channel().remoteAddress(),
+			trafficCounter.cumulativeReadBytes(), trafficCounter.cumulativeWrittenBytes());
 		trafficCounter.resetCumulativeTime();
 		super.channelInactive(ctx);
 	}
+
+	/**
+	 * Returns a readable name of the given remote address, optionally without port
+	 * (e.g., for incoming connections from ephemeral ports).
+	 * 
+	 * @param addr remote socket address
+	 * @param withPort include the port
+	 * @return link name
+	 */
+	public static String getLinkName(SocketAddress addr, boolean withPort) {
+		if( !(addr instanceof InetSocketAddress) )
+			return String.valueOf(addr);
+		InetSocketAddress iaddr = (InetSocketAddress) addr;
+		return withPort ? iaddr.getHostString() + ":" + iaddr.getPort() : iaddr.getHostString();
+	}
+
+	@FunctionalInterface
+	public interface LinkTrafficConsumer {
+		public void accept(SocketAddress link, long read, long written);
+	}
 }
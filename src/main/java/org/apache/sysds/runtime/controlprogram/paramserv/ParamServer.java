@@ -22,6 +22,10 @@ package org.apache.sysds.runtime.controlprogram.paramserv;
 import java.util.*;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -31,6 +35,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.common.Types.DataType;
+import org.apache.sysds.conf.ConfigurationManager;
 import org.apache.sysds.parser.DMLProgram;
 import org.apache.sysds.parser.DataIdentifier;
 import org.apache.sysds.parser.Statement;
@@ -55,7 +60,7 @@ public abstract class ParamServer
 
 	// worker input queues and global model
 	protected Map<Integer, BlockingQueue<ListObject>> _modelMap;
-	private ListObject _model;
+	private volatile ListObject _model;
 
 	//aggregation service
 	protected ExecutionContext _ec;
@@ -83,6 +88,14 @@ public abstract class ParamServer
 	private boolean _modelAvg;
 	private ListObject _accModels = null;
 
+	// asynchronous aggregation: pushed gradients are queued and applied one by one
+	// by whichever worker acquires the aggregation lock, while workers read the
+	// latest published model snapshot without taking the lock
+	private boolean _asyncAgg = false;
+	private ConcurrentLinkedQueue<ListObject> _pendingGradients;
+	private AtomicReference<ModelSnapshot> _snapshot;
+	private ReentrantLock _aggLock;
+
 	protected ParamServer() {}
 
 	protected ParamServer(ListObject model, String aggFunc, Statement.PSUpdateType updateType,
@@ -112,6 +125,13 @@ public abstract class ParamServer
 		_numBackupWorkers = numBackupWorkers;
 		_numUpdatesStraggling = new int[workerNum];
 		_modelAvg = modelAvg;
+		_asyncAgg = updateType == Statement.PSUpdateType.ASP && !modelAvg
+			&& ConfigurationManager.isParamservAsyncAggregation();
+		if(_asyncAgg) {
+			_pendingGradients = new ConcurrentLinkedQueue<>();
+			_snapshot = new AtomicReference<>(new ModelSnapshot(model));
+			_aggLock = new ReentrantLock();
+		}
 
 		// broadcast initial model
 		broadcastModel(true);
@@ -187,9 +207,22 @@ public abstract class ParamServer
 	public ListObject getResult() {
 		// All the model updating work has terminated,
 		// so we could return directly the result model
+		if(_asyncAgg) {
+			_aggLock.lock();
+			try {
+				applyPendingGradients();
+			}
+			finally {
+				_aggLock.unlock();
+			}
+		}
 		return _model;
 	}
 
+	public boolean isAsyncAggregation() {
+		return _asyncAgg;
+	}
+
 	protected synchronized void updateGlobalModel(int workerID, ListObject params) {
 		if(_modelAvg) {
 			updateAverageModel(workerID, params);
@@ -221,24 +254,7 @@ public abstract class ParamServer
 				}
 				case ASP: {
 					updateGlobalModel(gradients);
-					// This works similarly to the one for BSP, but divides the sync counter by
-					// the number of workers, creating "Pseudo Epochs"
-					if (_numBatchesPerEpoch != -1 &&
-						((_freq == Statement.PSFrequency.EPOCH && ((float) ++_syncCounter % _numWorkers) == 0) ||
-						(_freq == Statement.PSFrequency.BATCH && ((float) ++_syncCounter / _numWorkers) % (float) _numBatchesPerEpoch == 0)) ||
-						(_freq == Statement.PSFrequency.NBATCHES)) {
-						if(LOG.isInfoEnabled())
-							LOG.info("[+] PARAMSERV: completed PSEUDO EPOCH (ASP) " + _epochCounter);
-
-						time_epoch();
-
-						if(_validationPossible)
-							validate();
-
-						_epochCounter++;
-						_syncCounter = 0;
-					}
-
+					finishedAsyncUpdate();
 					broadcastModel(workerID);
 					break;
 				}
@@ -272,6 +288,93 @@ public abstract class ParamServer
 		}
 	}
 
+	/**
+	 * Asynchronous (ASP) update of the global model without serializing all workers
+	 * on the aggregation function. The pushed gradients are queued, and whichever worker
+	 * acquires the aggregation lock applies all pending gradients one by one, so stateful
+	 * aggregation functions (e.g., momentum or Adam) see the same sequence of updates as
+	 * with synchronous ASP. Workers never wait for the lock, but return with a copy of
+	 * the latest published model snapshot.
+	 *
+	 * @param workerID  worker id
+	 * @param gradients list of gradients
+	 */
+	protected void updateGlobalGradientsAsync(int workerID, ListObject gradients) {
+		try {
+			_pendingGradients.add(gradients);
+
+			// the lock holder re-checks the pending gradients after releasing the lock,
+			// so gradients added while another worker aggregates are never left behind
+			while(!_pendingGradients.isEmpty() && _aggLock.tryLock()) {
+				try {
+					applyPendingGradients();
+				}
+				finally {
+					_aggLock.unlock();
+				}
+			}
+
+			// copy the published snapshot without the aggregation lock; retaining it
+			// defers the cleanup of a model replaced by a concurrent aggregation
+			ModelSnapshot snapshot = retainSnapshot();
+			ListObject model;
+			try {
+				model = ParamservUtils.copyList(snapshot._model, false);
+			}
+			finally {
+				snapshot.release();
+			}
+			broadcastModel(workerID, model);
+		}
+		catch(Exception e) {
+			throw new DMLRuntimeException("Aggregation or validation service failed: ", e);
+		}
+	}
+
+	private void applyPendingGradients() {
+		int numUpdates = 0;
+		ListObject gradients;
+		while((gradients = _pendingGradients.poll()) != null) {
+			// aggregate on a copy of the model, so the published snapshot is only
+			// cleaned up once it was replaced and released by all its readers
+			ModelSnapshot old = _snapshot.get();
+			updateGlobalModel(gradients, ParamservUtils.copyList(_model, false));
+			_snapshot.set(new ModelSnapshot(_model));
+			old.release();
+			finishedAsyncUpdate();
+			numUpdates++;
+		}
+		if(numUpdates > 0)
+			ParamServStatistics.incAsyncAggregation(numUpdates);
+	}
+
+	private ModelSnapshot retainSnapshot() {
+		ModelSnapshot snapshot = _snapshot.get();
+		while(!snapshot.retain())
+			snapshot = _snapshot.get();
+		return snapshot;
+	}
+
+	private void finishedAsyncUpdate() {
+		// This works similarly to the one for BSP, but divides the sync counter by
+		// the number of workers, creating "Pseudo Epochs"
+		if (_numBatchesPerEpoch != -1 &&
+			((_freq == Statement.PSFrequency.EPOCH && ((float) ++_syncCounter % _numWorkers) == 0) ||
+			(_freq == Statement.PSFrequency.BATCH && ((float) ++_syncCounter / _numWorkers) % (float) _numBatchesPerEpoch == 0)) ||
+			(_freq == Statement.PSFrequency.NBATCHES)) {
+			if(LOG.isInfoEnabled())
+				LOG.info("[+] PARAMSERV: completed PSEUDO EPOCH (ASP) " + _epochCounter);
+
+			time_epoch();
+
+			if(_validationPossible)
+				validate();
+
+			_epochCounter++;
+			_syncCounter = 0;
+		}
+	}
+
 	private void performGlobalGradientUpdate() {
 		// Update the global model with accrued gradients
 		if(ACCRUE_BSP_GRADIENTS) {
@@ -317,8 +420,12 @@ public abstract class ParamServer
 	}
 
 	private void updateGlobalModel(ListObject gradients) {
+		updateGlobalModel(gradients, _model);
+	}
+
+	private void updateGlobalModel(ListObject gradients, ListObject model) {
 		Timing tAgg = DMLScript.STATISTICS ? new Timing(true) : null;
-		_model = updateLocalModel(_ec, gradients, _model);
+		_model = updateLocalModel(_ec, gradients, model);
 		if (DMLScript.STATISTICS && tAgg != null)
 			ParamServStatistics.accAggregationTime((long) tAgg.stop());
 	}
@@ -529,9 +636,13 @@ public abstract class ParamServer
 	}
 
 	private void broadcastModel(int workerID) throws InterruptedException {
+		broadcastModel(workerID, null);
+	}
+
+	private void broadcastModel(int workerID, ListObject model) throws InterruptedException {
 		Timing tBroad = DMLScript.STATISTICS ? new Timing(true) : null;
 		//broadcast copy of model to specific worker, cleaned up by worker
-		_modelMap.get(workerID).put(ParamservUtils.copyList(_model, false));
+		_modelMap.get(workerID).put((model != null) ? model : ParamservUtils.copyList(_model, false));
 		if (DMLScript.STATISTICS && tBroad != null)
 			ParamServStatistics.accModelBroadcastTime((long) tBroad.stop());
 	}
@@ -587,4 +698,35 @@ public abstract class ParamServer
 	public FunctionCallCPInstruction getAggInst() {
 		return _inst;
 	}
+
+	/**
+	 * Model published by the asynchronous aggregation. Readers retain the snapshot while
+	 * copying it, and the model is cleaned up once it was replaced and the last reader
+	 * released it; a snapshot without references can no longer be retained.
+	 */
+	private static class ModelSnapshot {
+		private final ListObject _model;
+		// one reference is held by the parameter server until the snapshot is replaced
+		private final AtomicInteger _refs = new AtomicInteger(1);
+
+		private ModelSnapshot(ListObject model) {
+			_model = model;
+		}
+
+		private boolean retain() {
+			int refs;
+			do {
+				refs = _refs.get();
+				if(refs == 0)
+					return false;
+			}
+			while(!_refs.compareAndSet(refs, refs + 1));
+			return true;
+		}
+
+		private void release() {
+			if(_refs.decrementAndGet() == 0)
+				ParamservUtils.cleanupListObject(_model);
+		}
+	}
 }
@@ -38,12 +38,18 @@ public class SparkPSProxy extends ParamServer {
 	private final TransportClient _client;
 	private final long _rpcTimeout;
 	private final LongAccumulator _aRPC;
+	private final GradientCompressor _compressor;
 
 	public SparkPSProxy(TransportClient client, long rpcTimeout, LongAccumulator aRPC) {
+		this(client, rpcTimeout, aRPC, null);
+	}
+
+	public SparkPSProxy(TransportClient client, long rpcTimeout, LongAccumulator aRPC, GradientCompressor compressor) {
 		super();
 		_client = client;
 		_rpcTimeout = rpcTimeout;
 		_aRPC = aRPC;
+		_compressor = compressor;
 	}
 
 	private void accRpcRequestTime(Timing tRpc) {
@@ -56,7 +62,15 @@ public class SparkPSProxy extends ParamServer {
 		Timing tRpc = DMLScript.STATISTICS ? new Timing(true) : null;
 		PSRpcResponse response;
 		try {
-			response = new PSRpcResponse(_client.sendRpcSync(new PSRpcCall(PUSH, workerID, value).serialize(), _rpcTimeout));
+			PSRpcCall call;
+			if (_compressor != null) {
+				// send the compressed gradients, the dense gradients are not transferred
+				call = new PSRpcCall(workerID, _compressor.compress(value));
+				ParamservUtils.cleanupListObject(value);
+			}
+			else
+				call = new PSRpcCall(PUSH, workerID, value);
+			response = new PSRpcResponse(_client.sendRpcSync(call.serialize(), _rpcTimeout));
 		} catch (IOException e) {
 			throw new DMLRuntimeException(String.format("SparkPSProxy: spark worker_%d failed to push gradients.", workerID), e);
 		}
@@ -54,8 +54,14 @@ public class SparkPSWorker extends LocalPSWorker implements VoidFunction<Tuple2<
 	private final LongAccumulator _aRPC; // accumulator for rpc request
 	private final LongAccumulator _nBatches; //number of executed batches
 	private final LongAccumulator _nEpochs; //number of executed epoches
+	private final Statement.PSGradCompression _compression;
+	private final double _compressionRatio;
 
 	public SparkPSWorker(String updFunc, String aggFunc, Statement.PSFrequency freq, int epochs, long batchSize, String program, boolean isLocal, HashMap<String, byte[]> clsMap, SparkConf conf, int port, LongAccumulator aSetup, LongAccumulator aWorker, LongAccumulator aUpdate, LongAccumulator aIndex, LongAccumulator aGrad, LongAccumulator aRPC, LongAccumulator aBatches, LongAccumulator aEpochs, int nbatches, boolean modelAvg) {
+		this(updFunc, aggFunc, freq, epochs, batchSize, program, isLocal, clsMap, conf, port, aSetup, aWorker, aUpdate, aIndex, aGrad, aRPC, aBatches, aEpochs, nbatches, modelAvg, Statement.PSGradCompression.NONE, GradientCompressor.DEFAULT_RATIO);
+	}
+
+	public SparkPSWorker(String updFunc, String aggFunc, Statement.PSFrequency freq, int epochs, long batchSize, String program, boolean isLocal, HashMap<String, byte[]> clsMap, SparkConf conf, int port, LongAccumulator aSetup, LongAccumulator aWorker, LongAccumulator aUpdate, LongAccumulator aIndex, LongAccumulator aGrad, LongAccumulator aRPC, LongAccumulator aBatches, LongAccumulator aEpochs, int nbatches, boolean modelAvg, Statement.PSGradCompression compression, double compressionRatio) {
 		_updFunc = updFunc;
 		_aggFunc = aggFunc;
 		_freq = freq;
@@ -76,6 +82,8 @@ public class SparkPSWorker extends LocalPSWorker implements VoidFunction<Tuple2<
 		_nEpochs = aEpochs;
 		_nbatches = nbatches;
 		_modelAvg = modelAvg;
+		_compression = compression;
+		_compressionRatio = compressionRatio;
 		
 		// make SparkPSWorker serializable
 		_tpool = null;
@@ -113,7 +121,8 @@ public class SparkPSWorker extends LocalPSWorker implements VoidFunction<Tuple2<
 		RemoteParForUtils.setupBufferPool(_workerID, _isLocal);
 
 		// Create the ps proxy
-		_ps = PSRpcFactory.createSparkPSProxy(_conf, _port, _aRPC);
+		_ps = PSRpcFactory.createSparkPSProxy(_conf, _port, _aRPC, _compression != Statement.PSGradCompression.NONE ?
+			new GradientCompressor(_compression, _compressionRatio) : null);
 
 		// Initialize the update function
 		setupUpdateFunction(_updFunc, _ec);
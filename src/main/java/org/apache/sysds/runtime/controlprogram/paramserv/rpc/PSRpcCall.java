@@ -24,6 +24,7 @@ import java.nio.ByteBuffer;
 
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.controlprogram.caching.CacheDataOutput;
+import org.apache.sysds.runtime.controlprogram.paramserv.CompressedGradients;
 import org.apache.sysds.runtime.instructions.cp.ListObject;
 import org.apache.sysds.runtime.util.ByteBufferDataInput;
 
@@ -32,6 +33,7 @@ public class PSRpcCall extends PSRpcObject {
 	private int _method;
 	private int _workerID;
 	private ListObject _data;
+	private CompressedGradients _cdata;
 
 	public PSRpcCall(int method, int workerID, ListObject data) {
 		_method = method;
@@ -39,6 +41,12 @@ public class PSRpcCall extends PSRpcObject {
 		_data = data;
 	}
 
+	public PSRpcCall(int workerID, CompressedGradients data) {
+		_method = PUSH_COMPRESSED;
+		_workerID = workerID;
+		_cdata = data;
+	}
+
 	public PSRpcCall(ByteBuffer buffer) throws IOException {
 		deserialize(buffer);
 	}
@@ -54,6 +62,10 @@ public class PSRpcCall extends PSRpcObject {
 	public ListObject getData() {
 		return _data;
 	}
+
+	public CompressedGradients getCompressedData() {
+		return _cdata;
+	}
 	
 	@Override
 	public void deserialize(ByteBuffer buffer) throws IOException {
@@ -61,17 +73,23 @@ public class PSRpcCall extends PSRpcObject {
 		_method = dis.readInt();
 		validateMethod(_method);
 		_workerID = dis.readInt();
-		if (dis.available() > 1)
+		if (_method == PUSH_COMPRESSED)
+			_cdata = CompressedGradients.read(dis);
+		else if (dis.available() > 1)
 			_data = readAndDeserialize(dis);
 	}
 
 	@Override
 	public ByteBuffer serialize() throws IOException {
-		int len = 8 + getExactSerializedSize(_data);
-		CacheDataOutput dos = new CacheDataOutput(len);
+		long len = 8 + ((_cdata != null) ? _cdata.getExactSerializedSize() : getExactSerializedSize(_data));
+		if( len > Integer.MAX_VALUE )
+			throw new DMLRuntimeException("Serialized size ("+len+") larger than Integer.MAX_VALUE.");
+		CacheDataOutput dos = new CacheDataOutput((int) len);
 		dos.writeInt(_method);
 		dos.writeInt(_workerID);
-		if (_data != null)
+		if (_cdata != null)
+			_cdata.write(dos);
+		else if (_data != null)
 			serializeAndWriteListObject(_data, dos);
 		return ByteBuffer.wrap(dos.getBytes());
 	}
@@ -80,9 +98,10 @@ public class PSRpcCall extends PSRpcObject {
 		switch (method) {
 			case PUSH:
 			case PULL:
+			case PUSH_COMPRESSED:
 				break;
 			default:
-				throw new DMLRuntimeException("PSRpcCall: only support rpc method 'push' or 'pull'");
+				throw new DMLRuntimeException("PSRpcCall: only support rpc method 'push', 'pull', or 'push compressed'");
 		}
 	}
 }
@@ -28,6 +28,7 @@ import org.apache.spark.network.netty.SparkTransportConf;
 import org.apache.spark.network.server.TransportServer;
 import org.apache.spark.network.util.TransportConf;
 import org.apache.spark.util.LongAccumulator;
+import org.apache.sysds.runtime.controlprogram.paramserv.GradientCompressor;
 import org.apache.sysds.runtime.controlprogram.paramserv.LocalParamServer;
 import org.apache.sysds.runtime.controlprogram.paramserv.SparkPSProxy;
 
@@ -57,12 +58,18 @@ public class PSRpcFactory {
 
 	public static SparkPSProxy createSparkPSProxy(SparkConf conf, int port, LongAccumulator aRPC)
 			throws IOException, InterruptedException
+	{
+		return createSparkPSProxy(conf, port, aRPC, null);
+	}
+
+	public static SparkPSProxy createSparkPSProxy(SparkConf conf, int port, LongAccumulator aRPC, GradientCompressor compressor)
+			throws IOException, InterruptedException
 	{
 		long rpcTimeout = conf.contains("spark.rpc.askTimeout") ?
 			conf.getTimeAsMs("spark.rpc.askTimeout") :
 			conf.getTimeAsMs("spark.network.timeout", "120s");
 		String host = conf.get("spark.driver.host");
 		TransportContext context = createTransportContext(conf, new LocalParamServer());
-		return new SparkPSProxy(context.createClientFactory().createClient(host, port), rpcTimeout, aRPC);
+		return new SparkPSProxy(context.createClientFactory().createClient(host, port), rpcTimeout, aRPC, compressor);
 	}
 }
@@ -21,6 +21,7 @@ package org.apache.sysds.runtime.controlprogram.paramserv.rpc;
 
 import static org.apache.sysds.runtime.controlprogram.paramserv.rpc.PSRpcCall.PULL;
 import static org.apache.sysds.runtime.controlprogram.paramserv.rpc.PSRpcCall.PUSH;
+import static org.apache.sysds.runtime.controlprogram.paramserv.rpc.PSRpcCall.PUSH_COMPRESSED;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -32,9 +33,11 @@ import org.apache.spark.network.server.OneForOneStreamManager;
 import org.apache.spark.network.server.RpcHandler;
 import org.apache.spark.network.server.StreamManager;
 import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.paramserv.CompressedGradients;
 import org.apache.sysds.runtime.controlprogram.paramserv.LocalParamServer;
 import org.apache.sysds.runtime.controlprogram.paramserv.rpc.PSRpcResponse.Type;
 import org.apache.sysds.runtime.instructions.cp.ListObject;
+import org.apache.sysds.utils.stats.ParamServStatistics;
 
 public final class PSRpcHandler extends RpcHandler {
 
@@ -55,8 +58,15 @@ public final class PSRpcHandler extends RpcHandler {
 		PSRpcResponse response = null;
 		switch (call.getMethod()) {
 			case PUSH:
+			case PUSH_COMPRESSED:
 				try {
-					_server.push(call.getWorkerID(), call.getData());
+					ListObject gradients = call.getData();
+					if (call.getMethod() == PUSH_COMPRESSED) {
+						CompressedGradients cgrad = call.getCompressedData();
+						ParamServStatistics.accGradientBytes(cgrad.getRawSize(), cgrad.getExactSerializedSize());
+						gradients = cgrad.decompress();
+					}
+					_server.push(call.getWorkerID(), gradients);
 					response = new PSRpcResponse(Type.SUCCESS_EMPTY);
 				} catch (DMLRuntimeException exception) {
 					response = new PSRpcResponse(Type.ERROR, ExceptionUtils.getFullStackTrace(exception));
@@ -42,6 +42,7 @@ public abstract class DenseBlock implements Serializable, Block
 	public enum Type {
 		DRB, //dense row block
 		LDRB, //large dense row block
+		OFFHEAP, //off-heap dense row blocks (buffer pool eviction only, not via factory)
 	}
 	
 	//NOTE: for a MxNxPxQ tensor the dimensions are given as
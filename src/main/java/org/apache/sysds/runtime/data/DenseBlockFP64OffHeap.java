@@ -0,0 +1,455 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.common.Warnings;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.util.DirectBufferUtils;
+import org.apache.sysds.runtime.util.LocalFileUtils;
+import org.apache.sysds.runtime.util.UtilFunctions;
+
+/**
+ * FP64 dense block that stores its values outside the Java heap, either in
+ * direct byte buffers or in memory-mapped files under the local tmp directory.
+ * The block is organized in multiple row-aligned blocks (like the large dense
+ * row block) because a single byte buffer is limited to 2GB.
+ * 
+ * NOTE: Kernels that access the underlying arrays via {@link #values(int)} or
+ * {@link #valuesAt(int)} receive a copy of the respective block, i.e., writes
+ * into these arrays are not reflected in this dense block. Off-heap blocks are
+ * therefore only used as a storage representation of unpinned cache blocks
+ * (see {@link org.apache.sysds.runtime.controlprogram.caching.LazyWriteBuffer}),
+ * are not available via {@link DenseBlockFactory}, and are converted back into
+ * on-heap blocks for computation. The off-heap memory
+ * is freed on {@link #release()} or by a cleaner when the block is garbage
+ * collected, where both paths maintain the global allocation statistics.
+ */
+public class DenseBlockFP64OffHeap extends DenseBlockLDRB
+{
+	private static final long serialVersionUID = -2183618497532170924L;
+	private static final Log LOG = LogFactory.getLog(DenseBlockFP64OffHeap.class.getName());
+
+	public enum Storage {
+		DIRECT, //direct byte buffers
+		MMAP,   //memory-mapped local files
+	}
+
+	//maximum number of doubles per byte buffer (2GB), incl margin for alignment
+	public static final int MAX_BLOCK_LENGTH = Integer.MAX_VALUE / Double.BYTES - 8;
+
+	//total number of bytes currently allocated off-heap (all blocks)
+	private static final AtomicLong _allocated = new AtomicLong(0);
+
+	//cleaner for releasing the off-heap memory of garbage-collected blocks
+	private static final Cleaner CLEANER = Cleaner.create();
+
+	private final Storage _storage;
+	private transient DoubleBuffer[] _blocks;
+	private transient Resources _resources;
+	private transient Cleaner.Cleanable _cleanable;
+
+	public DenseBlockFP64OffHeap(int[] dims) {
+		this(dims, Storage.DIRECT);
+	}
+
+	public DenseBlockFP64OffHeap(int[] dims, Storage storage) {
+		super(dims);
+		_storage = storage;
+		reset(_rlen, _odims, 0);
+	}
+
+	public Storage getStorage() {
+		return _storage;
+	}
+
+	/**
+	 * Indicates if the off-heap memory of this block has been released.
+	 * 
+	 * @return true if released
+	 */
+	public boolean isReleased() {
+		return _blocks == null;
+	}
+
+	/**
+	 * Obtains the total number of bytes allocated by all off-heap
+	 * dense blocks of this process.
+	 * 
+	 * @return allocated bytes
+	 */
+	public static long getAllocatedSize() {
+		return _allocated.get();
+	}
+
+	/**
+	 * Releases the off-heap memory of this dense block, i.e., frees the direct
+	 * buffers or unmaps and deletes the backing file. Subsequent accesses to this
+	 * block are invalid until it is reset.
+	 */
+	public synchronized void release() {
+		//runs the cleanup action at most once, which is
+		//otherwise invoked when the block is garbage collected
+		if( _cleanable != null )
+			_cleanable.clean();
+		_cleanable = null;
+		_resources = null;
+		_blocks = null;
+	}
+
+	@Override
+	protected int maxBlockLength() {
+		return Math.min(MAX_ALLOC, MAX_BLOCK_LENGTH);
+	}
+
+	@Override
+	protected void allocateBlocks(int numBlocks) {
+		release();
+		_blocks = new DoubleBuffer[numBlocks];
+		_resources = new Resources(numBlocks);
+		_cleanable = CLEANER.register(this, _resources);
+	}
+
+	@Override
+	protected void allocateBlock(int bix, int length) {
+		long size = (long) length * Double.BYTES;
+		ByteBuffer buff = (_storage == Storage.MMAP) ?
+			_resources.map(size) : ByteBuffer.allocateDirect((int) size);
+		buff.order(ByteOrder.nativeOrder());
+		_resources.add(bix, buff);
+		_blocks[bix] = buff.asDoubleBuffer();
+	}
+
+	/**
+	 * Off-heap resources of a dense block, which are released either explicitly
+	 * or by the cleaner once the block became unreachable. This class must not
+	 * reference the dense block itself, because this would prevent its cleanup.
+	 */
+	private static class Resources implements Runnable {
+		private final ByteBuffer[] _buffers;
+		private long _size = 0;
+		private RandomAccessFile _file;
+		private String _fname;
+		private long _fsize = 0;
+
+		private Resources(int numBlocks) {
+			_buffers = new ByteBuffer[numBlocks];
+		}
+
+		private synchronized void add(int bix, ByteBuffer buff) {
+			_buffers[bix] = buff;
+			_size += buff.capacity();
+			_allocated.addAndGet(buff.capacity());
+		}
+
+		private synchronized ByteBuffer map(long size) {
+			try {
+				if( _file == null ) {
+					_fname = LocalFileUtils.getUniqueWorkingDir(LocalFileUtils.CATEGORY_CACHE) + ".mmap";
+					File f = new File(_fname);
+					f.getParentFile().mkdirs();
+					f.deleteOnExit();
+					_file = new RandomAccessFile(f, "rw");
+					_fsize = 0;
+				}
+				//map the next region of the file, extended on demand,
+				//where new regions are guaranteed to be zero-initialized
+				_file.setLength(_fsize + size);
+				MappedByteBuffer buff = _file.getChannel().map(FileChannel.MapMode.READ_WRITE, _fsize, size);
+				_fsize += size;
+				return buff;
+			}
+			catch(IOException ex) {
+				throw new DMLRuntimeException("Failed to create memory-mapped dense block: " + _fname, ex);
+			}
+		}
+
+		@Override
+		public synchronized void run() {
+			//symmetric accounting of all allocated buffers, independent
+			//of explicit release or cleanup after garbage collection
+			_allocated.addAndGet(-_size);
+			_size = 0;
+			for( int i = 0; i < _buffers.length; i++ ) {
+				DirectBufferUtils.free(_buffers[i]);
+				_buffers[i] = null;
+			}
+			if( _file != null ) {
+				try {
+					_file.close();
+				}
+				catch(IOException ex) {
+					LOG.warn("Failed to close memory-mapped file " + _fname + ".", ex);
+				}
+				LocalFileUtils.deleteFileIfExists(_fname, true);
+				_file = null;
+				_fname = null;
+				_fsize = 0;
+			}
+		}
+	}
+
+	@Override
+	protected void setInternal(int bix, int ix, double v) {
+		_blocks[bix].put(ix, v);
+	}
+
+	@Override
+	public boolean isNumeric() {
+		return true;
+	}
+
+	@Override
+	public boolean isNumeric(ValueType vt) {
+		return ValueType.FP64 == vt;
+	}
+
+	@Override
+	public boolean isContiguous() {
+		return _blocks.length == 1;
+	}
+
+	@Override
+	public int numBlocks() {
+		return _blocks.length;
+	}
+
+	@Override
+	public long capacity() {
+		if( _blocks == null )
+			return -1;
+		long cap = 0;
+		for( DoubleBuffer b : _blocks )
+			cap += (b != null) ? b.capacity() : 0;
+		return cap;
+	}
+
+	@Override
+	protected long computeNnz(int bix, int start, int length) {
+		DoubleBuffer b = _blocks[bix];
+		long nnz = 0;
+		for( int i = start; i < start + length; i++ )
+			nnz += (b.get(i) != 0) ? 1 : 0;
+		return nnz;
+	}
+
+	@Override
+	public double[] values(int r) {
+		return valuesAt(index(r));
+	}
+
+	@Override
+	public double[] valuesAt(int bix) {
+		DoubleBuffer b = _blocks[bix];
+		Warnings.warnFullFP64Conversion(b.capacity());
+		double[] ret = new double[b.capacity()];
+		b.duplicate().get(ret);
+		return ret;
+	}
+
+	/**
+	 * Copies a range of the given block into the target array.
+	 * 
+	 * @param bix block index
+	 * @param pos position within the block
+	 * @param dest target array
+	 * @param off offset into the target array
+	 * @param len number of values to copy
+	 */
+	public void get(int bix, int pos, double[] dest, int off, int len) {
+		DoubleBuffer b = _blocks[bix].duplicate();
+		b.position(pos);
+		b.get(dest, off, len);
+	}
+
+	/**
+	 * Copies the given source array into a range of the given block.
+	 * 
+	 * @param bix block index
+	 * @param pos position within the block
+	 * @param src source array
+	 * @param off offset into the source array
+	 * @param len number of values to copy
+	 */
+	public void put(int bix, int pos, double[] src, int off, int len) {
+		DoubleBuffer b = _blocks[bix].duplicate();
+		b.position(pos);
+		b.put(src, off, len);
+	}
+
+	@Override
+	public void incr(int r, int c) {
+		incr(r, c, 1);
+	}
+
+	@Override
+	public void incr(int r, int c, double delta) {
+		DoubleBuffer b = _blocks[index(r)];
+		int ix = pos(r, c);
+		b.put(ix, b.get(ix) + delta);
+	}
+
+	@Override
+	protected void fillBlock(int bix, int fromIndex, int toIndex, double v) {
+		DoubleBuffer b = _blocks[bix];
+		for( int i = fromIndex; i < toIndex; i++ )
+			b.put(i, v);
+	}
+
+	@Override
+	public DenseBlock set(int r, int c, double v) {
+		_blocks[index(r)].put(pos(r, c), v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int r, double[] v) {
+		put(index(r), pos(r), v, 0, _odims[0]);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int[] ix, double v) {
+		_blocks[index(ix[0])].put(pos(ix), v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int[] ix, long v) {
+		_blocks[index(ix[0])].put(pos(ix), v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int[] ix, String v) {
+		_blocks[index(ix[0])].put(pos(ix), Double.parseDouble(v));
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(DenseBlock db) {
+		// this implementation needs to be robust against rows in the input
+		// stretching over multiple blocks in the output and vice versa
+		long globalPos = 0;
+		int bsize = blockSize() * _odims[0];
+		for( int bix = 0; bix < db.numBlocks(); bix++ ) {
+			double[] other = db.valuesAt(bix);
+			int blen = db.blockSize(bix) * db._odims[0];
+			int bix2 = (int)(globalPos / bsize);
+			int off2 = (int)(globalPos % bsize);
+			int blen2 = size(bix2);
+			put(bix2, off2, other, 0, Math.min(blen, blen2-off2));
+			if( blen2-off2 < blen )
+				put(bix2+1, 0, other, blen2-off2, blen-(blen2-off2));
+			globalPos += blen;
+		}
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int rl, int ru, int cl, int cu, DenseBlock db) {
+		//row-wise copy into the off-heap buffers (the default implementation
+		//would copy into the temporary arrays returned by valuesAt)
+		int clen = cu - cl;
+		double[] row = new double[clen];
+		for( int i = rl, ix = 0; i < ru; i++, ix++ ) {
+			for( int j = 0; j < clen; j++ )
+				row[j] = db.get(ix, j);
+			put(index(i), pos(i, cl), row, 0, clen);
+		}
+		return this;
+	}
+
+	@Override
+	public double get(int r, int c) {
+		return _blocks[index(r)].get(pos(r, c));
+	}
+
+	@Override
+	public double get(int[] ix) {
+		return _blocks[index(ix[0])].get(pos(ix));
+	}
+
+	@Override
+	public String getString(int[] ix) {
+		return String.valueOf(get(ix));
+	}
+
+	@Override
+	public long getLong(int[] ix) {
+		return UtilFunctions.toLong(get(ix));
+	}
+
+	/**
+	 * Copies the given on-heap FP64 dense block into a new off-heap dense block.
+	 * 
+	 * @param db input dense block
+	 * @param storage off-heap storage type
+	 * @return off-heap dense block
+	 */
+	public static DenseBlockFP64OffHeap copyOf(DenseBlock db, Storage storage) {
+		DenseBlockFP64OffHeap ret = new DenseBlockFP64OffHeap(getDims(db), storage);
+		ret.set(db);
+		return ret;
+	}
+
+	/**
+	 * Copies this off-heap dense block into a new on-heap FP64 dense block.
+	 * 
+	 * @return on-heap dense block
+	 */
+	public DenseBlock toOnHeap() {
+		int[] dims = getDims(this);
+		DenseBlock ret = DenseBlockFactory.createDenseBlock(ValueType.FP64, dims);
+		long globalPos = 0;
+		int bsize = ret.blockSize() * _odims[0];
+		for( int bix = 0; bix < numBlocks(); bix++ ) {
+			int blen = blockSize(bix) * _odims[0];
+			int bix2 = (int)(globalPos / bsize);
+			int off2 = (int)(globalPos % bsize);
+			int blen2 = ret.size(bix2);
+			get(bix, 0, ret.valuesAt(bix2), off2, Math.min(blen, blen2-off2));
+			if( blen2-off2 < blen )
+				get(bix, blen2-off2, ret.valuesAt(bix2+1), 0, blen-(blen2-off2));
+			globalPos += blen;
+		}
+		return ret;
+	}
+
+	private static int[] getDims(DenseBlock db) {
+		int[] dims = new int[db.numDims()];
+		for( int i = 0; i < dims.length; i++ )
+			dims[i] = db.getDim(i);
+		return dims;
+	}
+}
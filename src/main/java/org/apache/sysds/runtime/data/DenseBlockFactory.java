@@ -109,7 +109,8 @@ public abstract class DenseBlockFactory
 	}
 
 	public static DenseBlock.Type getDenseBlockType(DenseBlock dblock) {
-		return (dblock instanceof DenseBlockDRB) ? DenseBlock.Type.DRB :
+		return (dblock instanceof DenseBlockFP64OffHeap) ? DenseBlock.Type.OFFHEAP :
+			(dblock instanceof DenseBlockDRB) ? DenseBlock.Type.DRB :
 			(dblock instanceof DenseBlockLDRB) ? DenseBlock.Type.LDRB : null;
 	}
 
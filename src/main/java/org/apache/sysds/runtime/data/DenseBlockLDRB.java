@@ -53,6 +53,16 @@ public abstract class DenseBlockLDRB extends DenseBlock
 	 */
 	protected abstract void allocateBlocks(int numBlocks);
 
+	/**
+	 * Get the maximum number of cells per block, which is
+	 * used to determine the number of rows per block.
+	 *
+	 * @return maximum block length
+	 */
+	protected int maxBlockLength() {
+		return MAX_ALLOC;
+	}
+
 	@Override
 	public int blockSize() {
 		return _blen;
@@ -66,7 +76,7 @@ public abstract class DenseBlockLDRB extends DenseBlock
 	@Override
 	public void reset(int rlen, int[] odims, double v) {
 		long dataLength = (long) rlen * odims[0];
-		int newBlockSize = Math.min(rlen, MAX_ALLOC / odims[0]);
+		int newBlockSize = Math.min(rlen, maxBlockLength() / odims[0]);
 		int numBlocks = UtilFunctions.toInt(Math.ceil((double) rlen / newBlockSize));
 		if (_blen == newBlockSize && dataLength <= capacity()) {
 			IntStream.range(0, numBlocks)
@@ -29,13 +29,17 @@ import org.apache.sysds.utils.MemoryEstimates;
 public interface ArrayFactory {
 
 	public enum FrameArrayType {
-		STRING, BOOLEAN, INT32, INT64, FP32, FP64;
+		STRING, BOOLEAN, INT32, INT64, FP32, FP64, DDC;
 	}
 
 	public static StringArray create(String[] col) {
 		return new StringArray(col);
 	}
 
+	public static DDCArray createDDC(String[] col) {
+		return DDCArray.create(col);
+	}
+
 	public static BooleanArray create(boolean[] col) {
 		return new BooleanArray(col);
 	}
@@ -117,6 +121,9 @@ public interface ArrayFactory {
 			case FP32:
 				arr = new FloatArray(new float[nRow]);
 				break;
+			case DDC:
+				arr = new DDCArray(new String[0], new int[nRow]);
+				break;
 			default: // String
 				arr = new StringArray(new String[nRow]);
 				break;
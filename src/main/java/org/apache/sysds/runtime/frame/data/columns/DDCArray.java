@@ -0,0 +1,383 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.frame.data.columns;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.apache.commons.lang.NotImplementedException;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.frame.data.columns.ArrayFactory.FrameArrayType;
+import org.apache.sysds.runtime.io.IOUtilFunctions;
+import org.apache.sysds.runtime.matrix.data.Pair;
+import org.apache.sysds.utils.MemoryEstimates;
+
+/**
+ * Dictionary-encoded (DDC) string array, which stores an int code per row and
+ * the distinct values in a dictionary. A code of -1 represents null. This
+ * representation is beneficial for low-cardinality categorical columns, and
+ * allows encoders to work on the codes instead of hashing the strings per row.
+ * 
+ * The dictionary is never shared across arrays, so that updates (which may
+ * append new distinct values) do not affect clones or slices.
+ */
+public class DDCArray extends Array<String> {
+	private String[] _dict;
+	private int _ndict;
+	private int[] _codes;
+
+	// reverse dictionary, lazily created for updates
+	private HashMap<String, Integer> _lookup = null;
+
+	public DDCArray(String[] dict, int[] codes) {
+		this(dict, dict.length, codes);
+	}
+
+	private DDCArray(String[] dict, int ndict, int[] codes) {
+		_dict = dict;
+		_ndict = ndict;
+		_codes = codes;
+		_size = _codes.length;
+	}
+
+	/**
+	 * Create a dictionary-encoded array from the given string values, where the
+	 * dictionary is in order of first occurrence.
+	 * 
+	 * @param col string values
+	 * @return dictionary-encoded array
+	 */
+	public static DDCArray create(String[] col) {
+		DDCArray ret = new DDCArray(new String[4], 0, new int[col.length]);
+		for(int i = 0; i < col.length; i++)
+			ret.set(i, col[i]);
+		ret.compactDictionary();
+		return ret;
+	}
+
+	/**
+	 * Create a dictionary-encoded array from the given string array.
+	 * 
+	 * @param col string array
+	 * @return dictionary-encoded array
+	 */
+	public static DDCArray create(Array<String> col) {
+		if(col instanceof DDCArray)
+			return (DDCArray) col.clone();
+		DDCArray ret = new DDCArray(new String[4], 0, new int[col.size()]);
+		for(int i = 0; i < col.size(); i++)
+			ret.set(i, col.get(i));
+		ret.compactDictionary();
+		return ret;
+	}
+
+	/**
+	 * Get the code per row, where -1 indicates null. Note that the array might be larger than the size.
+	 * 
+	 * @return the codes
+	 */
+	public int[] getCodes() {
+		return _codes;
+	}
+
+	/**
+	 * Get the dictionary of distinct values. Note that the array might be larger than the number of distinct values.
+	 * 
+	 * @return the dictionary
+	 */
+	public String[] getDictionary() {
+		return _dict;
+	}
+
+	public int getNumDistinct() {
+		return _ndict;
+	}
+
+	/**
+	 * Decoded values, materialized as a new string array (the strings themselves are shared with the dictionary).
+	 */
+	@Override
+	public String[] get() {
+		String[] ret = new String[_size];
+		for(int i = 0; i < _size; i++)
+			ret[i] = get(i);
+		return ret;
+	}
+
+	@Override
+	public String get(int index) {
+		final int c = _codes[index];
+		return c < 0 ? null : _dict[c];
+	}
+
+	@Override
+	public void set(int index, String value) {
+		_codes[index] = getOrAddCode(value);
+	}
+
+	@Override
+	public void set(int index, double value) {
+		set(index, Double.toString(value));
+	}
+
+	@Override
+	public void set(int rl, int ru, Array<String> value) {
+		set(rl, ru, value, 0);
+	}
+
+	@Override
+	public void setFromOtherType(int rl, int ru, Array<?> value) {
+		throw new NotImplementedException();
+	}
+
+	@Override
+	public void set(int rl, int ru, Array<String> value, int rlSrc) {
+		if(value instanceof DDCArray) {
+			// translate dictionaries once, and then copy the codes
+			DDCArray that = (DDCArray) value;
+			int[] map = translate(that);
+			for(int i = rl, off = rlSrc; i <= ru; i++, off++) {
+				final int c = that._codes[off];
+				_codes[i] = c < 0 ? -1 : map[c];
+			}
+		}
+		else {
+			for(int i = rl, off = rlSrc; i <= ru; i++, off++)
+				set(i, value.get(off));
+		}
+	}
+
+	@Override
+	public void setNz(int rl, int ru, Array<String> value) {
+		for(int i = rl; i < ru + 1; i++) {
+			String v = value.get(i);
+			if(v != null)
+				set(i, v);
+		}
+	}
+
+	@Override
+	public void append(String value) {
+		if(_codes.length <= _size)
+			_codes = Arrays.copyOf(_codes, newSize());
+		_codes[_size++] = getOrAddCode(value);
+	}
+
+	private int getOrAddCode(String value) {
+		if(value == null)
+			return -1;
+		if(_lookup == null) {
+			_lookup = new HashMap<>();
+			for(int i = 0; i < _ndict; i++)
+				_lookup.put(_dict[i], i);
+		}
+		Integer c = _lookup.get(value);
+		if(c != null)
+			return c;
+		if(_dict.length <= _ndict)
+			_dict = Arrays.copyOf(_dict, Math.max(_ndict * 2, 4));
+		_dict[_ndict] = value;
+		_lookup.put(value, _ndict);
+		return _ndict++;
+	}
+
+	private void compactDictionary() {
+		_dict = Arrays.copyOf(_dict, _ndict);
+		_lookup = null;
+	}
+
+	private int[] translate(DDCArray that) {
+		int[] map = new int[that._ndict];
+		for(int i = 0; i < that._ndict; i++)
+			map[i] = getOrAddCode(that._dict[i]);
+		return map;
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		out.writeByte(FrameArrayType.DDC.ordinal());
+		out.writeInt(_ndict);
+		for(int i = 0; i < _ndict; i++)
+			out.writeUTF(_dict[i]);
+		// codes w/ minimal width, shifted by one to represent nulls as zero
+		final int width = getCodeWidth(_ndict);
+		for(int i = 0; i < _size; i++) {
+			final int c = _codes[i] + 1;
+			if(width == 1)
+				out.writeByte(c);
+			else if(width == 2)
+				out.writeChar(c);
+			else
+				out.writeInt(c);
+		}
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException {
+		_size = _codes.length;
+		_ndict = in.readInt();
+		_dict = new String[Math.max(_ndict, 4)];
+		for(int i = 0; i < _ndict; i++)
+			_dict[i] = in.readUTF();
+		_lookup = null;
+		final int width = getCodeWidth(_ndict);
+		for(int i = 0; i < _size; i++) {
+			if(width == 1)
+				_codes[i] = in.readUnsignedByte() - 1;
+			else if(width == 2)
+				_codes[i] = in.readChar() - 1;
+			else
+				_codes[i] = in.readInt() - 1;
+		}
+	}
+
+	private static int getCodeWidth(int ndict) {
+		return (ndict < 255) ? 1 : (ndict < 65535) ? 2 : 4;
+	}
+
+	@Override
+	public Array<String> clone() {
+		return new DDCArray(Arrays.copyOf(_dict, _dict.length), _ndict, Arrays.copyOf(_codes, _size));
+	}
+
+	@Override
+	public Array<String> slice(int rl, int ru) {
+		return new DDCArray(Arrays.copyOf(_dict, _dict.length), _ndict, Arrays.copyOfRange(_codes, rl, ru));
+	}
+
+	@Override
+	public Array<?> sliceTransform(int rl, int ru, ValueType vt) {
+		if(vt == ValueType.STRING)
+			return slice(rl, ru);
+		return new StringArray(((DDCArray) slice(rl, ru)).get()).sliceTransform(0, ru - rl, vt);
+	}
+
+	@Override
+	public void reset(int size) {
+		if(_codes.length < size)
+			_codes = new int[size];
+		_size = size;
+	}
+
+	@Override
+	public byte[] getAsByteArray(int nRow) {
+		throw new NotImplementedException("Not Implemented getAsByte for string");
+	}
+
+	@Override
+	public ValueType getValueType() {
+		return ValueType.STRING;
+	}
+
+	@Override
+	public ValueType analyzeValueType() {
+		// analyze the distinct values only
+		if(_ndict == 0)
+			return ValueType.STRING;
+		return new StringArray(Arrays.copyOf(_dict, _ndict)).analyzeValueType();
+	}
+
+	@Override
+	public FrameArrayType getFrameArrayType() {
+		return FrameArrayType.DDC;
+	}
+
+	@Override
+	public long getInMemorySize() {
+		long size = 16 + 8 + 4; // object header + object references + ndict
+		size += MemoryEstimates.intArrayCost(_codes.length);
+		size += MemoryEstimates.stringArrayCost(_dict);
+		return size;
+	}
+
+	@Override
+	public long getExactSerializedSize() {
+		long si = 1 + 4; // byte identifier, dictionary size
+		for(int i = 0; i < _ndict; i++)
+			si += IOUtilFunctions.getUTFSize(_dict[i]);
+		si += (long) getCodeWidth(_ndict) * _size;
+		return si;
+	}
+
+	@Override
+	protected Array<?> changeTypeBoolean() {
+		return changeTypeDictionary(ValueType.BOOLEAN);
+	}
+
+	@Override
+	protected Array<?> changeTypeDouble() {
+		return changeTypeDictionary(ValueType.FP64);
+	}
+
+	@Override
+	protected Array<?> changeTypeFloat() {
+		return changeTypeDictionary(ValueType.FP32);
+	}
+
+	@Override
+	protected Array<?> changeTypeInteger() {
+		return changeTypeDictionary(ValueType.INT32);
+	}
+
+	@Override
+	protected Array<?> changeTypeLong() {
+		return changeTypeDictionary(ValueType.INT64);
+	}
+
+	@Override
+	public Array<?> changeTypeString() {
+		return new StringArray(get());
+	}
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private Array<?> changeTypeDictionary(ValueType vt) {
+		// parse the distinct values only once, and then decode
+		if(_size == 0)
+			return ArrayFactory.allocate(vt, 0);
+		for(int i = 0; i < _size; i++)
+			if(_codes[i] < 0) // nulls are not parseable
+				return new StringArray(get()).changeType(vt);
+		Array dict = new StringArray(Arrays.copyOf(_dict, _ndict)).changeType(vt);
+		Array ret = ArrayFactory.allocate(vt, _size);
+		for(int i = 0; i < _size; i++)
+			ret.set(i, dict.get(_codes[i]));
+		return ret;
+	}
+
+	@Override
+	public Pair<Integer, Integer> getMinMaxLength() {
+		return new StringArray(Arrays.copyOf(_dict, _ndict)).getMinMaxLength();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(_size * 5 + 2);
+		sb.append(super.toString() + ":[");
+		for(int i = 0; i < _size - 1; i++)
+			sb.append(get(i) + ",");
+		sb.append(get(_size - 1));
+		sb.append("]");
+		return sb.toString();
+	}
+}
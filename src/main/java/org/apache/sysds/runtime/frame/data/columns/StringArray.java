@@ -72,11 +72,21 @@ public class StringArray extends Array<String> {
 
 	@Override
 	public void set(int rl, int ru, Array<String> value, int rlSrc) {
-		System.arraycopy(((StringArray) value)._data, rlSrc, _data, rl, ru - rl + 1);
+		if(value instanceof StringArray)
+			System.arraycopy(((StringArray) value)._data, rlSrc, _data, rl, ru - rl + 1);
+		else // e.g., dictionary-encoded
+			for(int i = rl, off = rlSrc; i <= ru; i++, off++)
+				_data[i] = value.get(off);
 	}
 
 	@Override
 	public void setNz(int rl, int ru, Array<String> value) {
+		if(!(value instanceof StringArray)) {
+			for(int i = rl; i < ru + 1; i++)
+				if(value.get(i) != null)
+					_data[i] = value.get(i);
+			return;
+		}
 		String[] data2 = ((StringArray) value)._data;
 		for(int i = rl; i < ru + 1; i++)
 			if(data2[i] != null)
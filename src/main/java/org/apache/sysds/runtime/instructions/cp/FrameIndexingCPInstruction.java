@@ -24,6 +24,7 @@ import org.apache.sysds.lops.RightIndex;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.sysds.common.Types.DataType;
 import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.FrameObject;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.lineage.LineageItem;
@@ -49,12 +50,25 @@ public final class FrameIndexingCPInstruction extends IndexingCPInstruction {
 		
 		//right indexing
 		if( opcode.equalsIgnoreCase(RightIndex.OPCODE) ) {
-			//execute right indexing operation
-			FrameBlock in = ec.getFrameInput(input1.getName());
-			FrameBlock out = in.slice(ixrange, new FrameBlock());
-			
-			//unpin rhs input
-			ec.releaseFrameInput(input1.getName());
+			FrameObject fo = ec.getFrameObject(input1.getName());
+			FrameBlock out = null;
+			if( fo.isColumnProjectable() && !(ixrange.colStart == 0 && ixrange.colEnd == fo.getNumColumns()-1) ) {
+				//column projection pushdown into columnar read (w/o caching the input,
+				//but with soft-referenced projections for repeated indexing), while
+				//full column ranges read and cache the entire frame as usual; the
+				//projection is copied as it is shared with the projection cache
+				FrameBlock in = fo.readColumns((int)ixrange.colStart, (int)ixrange.colEnd);
+				out = (ixrange.rowStart == 0 && ixrange.rowEnd == in.getNumRows()-1) ? new FrameBlock(in) :
+					in.slice(new IndexRange(ixrange.rowStart, ixrange.rowEnd, 0, in.getNumColumns()-1), new FrameBlock());
+			}
+			else {
+				//execute right indexing operation
+				FrameBlock in = ec.getFrameInput(input1.getName());
+				out = in.slice(ixrange, new FrameBlock());
+				
+				//unpin rhs input
+				ec.releaseFrameInput(input1.getName());
+			}
 			
 			//unpin output
 			ec.setFrameOutput(output.getName(), out);
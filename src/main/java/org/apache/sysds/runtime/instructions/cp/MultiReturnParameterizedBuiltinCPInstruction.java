@@ -19,23 +19,36 @@
 
 package org.apache.sysds.runtime.instructions.cp;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.fs.Path;
 import org.apache.sysds.common.Types.DataType;
+import org.apache.sysds.common.Types.FileFormat;
 import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
 import org.apache.sysds.hops.OptimizerUtils;
 import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.CacheableData.CacheStatus;
+import org.apache.sysds.runtime.controlprogram.caching.FrameObject;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.io.FileFormatPropertiesCSV;
 import org.apache.sysds.runtime.lineage.LineageItem;
 import org.apache.sysds.runtime.lineage.LineageItemUtils;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.matrix.operators.Operator;
+import org.apache.sysds.runtime.meta.DataCharacteristics;
+import org.apache.sysds.runtime.meta.MatrixCharacteristics;
+import org.apache.sysds.runtime.meta.MetaDataFormat;
 import org.apache.sysds.runtime.transform.encode.EncoderFactory;
 import org.apache.sysds.runtime.transform.encode.MultiColumnEncoder;
+import org.apache.sysds.runtime.transform.encode.StreamingEncoder;
+import org.apache.sysds.runtime.util.HDFSTool;
 
 public class MultiReturnParameterizedBuiltinCPInstruction extends ComputationCPInstruction {
 	protected final ArrayList<CPOperand> _outputs;
@@ -79,6 +92,12 @@ public class MultiReturnParameterizedBuiltinCPInstruction extends ComputationCPI
 
 	@Override
 	public void processInstruction(ExecutionContext ec) {
+		// stream csv inputs larger than the memory budget
+		if( isStreamingEncode(ec) ) {
+			processStreamingEncode(ec);
+			return;
+		}
+
 		// obtain and pin input frame
 		FrameBlock fin = ec.getFrameInput(input1.getName());
 		String spec = ec.getScalarInput(input2).getStringValue();
@@ -98,6 +117,45 @@ public class MultiReturnParameterizedBuiltinCPInstruction extends ComputationCPI
 		ec.setFrameOutput(getOutput(1).getName(), meta);
 	}
 
+	private boolean isStreamingEncode(ExecutionContext ec) {
+		long budget = ConfigurationManager.getStreamingEncodeBudget();
+		if( budget <= 0 )
+			return false;
+		// only unmodified csv inputs that were not yet read into memory
+		FrameObject fo = ec.getFrameObject(input1);
+		if( fo.getStatus() != CacheStatus.EMPTY || fo.isDirty() || fo.hasRDDHandle() || fo.isFederated()
+			|| !(fo.getMetaData() instanceof MetaDataFormat)
+			|| ((MetaDataFormat) fo.getMetaData()).getFileFormat() != FileFormat.CSV )
+			return false;
+		try {
+			return HDFSTool.existsFileOnHDFS(fo.getFileName())
+				&& HDFSTool.getFilesizeOnHDFS(new Path(fo.getFileName())) * StreamingEncoder.CHUNK_EXPANSION > budget
+				&& StreamingEncoder.isSupported(ec.getScalarInput(input2).getStringValue());
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	private void processStreamingEncode(ExecutionContext ec) {
+		FrameObject fo = ec.getFrameObject(input1);
+		MatrixObject mo = ec.getMatrixObject(getOutput(0));
+		String spec = ec.getScalarInput(input2).getStringValue();
+		FileFormatPropertiesCSV props = (fo.getFileFormatProperties() instanceof FileFormatPropertiesCSV) ?
+			(FileFormatPropertiesCSV) fo.getFileFormatProperties() : null;
+
+		// two-pass encode, writing the encoded matrix to the output file
+		DataCharacteristics dc = new MatrixCharacteristics(-1, -1, ConfigurationManager.getBlocksize());
+		StreamingEncoder encoder = new StreamingEncoder(spec, props,
+			ConfigurationManager.getStreamingEncodeBudget(), OptimizerUtils.getTransformNumThreads());
+		FrameBlock meta = encoder.encode(fo.getFileName(), fo.getSchema(), fo.getNumColumns(), mo.getFileName(), dc);
+
+		// bind output matrix to the written file (lazily read on access)
+		mo.setMetaData(new MetaDataFormat(dc, FileFormat.BINARY));
+		mo.setHDFSFileExists(true);
+		ec.setFrameOutput(getOutput(1).getName(), meta);
+	}
+
 	@Override
 	public boolean hasSingleLineage() {
 		return false;
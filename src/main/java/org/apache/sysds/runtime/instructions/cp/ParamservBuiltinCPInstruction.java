@@ -79,6 +79,7 @@ public class ParamservBuiltinCPInstruction extends ParameterizedBuiltinCPInstruc
 	private static final Boolean DEFAULT_MODELAVG = false;
 	private static final Boolean DEFAULT_HE = false;
 	public static final int DEFAULT_NUM_BACKUP_WORKERS = 1;
+	private static final PSGradCompression DEFAULT_GRAD_COMPRESSION = PSGradCompression.NONE;
 
 	public ParamservBuiltinCPInstruction(Operator op, LinkedHashMap<String, String> paramsMap, CPOperand out, String opcode, String istr) {
 		super(op, paramsMap, out, opcode, istr);
@@ -183,6 +184,9 @@ public class ParamservBuiltinCPInstruction extends ParameterizedBuiltinCPInstruc
 			throw new DMLRuntimeException("can't use homomorphic encryption with weighting");
 		}
 
+		PSGradCompression compression = getGradCompression(modelAvg || use_homomorphic_encryption);
+		double compressionRatio = getGradCompressionRatio();
+
 		LocalParamServer ps = (LocalParamServer) createPS(PSModeType.FEDERATED, aggFunc, updateType, freq, workerNum,
 			model, aggServiceEC, getValFunction(), getNumBatchesPerEpoch(runtimeBalancing, result._balanceMetrics),
 			val_features, val_labels, nbatches, modelAvg, use_homomorphic_encryption, numBackupWorkers);
@@ -190,7 +194,8 @@ public class ParamservBuiltinCPInstruction extends ParameterizedBuiltinCPInstruc
 		int finalNumBatchesPerEpoch = getNumBatchesPerEpoch(runtimeBalancing, result._balanceMetrics);
 		List<FederatedPSControlThread> threads = IntStream.range(0, workerNum)
 			.mapToObj(i -> new FederatedPSControlThread(i, updFunc, freq, runtimeBalancing, weighting,
-				getEpochs(), getBatchSize(), finalNumBatchesPerEpoch, federatedWorkerECs.get(i), ps, nbatches, modelAvg, use_homomorphic_encryption))
+				getEpochs(), getBatchSize(), finalNumBatchesPerEpoch, federatedWorkerECs.get(i), ps, nbatches, modelAvg, use_homomorphic_encryption,
+				compression, compressionRatio))
 			.collect(Collectors.toList());
 		if(workerNum != threads.size()) {
 			throw new DMLRuntimeException("ParamservBuiltinCPInstruction: Federated data partitioning does not match threads!");
@@ -245,6 +250,7 @@ public class ParamservBuiltinCPInstruction extends ParameterizedBuiltinCPInstruc
 		int nbatches = getNbatches();
 		int numBackupWorkers = getNumBackupWorkers();
 		boolean modelAvg = Boolean.parseBoolean(getParam(PS_MODELAVG));
+		PSGradCompression compression = getGradCompression(modelAvg);
 
 		// Get the compiled execution context
 		LocalVariableMap newVarsMap = createVarsMap(sec);
@@ -288,7 +294,8 @@ public class ParamservBuiltinCPInstruction extends ParameterizedBuiltinCPInstruc
 		// Create remote workers
 		SparkPSWorker worker = new SparkPSWorker(getParam(PS_UPDATE_FUN), getParam(PS_AGGREGATION_FUN),
 			getFrequency(), getEpochs(), getBatchSize(), program, isLocal, clsMap, sec.getSparkContext().getConf(),
-			server.getPort(), aSetup, aWorker, aUpdate, aIndex, aGrad, aRPC, aBatch, aEpoch, nbatches, modelAvg);
+			server.getPort(), aSetup, aWorker, aUpdate, aIndex, aGrad, aRPC, aBatch, aEpoch, nbatches, modelAvg,
+			compression, getGradCompressionRatio());
 
 		if (DMLScript.STATISTICS)
 			ParamServStatistics.accSetupTime((long) tSetup.stop());
@@ -353,6 +360,8 @@ public class ParamservBuiltinCPInstruction extends ParameterizedBuiltinCPInstruc
 		MatrixObject val_features = (getParam(PS_VAL_FEATURES) != null) ? ec.getMatrixObject(getParam(PS_VAL_FEATURES)) : null;
 		MatrixObject val_labels = (getParam(PS_VAL_LABELS) != null) ? ec.getMatrixObject(getParam(PS_VAL_LABELS)) : null;
 		boolean modelAvg = getModelAvg();
+		if (getGradCompression(modelAvg) != PSGradCompression.NONE)
+			LOG.warn("Gradient compression has no effect in local mode");
 		ParamServer ps = createPS(mode, aggFunc, updateType, freq, workerNum, model, aggServiceEC, getValFunction(),
 			num_batches_per_epoch, val_features, val_labels, nbatches, modelAvg, numBackupWorkers);
 
@@ -669,6 +678,32 @@ public class ParamservBuiltinCPInstruction extends ParameterizedBuiltinCPInstruc
 		return Integer.parseInt(getParam(PS_NUM_BACKUP_WORKERS));
 	}
 
+	private PSGradCompression getGradCompression(boolean modelAvg) {
+		if(!getParameterMap().containsKey(PS_GRAD_COMPRESSION))
+			return DEFAULT_GRAD_COMPRESSION;
+		PSGradCompression compression;
+		try {
+			compression = PSGradCompression.valueOf(getParam(PS_GRAD_COMPRESSION));
+		} catch (IllegalArgumentException e) {
+			throw new DMLRuntimeException(String.format("Paramserv function: "
+				+ "not support '%s' gradient compression.", getParam(PS_GRAD_COMPRESSION)));
+		}
+		if(compression != PSGradCompression.NONE && modelAvg)
+			throw new DMLRuntimeException("Paramserv function: gradient compression "
+				+ "is not supported with model averaging or homomorphic encryption.");
+		return compression;
+	}
+
+	private double getGradCompressionRatio() {
+		if(!getParameterMap().containsKey(PS_GRAD_COMPRESSION_RATIO))
+			return GradientCompressor.DEFAULT_RATIO;
+		double ratio = Double.parseDouble(getParam(PS_GRAD_COMPRESSION_RATIO));
+		if(ratio <= 0 || ratio > 1)
+			throw new DMLRuntimeException(String.format("Paramserv function: "
+				+ "invalid gradient compression ratio '%s', expected (0, 1].", getParam(PS_GRAD_COMPRESSION_RATIO)));
+		return ratio;
+	}
+
 	private boolean checkIsPrivate(MatrixObject obj) {
 		PrivacyConstraint pc = obj.getPrivacyConstraint();
 		return pc != null && pc.hasPrivateElements();
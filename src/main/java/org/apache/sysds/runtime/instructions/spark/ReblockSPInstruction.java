@@ -193,6 +193,10 @@ public class ReblockSPInstruction extends UnarySPInstruction {
 				mcOut.getBlocksize(), mcOut.getBlocksize(), "libsvmblk", delim, indexDelim, instString);
 			libsvmInstruction.processInstruction(sec);
 		}
+		else if(fmt == FileFormat.PARQUET) {
+			//read in the driver (parallel over row groups) and parallelize lazily
+			Recompiler.executeInMemoryReblock(sec, input1.getName(), output.getName(), null);
+		}
 		else if(fmt == FileFormat.COMPRESSED){
 			JavaPairRDD<MatrixIndexes, MatrixBlock> in1 = (JavaPairRDD<MatrixIndexes, MatrixBlock>) sec
 				.getRDDHandleForMatrixObject(mo, FileFormat.COMPRESSED);
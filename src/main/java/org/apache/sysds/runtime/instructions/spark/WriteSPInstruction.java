@@ -48,6 +48,8 @@ import org.apache.sysds.runtime.instructions.spark.utils.RDDConverterUtils;
 import org.apache.sysds.runtime.io.FileFormatProperties;
 import org.apache.sysds.runtime.io.FileFormatPropertiesCSV;
 import org.apache.sysds.runtime.io.FileFormatPropertiesLIBSVM;
+import org.apache.sysds.runtime.io.FrameWriterFactory;
+import org.apache.sysds.runtime.io.MatrixWriterFactory;
 import org.apache.sysds.runtime.lineage.LineageItem;
 import org.apache.sysds.runtime.lineage.LineageItemUtils;
 import org.apache.sysds.runtime.lineage.LineageTraceable;
@@ -290,6 +292,15 @@ public class WriteSPInstruction extends SPInstruction implements LineageTraceabl
 			if( !mc.nnzKnown() )
 				mc.setNonZeros(aNnz.value().longValue());
 		}
+		else if(fmt == FileFormat.PARQUET) {
+			//collect and write in the driver (single file or parallel part files)
+			MatrixBlock mb = SparkExecutionContext.toMatrixBlock(in1,
+				(int)mc.getRows(), (int)mc.getCols(), mc.getBlocksize(), mc.getNonZeros());
+			MatrixWriterFactory.createMatrixWriter(fmt)
+				.writeMatrixToHDFS(mb, fname, mc.getRows(), mc.getCols(), mc.getBlocksize(), mb.getNonZeros());
+			if( !mc.nnzKnown() )
+				mc.setNonZeros(mb.getNonZeros());
+		}
 		else {
 			//unsupported formats: binarycell (not externalized)
 			throw new DMLRuntimeException("Unexpected data format: " + fmt.toString());
@@ -331,6 +342,13 @@ public class WriteSPInstruction extends SPInstruction implements LineageTraceabl
 				out.saveAsHadoopFile(fname, LongWritable.class, FrameBlock.class, SequenceFileOutputFormat.class);
 				break;
 			}
+			case PARQUET:
+			case COLUMNAR: {
+				//collect and write in the driver
+				FrameBlock fb = SparkExecutionContext.toFrameBlock(in1, schema, (int)mc.getRows(), (int)mc.getCols());
+				FrameWriterFactory.createFrameWriter(fmt).writeFrameToHDFS(fb, fname, mc.getRows(), mc.getCols());
+				break;
+			}
 			default:
 				throw new DMLRuntimeException("Unexpected data format: " + fmt.toString());
 		}
@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.frame.data.columns.Array;
+import org.apache.sysds.runtime.frame.data.columns.ArrayFactory;
+import org.apache.sysds.runtime.frame.data.columns.ColumnMetadata;
+import org.apache.sysds.runtime.frame.data.columns.DDCArray;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+
+/**
+ * Reader for the single-file columnar frame format written by {@link FrameWriterColumnar}.
+ * Besides full reads, the reader supports column projection, where only the chunks of
+ * the requested column range are read from the file. Columns are decoded in parallel
+ * if parallel binary reads are enabled.
+ */
+public class FrameReaderColumnar extends FrameReader
+{
+	private final int _numThreads;
+
+	public FrameReaderColumnar() {
+		this(1);
+	}
+
+	public FrameReaderColumnar(int numThreads) {
+		_numThreads = Math.max(numThreads, 1);
+	}
+
+	@Override
+	public final FrameBlock readFrameFromHDFS(String fname, ValueType[] schema, String[] names, long rlen, long clen)
+		throws IOException, DMLRuntimeException
+	{
+		//note: schema and names are taken from the file footer
+		return readFrameFromHDFS(fname, 0, -1);
+	}
+
+	/**
+	 * Reads the column range [cl, cu] (0-based, inclusive) of a columnar frame file,
+	 * without touching the chunks of all other columns.
+	 * 
+	 * @param fname file name
+	 * @param cl    lower column index (0-based, inclusive)
+	 * @param cu    upper column index (0-based, inclusive), or -1 for all remaining columns
+	 * @return frame block of the projected columns
+	 * @throws IOException if the file cannot be read
+	 */
+	public FrameBlock readFrameFromHDFS(String fname, int cl, int cu) throws IOException {
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+
+		Footer footer;
+		try(FSDataInputStream in = fs.open(path)) {
+			footer = readFooter(in, fs.getFileStatus(path).getLen());
+		}
+		return readColumns(footer, cl, cu, c -> {
+			FSDataInputStream in = fs.open(path);
+			return new ChunkInput(in, in);
+		});
+	}
+
+	@Override
+	public FrameBlock readFrameFromInputStream(InputStream is, ValueType[] schema, String[] names, long rlen, long clen)
+		throws IOException, DMLRuntimeException
+	{
+		byte[] buff = IOUtils.toByteArray(is);
+		return readColumns(readFooter(buff), 0, -1, c -> openBuffer(buff));
+	}
+
+	/**
+	 * Reads the footer of a columnar frame file, i.e., the frame dimensions, schema,
+	 * column names and meta data, and the chunk offsets. 
+	 * 
+	 * @param fname file name
+	 * @return footer of the columnar file
+	 * @throws IOException if the file is not a valid columnar frame file
+	 */
+	public static Footer readFooter(String fname) throws IOException {
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+		try(FSDataInputStream in = fs.open(path)) {
+			return readFooter(in, fs.getFileStatus(path).getLen());
+		}
+	}
+
+	private static Footer readFooter(FSDataInputStream in, long len) throws IOException {
+		in.seek(len - 12);
+		long pos = in.readLong();
+		checkMagic(in.readInt());
+		in.seek(pos);
+		return Footer.read(in);
+	}
+
+	private static Footer readFooter(byte[] buff) throws IOException {
+		ByteBuffer tail = ByteBuffer.wrap(buff, buff.length - 12, 12);
+		long pos = tail.getLong();
+		checkMagic(tail.getInt());
+		return Footer.read(new DataInputStream(
+			new ByteArrayInputStream(buff, (int) pos, buff.length - (int) pos)));
+	}
+
+	private static void checkMagic(int magic) throws IOException {
+		if( magic != FrameWriterColumnar.MAGIC )
+			throw new IOException("Invalid columnar frame file (magic number mismatch).");
+	}
+
+	private FrameBlock readColumns(Footer footer, int cl, int cu, InputFactory inputs) throws IOException {
+		final int ucu = (cu < 0) ? footer.ncol - 1 : cu;
+		if( cl < 0 || ucu >= footer.ncol || cl > ucu )
+			throw new IOException("Invalid column range ["+(cl+1)+":"+(ucu+1)+"] for columnar frame "
+				+ "with "+footer.ncol+" columns.");
+		final int ncol = ucu - cl + 1;
+		FrameBlock ret = new FrameBlock(
+			Arrays.copyOfRange(footer.schema, cl, ucu + 1),
+			Arrays.copyOfRange(footer.names, cl, ucu + 1));
+		ret.setNumRows(footer.nrow);
+
+		//read and decode columns (sequential/parallel)
+		int numThreads = Math.min(_numThreads, ncol);
+		if( numThreads <= 1 ) {
+			for( int c = cl; c <= ucu; c++ )
+				ret.setColumn(c - cl, new ReadColumnTask(footer, c, inputs).call());
+		}
+		else {
+			try {
+				ExecutorService pool = CommonThreadPool.get(numThreads);
+				ArrayList<ReadColumnTask> tasks = new ArrayList<>();
+				for( int c = cl; c <= ucu; c++ )
+					tasks.add(new ReadColumnTask(footer, c, inputs));
+				List<Future<Array<?>>> rt = pool.invokeAll(tasks);
+				pool.shutdown();
+				for( int c = 0; c < ncol; c++ )
+					ret.setColumn(c, rt.get(c).get());
+			}
+			catch(Exception e) {
+				throw new IOException("Failed parallel read of columnar frame input.", e);
+			}
+		}
+		for( int c = cl; c <= ucu; c++ )
+			ret.setColumnMetadata(c - cl, new ColumnMetadata(footer.meta[c]));
+		return ret;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Array<?> readChunk(DataInput in, ValueType vt, int nrow) throws IOException {
+		byte enc = in.readByte();
+		switch( enc ) {
+			case FrameWriterColumnar.ENC_PLAIN:
+				return in.readBoolean() ? ArrayFactory.read(in, nrow) : null;
+			case FrameWriterColumnar.ENC_DICT:
+				return ArrayFactory.read(in, nrow);
+			case FrameWriterColumnar.ENC_RLE: {
+				int nruns = in.readInt();
+				int[] lengths = new int[nruns];
+				for( int i = 0; i < nruns; i++ )
+					lengths[i] = in.readInt();
+				Array<?> values = ArrayFactory.read(in, nruns);
+				Array<Object> ret = (Array<Object>) ArrayFactory.allocate(vt, nrow);
+				for( int r = 0, i = 0; r < nruns; r++ ) {
+					Object v = values.get(r);
+					for( int j = 0; j < lengths[r]; j++ )
+						ret.set(i++, v);
+				}
+				return ret;
+			}
+			default:
+				throw new IOException("Unknown columnar chunk encoding: " + enc);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Array<?> combineChunks(Array<?>[] chunks, ValueType vt, int nrow, int groupSize) {
+		if( chunks.length == 1 )
+			return (chunks[0] != null) ? chunks[0] : ArrayFactory.allocate(vt, nrow);
+		boolean dict = true;
+		for( Array<?> chunk : chunks )
+			dict &= chunk instanceof DDCArray;
+		Array<Object> ret = (Array<Object>) (dict ?
+			new DDCArray(new String[0], new int[nrow]) : ArrayFactory.allocate(vt, nrow));
+		for( int g = 0; g < chunks.length; g++ ) {
+			Array<Object> chunk = (Array<Object>) chunks[g];
+			if( chunk == null )
+				continue;
+			int rl = g * groupSize;
+			if( chunk.getClass() == ret.getClass() )
+				ret.set(rl, rl + chunk.size() - 1, chunk);
+			else
+				for( int i = 0; i < chunk.size(); i++ )
+					ret.set(rl + i, chunk.get(i));
+		}
+		return ret;
+	}
+
+	private static ChunkInput openBuffer(byte[] buff) {
+		Buffer in = new Buffer(buff);
+		return new ChunkInput(new DataInputStream(in), in);
+	}
+
+	/**
+	 * Footer of a columnar frame file, which describes the frame and the
+	 * location of all column chunks.
+	 */
+	public static class Footer {
+		public final int nrow;
+		public final int ncol;
+		public final int groupSize;
+		public final ValueType[] schema;
+		public final String[] names;
+		public final ColumnMetadata[] meta;
+		private final long[] _offsets;
+
+		private Footer(int nrow, int ncol, int groupSize) {
+			this.nrow = nrow;
+			this.ncol = ncol;
+			this.groupSize = groupSize;
+			schema = new ValueType[ncol];
+			names = new String[ncol];
+			meta = new ColumnMetadata[ncol];
+			_offsets = new long[getNumGroups() * ncol];
+		}
+
+		public int getNumGroups() {
+			return Math.max((int) Math.ceil((double) nrow / groupSize), 1);
+		}
+
+		private static Footer read(DataInput in) throws IOException {
+			Footer ret = new Footer(in.readInt(), in.readInt(), in.readInt());
+			for( int c = 0; c < ret.ncol; c++ ) {
+				ret.schema[c] = ValueType.values()[in.readByte()];
+				ret.names[c] = in.readUTF();
+				ret.meta[c] = ColumnMetadata.read(in);
+			}
+			for( int i = 0; i < ret._offsets.length; i++ )
+				ret._offsets[i] = in.readLong();
+			return ret;
+		}
+	}
+
+	private interface InputFactory {
+		ChunkInput open(int col) throws IOException;
+	}
+
+	private interface Seeker {
+		void seek(long pos) throws IOException;
+	}
+
+	/** Data input over a seekable stream, closed after all chunks of a column are read. */
+	private static class ChunkInput implements AutoCloseable {
+		private final DataInputStream _in;
+		private final Seeker _seek;
+
+		private ChunkInput(DataInputStream in, Seeker seek) {
+			_in = in;
+			_seek = seek;
+		}
+
+		private ChunkInput(FSDataInputStream in, FSDataInputStream seek) {
+			this(in, seek::seek);
+		}
+
+		public void seek(long pos) throws IOException {
+			_seek.seek(pos);
+		}
+
+		@Override
+		public void close() {
+			IOUtilFunctions.closeSilently(_in);
+		}
+	}
+
+	/** Seeker in-memory input for reads from input streams. */
+	private static class Buffer extends ByteArrayInputStream implements Seeker {
+		private Buffer(byte[] buff) {
+			super(buff);
+		}
+
+		@Override
+		public void seek(long pos) {
+			this.pos = (int) pos;
+		}
+	}
+
+	private static class ReadColumnTask implements Callable<Array<?>> {
+		private final Footer _footer;
+		private final int _col;
+		private final InputFactory _inputs;
+
+		public ReadColumnTask(Footer footer, int col, InputFactory inputs) {
+			_footer = footer;
+			_col = col;
+			_inputs = inputs;
+		}
+
+		@Override
+		public Array<?> call() throws IOException {
+			final int ngroups = _footer.getNumGroups();
+			final ValueType vt = _footer.schema[_col];
+			Array<?>[] chunks = new Array<?>[ngroups];
+			try(ChunkInput in = _inputs.open(_col)) {
+				for( int g = 0; g < ngroups; g++ ) {
+					int rl = g * _footer.groupSize;
+					int n = Math.min(rl + _footer.groupSize, _footer.nrow) - rl;
+					in.seek(_footer._offsets[g * _footer.ncol + _col]);
+					chunks[g] = readChunk(in._in, vt, n);
+				}
+			}
+			return combineChunks(chunks, vt, _footer.nrow, _footer.groupSize);
+		}
+	}
+}
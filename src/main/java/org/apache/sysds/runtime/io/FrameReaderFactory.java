@@ -24,6 +24,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.common.Types.FileFormat;
 import org.apache.sysds.conf.CompilerConfig.ConfigType;
 import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.hops.OptimizerUtils;
 import org.apache.sysds.runtime.DMLRuntimeException;
 
 public class FrameReaderFactory {
@@ -69,6 +70,18 @@ public class FrameReaderFactory {
 				reader = new FrameReaderProto();
 				break;
 
+			case PARQUET:
+				reader = new FrameReaderParquet(
+					ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_BINARYFORMATS) ?
+					OptimizerUtils.getParallelBinaryReadParallelism() : 1);
+				break;
+
+			case COLUMNAR:
+				reader = new FrameReaderColumnar(
+					ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_BINARYFORMATS) ?
+					OptimizerUtils.getParallelBinaryReadParallelism() : 1);
+				break;
+
 			default:
 				throw new DMLRuntimeException("Failed to create frame reader for unknown format: " + fmt.toString());
 		}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.frame.data.columns.Array;
+import org.apache.sysds.runtime.io.ParquetUtils.ParquetInfo;
+
+/**
+ * Parquet reader for frames, which reads the row groups of all part files in parallel.
+ * The frame schema and column names are taken from the parquet schema, where the physical
+ * parquet types map onto the typed column arrays (e.g., DOUBLE to FP64, BINARY to STRING).
+ * A schema passed by the caller is applied to the read columns, and non-default column names
+ * replace the parquet column names, both with the same number of columns as the file.
+ */
+public class FrameReaderParquet extends FrameReader
+{
+	private final int _numThreads;
+
+	public FrameReaderParquet() {
+		this(1);
+	}
+
+	public FrameReaderParquet(int numThreads) {
+		_numThreads = Math.max(numThreads, 1);
+	}
+
+	@Override
+	public FrameBlock readFrameFromHDFS(String fname, ValueType[] schema, String[] names, long rlen, long clen)
+		throws IOException, DMLRuntimeException
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+
+		//allocate output frame block according to the parquet schema
+		ParquetInfo info = ParquetUtils.readInfo(fname);
+		if( clen >= 0 && clen != info.getNumColumns() )
+			throw new IOException("Frame dimensions mismatch with metadata: "
+				+ info.getNumColumns() + " vs " + clen + " columns.");
+		final int ncol = info.getNumColumns();
+		ValueType[] lschema = (schema != null) ? createOutputSchema(schema, ncol) : info.schema;
+		if( lschema.length != ncol )
+			throw new IOException("Frame schema mismatch with parquet schema: "
+				+ lschema.length + " vs " + ncol + " columns.");
+		if( names != null && names.length > 0 && names.length != ncol )
+			throw new IOException("Frame column names mismatch with parquet schema: "
+				+ names.length + " vs " + ncol + " columns.");
+		FrameBlock ret = createOutputFrameBlock(info.schema, info.names, info.rows);
+
+		//read row groups into typed columns
+		ParquetUtils.readRowGroups(info, (group, j, cr, desc) -> {
+			@SuppressWarnings("unchecked")
+			Array<Object> col = (Array<Object>) ret.getColumn(j);
+			if( info.schema[j] == ValueType.BOOLEAN ) {
+				//bit-packed boolean arrays require synchronized updates at row group boundaries
+				Object[] tmp = new Object[group.rows];
+				for( int i = 0; i < group.rows; i++, cr.consume() )
+					tmp[i] = ParquetUtils.getObject(cr, desc);
+				synchronized( col ) {
+					setValues(col, tmp, (int) group.rowOffset);
+				}
+			}
+			else {
+				for( int i = 0; i < group.rows; i++, cr.consume() ) {
+					Object v = ParquetUtils.getObject(cr, desc);
+					if( v != null )
+						col.set((int) group.rowOffset + i, v);
+				}
+			}
+		}, _numThreads);
+
+		//apply the caller's schema and non-default column names
+		FrameBlock out = Arrays.equals(lschema, info.schema) ? ret : ret.applySchema(lschema);
+		if( names != null && names.length > 0 && !Arrays.equals(names, FrameBlock.createColNames(ncol)) )
+			out.setColumnNames(names);
+		return out;
+	}
+
+	private static void setValues(Array<Object> col, Object[] values, int rl) {
+		for( int i = 0; i < values.length; i++ )
+			if( values[i] != null )
+				col.set(rl + i, values[i]);
+	}
+
+	@Override
+	public FrameBlock readFrameFromInputStream(InputStream is, ValueType[] schema, String[] names, long rlen, long clen)
+		throws IOException, DMLRuntimeException
+	{
+		throw new DMLRuntimeException("Not implemented yet.");
+	}
+}
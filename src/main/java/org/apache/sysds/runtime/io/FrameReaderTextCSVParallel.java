@@ -21,7 +21,9 @@ package org.apache.sysds.runtime.io;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -30,17 +32,22 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileInputFormat;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordReader;
 import org.apache.hadoop.mapred.Reporter;
 import org.apache.hadoop.mapred.TextInputFormat;
 import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
 import org.apache.sysds.hops.OptimizerUtils;
+import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.matrix.data.Pair;
 import org.apache.sysds.runtime.transform.TfUtils;
 import org.apache.sysds.runtime.util.CommonThreadPool;
+import org.apache.sysds.runtime.util.HDFSTool;
+import org.apache.sysds.runtime.util.UtilFunctions;
 
 /**
  * Multi-threaded frame text csv reader.
@@ -94,6 +101,47 @@ public class FrameReaderTextCSVParallel extends FrameReaderTextCSV
 		}
 	}
 
+	/**
+	 * Reads the csv input in chunks of consecutive rows, where every chunk covers at most
+	 * the given number of input bytes (but at least one input split). Chunks are read lazily
+	 * on iteration, each with the same parallelism as a full read, which allows streaming
+	 * over inputs that do not fit into memory as a whole.
+	 * 
+	 * @param fname     file name
+	 * @param schema    value types of columns, or null for string columns
+	 * @param names     column names, or null for header or default names
+	 * @param clen      number of columns, or -1 if unknown
+	 * @param chunkSize maximum number of input bytes per chunk
+	 * @return iterator over frame blocks of consecutive rows
+	 * @throws IOException if the input file is not accessible
+	 */
+	public Iterator<FrameBlock> readFrameChunksFromHDFS(String fname, ValueType[] schema, String[] names,
+		long clen, long chunkSize) throws IOException
+	{
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+		FileInputFormat.addInputPath(job, path);
+		checkValidInputFile(fs, path);
+		
+		//create splits s.t. every chunk is read with all threads
+		int numThreads = OptimizerUtils.getParallelTextReadParallelism();
+		long size = HDFSTool.getFilesizeOnHDFS(path);
+		int numSplits = (int) Math.max(numThreads,
+			Math.ceil((double) size / Math.max(chunkSize, 1) * numThreads));
+		TextInputFormat informat = new TextInputFormat();
+		informat.configure(job);
+		InputSplit[] splits = IOUtilFunctions.sortInputSplits(informat.getSplits(job, numSplits));
+		if( clen <= 0 )
+			clen = IOUtilFunctions.countNumColumnsCSV(splits, informat, job, _props.getDelim());
+		
+		ValueType[] lschema = (schema != null) ?
+			createOutputSchema(schema, clen) : UtilFunctions.nCopies((int) clen, ValueType.STRING);
+		String[] lnames = (names != null) ?
+			createOutputNames(names, clen) : FrameBlock.createColNames((int) clen);
+		return new ChunkIterator(splits, informat, job, lschema, lnames, chunkSize, numThreads);
+	}
+
 	@Override
 	protected Pair<Integer,Integer> computeCSVSize( Path path, JobConf job, FileSystem fs) 
 		throws IOException 
@@ -200,4 +248,78 @@ public class FrameReaderTextCSVParallel extends FrameReaderTextCSV
 			return null;
 		}
 	}
+
+	private class ChunkIterator implements Iterator<FrameBlock>
+	{
+		private final InputSplit[] _splits;
+		private final TextInputFormat _informat;
+		private final JobConf _job;
+		private final ValueType[] _schema;
+		private String[] _names;
+		private final long _chunkSize;
+		private final int _numThreads;
+		private int _pos = 0;
+		
+		public ChunkIterator(InputSplit[] splits, TextInputFormat informat, JobConf job,
+			ValueType[] schema, String[] names, long chunkSize, int numThreads)
+		{
+			_splits = splits;
+			_informat = informat;
+			_job = job;
+			_schema = schema;
+			_names = names;
+			_chunkSize = chunkSize;
+			_numThreads = numThreads;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return _pos < _splits.length;
+		}
+		
+		@Override
+		public FrameBlock next() {
+			if( !hasNext() )
+				throw new NoSuchElementException();
+			
+			try {
+				//collect consecutive splits up to the chunk size
+				int end = _pos;
+				long len = 0;
+				do {
+					len += _splits[end++].getLength();
+				}
+				while( end < _splits.length && len + _splits[end].getLength() <= _chunkSize );
+				
+				ExecutorService pool = CommonThreadPool.get(Math.min(_numThreads, end - _pos));
+				
+				//compute num rows per split and row offsets within the chunk
+				ArrayList<CountRowsTask> tasks = new ArrayList<>();
+				for( int i=_pos; i<end; i++ )
+					tasks.add(new CountRowsTask(_splits[i], _informat, _job, _props.hasHeader(), i==0));
+				List<Future<Long>> cret = pool.invokeAll(tasks);
+				long nrow = 0;
+				List<Long> offsets = new ArrayList<>();
+				for( Future<Long> count : cret ) {
+					offsets.add(nrow);
+					nrow += count.get();
+				}
+				
+				//read individual splits into the chunk
+				FrameBlock ret = createOutputFrameBlock(_schema, _names, nrow);
+				ArrayList<ReadRowsTask> tasks2 = new ArrayList<>();
+				for( int i=_pos; i<end; i++ )
+					tasks2.add(new ReadRowsTask(_splits[i], _informat, _job, ret, offsets.get(i-_pos).intValue(), i==0));
+				CommonThreadPool.invokeAndShutdown(pool, tasks2);
+				
+				//keep header column names for all subsequent chunks
+				_names = ret.getColumnNames();
+				_pos = end;
+				return ret;
+			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException("Failed parallel read of text csv chunk.", ex);
+			}
+		}
+	}
 }
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.io;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Objects;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.frame.data.columns.Array;
+import org.apache.sysds.runtime.frame.data.columns.ArrayFactory;
+import org.apache.sysds.runtime.frame.data.columns.DDCArray;
+import org.apache.sysds.runtime.util.HDFSTool;
+
+/**
+ * Single-file columnar frame writer. The frame is split into row groups, and every row group
+ * stores one chunk per column, encoded as plain array, dictionary (see {@link DDCArray}), or
+ * run-length encoding, whichever fits the chunk. A footer with schema, column names, column
+ * meta data, and chunk offsets allows readers to seek directly to the chunks of a subset of
+ * columns (see {@link FrameReaderColumnar}).
+ * 
+ * <pre>
+ * MAGIC VERSION
+ * [row group 1: chunk col 1, ..., chunk col n] ... [row group m]
+ * FOOTER: nrow ncol rowGroupSize [valuetype name colmeta]* [chunk offset]* 
+ * footer offset MAGIC
+ * </pre>
+ */
+public class FrameWriterColumnar extends FrameWriter
+{
+	public static final int MAGIC = 0x53444346; //SDCF
+	public static final int VERSION = 1;
+	public static final int ROW_GROUP_SIZE = 64 * 1024;
+
+	public static final byte ENC_PLAIN = 0;
+	public static final byte ENC_DICT = 1;
+	public static final byte ENC_RLE = 2;
+
+	@Override
+	public final void writeFrameToHDFS(FrameBlock src, String fname, long rlen, long clen)
+		throws IOException, DMLRuntimeException
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+
+		//if the file already exists on HDFS, remove it.
+		HDFSTool.deleteFileIfExistOnHDFS(fname);
+
+		//bound check for src block
+		if( src.getNumRows() > rlen || src.getNumColumns() > clen ) {
+			throw new IOException("Frame block [1:"+src.getNumRows()+",1:"+src.getNumColumns()+"] " +
+				"out of overall frame range [1:"+rlen+",1:"+clen+"].");
+		}
+
+		FSDataOutputStream out = fs.create(path, true);
+		try {
+			writeColumnarFrame(out, src);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(out);
+		}
+		IOUtilFunctions.deleteCrcFilesFromLocalFileSystem(fs, path);
+	}
+
+	private static void writeColumnarFrame(FSDataOutputStream out, FrameBlock src) throws IOException {
+		final int nrow = src.getNumRows();
+		final int ncol = src.getNumColumns();
+		final int ngroups = Math.max((int) Math.ceil((double) nrow / ROW_GROUP_SIZE), 1);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+
+		//write column chunks per row group
+		long[] offsets = new long[ngroups * ncol];
+		for( int g = 0; g < ngroups; g++ ) {
+			int rl = g * ROW_GROUP_SIZE;
+			int ru = Math.min(rl + ROW_GROUP_SIZE, nrow);
+			for( int c = 0; c < ncol; c++ ) {
+				Array<?> col = (nrow > 0) ? src.getColumn(c) : null;
+				offsets[g * ncol + c] = out.getPos();
+				writeChunk(out, (ngroups == 1 || col == null) ? col : col.slice(rl, ru), ru - rl);
+			}
+		}
+
+		//write footer with schema, names, meta data, and chunk offsets
+		long footer = out.getPos();
+		out.writeInt(nrow);
+		out.writeInt(ncol);
+		out.writeInt(ROW_GROUP_SIZE);
+		ValueType[] schema = src.getSchema();
+		String[] names = src.getColumnNames();
+		for( int c = 0; c < ncol; c++ ) {
+			out.writeByte(schema[c].ordinal());
+			out.writeUTF(names[c]);
+			src.getColumnMetadata(c).write(out);
+		}
+		for( long off : offsets )
+			out.writeLong(off);
+		out.writeLong(footer);
+		out.writeInt(MAGIC);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void writeChunk(DataOutput out, Array<?> col, int nrow) throws IOException {
+		//note: unallocated columns are written as empty plain chunks
+		if( col == null ) {
+			out.writeByte(ENC_PLAIN);
+			out.writeBoolean(false);
+			return;
+		}
+		byte enc = getEncoding(col);
+		out.writeByte(enc);
+		switch( enc ) {
+			case ENC_DICT:
+				(col instanceof DDCArray ? col : DDCArray.create((Array<String>) col)).write(out);
+				break;
+			case ENC_RLE:
+				writeRLE(out, col);
+				break;
+			default:
+				out.writeBoolean(true);
+				col.write(out);
+		}
+	}
+
+	/**
+	 * Selects the encoding of a column chunk: run-length encoding for few runs,
+	 * dictionary encoding for string columns of low cardinality, and plain otherwise.
+	 * 
+	 * @param col column chunk
+	 * @return encoding type
+	 */
+	protected static byte getEncoding(Array<?> col) {
+		final int n = col.size();
+		if( col instanceof DDCArray )
+			return ENC_DICT;
+		if( n < 16 )
+			return ENC_PLAIN;
+		if( countRuns(col) <= n / 8 )
+			return ENC_RLE;
+		if( col.getValueType() == ValueType.STRING ) {
+			//probe distinct items with early abort
+			HashSet<Object> distinct = new HashSet<>();
+			for( int i = 0; i < n && distinct.size() <= n / 4; i++ )
+				distinct.add(col.get(i));
+			if( distinct.size() <= n / 4 )
+				return ENC_DICT;
+		}
+		return ENC_PLAIN;
+	}
+
+	private static int countRuns(Array<?> col) {
+		int runs = 1;
+		for( int i = 1; i < col.size(); i++ )
+			runs += Objects.equals(col.get(i), col.get(i - 1)) ? 0 : 1;
+		return runs;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void writeRLE(DataOutput out, Array<?> col) throws IOException {
+		final int n = col.size();
+		int nruns = countRuns(col);
+		Array<Object> values = (Array<Object>) ArrayFactory.allocate(col.getValueType(), nruns);
+		int[] lengths = new int[nruns];
+		for( int i = 0, r = -1; i < n; i++ ) {
+			if( i == 0 || !Objects.equals(col.get(i), col.get(i - 1)) )
+				values.set(++r, col.get(i));
+			lengths[r]++;
+		}
+		out.writeInt(nruns);
+		for( int len : lengths )
+			out.writeInt(len);
+		values.write(out);
+	}
+}
@@ -24,6 +24,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.common.Types.FileFormat;
 import org.apache.sysds.conf.CompilerConfig.ConfigType;
 import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.hops.OptimizerUtils;
 import org.apache.sysds.runtime.DMLRuntimeException;
 
 public class FrameWriterFactory {
@@ -63,6 +64,16 @@ public class FrameWriterFactory {
 				// TODO performance improvement: add parallel reader
 				writer = new FrameWriterProto();
 				break;
+
+			case PARQUET:
+				writer = new FrameWriterParquet(
+					ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_WRITE_BINARYFORMATS) ?
+					OptimizerUtils.getParallelBinaryWriteParallelism() : 1);
+				break;
+
+			case COLUMNAR:
+				writer = new FrameWriterColumnar();
+				break;
 			
 			default:
 				throw new DMLRuntimeException("Failed to create frame writer for unknown format: " + fmt.toString());
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+import org.apache.sysds.runtime.util.HDFSTool;
+import org.apache.sysds.runtime.util.UtilFunctions;
+
+/**
+ * Parquet writer for frames, which maps the frame schema onto optional, typed parquet
+ * columns named after the frame columns. Large frames are written in parallel as
+ * directory of part files.
+ */
+public class FrameWriterParquet extends FrameWriter
+{
+	//min number of rows per part file in order to avoid tiny row groups
+	private static final int MIN_ROWS_PER_PART = 64 * 1024;
+
+	private final int _numThreads;
+
+	public FrameWriterParquet() {
+		this(1);
+	}
+
+	public FrameWriterParquet(int numThreads) {
+		_numThreads = Math.max(numThreads, 1);
+	}
+
+	@Override
+	public final void writeFrameToHDFS(FrameBlock src, String fname, long rlen, long clen)
+		throws IOException, DMLRuntimeException
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+
+		//if the file already exists on HDFS, remove it.
+		HDFSTool.deleteFileIfExistOnHDFS(fname);
+
+		//validity check frame dimensions
+		if( src.getNumRows() != rlen || src.getNumColumns() != clen ) {
+			throw new IOException("Frame dimensions mismatch with metadata: " +
+				src.getNumRows()+"x"+src.getNumColumns()+" vs "+rlen+"x"+clen+".");
+		}
+
+		//determine degree of parallelism (min rows per part)
+		int nrow = src.getNumRows();
+		int numThreads = Math.min(_numThreads, (int) Math.ceil((double) nrow / MIN_ROWS_PER_PART));
+
+		//fall back to sequential write if dop is 1 in order to create single file
+		if( numThreads <= 1 ) {
+			writeParquetFrameToFile(path, job, src, 0, nrow);
+			IOUtilFunctions.deleteCrcFilesFromLocalFileSystem(fs, path);
+			return;
+		}
+
+		//create directory for concurrent tasks
+		HDFSTool.createDirIfNotExistOnHDFS(path, DMLConfig.DEFAULT_SHARED_DIR_PERMISSION);
+
+		//create and execute tasks
+		try {
+			ExecutorService pool = CommonThreadPool.get(numThreads);
+			ArrayList<Callable<Object>> tasks = new ArrayList<>();
+			int blklen = (int) Math.ceil((double) nrow / numThreads);
+			for( int i = 0; i < numThreads & i * blklen < nrow; i++ ) {
+				Path newPath = new Path(path, IOUtilFunctions.getPartFileName(i));
+				int rl = i * blklen, ru = Math.min((i + 1) * blklen, nrow);
+				tasks.add(() -> { writeParquetFrameToFile(newPath, job, src, rl, ru); return null; });
+			}
+			List<Future<Object>> rt = pool.invokeAll(tasks);
+			pool.shutdown();
+			for( Future<Object> task : rt )
+				task.get();
+
+			// delete crc files if written to local file system
+			if( fs instanceof LocalFileSystem ) {
+				for( int i = 0; i < numThreads & i * blklen < nrow; i++ )
+					IOUtilFunctions.deleteCrcFilesFromLocalFileSystem(fs,
+						new Path(path, IOUtilFunctions.getPartFileName(i)));
+			}
+		}
+		catch(Exception e) {
+			throw new IOException("Failed parallel write of parquet output.", e);
+		}
+	}
+
+	private static void writeParquetFrameToFile(Path path, JobConf job, FrameBlock src, int rl, int ru)
+		throws IOException
+	{
+		final int clen = src.getNumColumns();
+		final ValueType[] schema = src.getSchema();
+		MessageType pschema = ParquetUtils.createSchema(schema, src.getColumnNames(), true);
+		SimpleGroupFactory factory = new SimpleGroupFactory(pschema);
+		try( ParquetWriter<Group> writer = ParquetUtils.createWriter(path, job, pschema, -1) ) {
+			for( int i = rl; i < ru; i++ ) {
+				Group row = factory.newGroup();
+				for( int j = 0; j < clen; j++ ) {
+					Object v = src.get(i, j);
+					if( v == null ) //null as missing optional value
+						continue;
+					switch( schema[j] ) {
+						case FP64:    row.add(j, ((Number) v).doubleValue()); break;
+						case FP32:    row.add(j, ((Number) v).floatValue()); break;
+						case UINT8:
+						case INT32:   row.add(j, ((Number) v).intValue()); break;
+						case INT64:   row.add(j, ((Number) v).longValue()); break;
+						case BOOLEAN: row.add(j, (Boolean) v); break;
+						default:      row.add(j, UtilFunctions.objectToString(v));
+					}
+				}
+				writer.write(row);
+			}
+		}
+	}
+}
@@ -24,6 +24,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.common.Types.FileFormat;
 import org.apache.sysds.conf.CompilerConfig.ConfigType;
 import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.hops.OptimizerUtils;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.compress.io.ReaderCompressed;
 import org.apache.sysds.runtime.data.SparseBlock;
@@ -68,6 +69,11 @@ public class MatrixReaderFactory {
 					new FileFormatPropertiesHDF5()) : new ReaderHDF5(new FileFormatPropertiesHDF5());
 				break;
 
+			case PARQUET:
+				reader = new ReaderParquet((par & mcsr) ?
+					OptimizerUtils.getParallelBinaryReadParallelism() : 1);
+				break;
+
 			case COMPRESSED:
 				reader = ReaderCompressed.create();
 
@@ -123,6 +129,11 @@ public class MatrixReaderFactory {
 					fileFormatPropertiesHDF5);
 				break;
 
+			case PARQUET:
+				reader = new ReaderParquet((par & mcsr) ?
+					OptimizerUtils.getParallelBinaryReadParallelism() : 1);
+				break;
+
 			case COMPRESSED:
 				reader = new ReaderCompressed();
 				break;
@@ -22,6 +22,7 @@ package org.apache.sysds.runtime.io;
 import org.apache.sysds.common.Types.FileFormat;
 import org.apache.sysds.conf.CompilerConfig.ConfigType;
 import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.hops.OptimizerUtils;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.compress.io.WriterCompressed;
 
@@ -86,6 +87,12 @@ public class MatrixWriterFactory
 				else
 					return new WriterHDF5((FileFormatPropertiesHDF5) props);
 
+			case PARQUET:
+				writer = new WriterParquet(
+					ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_WRITE_BINARYFORMATS) ?
+					OptimizerUtils.getParallelBinaryWriteParallelism() : 1);
+				break;
+
 			case COMPRESSED:
 				return WriterCompressed.create(props);
 
@@ -0,0 +1,368 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type.Repetition;
+import org.apache.parquet.schema.Types;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+
+/**
+ * Shared functionality of the parquet readers and writers for matrices and frames. Parquet inputs
+ * are either single files or directories of part files, which are read in parallel at granularity
+ * of row groups. The footers provide the number of rows and columns and the column types, and the
+ * files written by SystemDS additionally carry the number of non-zeros as key-value meta data.
+ */
+public class ParquetUtils
+{
+	/** Key of the number of non-zeros in the key-value meta data of parquet files. */
+	public static final String NNZ_KEY = "sysds.nnz";
+	/** Name of the parquet message type of matrices and frames. */
+	public static final String SCHEMA_NAME = "sysds";
+
+	/**
+	 * Meta data of a parquet input (single file or directory of part files).
+	 */
+	public static class ParquetInfo {
+		public final long rows;
+		public final String[] names;
+		public final ValueType[] schema;
+		public final long nnz;
+		private final List<RowGroup> _groups;
+
+		private ParquetInfo(long rows, String[] names, ValueType[] schema, long nnz, List<RowGroup> groups) {
+			this.rows = rows;
+			this.names = names;
+			this.schema = schema;
+			this.nnz = nnz;
+			_groups = groups;
+		}
+
+		public int getNumColumns() {
+			return schema.length;
+		}
+
+		public List<RowGroup> getRowGroups() {
+			return _groups;
+		}
+	}
+
+	/**
+	 * Row group of a parquet file, with its row offset in the overall input.
+	 */
+	public static class RowGroup {
+		public final Path path;
+		public final long rowOffset;
+		public final int rows;
+		private final FileMetaData _meta;
+		private final BlockMetaData _block;
+
+		private RowGroup(Path path, long rowOffset, FileMetaData meta, BlockMetaData block) {
+			this.path = path;
+			this.rowOffset = rowOffset;
+			this.rows = (int) block.getRowCount();
+			_meta = meta;
+			_block = block;
+		}
+	}
+
+	/**
+	 * Callback for the column-wise consumption of a row group.
+	 */
+	public interface ColumnConsumer {
+		/**
+		 * Consumes all values of one column of a row group.
+		 * 
+		 * @param group row group
+		 * @param col   column index (0-based)
+		 * @param cr    column reader, positioned at the first value
+		 * @param desc  column descriptor
+		 */
+		void consume(RowGroup group, int col, ColumnReader cr, ColumnDescriptor desc);
+	}
+
+	/**
+	 * Obtains the meta data of a parquet file or directory of part files
+	 * from the parquet footers, without reading the actual data.
+	 * 
+	 * @param fname file or directory name
+	 * @return parquet meta data
+	 * @throws IOException if the footers cannot be read
+	 */
+	public static ParquetInfo readInfo(String fname) throws IOException {
+		Configuration conf = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, conf);
+		long rows = 0, nnz = 0;
+		MessageType schema = null;
+		List<RowGroup> groups = new ArrayList<>();
+		for( Path file : getParquetFiles(fs, path) ) {
+			ParquetMetadata footer = ParquetFileReader.readFooter(conf, file, ParquetMetadataConverter.NO_FILTER);
+			FileMetaData meta = footer.getFileMetaData();
+			if( schema == null )
+				schema = meta.getSchema();
+			else if( !schema.equals(meta.getSchema()) )
+				throw new IOException("Incompatible schemas of parquet part files: "+schema+" vs "+meta.getSchema());
+			for( BlockMetaData block : footer.getBlocks() ) {
+				groups.add(new RowGroup(file, rows, meta, block));
+				rows += block.getRowCount();
+			}
+			String lnnz = meta.getKeyValueMetaData().get(NNZ_KEY);
+			nnz = (nnz >= 0 && lnnz != null) ? nnz + Long.parseLong(lnnz) : -1;
+		}
+		if( schema == null )
+			throw new IOException("No parquet files found: " + fname);
+
+		//derive column names and value types
+		int ncol = schema.getFieldCount();
+		String[] names = new String[ncol];
+		ValueType[] vtypes = new ValueType[ncol];
+		for( int j = 0; j < ncol; j++ ) {
+			if( !schema.getType(j).isPrimitive() )
+				throw new IOException("Unsupported nested parquet column: " + schema.getType(j));
+			names[j] = schema.getType(j).getName();
+			vtypes[j] = getValueType(schema.getType(j).asPrimitiveType());
+		}
+		return new ParquetInfo(rows, names, vtypes, nnz, groups);
+	}
+
+	/**
+	 * Reads all row groups of a parquet input (sequentially or in parallel) and passes
+	 * each column of each row group to the given consumer. Consumers of different row
+	 * groups write to disjoint row ranges and hence require no synchronization.
+	 * 
+	 * @param info       parquet meta data
+	 * @param consumer   column consumer
+	 * @param numThreads degree of parallelism
+	 * @throws IOException if the row groups cannot be read
+	 */
+	public static void readRowGroups(ParquetInfo info, ColumnConsumer consumer, int numThreads) throws IOException {
+		Configuration conf = new JobConf(ConfigurationManager.getCachedJobConf());
+		List<RowGroup> groups = info.getRowGroups();
+		if( numThreads <= 1 || groups.size() <= 1 ) {
+			for( RowGroup group : groups )
+				readRowGroup(conf, group, consumer);
+			return;
+		}
+		try {
+			ExecutorService pool = CommonThreadPool.get(Math.min(numThreads, groups.size()));
+			ArrayList<Callable<Object>> tasks = new ArrayList<>();
+			for( RowGroup group : groups )
+				tasks.add(() -> { readRowGroup(conf, group, consumer); return null; });
+			List<Future<Object>> rt = pool.invokeAll(tasks);
+			pool.shutdown();
+			for( Future<Object> task : rt )
+				task.get();
+		}
+		catch(Exception e) {
+			throw new IOException("Failed parallel read of parquet input.", e);
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private static void readRowGroup(Configuration conf, RowGroup group, ColumnConsumer consumer) throws IOException {
+		MessageType schema = group._meta.getSchema();
+		List<ColumnDescriptor> cols = schema.getColumns();
+		ParquetFileReader reader = new ParquetFileReader(conf, group._meta, group.path,
+			Collections.singletonList(group._block), cols);
+		try {
+			PageReadStore pages = reader.readNextRowGroup();
+			ColumnReadStoreImpl store = new ColumnReadStoreImpl(pages,
+				new GroupRecordConverter(schema).getRootConverter(), schema, group._meta.getCreatedBy());
+			for( int j = 0; j < cols.size(); j++ ) {
+				ColumnDescriptor desc = cols.get(j);
+				consumer.consume(group, j, store.getColumnReader(desc), desc);
+			}
+		}
+		finally {
+			IOUtilFunctions.closeSilently(reader);
+		}
+	}
+
+	/**
+	 * Reads the current value of a numeric or boolean column as double,
+	 * where nulls are represented as 0.
+	 * 
+	 * @param cr   column reader
+	 * @param desc column descriptor
+	 * @return double value
+	 */
+	public static double getDouble(ColumnReader cr, ColumnDescriptor desc) {
+		if( cr.getCurrentDefinitionLevel() < desc.getMaxDefinitionLevel() )
+			return 0;
+		switch( desc.getPrimitiveType().getPrimitiveTypeName() ) {
+			case DOUBLE:  return cr.getDouble();
+			case FLOAT:   return cr.getFloat();
+			case INT32:   return cr.getInteger();
+			case INT64:   return cr.getLong();
+			case BOOLEAN: return cr.getBoolean() ? 1 : 0;
+			default:
+				return Double.parseDouble(cr.getBinary().toStringUsingUTF8());
+		}
+	}
+
+	/**
+	 * Reads the current value of a column as object of the value type
+	 * given by {@link #getValueType(PrimitiveType)}, or null for missing values.
+	 * 
+	 * @param cr   column reader
+	 * @param desc column descriptor
+	 * @return boxed value or null
+	 */
+	public static Object getObject(ColumnReader cr, ColumnDescriptor desc) {
+		if( cr.getCurrentDefinitionLevel() < desc.getMaxDefinitionLevel() )
+			return null;
+		switch( desc.getPrimitiveType().getPrimitiveTypeName() ) {
+			case DOUBLE:  return cr.getDouble();
+			case FLOAT:   return cr.getFloat();
+			case INT32:   return cr.getInteger();
+			case INT64:   return cr.getLong();
+			case BOOLEAN: return cr.getBoolean();
+			default:      return cr.getBinary().toStringUsingUTF8();
+		}
+	}
+
+	/**
+	 * Maps a physical parquet type to the SystemDS value type.
+	 * 
+	 * @param type parquet primitive type
+	 * @return value type
+	 */
+	public static ValueType getValueType(PrimitiveType type) {
+		switch( type.getPrimitiveTypeName() ) {
+			case DOUBLE:  return ValueType.FP64;
+			case FLOAT:   return ValueType.FP32;
+			case INT32:   return ValueType.INT32;
+			case INT64:   return ValueType.INT64;
+			case BOOLEAN: return ValueType.BOOLEAN;
+			default:      return ValueType.STRING;
+		}
+	}
+
+	/**
+	 * Creates the parquet schema for the given value types and column names.
+	 * Numeric columns are required for matrices, while frame columns are optional.
+	 * 
+	 * @param schema   value types
+	 * @param names    column names
+	 * @param optional if true, columns may contain nulls
+	 * @return parquet message type
+	 */
+	public static MessageType createSchema(ValueType[] schema, String[] names, boolean optional) {
+		Types.MessageTypeBuilder builder = Types.buildMessage();
+		Repetition rep = optional ? Repetition.OPTIONAL : Repetition.REQUIRED;
+		for( int j = 0; j < schema.length; j++ ) {
+			switch( schema[j] ) {
+				case FP64:    builder.primitive(PrimitiveTypeName.DOUBLE, rep).named(names[j]); break;
+				case FP32:    builder.primitive(PrimitiveTypeName.FLOAT, rep).named(names[j]); break;
+				case UINT8:
+				case INT32:   builder.primitive(PrimitiveTypeName.INT32, rep).named(names[j]); break;
+				case INT64:   builder.primitive(PrimitiveTypeName.INT64, rep).named(names[j]); break;
+				case BOOLEAN: builder.primitive(PrimitiveTypeName.BOOLEAN, rep).named(names[j]); break;
+				default:      builder.primitive(PrimitiveTypeName.BINARY, rep)
+					.as(LogicalTypeAnnotation.stringType()).named(names[j]);
+			}
+		}
+		return builder.named(SCHEMA_NAME);
+	}
+
+	/**
+	 * Creates a parquet writer for the given schema, which stores the optional
+	 * number of non-zeros as key-value meta data.
+	 * 
+	 * @param path   output file
+	 * @param job    job configuration
+	 * @param schema parquet schema
+	 * @param nnz    number of non-zeros, or -1 if unknown
+	 * @return parquet writer of row groups
+	 * @throws IOException if the writer cannot be created
+	 */
+	public static ParquetWriter<Group> createWriter(Path path, JobConf job, MessageType schema, long nnz)
+		throws IOException
+	{
+		ExampleParquetWriter.Builder builder = ExampleParquetWriter.builder(path)
+			.withConf(job).withType(schema)
+			.withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+			.withCompressionCodec(CompressionCodecName.SNAPPY)
+			.withDictionaryEncoding(true);
+		if( nnz >= 0 )
+			builder.withExtraMetaData(Collections.singletonMap(NNZ_KEY, String.valueOf(nnz)));
+		return builder.build();
+	}
+
+	/**
+	 * Creates the string representation of the given schema as used
+	 * in meta data files and read statements.
+	 * 
+	 * @param schema value types
+	 * @return comma-separated schema string
+	 */
+	public static String toSchemaString(ValueType[] schema) {
+		StringBuilder sb = new StringBuilder();
+		for( int j = 0; j < schema.length; j++ )
+			sb.append(j > 0 ? "," : "").append(schema[j].toString());
+		return sb.toString();
+	}
+
+	private static List<Path> getParquetFiles(FileSystem fs, Path path) throws IOException {
+		List<Path> ret = new ArrayList<>();
+		for( Path p : IOUtilFunctions.getSequenceFilePaths(fs, path) )
+			if( !p.getName().startsWith(".") && fs.getFileStatus(p).getLen() > 0 )
+				ret.add(p);
+		//part files in lexicographical order of their names
+		Path[] tmp = ret.toArray(new Path[0]);
+		Arrays.sort(tmp, (a, b) -> a.getName().compareTo(b.getName()));
+		return Arrays.asList(tmp);
+	}
+}
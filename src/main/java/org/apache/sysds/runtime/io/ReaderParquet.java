@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.io.ParquetUtils.ParquetInfo;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Parquet reader for matrices, which reads the row groups of all part files in parallel
+ * and decodes the typed columns directly into the dense or sparse output block.
+ * Non-double columns are converted to double and nulls are represented as zeros.
+ */
+public class ReaderParquet extends MatrixReader
+{
+	private final int _numThreads;
+
+	public ReaderParquet() {
+		this(1);
+	}
+
+	public ReaderParquet(int numThreads) {
+		_numThreads = Math.max(numThreads, 1);
+	}
+
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int blen, long estnnz)
+		throws IOException, DMLRuntimeException
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+
+		//obtain dimensions and nnz from parquet footers
+		ParquetInfo info = ParquetUtils.readInfo(fname);
+		long lrlen = info.rows, lclen = info.getNumColumns();
+		if( (rlen >= 0 && rlen != lrlen) || (clen >= 0 && clen != lclen) )
+			throw new IOException("Matrix dimensions mismatch with metadata: "+lrlen+"x"+lclen+" vs "+rlen+"x"+clen+".");
+		long lnnz = (info.nnz >= 0) ? info.nnz : (estnnz >= 0) ? estnnz : lrlen * lclen;
+
+		//allocate output matrix block and read row groups
+		MatrixBlock ret = createOutputMatrixBlock(lrlen, lclen, blen, lnnz, true, true);
+		if( ret.isInSparseFormat() ) {
+			SparseBlock sblock = ret.getSparseBlock();
+			ParquetUtils.readRowGroups(info, (group, j, cr, desc) -> {
+				for( int i = 0; i < group.rows; i++, cr.consume() ) {
+					double v = ParquetUtils.getDouble(cr, desc);
+					if( v != 0 ) //columns in ascending order
+						sblock.append((int) group.rowOffset + i, j, v);
+				}
+			}, _numThreads);
+		}
+		else {
+			DenseBlock dblock = ret.getDenseBlock();
+			ParquetUtils.readRowGroups(info, (group, j, cr, desc) -> {
+				for( int i = 0; i < group.rows; i++, cr.consume() )
+					dblock.set((int) group.rowOffset + i, j, ParquetUtils.getDouble(cr, desc));
+			}, _numThreads);
+		}
+
+		//finally check if change of sparse/dense block representation required
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+
+	@Override
+	public MatrixBlock readMatrixFromInputStream(InputStream is, long rlen, long clen, int blen, long estnnz)
+		throws IOException, DMLRuntimeException
+	{
+		throw new DMLRuntimeException("Not implemented yet.");
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+import org.apache.sysds.runtime.util.HDFSTool;
+import org.apache.sysds.runtime.util.UtilFunctions;
+
+/**
+ * Parquet writer for matrices, where every matrix column is stored as a required double
+ * column C1, ..., Cn. Large matrices are written in parallel as directory of part files.
+ */
+public class WriterParquet extends MatrixWriter
+{
+	//min number of rows per part file in order to avoid tiny row groups
+	private static final int MIN_ROWS_PER_PART = 64 * 1024;
+
+	private final int _numThreads;
+
+	public WriterParquet() {
+		this(1);
+	}
+
+	public WriterParquet(int numThreads) {
+		_numThreads = Math.max(numThreads, 1);
+	}
+
+	@Override
+	public final void writeMatrixToHDFS(MatrixBlock src, String fname, long rlen, long clen, int blen, long nnz, boolean diag)
+		throws IOException, DMLRuntimeException
+	{
+		//validity check matrix dimensions
+		if( src.getNumRows() != rlen || src.getNumColumns() != clen )
+			throw new IOException("Matrix dimensions mismatch with metadata: "+src.getNumRows()+"x"+src.getNumColumns()+" vs "+rlen+"x"+clen+".");
+		if( rlen == 0 || clen == 0 )
+			throw new IOException("Write of matrices with zero rows or columns not supported ("+rlen+"x"+clen+").");
+
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+
+		//if the file already exists on HDFS, remove it.
+		HDFSTool.deleteFileIfExistOnHDFS(fname);
+
+		//core write (sequential/parallel)
+		writeParquetMatrixToHDFS(path, job, fs, src);
+
+		IOUtilFunctions.deleteCrcFilesFromLocalFileSystem(fs, path);
+	}
+
+	@Override
+	public final void writeEmptyMatrixToHDFS(String fname, long rlen, long clen, int blen)
+		throws IOException, DMLRuntimeException
+	{
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+
+		MatrixBlock src = new MatrixBlock((int)rlen, (int)clen, true);
+		writeParquetMatrixToHDFS(path, job, fs, src);
+
+		IOUtilFunctions.deleteCrcFilesFromLocalFileSystem(fs, path);
+	}
+
+	private void writeParquetMatrixToHDFS(Path path, JobConf job, FileSystem fs, MatrixBlock src)
+		throws IOException
+	{
+		//determine degree of parallelism (min rows per part)
+		int rlen = src.getNumRows();
+		int numThreads = Math.min(_numThreads, (int) Math.ceil((double) rlen / MIN_ROWS_PER_PART));
+
+		//fall back to sequential write if dop is 1 in order to create single file
+		if( numThreads <= 1 ) {
+			writeParquetMatrixToFile(path, job, src, 0, rlen);
+			return;
+		}
+
+		//create directory for concurrent tasks
+		HDFSTool.createDirIfNotExistOnHDFS(path, DMLConfig.DEFAULT_SHARED_DIR_PERMISSION);
+
+		//create and execute tasks
+		try {
+			ExecutorService pool = CommonThreadPool.get(numThreads);
+			ArrayList<Callable<Object>> tasks = new ArrayList<>();
+			int blklen = (int) Math.ceil((double) rlen / numThreads);
+			for( int i = 0; i < numThreads & i * blklen < rlen; i++ ) {
+				Path newPath = new Path(path, IOUtilFunctions.getPartFileName(i));
+				int rl = i * blklen, ru = Math.min((i + 1) * blklen, rlen);
+				tasks.add(() -> { writeParquetMatrixToFile(newPath, job, src, rl, ru); return null; });
+			}
+			List<Future<Object>> rt = pool.invokeAll(tasks);
+			pool.shutdown();
+			for( Future<Object> task : rt )
+				task.get();
+
+			// delete crc files if written to local file system
+			if( fs instanceof LocalFileSystem ) {
+				for( int i = 0; i < numThreads & i * blklen < rlen; i++ )
+					IOUtilFunctions.deleteCrcFilesFromLocalFileSystem(fs,
+						new Path(path, IOUtilFunctions.getPartFileName(i)));
+			}
+		}
+		catch(Exception e) {
+			throw new IOException("Failed parallel write of parquet output.", e);
+		}
+	}
+
+	private static void writeParquetMatrixToFile(Path path, JobConf job, MatrixBlock src, int rl, int ru)
+		throws IOException
+	{
+		final int clen = src.getNumColumns();
+		MessageType schema = ParquetUtils.createSchema(UtilFunctions.nCopies(clen, ValueType.FP64),
+			getColumnNames(clen), false);
+		SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+		long nnz = src.recomputeNonZeros(rl, ru - 1);
+		try( ParquetWriter<Group> writer = ParquetUtils.createWriter(path, job, schema, nnz) ) {
+			for( int i = rl; i < ru; i++ ) {
+				Group row = factory.newGroup();
+				for( int j = 0; j < clen; j++ )
+					row.add(j, src.quickGetValue(i, j));
+				writer.write(row);
+			}
+		}
+	}
+
+	private static String[] getColumnNames(int clen) {
+		String[] ret = new String[clen];
+		for( int j = 0; j < clen; j++ )
+			ret[j] = "C" + (j + 1);
+		return ret;
+	}
+}
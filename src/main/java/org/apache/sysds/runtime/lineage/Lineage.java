@@ -193,6 +193,7 @@ public class Lineage {
 		LineageCache.resetCache();
 		LineageCacheStatistics.reset();
 		LineageEstimator.resetEstimatorCache();
+		LineagePersistentCache.reset();
 	}
 	
 	public static void setLinReusePartial() {
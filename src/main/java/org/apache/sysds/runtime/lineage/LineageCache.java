@@ -63,10 +63,11 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class LineageCache
 {
-	private static final Map<LineageItem, LineageCacheEntry> _cache = new HashMap<>();
+	private static final Map<LineageItem, LineageCacheEntry> _cache = new ConcurrentHashMap<>();
 	protected static final boolean DEBUG = false;
 
 	static {
@@ -83,6 +84,11 @@ public class LineageCache
 	//   entry objects which reduces contention and prevents deadlocks in case of
 	//   function/statement block placeholders which computation itself might be
 	//   a complex workflow of operations that accesses the cache as well.
+	//   Full reuse probes of instructions are lock-free on the concurrent map:
+	//   hits of in-memory entries only record the access for a deferred update
+	//   of the eviction queue, and misses reserve placeholders via putIfAbsent
+	//   (placeholders are not part of the eviction queue). Spilled entries,
+	//   partial reuse and the persistent cache fall back to the locked path.
 	
 	
 	//--------------- PUBLIC CACHE API (keep it narrow) ----------------//
@@ -117,38 +123,69 @@ public class LineageCache
 			else
 				liList = Arrays.asList(MutablePair.of(instLI, null));
 			
+			//FIXME: different o/p datatypes for MultiReturnBuiltins.
+			DataType dt = (cinst != null) ? cinst.output.getDataType()
+				: (cfinst != null) ? cfinst.output.getDataType()
+				: (cspinst != null) ? cspinst.output.getDataType()
+				: gpuinst._output.getDataType();
+			boolean lockFree = LineageCacheConfig.getCacheType().isFullReuse()
+				&& !LineageCacheConfig.getCacheType().isPartialReuse()
+				&& gpuinst == null;
+			
 			//atomic try reuse full/partial and set placeholder, without
 			//obtaining value to avoid blocking in critical section
 			LineageCacheEntry e = null;
 			boolean reuseAll = true;
-			synchronized( _cache ) {
-				//try to reuse full or partial intermediates
-				for (MutablePair<LineageItem,LineageCacheEntry> item : liList) {
-					if (LineageCacheConfig.getCacheType().isFullReuse())
-						e = LineageCache.probe(item.getKey()) ? getIntern(item.getKey()) : null;
-					//TODO need to also move execution of compensation plan out of here
-					//(create lazily evaluated entry)
-					if (e == null && LineageCacheConfig.getCacheType().isPartialReuse() && cspinst == null)
-						if( LineageRewriteReuse.executeRewrites(inst, ec) )
-							e = getIntern(item.getKey());
-					//TODO: Partial reuse for Spark instructions
-					reuseAll &= (e != null);
-					item.setValue(e);
-					
-					//create a placeholder if no reuse to avoid redundancy
-					//(e.g., concurrent threads that try to start the computation)
-					if(e == null && isMarkedForCaching(inst, ec)) {
-						if (cinst != null)
-							putIntern(item.getKey(), cinst.output.getDataType(), null, null,  0);
-						else if (cfinst != null)
-							putIntern(item.getKey(), cfinst.output.getDataType(), null, null,  0);
-						else if (cspinst != null)
-							putIntern(item.getKey(), cspinst.output.getDataType(), null, null,  0);
-						else if (gpuinst != null)
-							putIntern(item.getKey(), gpuinst._output.getDataType(), null, null,  0);
-						//FIXME: different o/p datatypes for MultiReturnBuiltins.
+			for (MutablePair<LineageItem,LineageCacheEntry> item : liList) {
+				e = null;
+				boolean probed = false;
+				if (LineageCacheAdmission.isEnabled())
+					LineageCacheAdmission.recordAccess(item.getKey());
+				if (lockFree) {
+					//lock-free probe or placeholder reservation
+					e = _cache.get(item.getKey());
+					if (e == null) {
+						if (DMLScript.STATISTICS && LineageCacheEviction._removelist.containsKey(item.getKey()))
+							LineageCacheStatistics.incrementDelHits();
+						e = probePersistent(item.getKey());
+						if (e == null && isMarkedForCaching(inst, ec))
+							e = reservePlaceholder(item.getKey(), dt);
+						probed = (e == null);
+					}
+					if (e != null && e.getCacheStatus() != LineageCacheStatus.SPILLED) {
+						recordHit(e);
+						probed = true;
 					}
+					if (DMLScript.STATISTICS && probed)
+						LineageCacheStatistics.incrementLockFreeProbes();
 				}
+				if (!probed) {
+					//restore from the persistent cache before entering the
+					//critical section, to avoid blocking on disk reads
+					if (LineageCacheConfig.getCacheType().isFullReuse() && !_cache.containsKey(item.getKey()))
+						probePersistent(item.getKey());
+					long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+					synchronized( _cache ) {
+						if (DMLScript.STATISTICS)
+							LineageCacheStatistics.incrementLockWaitTime(System.nanoTime()-t0);
+						//try to reuse full or partial intermediates
+						if (LineageCacheConfig.getCacheType().isFullReuse())
+							e = LineageCache.probe(item.getKey()) ? getIntern(item.getKey()) : null;
+						//TODO need to also move execution of compensation plan out of here
+						//(create lazily evaluated entry)
+						if (e == null && LineageCacheConfig.getCacheType().isPartialReuse() && cspinst == null)
+							if( LineageRewriteReuse.executeRewrites(inst, ec) )
+								e = getIntern(item.getKey());
+						//TODO: Partial reuse for Spark instructions
+						
+						//create a placeholder if no reuse to avoid redundancy
+						//(e.g., concurrent threads that try to start the computation)
+						if(e == null && isMarkedForCaching(inst, ec))
+							putIntern(item.getKey(), dt, null, null,  0);
+					}
+				}
+				reuseAll &= (e != null);
+				item.setValue(e);
 			}
 			reuse = reuseAll;
 			
@@ -172,15 +209,15 @@ public class LineageCache
 					
 					if (e.isMatrixValue() && e._gpuObject == null) {
 						MatrixBlock mb = e.getMBValue(); //wait if another thread is executing the same inst.
-						if (mb == null && e.getCacheStatus() == LineageCacheStatus.NOTCACHED)
-							return false;  //the executing thread removed this entry from cache
+						if (mb == null)
+							return false;  //the executing thread removed or concurrently evicted this entry
 						else
 							ec.setMatrixOutput(outName, mb);
 					}
 					else if (e.isScalarValue()) {
 						ScalarObject so = e.getSOValue(); //wait if another thread is executing the same inst.
-						if (so == null && e.getCacheStatus() == LineageCacheStatus.NOTCACHED)
-							return false;  //the executing thread removed this entry from cache
+						if (so == null)
+							return false;  //the executing thread removed or concurrently evicted this entry
 						else
 							ec.setScalarOutput(outName, so);
 					}
@@ -230,7 +267,10 @@ public class LineageCache
 			// to save it from early eviction if DAGHEIGHT policy is selected
 			li.setHeight(1);
 			LineageCacheEntry e = null;
+			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
 			synchronized(_cache) {
+				if (DMLScript.STATISTICS)
+					LineageCacheStatistics.incrementLockWaitTime(System.nanoTime()-t0);
 				if (LineageCache.probe(li)) {
 					e = LineageCache.getIntern(li);
 				}
@@ -560,7 +600,11 @@ public class LineageCache
 	
 	private static void putValueCPU(Instruction inst, List<Pair<LineageItem, Data>> liData, long computetime)
 	{
+		List<Pair<LineageItem, MatrixBlock>> persist = null;
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
 		synchronized( _cache ) {
+			if (DMLScript.STATISTICS)
+				LineageCacheStatistics.incrementLockWaitTime(System.nanoTime()-t0);
 			for (Pair<LineageItem, Data> entry : liData) {
 				LineageItem item = entry.getKey();
 				Data data = entry.getValue();
@@ -606,6 +650,12 @@ public class LineageCache
 					continue; 
 				}
 
+				//reject the entry if not worth evicting other entries
+				if (!isAdmitted(item, computetime, size)) {
+					removePlaceholder(item);
+					continue;
+				}
+
 				//make space for the data
 				if (!LineageCacheEviction.isBelowThreshold(size))
 					LineageCacheEviction.makeSpace(_cache, size);
@@ -617,6 +667,13 @@ public class LineageCache
 				else if (data instanceof ScalarObject)
 					centry.setValue((ScalarObject)data, computetime);
 
+				//collect for write-through to the persistent cache
+				if (mb != null && LineagePersistentCache.isEnabled()) {
+					if (persist == null)
+						persist = new ArrayList<>();
+					persist.add(Pair.of(item, mb));
+				}
+
 				if (DMLScript.STATISTICS && LineageCacheEviction._removelist.containsKey(centry._key)) {
 					// Add to missed compute time
 					LineageCacheStatistics.incrementMissedComputeTime(centry._computeTime);
@@ -626,6 +683,11 @@ public class LineageCache
 				LineageCacheEviction.addEntry(centry);
 			}
 		}
+		
+		//write outside the critical section to avoid blocking other threads
+		if (persist != null)
+			for (Pair<LineageItem, MatrixBlock> entry : persist)
+				LineagePersistentCache.put(entry.getKey(), entry.getValue(), computetime);
 	}
 	
 	private static void putValueGPU(GPUObject gpuObj, LineageItem instLI, long computetime) {
@@ -693,7 +755,10 @@ public class LineageCache
 		}
 
 		//cache either all the outputs, or none.
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
 		synchronized (_cache) {
+			if (DMLScript.STATISTICS)
+				LineageCacheStatistics.incrementLockWaitTime(System.nanoTime()-t0);
 			//move or remove placeholders 
 			if(AllOutputsCacheable)
 				FuncLIMap.forEach((Li, boundLI) -> mvIntern(Li, boundLI, computetime));
@@ -821,6 +886,7 @@ public class LineageCache
 		synchronized (_cache) {
 			_cache.clear();
 			LineageCacheEviction.resetEviction();
+			LineageCacheAdmission.reset();
 			LineageGPUCacheEviction.resetEviction();
 		}
 	}
@@ -839,12 +905,17 @@ public class LineageCache
 		
 		// Create a new entry.
 		LineageCacheEntry newItem = new LineageCacheEntry(key, dt, Mval, Sval, computetime);
+		long size = newItem.getSize();
+		if( (Mval != null || Sval != null) && (size > LineageCacheEviction.getCacheLimit()
+			|| !isAdmitted(key, computetime, size)) )
+			return; //not applicable
+		
+		// Atomically place the entry, unless concurrently reserved by a lock-free probe.
+		if( _cache.putIfAbsent(key, newItem) != null )
+			return;
 		
 		// Make space by removing or spilling entries.
 		if( Mval != null || Sval != null ) {
-			long size = newItem.getSize();
-			if( size > LineageCacheEviction.getCacheLimit())
-				return; //not applicable
 			if( !LineageCacheEviction.isBelowThreshold(size) )
 				LineageCacheEviction.makeSpace(_cache, size);
 			LineageCacheEviction.updateSize(size, true);
@@ -853,11 +924,43 @@ public class LineageCache
 		// Place the entry in the weighted queue.
 		LineageCacheEviction.addEntry(newItem);
 		
-		_cache.put(key, newItem);
 		if (DMLScript.STATISTICS)
 			LineageCacheStatistics.incrementMemWrites();
 	}
 	
+	private static boolean isAdmitted(LineageItem key, long computetime, long size) {
+		//Caller should hold the monitor on _cache
+		if (!LineageCacheAdmission.isEnabled())
+			return true;
+		LineageCacheAdmission.recordComputeTime(key.getOpcode(), computetime, size);
+		//admission filter is only consulted if evictions are needed
+		return LineageCacheEviction.isBelowThreshold(size)
+			|| LineageCacheAdmission.admit(key, computetime, size, LineageCacheEviction.peekVictim());
+	}
+	
+	private static LineageCacheEntry reservePlaceholder(LineageItem key, DataType dt) {
+		// Lock-free reservation of a placeholder, returns the concurrently placed
+		// entry (if any). Placeholders do not participate in eviction.
+		LineageCacheEntry e = _cache.putIfAbsent(key, new LineageCacheEntry(key, dt, null, null, 0));
+		if (e == null && DMLScript.STATISTICS)
+			LineageCacheStatistics.incrementMemWrites();
+		return e;
+	}
+	
+	private static void recordHit(LineageCacheEntry e) {
+		// Lock-free hit, the eviction queue is updated lazily under the cache monitor.
+		if (DMLScript.STATISTICS)
+			LineageCacheStatistics.incrementMemHits();
+		if (LineageCacheEviction.recordAccess(e)) {
+			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+			synchronized( _cache ) {
+				if (DMLScript.STATISTICS)
+					LineageCacheStatistics.incrementLockWaitTime(System.nanoTime()-t0);
+				LineageCacheEviction.drainAccesses();
+			}
+		}
+	}
+	
 	private static LineageCacheEntry getIntern(LineageItem key) {
 		// This method is called only when entry is present either in cache or in local FS.
 		LineageCacheEntry e = _cache.get(key);
@@ -874,6 +977,24 @@ public class LineageCache
 			return LineageCacheEviction.readFromLocalFS(_cache, key);
 	}
 	
+	private static LineageCacheEntry probePersistent(LineageItem key) {
+		// Caller must not hold the monitor on _cache, because the block
+		// is read from disk before restoring it into the in-memory cache
+		if (!LineagePersistentCache.isEnabled())
+			return null;
+		long[] computetime = new long[1];
+		MatrixBlock mb = LineagePersistentCache.get(key,
+			LineageCacheEviction.getCacheLimit(), computetime);
+		if (mb == null)
+			return null;
+		// Restore into the in-memory cache for subsequent probes, unless
+		// concurrently placed (returns the existing entry or placeholder).
+		synchronized( _cache ) {
+			putIntern(key, DataType.MATRIX, mb, null, computetime[0]);
+			return _cache.get(key);
+		}
+	}
+	
 	private static void mvIntern(LineageItem item, LineageItem probeItem, long computetime) {
 		if (ReuseCacheType.isNone())
 			return;
@@ -916,7 +1037,7 @@ public class LineageCache
 			return;
 		LineageCacheEntry centry = _cache.get(item);
 		centry.removeAndNotify();
-		_cache.remove(item);
+		_cache.remove(item, centry);
 	}
 	
 	private static boolean isMarkedForCaching (Instruction inst, ExecutionContext ec) {
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.lineage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.apache.sysds.api.DMLScript;
+
+/**
+ * Admission filter of the lineage cache, consulted whenever a new entry does not
+ * fit into the cache without evictions. Similar to TinyLFU, the access frequency
+ * of lineage items is approximated by an aging count-min sketch, which is updated
+ * on every probe (hits and misses). The frequency is combined with the measured
+ * compute time per byte of the producing opcode, and a candidate is only admitted
+ * if its expected saved time per byte exceeds the one of the next eviction victim.
+ * This prevents cheap, rarely reused intermediates from evicting expensive ones.
+ */
+public class LineageCacheAdmission
+{
+	//number of rows (hash functions) and log2 of columns of the sketch
+	private static final int DEPTH = 4;
+	private static final int LOG_WIDTH = 14;
+	//saturation of counters (4 bit counters as in TinyLFU)
+	private static final int MAX_COUNT = 15;
+	//number of recorded accesses after which all counters are halved
+	protected static int SAMPLE_SIZE = 10 << LOG_WIDTH;
+	//smoothing factor of the exponential moving average of compute times
+	private static final double ALPHA = 0.25;
+	private static final int[] SEEDS = new int[] {
+		0x97cb3127, 0xb4b82e65, 0x6d74c7f5, 0x3e8fd1b3};
+	
+	private static final AtomicIntegerArray _sketch = new AtomicIntegerArray(DEPTH << LOG_WIDTH);
+	private static final AtomicInteger _additions = new AtomicInteger(0);
+	//opcode -> moving average of compute time per byte (in ns)
+	private static final Map<String, Double> _opcodeCosts = new HashMap<>();
+	
+	public static boolean isEnabled() {
+		return LineageCacheConfig.isSetAdmission();
+	}
+	
+	/**
+	 * Records a probe of the given lineage item in the frequency sketch.
+	 * This method is thread-safe and does not require the cache monitor.
+	 * 
+	 * @param key lineage item
+	 */
+	public static void recordAccess(LineageItem key) {
+		int hash = spread(key.hashCode());
+		boolean added = false;
+		for( int i=0; i<DEPTH; i++ ) {
+			int ix = indexOf(hash, i);
+			int cnt = _sketch.get(ix);
+			if( cnt < MAX_COUNT && _sketch.compareAndSet(ix, cnt, cnt+1) )
+				added = true;
+		}
+		if( added && _additions.incrementAndGet() >= SAMPLE_SIZE )
+			age();
+	}
+	
+	/**
+	 * Gets the estimated access frequency of the given lineage item.
+	 * 
+	 * @param key lineage item
+	 * @return estimated frequency (minimum over all rows)
+	 */
+	public static int getFrequency(LineageItem key) {
+		int hash = spread(key.hashCode());
+		int ret = MAX_COUNT;
+		for( int i=0; i<DEPTH; i++ )
+			ret = Math.min(ret, _sketch.get(indexOf(hash, i)));
+		return ret;
+	}
+	
+	/**
+	 * Updates the moving average of the compute time per byte of the
+	 * given opcode. The caller should hold the monitor on the cache.
+	 * 
+	 * @param opcode opcode of the lineage item
+	 * @param computetime measured compute time in ns
+	 * @param size size of the output in bytes
+	 */
+	public static void recordComputeTime(String opcode, long computetime, long size) {
+		if( size <= 0 )
+			return;
+		double cost = ((double)computetime) / size;
+		Double old = _opcodeCosts.get(opcode);
+		_opcodeCosts.put(opcode, (old == null) ? cost : (1-ALPHA)*old + ALPHA*cost);
+	}
+	
+	/**
+	 * Decides if a new entry should be cached at the expense of the next
+	 * eviction victim. The caller should hold the monitor on the cache.
+	 * 
+	 * @param key lineage item of the new entry
+	 * @param computetime measured compute time of the new entry in ns
+	 * @param size size of the new entry in bytes
+	 * @param victim next entry to be evicted, or null if none
+	 * @return true if the entry should be cached
+	 */
+	public static boolean admit(LineageItem key, long computetime, long size, LineageCacheEntry victim) {
+		boolean ret = (victim == null) || getSavedTime(key, computetime, size)
+			> getSavedTime(victim._key, victim._computeTime, victim.getSize());
+		if( DMLScript.STATISTICS ) {
+			if( ret )
+				LineageCacheStatistics.incrementAdmissions();
+			else
+				LineageCacheStatistics.incrementRejections();
+		}
+		return ret;
+	}
+	
+	public static void reset() {
+		for( int i=0; i<_sketch.length(); i++ )
+			_sketch.set(i, 0);
+		_additions.set(0);
+		_opcodeCosts.clear();
+	}
+	
+	private static double getSavedTime(LineageItem key, long computetime, long size) {
+		//expected saved compute time per byte, w/ fallback to the
+		//entry's own measurement for opcodes without recorded times
+		Double cost = _opcodeCosts.get(key.getOpcode());
+		double costPerByte = (cost != null) ? cost :
+			((double)computetime) / Math.max(size, 1);
+		return getFrequency(key) * costPerByte;
+	}
+	
+	private static void age() {
+		//halve all counters to let the sketch adapt to changing workloads,
+		//concurrent increments during aging are benign approximation errors
+		synchronized( _sketch ) {
+			if( _additions.get() < SAMPLE_SIZE )
+				return;
+			for( int i=0; i<_sketch.length(); i++ )
+				_sketch.set(i, _sketch.get(i) >>> 1);
+			_additions.set(0);
+		}
+	}
+	
+	private static int spread(int hash) {
+		hash ^= (hash >>> 17);
+		hash *= 0xed5ad4bb;
+		hash ^= (hash >>> 11);
+		return hash;
+	}
+	
+	private static int indexOf(int hash, int row) {
+		int h = (hash + SEEDS[row]) * SEEDS[row];
+		h += (h >>> 16);
+		return (row << LOG_WIDTH) + (h >>> (32 - LOG_WIDTH));
+	}
+}
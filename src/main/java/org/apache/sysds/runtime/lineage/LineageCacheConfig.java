@@ -394,4 +394,10 @@ public class LineageCacheConfig
 		DMLConfig conf = ConfigurationManager.getDMLConfig();
 		return conf.getBooleanValue(DMLConfig.LINEAGECACHESPILL);
 	}
+
+	public static boolean isSetAdmission() {
+		// Check if admission filter set in SystemDS-config (default false)
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		return conf.getBooleanValue(DMLConfig.LINEAGE_ADMISSION);
+	}
 }
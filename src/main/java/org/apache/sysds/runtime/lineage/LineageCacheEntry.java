@@ -21,6 +21,7 @@ package org.apache.sysds.runtime.lineage;
 
 import java.util.Map;
 
+import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.common.Types.DataType;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.instructions.cp.ScalarObject;
@@ -61,44 +62,36 @@ public class LineageCacheEntry {
 	}
 
 	public synchronized MatrixBlock getMBValue() {
-		try {
-			//wait until other thread completes operation
-			//in order to avoid redundant computation
-			while(_status == LineageCacheStatus.EMPTY) {
-				wait();
-			}
-			//comes here if data is placed or the entry is removed by the running thread
-			return _MBval;
-		}
-		catch( InterruptedException ex ) {
-			throw new DMLRuntimeException(ex);
-		}
+		waitForValue();
+		//comes here if data is placed or the entry is removed by the running thread
+		return _MBval;
 	}
 
 	public synchronized ScalarObject getSOValue() {
-		try {
-			//wait until other thread completes operation
-			//in order to avoid redundant computation
-			while(_status == LineageCacheStatus.EMPTY) {
-				wait();
-			}
-			//comes here if data is placed or the entry is removed by the running thread
-			return _SOval;
-		}
-		catch( InterruptedException ex ) {
-			throw new DMLRuntimeException(ex);
-		}
+		waitForValue();
+		//comes here if data is placed or the entry is removed by the running thread
+		return _SOval;
 	}
 
 	public synchronized byte[] getSerializedBytes() {
+		waitForValue();
+		// comes here if data is placed or the entry is removed by the running thread
+		return _serialBytes;
+	}
+	
+	private void waitForValue() {
+		//caller should hold the monitor on this entry
 		try {
-			// wait until other thread completes operation
-			// in order to avoid redundant computation
+			//wait until other thread completes operation
+			//in order to avoid redundant computation
+			long t0 = 0;
 			while(_status == LineageCacheStatus.EMPTY) {
+				if (t0 == 0)
+					t0 = System.nanoTime();
 				wait();
 			}
-			// comes here if data is placed or the entry is removed by the running thread
-			return _serialBytes;
+			if (t0 != 0 && DMLScript.STATISTICS)
+				LineageCacheStatistics.incrementEntryWaitTime(System.nanoTime()-t0);
 		}
 		catch( InterruptedException ex ) {
 			throw new DMLRuntimeException(ex);
@@ -20,9 +20,12 @@
 package org.apache.sysds.runtime.lineage;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.hops.OptimizerUtils;
@@ -37,15 +40,21 @@ public class LineageCacheEviction
 	private static long _cachesize = 0;
 	private static long CACHE_LIMIT; //limit in bytes
 	private static long _startTimestamp = 0;
-	protected static final Map<LineageItem, Integer> _removelist = new HashMap<>();
+	protected static final Map<LineageItem, Integer> _removelist = new ConcurrentHashMap<>();
 	private static String _outdir = null;
 	private static TreeSet<LineageCacheEntry> weightedQueue = new TreeSet<>(LineageCacheConfig.LineageCacheComparator);
+	//accesses of lock-free cache hits, applied to the weighted queue under the cache monitor
+	private static final Queue<LineageCacheEntry> _accesses = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger _numAccesses = new AtomicInteger(0);
+	protected static int MAX_PENDING_ACCESSES = 1024;
 	
 	protected static void resetEviction() {
 		// reset cache size, otherwise the cache clear leads to unusable 
 		// space which means evictions could run into endless loops
 		_cachesize = 0;
 		weightedQueue.clear();
+		_accesses.clear();
+		_numAccesses.set(0);
 		_outdir = null;
 		_removelist.clear();
 	}
@@ -96,6 +105,27 @@ public class LineageCacheEviction
 		}
 	}
 
+	/**
+	 * Records the access of a lock-free cache hit for a deferred update
+	 * of the eviction queue.
+	 * 
+	 * @param entry cache entry
+	 * @return true if the pending accesses should be drained
+	 */
+	protected static boolean recordAccess(LineageCacheEntry entry) {
+		_accesses.add(entry);
+		return _numAccesses.incrementAndGet() >= MAX_PENDING_ACCESSES;
+	}
+	
+	protected static void drainAccesses() {
+		//caller should hold the monitor on the cache
+		LineageCacheEntry e = null;
+		while( (e = _accesses.poll()) != null ) {
+			_numAccesses.decrementAndGet();
+			getEntry(e);
+		}
+	}
+
 	private static void removeEntry(Map<LineageItem, LineageCacheEntry> cache, LineageCacheEntry e) {
 		if (cache.remove(e._key) != null)
 			_cachesize -= e.getSize();
@@ -195,7 +225,15 @@ public class LineageCacheEviction
 		return ((spaceNeeded + _cachesize) <= CACHE_LIMIT);
 	}
 
+	protected static LineageCacheEntry peekVictim() {
+		//Apply pending accesses to obtain the right victim
+		drainAccesses();
+		return weightedQueue.isEmpty() ? null : weightedQueue.first();
+	}
+
 	protected static void makeSpace(Map<LineageItem, LineageCacheEntry> cache, long spaceNeeded) {
+		//Apply pending accesses to evict in the right order
+		drainAccesses();
 		//Cost based eviction
 		while ((spaceNeeded + _cachesize) > CACHE_LIMIT)
 		{
@@ -45,6 +45,14 @@ public class LineageCacheStatistics {
 	private static final LongAdder _numHitsGpu      = new LongAdder();
 	private static final LongAdder _numAsyncEvictGpu= new LongAdder();
 	private static final LongAdder _numSyncEvictGpu = new LongAdder();
+	private static final LongAdder _numHitsPersist  = new LongAdder();
+	private static final LongAdder _numWritesPersist= new LongAdder();
+	private static final LongAdder _numInvalPersist = new LongAdder();
+	private static final LongAdder _numLockFree     = new LongAdder();
+	private static final LongAdder _ctimeLockWait   = new LongAdder();
+	private static final LongAdder _ctimeEntryWait  = new LongAdder();
+	private static final LongAdder _numAdmissions   = new LongAdder();
+	private static final LongAdder _numRejections   = new LongAdder();
 
 	public static void reset() {
 		_numHitsMem.reset();
@@ -64,6 +72,14 @@ public class LineageCacheStatistics {
 		_numHitsGpu.reset();
 		_numAsyncEvictGpu.reset();
 		_numSyncEvictGpu.reset();
+		_numHitsPersist.reset();
+		_numWritesPersist.reset();
+		_numInvalPersist.reset();
+		_numLockFree.reset();
+		_ctimeLockWait.reset();
+		_ctimeEntryWait.reset();
+		_numAdmissions.reset();
+		_numRejections.reset();
 	}
 	
 	public static void incrementMemHits() {
@@ -197,6 +213,78 @@ public class LineageCacheStatistics {
 		_numSyncEvictGpu.increment();
 	}
 
+	public static void incrementPersistHits() {
+		// Number of times found in the persistent cache.
+		_numHitsPersist.increment();
+	}
+
+	public static long getPersistHits() {
+		return _numHitsPersist.longValue();
+	}
+
+	public static void incrementPersistWrites() {
+		// Number of times written to the persistent cache.
+		_numWritesPersist.increment();
+	}
+
+	public static long getPersistWrites() {
+		return _numWritesPersist.longValue();
+	}
+
+	public static void incrementPersistInvalidations() {
+		// Number of persistent entries removed due to modified inputs.
+		_numInvalPersist.increment();
+	}
+
+	public static long getPersistInvalidations() {
+		return _numInvalPersist.longValue();
+	}
+
+	public static void incrementLockFreeProbes() {
+		// Number of probes served without acquiring the cache monitor.
+		_numLockFree.increment();
+	}
+
+	public static long getLockFreeProbes() {
+		return _numLockFree.longValue();
+	}
+
+	public static void incrementLockWaitTime(long delta) {
+		// Total time waiting to acquire the cache monitor.
+		_ctimeLockWait.add(delta);
+	}
+
+	public static long getLockWaitTime() {
+		return _ctimeLockWait.longValue();
+	}
+
+	public static void incrementEntryWaitTime(long delta) {
+		// Total time waiting on placeholders of in-flight computations.
+		_ctimeEntryWait.add(delta);
+	}
+
+	public static long getEntryWaitTime() {
+		return _ctimeEntryWait.longValue();
+	}
+
+	public static void incrementAdmissions() {
+		// Number of entries admitted by the admission filter under memory pressure.
+		_numAdmissions.increment();
+	}
+
+	public static long getAdmissions() {
+		return _numAdmissions.longValue();
+	}
+
+	public static void incrementRejections() {
+		// Number of entries rejected by the admission filter.
+		_numRejections.increment();
+	}
+
+	public static long getRejections() {
+		return _numRejections.longValue();
+	}
+
 	public static String displayHits() {
 		StringBuilder sb = new StringBuilder();
 		sb.append(_numHitsMem.longValue());
@@ -248,6 +336,34 @@ public class LineageCacheStatistics {
 		return sb.toString();
 	}
 
+	public static String displayPersistStats() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numHitsPersist.longValue());
+		sb.append("/");
+		sb.append(_numWritesPersist.longValue());
+		sb.append("/");
+		sb.append(_numInvalPersist.longValue());
+		return sb.toString();
+	}
+
+	public static String displayContention() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numLockFree.longValue());
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeLockWait.longValue())/1000000000)); //in sec
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeEntryWait.longValue())/1000000000)); //in sec
+		return sb.toString();
+	}
+
+	public static String displayAdmission() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numAdmissions.longValue());
+		sb.append("/");
+		sb.append(_numRejections.longValue());
+		return sb.toString();
+	}
+
 	public static String displayGpuStats() {
 		StringBuilder sb = new StringBuilder();
 		sb.append(_numHitsGpu.longValue());
@@ -20,9 +20,14 @@
 package org.apache.sysds.runtime.lineage;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 
 import org.apache.sysds.runtime.DMLRuntimeException;
@@ -213,11 +218,52 @@ public class LineageItem {
 		if (!(o instanceof LineageItem))
 			return false;
 		
-		resetVisitStatusNR();
-		//boolean ret = equalsLINR((LineageItem) o);
-		boolean ret = equalsLINR_dedup((LineageItem) o);
-		resetVisitStatusNR();
-		return ret;
+		//thread-safe comparison w/o shared visit flags (e.g., for concurrent
+		//lineage cache probes), unless dedup items require the patch matching
+		Boolean local = equalsLINR_local((LineageItem) o);
+		if (local != null)
+			return local;
+		
+		synchronized(LineageItem.class) {
+			resetVisitStatusNR();
+			//boolean ret = equalsLINR((LineageItem) o);
+			boolean ret = equalsLINR_dedup((LineageItem) o);
+			resetVisitStatusNR();
+			return ret;
+		}
+	}
+	
+	// Equality check with a local visited set, returns null if dedup items are encountered
+	private Boolean equalsLINR_local(LineageItem that) {
+		Deque<LineageItem> s1 = new ArrayDeque<>();
+		Deque<LineageItem> s2 = new ArrayDeque<>();
+		Set<LineageItem> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		s1.push(this);
+		s2.push(that);
+		while (!s1.isEmpty() && !s2.isEmpty()) {
+			LineageItem li1 = s1.pop();
+			LineageItem li2 = s2.pop();
+			if (li1 == li2 || !visited.add(li1))
+				// skip this sub-DAG.
+				continue;
+			if (li1.isDedup() || li2.isDedup())
+				return null;
+			//check hash including height as pre-filter
+			if (!li1._opcode.equals(li2._opcode) || !li1._data.equals(li2._data)
+				|| li1.hashCode() != li2.hashCode())
+				return false;
+			if (li1._inputs != null && li2._inputs != null && li1._inputs.length == li2._inputs.length)
+				for (int i=0; i<li1._inputs.length; i++) {
+					// If the input is a non-leaf placeholder, read the inputs to it
+					LineageItem in1 = li1._inputs[i].isPlaceholder() && li1._inputs[i]._inputs != null ?
+						li1._inputs[i]._inputs[0] : li1._inputs[i];
+					LineageItem in2 = li2._inputs[i].isPlaceholder() && li2._inputs[i]._inputs != null ?
+						li2._inputs[i]._inputs[0] : li2._inputs[i];
+					s1.push(in1);
+					s2.push(in2);
+				}
+		}
+		return true;
 	}
 	
 	@SuppressWarnings("unused")
@@ -0,0 +1,729 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.lineage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.common.Types.DataType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.lops.Lop;
+import org.apache.sysds.runtime.instructions.Instruction;
+import org.apache.sysds.runtime.instructions.InstructionParser;
+import org.apache.sysds.runtime.instructions.cp.VariableCPInstruction;
+import org.apache.sysds.runtime.io.IOUtilFunctions;
+import org.apache.sysds.runtime.lineage.LineageItem.LineageItemType;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.LocalFileUtils;
+
+/**
+ * Persistent on-disk extension of the lineage cache, which allows reusing
+ * expensive intermediates across script invocations (e.g., recurring jobs
+ * with largely identical preprocessing).
+ * 
+ * Entries are keyed by a JVM-independent digest of the lineage DAG, and
+ * indexed by the lineage hash for cheap probing; blocks are only read from
+ * disk on a hit. Each entry records the modification times of the files
+ * read by its lineage, and is invalidated on a probe if any of these files
+ * changed. The total size is bounded by a configurable cap and maintained
+ * by LRU or cost-and-size based eviction according to the lineage cache
+ * policy. Insertions and removals are appended to an index log, which is
+ * compacted into the index on {@link #flush()} (together with updated access
+ * statistics) or once it exceeds a fixed number of records. Blocks are read
+ * and written outside the index lock.
+ * 
+ * Multiple processes may share the same directory: appending to the log and
+ * compacting it hold an exclusive file lock on the directory, and compaction
+ * merges the entries written by other processes before enforcing the size cap.
+ * Block files that are not referenced by any entry (e.g., of aborted runs or
+ * evicted by other processes) are deleted on load and compaction.
+ */
+public class LineagePersistentCache
+{
+	private static final Log LOG = LogFactory.getLog(LineagePersistentCache.class.getName());
+	
+	public static final String INDEX_FILE = "lineage.idx";
+	public static final String LOG_FILE = "lineage.log";
+	public static final String LOCK_FILE = "lineage.lock";
+	private static final String BLOCK_SUFFIX = ".blk";
+	private static final int INDEX_VERSION = 1;
+	private static final byte LOG_ADD = 1;
+	private static final byte LOG_REMOVE = 2;
+	private static final int MAX_LOG_RECORDS = 1024;
+	
+	/** Minimum compute time in ms of intermediates to persist */
+	public static long MIN_COMPUTE_TIME = 10;
+	
+	private static final Map<String, PersistentEntry> _entries = new HashMap<>();
+	private static final Map<Integer, Integer> _hashes = new HashMap<>();
+	private static String _dir = null;
+	private static long _size = 0;
+	private static boolean _dirty = false;
+	private static int _logRecords = 0;
+	
+	//reentrant exclusive lock of the directory across processes
+	private static FileChannel _lockChannel = null;
+	private static FileLock _lock = null;
+	private static int _lockCount = 0;
+	
+	public static boolean isEnabled() {
+		return ConfigurationManager.getLineagePersistDir() != null;
+	}
+	
+	/**
+	 * Probes the persistent cache and, on a valid hit, reads the block
+	 * from disk. Entries whose input files changed since they were written
+	 * are removed. The block is read outside the index lock.
+	 * 
+	 * @param key lineage item
+	 * @param maxSize maximum size in bytes of blocks to read
+	 * @param computetime optional output of the original compute time in ns
+	 * @return matrix block, or null
+	 */
+	public static MatrixBlock get(LineageItem key, long maxSize, long[] computetime) {
+		String dir = null;
+		synchronized( LineagePersistentCache.class ) {
+			if( !ensureLoaded() || !_hashes.containsKey(key.hashCode()) )
+				return null;
+			dir = _dir;
+		}
+		Signature sig = getSignature(key);
+		if( sig == null )
+			return null;
+		PersistentEntry e = null;
+		synchronized( LineagePersistentCache.class ) {
+			e = dir.equals(_dir) ? _entries.get(sig.digest) : null;
+			if( e == null || e.size > maxSize )
+				return null;
+		}
+		if( !e.isValid() ) {
+			if( DMLScript.STATISTICS )
+				LineageCacheStatistics.incrementPersistInvalidations();
+			removeIfExists(dir, e);
+			return null;
+		}
+		long t0 = System.nanoTime();
+		MatrixBlock mb = null;
+		try {
+			mb = LocalFileUtils.readMatrixBlockFromLocal(getBlockFile(dir, e));
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to read persistent lineage cache entry " + e.digest + ", removing it.", ex);
+			removeIfExists(dir, e);
+			return null;
+		}
+		synchronized( LineagePersistentCache.class ) {
+			e.lastAccess = System.currentTimeMillis();
+			e.hits++;
+			_dirty = true;
+		}
+		if( computetime != null )
+			computetime[0] = e.computeTime;
+		if( DMLScript.STATISTICS ) {
+			LineageCacheStatistics.incrementFSReadTime(System.nanoTime()-t0);
+			LineageCacheStatistics.incrementPersistHits();
+		}
+		return mb;
+	}
+	
+	/**
+	 * Writes the given block to the persistent cache if the lineage only
+	 * depends on persistent inputs (literals, files, and deterministic data
+	 * generators), and the compute time exceeds {@link #MIN_COMPUTE_TIME}.
+	 * The block is written outside the index lock, and the new entry is
+	 * appended to the index log.
+	 * 
+	 * @param key lineage item
+	 * @param mb matrix block
+	 * @param computetime compute time in ns
+	 */
+	public static void put(LineageItem key, MatrixBlock mb, long computetime) {
+		if( mb == null || computetime < MIN_COMPUTE_TIME * 1000000 )
+			return;
+		String dir = null;
+		synchronized( LineagePersistentCache.class ) {
+			if( !ensureLoaded() )
+				return;
+			dir = _dir;
+		}
+		Signature sig = getSignature(key);
+		if( sig == null )
+			return;
+		synchronized( LineagePersistentCache.class ) {
+			PersistentEntry e = dir.equals(_dir) ? _entries.get(sig.digest) : null;
+			if( e != null ) {
+				e.lastAccess = System.currentTimeMillis();
+				_dirty = true;
+				return;
+			}
+		}
+		long limit = ConfigurationManager.getLineagePersistSize();
+		if( mb.getExactSizeOnDisk() > limit )
+			return;
+		
+		//write block to a temporary file (w/o blocking concurrent probes and puts)
+		long t0 = System.nanoTime();
+		PersistentEntry e = new PersistentEntry(sig.digest, key.hashCode(), computetime, sig.inputs);
+		String fname = getBlockFile(dir, e);
+		File tmp = new File(fname + "." + DMLScript.getUUID() + "_" + Thread.currentThread().getId());
+		try {
+			for( int i=0; i<e.inputs.length; i++ )
+				e.mtimes[i] = getModificationTime(e.inputs[i]);
+			LocalFileUtils.writeMatrixBlockToLocal(tmp.getPath(), mb);
+			e.size = tmp.length();
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to write persistent lineage cache entry " + e.digest + ".", ex);
+			tmp.delete();
+			return;
+		}
+		
+		//publish the entry, unless concurrently written by another thread
+		synchronized( LineagePersistentCache.class ) {
+			if( !dir.equals(_dir) || _entries.containsKey(e.digest) ) {
+				tmp.delete();
+				return;
+			}
+			//publish block and log record atomically w.r.t. compactions of other
+			//processes, which would otherwise delete the unreferenced block
+			try {
+				lockDirectory();
+			}
+			catch(IOException ex) {
+				LOG.warn("Failed to lock persistent lineage cache directory " + dir + ".", ex);
+				tmp.delete();
+				return;
+			}
+			try {
+				Files.move(tmp.toPath(), new File(fname).toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				makeSpace(limit - e.size, true);
+				addEntry(e);
+				appendLog(LOG_ADD, e);
+			}
+			catch(IOException ex) {
+				LOG.warn("Failed to write persistent lineage cache entry " + e.digest + ".", ex);
+				tmp.delete();
+				return;
+			}
+			finally {
+				unlockDirectory();
+			}
+		}
+		if( DMLScript.STATISTICS ) {
+			LineageCacheStatistics.incrementFSWriteTime(System.nanoTime()-t0);
+			LineageCacheStatistics.incrementPersistWrites();
+		}
+	}
+	
+	/**
+	 * Writes the index if entries or access statistics changed since the
+	 * last write, and truncates the index log.
+	 */
+	public static synchronized void flush() {
+		if( _dir != null && (_dirty || _logRecords > 0) )
+			writeIndex();
+	}
+	
+	/**
+	 * Clears the in-memory index (but not the on-disk state), which is
+	 * lazily reloaded on the next access.
+	 */
+	public static synchronized void reset() {
+		flush();
+		_entries.clear();
+		_hashes.clear();
+		_dir = null;
+		_size = 0;
+		_dirty = false;
+		_logRecords = 0;
+	}
+	
+	public static synchronized int getNumEntries() {
+		return ensureLoaded() ? _entries.size() : 0;
+	}
+	
+	public static synchronized long getSize() {
+		return ensureLoaded() ? _size : 0;
+	}
+	
+	//----------------- INTERNAL CACHE LOGIC IMPLEMENTATION --------------//
+	
+	private static boolean ensureLoaded() {
+		String dir = ConfigurationManager.getLineagePersistDir();
+		if( dir == null )
+			return false;
+		if( dir.equals(_dir) )
+			return true;
+		//(re)load index and log of configured directory
+		reset();
+		_dir = dir;
+		LocalFileUtils.createLocalFileIfNotExist(dir);
+		try {
+			lockDirectory();
+			try {
+				for( PersistentEntry e : readState().values() )
+					addEntry(e);
+				deleteUnreferencedBlocks();
+			}
+			finally {
+				unlockDirectory();
+			}
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to read persistent lineage cache index in " + dir + ", starting empty.", ex);
+			_entries.clear();
+			_hashes.clear();
+			_size = 0;
+		}
+		return true;
+	}
+	
+	private static void lockDirectory() throws IOException {
+		//lock file of the directory (w/ reentrant use under the class monitor,
+		//because file locks are held on behalf of the entire JVM)
+		if( _lockCount++ > 0 )
+			return;
+		try {
+			_lockChannel = FileChannel.open(Paths.get(_dir, LOCK_FILE),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			_lock = _lockChannel.lock();
+		}
+		catch(IOException ex) {
+			_lockCount--;
+			IOUtilFunctions.closeSilently(_lockChannel);
+			_lockChannel = null;
+			throw ex;
+		}
+	}
+	
+	private static void unlockDirectory() {
+		if( --_lockCount > 0 )
+			return;
+		try {
+			_lock.release();
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to unlock persistent lineage cache directory " + _dir + ".", ex);
+		}
+		IOUtilFunctions.closeSilently(_lockChannel);
+		_lock = null;
+		_lockChannel = null;
+	}
+	
+	private static void addEntry(PersistentEntry e) {
+		_entries.put(e.digest, e);
+		_hashes.merge(e.hash, 1, Integer::sum);
+		_size += e.size;
+	}
+	
+	private static void dropEntry(PersistentEntry e) {
+		_entries.remove(e.digest);
+		if( _hashes.merge(e.hash, -1, Integer::sum) <= 0 )
+			_hashes.remove(e.hash);
+		_size -= e.size;
+	}
+	
+	private static void removeEntry(PersistentEntry e, boolean log) {
+		dropEntry(e);
+		LocalFileUtils.deleteFileIfExists(getBlockFile(_dir, e), true);
+		if( log )
+			appendLog(LOG_REMOVE, e);
+	}
+	
+	private static synchronized void removeIfExists(String dir, PersistentEntry e) {
+		//the entry might have been concurrently evicted or replaced
+		if( dir.equals(_dir) && _entries.get(e.digest) == e )
+			removeEntry(e, true);
+	}
+	
+	private static void makeSpace(long targetSize, boolean log) {
+		if( _size <= targetSize )
+			return;
+		List<PersistentEntry> queue = new ArrayList<>(_entries.values());
+		queue.sort(LineageCacheConfig.isTimeBased() ?
+			Comparator.comparingLong(e -> e.lastAccess) :
+			Comparator.comparingDouble(PersistentEntry::getCostNsize)
+				.thenComparingLong(e -> e.lastAccess));
+		for( int i=0; i<queue.size() && _size > targetSize; i++ )
+			removeEntry(queue.get(i), log);
+	}
+	
+	private static String getBlockFile(String dir, PersistentEntry e) {
+		return dir + File.separator + e.digest + BLOCK_SUFFIX;
+	}
+	
+	private static long getModificationTime(String fname) throws IOException {
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path);
+		return fs.exists(path) ? fs.getFileStatus(path).getModificationTime() : -1;
+	}
+	
+	private static Map<String, PersistentEntry> readState() throws IOException {
+		//read the on-disk index and log (under the directory lock)
+		Map<String, PersistentEntry> ret = new HashMap<>();
+		File index = new File(_dir, INDEX_FILE);
+		File log = new File(_dir, LOG_FILE);
+		if( index.exists() )
+			readIndex(index, ret);
+		_logRecords = log.exists() ? replayLog(log, ret) : 0;
+		return ret;
+	}
+	
+	private static void readIndex(File index, Map<String, PersistentEntry> entries) throws IOException {
+		try(DataInputStream in = new DataInputStream(
+			new BufferedInputStream(new FileInputStream(index))))
+		{
+			if( in.readInt() != INDEX_VERSION )
+				throw new IOException("Unsupported index version.");
+			int n = in.readInt();
+			for( int i=0; i<n; i++ ) {
+				PersistentEntry e = PersistentEntry.read(in);
+				if( new File(getBlockFile(_dir, e)).exists() )
+					entries.put(e.digest, e);
+			}
+		}
+	}
+	
+	private static int replayLog(File log, Map<String, PersistentEntry> entries) throws IOException {
+		int records = 0;
+		try(DataInputStream in = new DataInputStream(
+			new BufferedInputStream(new FileInputStream(log))))
+		{
+			while( true ) {
+				int type = in.read();
+				if( type < 0 )
+					break;
+				PersistentEntry e = PersistentEntry.read(in);
+				entries.remove(e.digest);
+				if( type == LOG_ADD && new File(getBlockFile(_dir, e)).exists() )
+					entries.put(e.digest, e);
+				records++;
+			}
+		}
+		catch(EOFException ex) {
+			//ignore partially written last record of an aborted run
+		}
+		return records;
+	}
+	
+	private static void deleteUnreferencedBlocks() {
+		File[] files = new File(_dir).listFiles((d, name) -> name.endsWith(BLOCK_SUFFIX));
+		if( files == null )
+			return;
+		for( File f : files ) {
+			String name = f.getName();
+			if( !_entries.containsKey(name.substring(0, name.length() - BLOCK_SUFFIX.length())) )
+				LocalFileUtils.deleteFileIfExists(f.getPath(), true);
+		}
+	}
+	
+	private static void appendLog(byte type, PersistentEntry e) {
+		//append a single record per write call (w/o rewriting the entire index),
+		//and compact the log into the index once it grows large
+		File log = new File(_dir, LOG_FILE);
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			try(DataOutputStream out = new DataOutputStream(bos)) {
+				out.writeByte(type);
+				e.write(out);
+			}
+			lockDirectory();
+			try(FileOutputStream out = new FileOutputStream(log, true)) {
+				out.write(bos.toByteArray());
+			}
+			finally {
+				unlockDirectory();
+			}
+			if( ++_logRecords >= MAX_LOG_RECORDS )
+				writeIndex();
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to append persistent lineage cache log " + log + ".", ex);
+		}
+	}
+	
+	private static void writeIndex() {
+		//write to temporary file and atomically replace the index, so that
+		//concurrent or aborted runs never observe a partially written index;
+		//the log is truncated afterwards because the index subsumes it
+		File index = new File(_dir, INDEX_FILE);
+		File tmp = new File(_dir, INDEX_FILE + "." + DMLScript.getUUID());
+		try {
+			lockDirectory();
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to lock persistent lineage cache directory " + _dir + ".", ex);
+			return;
+		}
+		try {
+			//merge entries of other processes (w/ local access statistics taking
+			//precedence), drop entries whose blocks were removed by other processes,
+			//and enforce the size cap over the merged entries
+			Map<String, PersistentEntry> state = null;
+			try {
+				state = readState();
+			}
+			catch(IOException ex) {
+				//overwrite a corrupted index, but keep blocks of unknown entries
+				LOG.warn("Failed to read persistent lineage cache index " + index + ", overwriting it.", ex);
+			}
+			boolean merged = (state != null);
+			state = merged ? state : new HashMap<>();
+			for( PersistentEntry e : new ArrayList<>(_entries.values()) )
+				if( !state.containsKey(e.digest) && !new File(getBlockFile(_dir, e)).exists() )
+					dropEntry(e);
+			for( PersistentEntry e : state.values() )
+				if( !_entries.containsKey(e.digest) )
+					addEntry(e);
+			makeSpace(ConfigurationManager.getLineagePersistSize(), false);
+			
+			try(DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(tmp))))
+			{
+				out.writeInt(INDEX_VERSION);
+				out.writeInt(_entries.size());
+				for( PersistentEntry e : _entries.values() )
+					e.write(out);
+			}
+			Files.move(tmp.toPath(), index.toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			new File(_dir, LOG_FILE).delete();
+			_logRecords = 0;
+			_dirty = false;
+			if( merged )
+				deleteUnreferencedBlocks();
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to write persistent lineage cache index " + index + ".", ex);
+			tmp.delete();
+		}
+		finally {
+			unlockDirectory();
+		}
+	}
+	
+	/**
+	 * Computes the JVM-independent signature of a lineage DAG, i.e., a Merkle
+	 * digest over opcodes and data (invariant to item IDs and sharing of
+	 * sub-DAGs), and the files read by its leaves.
+	 * 
+	 * @param root lineage item
+	 * @return signature, or null if the lineage depends on non-persistent inputs
+	 */
+	protected static Signature getSignature(LineageItem root) {
+		MessageDigest md = null;
+		try {
+			md = MessageDigest.getInstance("SHA-256");
+		}
+		catch(NoSuchAlgorithmException ex) {
+			return null;
+		}
+		//non-recursive bottom-up traversal to handle deep lineage DAGs
+		Map<LineageItem, byte[]> digests = new IdentityHashMap<>();
+		Set<String> inputs = new LinkedHashSet<>();
+		Deque<LineageItem> stack = new ArrayDeque<>();
+		stack.push(root);
+		while( !stack.isEmpty() ) {
+			LineageItem li = stack.peek();
+			if( digests.containsKey(li) ) {
+				stack.pop();
+				continue;
+			}
+			boolean ready = true;
+			if( li.getInputs() != null )
+				for( LineageItem in : li.getInputs() )
+					if( !digests.containsKey(in) ) {
+						stack.push(in);
+						ready = false;
+					}
+			if( !ready )
+				continue;
+			stack.pop();
+			
+			if( li.isPlaceholder() && !li.isLeaf() ) {
+				digests.put(li, digests.get(li.getInputs()[0]));
+				continue;
+			}
+			if( li.getType() == LineageItemType.Dedup || (li.isLeaf() && !isPersistentLeaf(li, inputs)) )
+				return null;
+			md.update(li.getOpcode().getBytes(StandardCharsets.UTF_8));
+			md.update((byte) 0);
+			md.update(li.getData().getBytes(StandardCharsets.UTF_8));
+			md.update((byte) 0);
+			if( li.getInputs() != null )
+				for( LineageItem in : li.getInputs() )
+					md.update(digests.get(in));
+			digests.put(li, md.digest());
+		}
+		return new Signature(toHexString(digests.get(root)), inputs.toArray(new String[0]));
+	}
+	
+	private static boolean isPersistentLeaf(LineageItem li, Set<String> inputs) {
+		switch( li.getType() ) {
+			case Literal: {
+				//untraced non-scalar variables are represented by their names
+				String[] parts = li.getData().split(Lop.VALUETYPE_PREFIX);
+				return parts.length < 2 || parts[1].equals(DataType.SCALAR.name())
+					|| !(parts.length < 4 || parts[3].equals("false"));
+			}
+			case Creation: {
+				String opcode = li.getOpcode();
+				if( opcode.startsWith("fed") )
+					return false; //remote data w/o modification times
+				if( !opcode.equals("createvar") && !opcode.equals("read") )
+					return true; //data generators
+				try {
+					Instruction inst = InstructionParser.parseSingleInstruction(li.getData());
+					if( !(inst instanceof VariableCPInstruction) )
+						return false;
+					inputs.add(((VariableCPInstruction) inst).getInput2().getName());
+					return true;
+				}
+				catch(Exception ex) {
+					return false;
+				}
+			}
+			default:
+				return true;
+		}
+	}
+	
+	private static String toHexString(byte[] bytes) {
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for( byte b : bytes )
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16))
+				.append(Character.forDigit(b & 0xF, 16));
+		return sb.toString();
+	}
+	
+	protected static class Signature {
+		protected final String digest;
+		protected final String[] inputs;
+		
+		protected Signature(String digest, String[] inputs) {
+			this.digest = digest;
+			this.inputs = inputs;
+		}
+	}
+	
+	private static class PersistentEntry {
+		private final String digest;
+		private final int hash;
+		private final long computeTime; //in ns
+		private final String[] inputs;
+		private final long[] mtimes;
+		private long size = 0;
+		private long lastAccess;
+		private long hits = 0;
+		
+		private PersistentEntry(String digest, int hash, long computeTime, String[] inputs) {
+			this.digest = digest;
+			this.hash = hash;
+			this.computeTime = computeTime;
+			this.inputs = inputs;
+			this.mtimes = new long[inputs.length];
+			this.lastAccess = System.currentTimeMillis();
+		}
+		
+		private double getCostNsize() {
+			return ((double) computeTime) * (1 + hits) / Math.max(size, 1);
+		}
+		
+		private boolean isValid() {
+			try {
+				for( int i=0; i<inputs.length; i++ )
+					if( mtimes[i] < 0 || getModificationTime(inputs[i]) != mtimes[i] )
+						return false;
+				return true;
+			}
+			catch(IOException ex) {
+				return false;
+			}
+		}
+		
+		private void write(DataOutputStream out) throws IOException {
+			out.writeUTF(digest);
+			out.writeInt(hash);
+			out.writeLong(computeTime);
+			out.writeLong(size);
+			out.writeLong(lastAccess);
+			out.writeLong(hits);
+			out.writeInt(inputs.length);
+			for( int i=0; i<inputs.length; i++ ) {
+				out.writeUTF(inputs[i]);
+				out.writeLong(mtimes[i]);
+			}
+		}
+		
+		private static PersistentEntry read(DataInputStream in) throws IOException {
+			String digest = in.readUTF();
+			int hash = in.readInt();
+			long computeTime = in.readLong();
+			long size = in.readLong();
+			long lastAccess = in.readLong();
+			long hits = in.readLong();
+			String[] inputs = new String[in.readInt()];
+			long[] mtimes = new long[inputs.length];
+			for( int i=0; i<inputs.length; i++ ) {
+				inputs[i] = in.readUTF();
+				mtimes[i] = in.readLong();
+			}
+			PersistentEntry e = new PersistentEntry(digest, hash, computeTime, inputs);
+			System.arraycopy(mtimes, 0, e.mtimes, 0, mtimes.length);
+			e.size = size;
+			e.lastAccess = lastAccess;
+			e.hits = hits;
+			return e;
+		}
+	}
+}
@@ -27,17 +27,20 @@ import java.io.ObjectOutput;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 
 import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.common.Types.ValueType;
 import org.apache.sysds.lops.Lop;
 import org.apache.sysds.runtime.compress.estim.sample.SampleEstimatorFactory;
 import org.apache.sysds.runtime.controlprogram.caching.CacheBlock;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.frame.data.columns.Array;
+import org.apache.sysds.runtime.frame.data.columns.DDCArray;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.DoubleLongHashMap;
+import org.apache.sysds.runtime.util.StringLongHashMap;
 import org.apache.sysds.utils.stats.TransformStatistics;
 
 public class ColumnEncoderRecode extends ColumnEncoder {
@@ -46,8 +49,8 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 	// test property to ensure consistent encoding for local and federated
 	public static boolean SORT_RECODE_MAP = false;
 
-	// recode maps and custom map for partial recode maps
-	private HashMap<String, Long> _rcdMap = new HashMap<>();
+	// recode maps (primitive, in order of codes) and custom map for partial recode maps
+	private StringLongHashMap _rcdMap = new StringLongHashMap();
 	private HashSet<Object> _rcdMapPart = null;
 
 	public ColumnEncoderRecode(int colID) {
@@ -58,7 +61,7 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		this(-1);
 	}
 
-	private ColumnEncoderRecode(int colID, HashMap<String, Long> rcdMap) {
+	private ColumnEncoderRecode(int colID, StringLongHashMap rcdMap) {
 		super(colID);
 		_rcdMap = rcdMap;
 	}
@@ -72,12 +75,12 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 	 */
 	public static String constructRecodeMapEntry(String token, Long code) {
 		StringBuilder sb = new StringBuilder(token.length() + 16);
-		return constructRecodeMapEntry(token, code, sb);
+		return constructRecodeMapEntry(token, code.longValue(), sb);
 	}
 
-	private static String constructRecodeMapEntry(String token, Long code, StringBuilder sb) {
+	private static String constructRecodeMapEntry(String token, long code, StringBuilder sb) {
 		sb.setLength(0); // reset reused string builder
-		return sb.append(token).append(Lop.DATATYPE_PREFIX).append(code.longValue()).toString();
+		return sb.append(token).append(Lop.DATATYPE_PREFIX).append(code).toString();
 	}
 
 	/**
@@ -93,7 +96,7 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		return new String[] {value.substring(0, pos), value.substring(pos + 1)};
 	}
 
-	public HashMap<String, Long> getCPRecodeMaps() {
+	public StringLongHashMap getCPRecodeMaps() {
 		return _rcdMap;
 	}
 
@@ -105,28 +108,74 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		sortCPRecodeMaps(_rcdMap);
 	}
 
-	private static void sortCPRecodeMaps(HashMap<String, Long> map) {
-		String[] keys = map.keySet().toArray(new String[0]);
+	private static void sortCPRecodeMaps(StringLongHashMap map) {
+		String[] keys = map.getKeys();
 		Arrays.sort(keys);
 		map.clear();
 		for(String key : keys)
 			putCode(map, key);
 	}
 
-	private static void makeRcdMap(CacheBlock<?> in, HashMap<String, Long> map, int colID, int startRow, int blk) {
-		for(int row = startRow; row < getEndIndex(in.getNumRows(), startRow, blk); row++){
-			String key = in.getString(row, colID - 1);
-			if(key != null && !key.isEmpty() && !map.containsKey(key))
-				putCode(map, key);
+	private static void makeRcdMap(CacheBlock<?> in, StringLongHashMap map, int colID, int startRow, int blk) {
+		DDCArray ddc = getDDCColumn(in, colID);
+		if(ddc != null) {
+			// probe codes instead of hashing every string, but
+			// add new keys in order of first occurrence as below
+			int[] codes = ddc.getCodes();
+			String[] dict = ddc.getDictionary();
+			boolean[] seen = new boolean[ddc.getNumDistinct()];
+			for(int row = startRow; row < getEndIndex(in.getNumRows(), startRow, blk); row++){
+				int c = codes[row];
+				if(c >= 0 && !seen[c]) {
+					seen[c] = true;
+					if(!dict[c].isEmpty())
+						putCode(map, dict[c]);
+				}
+			}
+		}
+		else if(isNumericColumn(in, colID)) {
+			// probe primitive values instead of creating a string per row,
+			// and materialize the keys once per distinct value (first row)
+			DoubleLongHashMap rows = new DoubleLongHashMap();
+			for(int row = startRow; row < getEndIndex(in.getNumRows(), startRow, blk); row++)
+				rows.putIfAbsent(in.getDoubleNaN(row, colID - 1), row);
+			for(int i = 0; i < rows.size(); i++) {
+				String key = in.getString((int) rows.getValue(i), colID - 1);
+				if(key != null && !key.isEmpty())
+					putCode(map, key);
+			}
+		}
+		else {
+			for(int row = startRow; row < getEndIndex(in.getNumRows(), startRow, blk); row++){
+				String key = in.getString(row, colID - 1);
+				if(key != null && !key.isEmpty())
+					putCode(map, key);
+			}
 		}
 		if(SORT_RECODE_MAP) {
 			sortCPRecodeMaps(map);
 		}
 	}
 
+	private static boolean isNumericColumn(CacheBlock<?> in, int colID) {
+		if(in instanceof MatrixBlock)
+			return true;
+		if(!(in instanceof FrameBlock))
+			return false;
+		// value types with exact conversion to double (distinct values remain distinct)
+		ValueType vt = ((FrameBlock) in).getSchema()[colID - 1];
+		return vt == ValueType.FP64 || vt == ValueType.FP32 || vt == ValueType.INT32;
+	}
+
+	private static DDCArray getDDCColumn(CacheBlock<?> in, int colID) {
+		if(!(in instanceof FrameBlock))
+			return null;
+		Array<?> col = ((FrameBlock) in).getColumn(colID - 1);
+		return (col instanceof DDCArray) ? (DDCArray) col : null;
+	}
+
 	private long lookupRCDMap(String key) {
-		Long tmp = _rcdMap.get(key);
-		return (tmp != null) ? tmp : -1;
+		return _rcdMap.get(key, -1);
 	}
 
 	public void computeRCDMapSizeEstimate(CacheBlock<?> in, int[] sampleIndices) {
@@ -197,13 +246,14 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 	}
 
 	/**
-	 * Put the code into the map with the provided key. The code depends on the type of encoder.
+	 * Put the code into the map with the provided key, if the key does not exist yet.
+	 * The code depends on the type of encoder.
 	 *
 	 * @param map column map
 	 * @param key key for the new entry
 	 */
-	protected static void putCode(HashMap<String, Long> map, String key) {
-		map.put(key, (long) (map.size() + 1));
+	protected static void putCode(StringLongHashMap map, String key) {
+		map.putIfAbsent(key, map.size() + 1);
 	}
 
 	protected double getCode(CacheBlock<?> in, int r){
@@ -221,6 +271,17 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		// lookup for a block of rows
 		int endInd = getEndIndex(in.getNumRows(), startInd, blkSize);
 		double codes[] = new double[endInd-startInd];
+		DDCArray ddc = getDDCColumn(in, _colID);
+		if(ddc != null && ddc.getNumDistinct() < endInd-startInd) {
+			// lookup once per distinct value, and then map the codes
+			double[] tab = getCodeTable(ddc);
+			int[] ddcCodes = ddc.getCodes();
+			for (int i=startInd; i<endInd; i++) {
+				int c = ddcCodes[i];
+				codes[i-startInd] = (c < 0) ? Double.NaN : tab[c];
+			}
+			return codes;
+		}
 		for (int i=startInd; i<endInd; i++) {
 			String key = in.getString(i, _colID-1);
 			if(key == null || key.isEmpty()) {
@@ -233,6 +294,16 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		return codes;
 	}
 
+	private double[] getCodeTable(DDCArray ddc) {
+		String[] dict = ddc.getDictionary();
+		double[] tab = new double[ddc.getNumDistinct()];
+		for(int i = 0; i < tab.length; i++) {
+			long code = dict[i].isEmpty() ? -1 : lookupRCDMap(dict[i]);
+			tab[i] = (code < 0) ? Double.NaN : code;
+		}
+		return tab;
+	}
+
 	@Override
 	public void prepareBuildPartial() {
 		// ensure allocated partial recode map
@@ -247,8 +318,21 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 
 		// construct partial recode map (tokens w/o codes)
 		// probe and build column map
-		for(int i = 0; i < in.getNumRows(); i++)
-			_rcdMapPart.add(in.get(i, _colID - 1));
+		DDCArray ddc = getDDCColumn(in, _colID);
+		if(ddc != null) {
+			int[] codes = ddc.getCodes();
+			boolean[] seen = new boolean[ddc.getNumDistinct()];
+			for(int i = 0; i < in.getNumRows(); i++)
+				if(codes[i] >= 0)
+					seen[codes[i]] = true;
+			for(int c = 0; c < seen.length; c++)
+				if(seen[c])
+					_rcdMapPart.add(ddc.getDictionary()[c]);
+		}
+		else {
+			for(int i = 0; i < in.getNumRows(); i++)
+				_rcdMapPart.add(in.get(i, _colID - 1));
+		}
 		// cleanup unnecessary entries once
 		_rcdMapPart.remove(null);
 		_rcdMapPart.remove("");
@@ -270,15 +354,11 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		assert other._colID == _colID;
 		// merge together overlapping columns
 		ColumnEncoderRecode otherRec = (ColumnEncoderRecode) other;
-		HashMap<String, Long> otherMap = otherRec._rcdMap;
+		StringLongHashMap otherMap = otherRec._rcdMap;
 		if(otherMap != null) {
 			// for each column, add all non present recode values
-			for(Map.Entry<String, Long> entry : otherMap.entrySet()) {
-				if(lookupRCDMap(entry.getKey()) == -1) {
-					// key does not yet exist
-					putCode(_rcdMap, entry.getKey());
-				}
-			}
+			for(int i = 0; i < otherMap.size(); i++)
+				putCode(_rcdMap, otherMap.getKey(i));
 		}
 	}
 
@@ -305,9 +385,9 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		// create compact meta data representation
 		StringBuilder sb = new StringBuilder(); // for reuse
 		int rowID = 0;
-		for(Entry<String, Long> e : _rcdMap.entrySet()) {
+		for(int i = 0; i < _rcdMap.size(); i++) {
 			meta.set(rowID++, _colID - 1, // 1-based
-				constructRecodeMapEntry(e.getKey(), e.getValue(), sb));
+				constructRecodeMapEntry(_rcdMap.getKey(i), _rcdMap.getValue(i), sb));
 		}
 		meta.getColumnMetadata(_colID - 1).setNumDistinct(getNumDistinctValues());
 
@@ -323,16 +403,16 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 	public void initMetaData(FrameBlock meta) {
 		if(meta == null || meta.getNumRows() <= 0)
 			return;
-		_rcdMap = meta.getRecodeMap(_colID - 1); // 1-based
+		_rcdMap = new StringLongHashMap(meta.getRecodeMap(_colID - 1)); // 1-based
 	}
 
 	@Override
 	public void writeExternal(ObjectOutput out) throws IOException {
 		super.writeExternal(out);
 		out.writeInt(_rcdMap.size());
-		for(Entry<String, Long> e : _rcdMap.entrySet()) {
-			out.writeUTF(e.getKey());
-			out.writeLong(e.getValue());
+		for(int i = 0; i < _rcdMap.size(); i++) {
+			out.writeUTF(_rcdMap.getKey(i));
+			out.writeLong(_rcdMap.getValue(i));
 		}
 	}
 
@@ -342,7 +422,7 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		int size = in.readInt();
 		for(int j = 0; j < size; j++) {
 			String key = in.readUTF();
-			Long value = in.readLong();
+			long value = in.readLong();
 			_rcdMap.put(key, value);
 		}
 	}
@@ -362,7 +442,7 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		return Objects.hash(_rcdMap);
 	}
 
-	public HashMap<String, Long> getRcdMap() {
+	public StringLongHashMap getRcdMap() {
 		return _rcdMap;
 	}
 
@@ -416,9 +496,9 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		}
 
 		@Override
-		public HashMap<String, Long> call() throws Exception {
+		public StringLongHashMap call() throws Exception {
 			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
-			HashMap<String, Long> partialMap = new HashMap<>();
+			StringLongHashMap partialMap = new StringLongHashMap();
 			makeRcdMap(_input, partialMap, _colID, _startRow, _blockSize);
 			synchronized(_partialMaps) {
 				_partialMaps.put(_startRow, partialMap);
@@ -448,12 +528,11 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		@Override
 		public Object call() throws Exception {
 			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
-			HashMap<String, Long> rcdMap = _encoder.getRcdMap();
+			StringLongHashMap rcdMap = _encoder.getRcdMap();
 			_partialMaps.forEach((start_row, map) -> {
-				((HashMap<?, ?>) map).forEach((k, v) -> {
-					if(!rcdMap.containsKey((String) k))
-						putCode(rcdMap, (String) k);
-				});
+				StringLongHashMap pmap = (StringLongHashMap) map;
+				for(int i = 0; i < pmap.size(); i++)
+					putCode(rcdMap, pmap.getKey(i));
 			});
 			_encoder._rcdMap = rcdMap;
 			if(DMLScript.STATISTICS){
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.transform.encode;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.SequenceFile.Writer;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysds.common.Types.FileFormat;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.io.FileFormatPropertiesCSV;
+import org.apache.sysds.runtime.io.FrameReaderTextCSVParallel;
+import org.apache.sysds.runtime.io.IOUtilFunctions;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysds.runtime.meta.DataCharacteristics;
+import org.apache.sysds.runtime.transform.TfUtils.TfMethod;
+import org.apache.sysds.runtime.util.HDFSTool;
+import org.apache.wink.json4j.JSONArray;
+import org.apache.wink.json4j.JSONException;
+import org.apache.wink.json4j.JSONObject;
+
+/**
+ * Streaming two-pass transformencode over csv inputs that do not fit into memory.
+ * The input is read in row chunks via the parallel csv reader, where the chunk size
+ * is derived from the given memory budget. The first pass builds the transform meta
+ * data incrementally by merging the encoders of all chunks (as done for row-partitioned
+ * federated encode), and the second pass applies the final encoder per chunk and writes
+ * the encoded chunks as binary-block matrix.
+ * 
+ * Encoders that require the entire input or change the number of rows (equi-height
+ * binning, UDFs, omit and missing value imputation) are not supported.
+ */
+public class StreamingEncoder
+{
+	private static final Log LOG = LogFactory.getLog(StreamingEncoder.class.getName());
+
+	/** Ratio of memory budget to raw input bytes per chunk (parsed frame, encoded output) */
+	public static final int CHUNK_EXPANSION = 8;
+
+	private final String _spec;
+	private final FileFormatPropertiesCSV _props;
+	private final long _budget;
+	private final int _k;
+
+	public StreamingEncoder(String spec, FileFormatPropertiesCSV props, long budget, int k) {
+		_spec = spec;
+		_props = (props != null) ? props : new FileFormatPropertiesCSV();
+		_budget = budget;
+		_k = k;
+	}
+
+	/**
+	 * Indicates if the given transform spec can be built and applied chunk by chunk,
+	 * without resolving column names.
+	 * 
+	 * @param spec transform specification as json string
+	 * @return true if streaming encode is supported
+	 */
+	public static boolean isSupported(String spec) {
+		try {
+			JSONObject jSpec = new JSONObject(spec);
+			if(jSpec.containsKey(TfMethod.IMPUTE.toString()) || jSpec.containsKey(TfMethod.OMIT.toString())
+				|| jSpec.containsKey(TfMethod.UDF.toString()))
+				return false;
+			if(jSpec.containsKey(TfMethod.BIN.toString()))
+				for(Object o : (JSONArray) jSpec.get(TfMethod.BIN.toString()))
+					if(!"EQUI-WIDTH".equals(((JSONObject) o).get("method").toString().toUpperCase()))
+						return false;
+			return true;
+		}
+		catch(JSONException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Indicates if the encoders of the given spec can be built and applied chunk by chunk.
+	 * 
+	 * @param encoder multi-column encoder created from the transform spec
+	 * @return true if streaming encode is supported
+	 */
+	public static boolean isSupported(MultiColumnEncoder encoder) {
+		if(encoder.hasLegacyEncoder())
+			return false;
+		for(ColumnEncoderComposite ce : encoder.getColumnEncoders()) {
+			if(ce.hasEncoder(ColumnEncoderUDF.class))
+				return false;
+			ColumnEncoderBin bin = ce.getEncoder(ColumnEncoderBin.class);
+			if(bin != null && bin.getBinMethod() != ColumnEncoderBin.BinMethod.EQUI_WIDTH)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Encodes the csv input and writes the encoded matrix in binary-block format.
+	 * 
+	 * @param fnameIn  file name of the csv input
+	 * @param schema   value types of the input columns, or null for strings
+	 * @param clen     number of input columns, or -1 if unknown
+	 * @param fnameOut file name of the binary-block output
+	 * @param dcOut    output data characteristics, updated with dimensions and non-zeros
+	 * @return transform meta data frame
+	 */
+	public FrameBlock encode(String fnameIn, ValueType[] schema, long clen, String fnameOut, DataCharacteristics dcOut) {
+		long chunkSize = Math.max(_budget / CHUNK_EXPANSION, 1);
+		FrameReaderTextCSVParallel reader = new FrameReaderTextCSVParallel(_props);
+		try {
+			// pass 1: incremental build of transform meta data
+			MultiColumnEncoder build = null;
+			String[] colnames = null;
+			long nrow = 0;
+			Iterator<FrameBlock> iter = reader.readFrameChunksFromHDFS(fnameIn, schema, null, clen, chunkSize);
+			while(iter.hasNext()) {
+				FrameBlock chunk = iter.next();
+				colnames = chunk.getColumnNames();
+				MultiColumnEncoder enc = EncoderFactory.createEncoder(_spec, colnames, chunk.getNumColumns(), null);
+				if(!isSupported(enc))
+					throw new DMLRuntimeException("Streaming transformencode does not support the given spec: " + _spec);
+				enc.build(chunk, _k);
+				if(build == null)
+					build = enc;
+				else
+					build.mergeAt(enc, 0, (int) nrow);
+				nrow += chunk.getNumRows();
+			}
+			if(build == null)
+				throw new DMLRuntimeException("Empty input for streaming transformencode: " + fnameIn);
+			int ncol = colnames.length;
+			FrameBlock meta = build.getMetaData(new FrameBlock(ncol, ValueType.STRING), _k);
+			meta.setColumnNames(colnames);
+			build = null; // release partial build state
+
+			// pass 2: chunk-wise apply and write of encoded row blocks
+			MultiColumnEncoder encoder = EncoderFactory.createEncoder(_spec, colnames, ncol, meta);
+			int blen = dcOut.getBlocksize() > 0 ? dcOut.getBlocksize() : ConfigurationManager.getBlocksize();
+			long nnz = 0;
+			BlockWriter writer = new BlockWriter(fnameOut, blen);
+			try {
+				iter = reader.readFrameChunksFromHDFS(fnameIn, schema, colnames, ncol, chunkSize);
+				while(iter.hasNext()) {
+					MatrixBlock out = encoder.apply(iter.next(), _k);
+					nnz += out.getNonZeros();
+					writer.append(out, !iter.hasNext());
+				}
+			}
+			finally {
+				writer.close();
+			}
+
+			dcOut.set(nrow, ncol + encoder.getNumExtraCols(), blen, nnz);
+			HDFSTool.writeMetaDataFile(fnameOut + ".mtd", ValueType.FP64, dcOut, FileFormat.BINARY);
+			LOG.debug("Streaming transformencode of " + nrow + " rows in chunks of " + chunkSize + " bytes");
+			return meta;
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException("Failed streaming transformencode of " + fnameIn, ex);
+		}
+	}
+
+	/**
+	 * Sequence file writer of binary blocks that aligns arbitrary chunks of rows to
+	 * row blocks of the given block size, carrying incomplete blocks to the next chunk.
+	 */
+	private static class BlockWriter {
+		private final Writer _writer;
+		private final int _blen;
+		private MatrixBlock _carry = null;
+		private long _brow = 1;
+
+		public BlockWriter(String fname, int blen) throws IOException {
+			JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+			Path path = new Path(fname);
+			HDFSTool.deleteFileIfExistOnHDFS(path, job);
+			_writer = SequenceFile.createWriter(job, Writer.file(path), Writer.keyClass(MatrixIndexes.class),
+				Writer.valueClass(MatrixBlock.class), Writer.compression(SequenceFile.CompressionType.NONE));
+			_blen = blen;
+		}
+
+		public void append(MatrixBlock src, boolean last) throws IOException {
+			int n = src.getNumRows();
+			int rl = 0;
+			// complete carried block from the previous chunk
+			if(_carry != null) {
+				rl = Math.min(_blen - _carry.getNumRows(), n);
+				if(rl > 0)
+					_carry = _carry.append(src.slice(0, rl - 1), new MatrixBlock(), false);
+				if(_carry.getNumRows() < _blen && !last)
+					return;
+				writeRowBlock(_carry, 0, _carry.getNumRows());
+				_carry = null;
+			}
+			// write full row blocks, carry the remainder
+			for(; rl + _blen <= n; rl += _blen)
+				writeRowBlock(src, rl, rl + _blen);
+			if(rl < n) {
+				if(last)
+					writeRowBlock(src, rl, n);
+				else
+					_carry = src.slice(rl, n - 1);
+			}
+		}
+
+		private void writeRowBlock(MatrixBlock src, int rl, int ru) throws IOException {
+			int clen = src.getNumColumns();
+			MatrixIndexes ix = new MatrixIndexes();
+			for(int cl = 0, bcol = 1; cl < clen; cl += _blen, bcol++) {
+				int cu = Math.min(cl + _blen, clen);
+				MatrixBlock block = src.slice(rl, ru - 1, cl, cu - 1, new MatrixBlock());
+				block.examSparsity();
+				ix.setIndexes(_brow, bcol);
+				_writer.append(ix, block);
+			}
+			_brow++;
+		}
+
+		public void close() {
+			IOUtilFunctions.closeSilently(_writer);
+		}
+	}
+}
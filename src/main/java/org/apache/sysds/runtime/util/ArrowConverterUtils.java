@@ -0,0 +1,450 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.util;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.FloatingPointVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.frame.data.columns.Array;
+import org.apache.sysds.runtime.frame.data.columns.ArrayFactory;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Utils for exchanging matrices and frames with the python API through Arrow IPC files.
+ * 
+ * Instead of marshaling byte arrays through the Py4J socket, the python client and the JVM write and read Arrow IPC
+ * files in a shared location (e.g., /dev/shm), which allows pyarrow to map the data without per-element conversion.
+ * Matrices are stored row-major in a single FP64 column with the dimensions in the schema metadata, while frames are
+ * stored as one typed column per frame column.
+ */
+public class ArrowConverterUtils {
+	public static final String ROWS_KEY = "rows";
+	public static final String COLS_KEY = "cols";
+	public static final String DATA_NAME = "data";
+
+	/** maximum number of cells per record batch of a matrix */
+	private static final int MAX_BATCH_CELLS = 1 << 24;
+
+	public static MatrixBlock convertArrowToMB(String fname) {
+		try(BufferAllocator alloc = new RootAllocator();
+			FileChannel channel = FileChannel.open(Paths.get(fname), StandardOpenOption.READ);
+			ArrowFileReader reader = new ArrowFileReader(channel, alloc)) {
+			VectorSchemaRoot root = reader.getVectorSchemaRoot();
+			Map<String, String> meta = root.getSchema().getCustomMetadata();
+			if(root.getSchema().getFields().size() != 1)
+				throw new DMLRuntimeException("Arrow matrix data must have exactly one column, but found "
+					+ root.getSchema().getFields().size());
+
+			// collect all batches, if the dimensions are not given a column vector is assumed
+			long cells = 0;
+			List<double[]> batches = new ArrayList<>();
+			while(reader.loadNextBatch()) {
+				double[] tmp = toDoubleArray(root.getVector(0));
+				batches.add(tmp);
+				cells += tmp.length;
+			}
+			long rlen = (meta != null && meta.containsKey(ROWS_KEY)) ? Long.parseLong(meta.get(ROWS_KEY)) : cells;
+			long clen = (meta != null && meta.containsKey(COLS_KEY)) ? Long.parseLong(meta.get(COLS_KEY)) : 1;
+			if(rlen * clen != cells)
+				throw new DMLRuntimeException(
+					"Arrow matrix data of " + cells + " cells does not match dimensions " + rlen + " x " + clen);
+
+			MatrixBlock ret = Py4jConverterUtils.allocateDenseOrSparse(rlen, clen, false);
+			DenseBlock db = ret.getDenseBlock();
+			long off = 0;
+			for(double[] tmp : batches) {
+				copyToDense(tmp, db, off, (int) clen);
+				off += tmp.length;
+			}
+			ret.recomputeNonZeros();
+			ret.examSparsity();
+			return ret;
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException("Failed to read arrow matrix from " + fname, ex);
+		}
+	}
+
+	public static void convertMBToArrow(MatrixBlock mb, String fname) {
+		final int rlen = mb.getNumRows();
+		final int clen = mb.getNumColumns();
+		final int blen = Math.max(1, Math.min(rlen, MAX_BATCH_CELLS / Math.max(clen, 1)));
+		Map<String, String> meta = new HashMap<>();
+		meta.put(ROWS_KEY, String.valueOf(rlen));
+		meta.put(COLS_KEY, String.valueOf(clen));
+		Schema schema = new Schema(List.of(Field.nullable(DATA_NAME,
+			new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE))), meta);
+
+		try(BufferAllocator alloc = new RootAllocator();
+			VectorSchemaRoot root = VectorSchemaRoot.create(schema, alloc);
+			FileChannel channel = FileChannel.open(Paths.get(fname), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			ArrowFileWriter writer = new ArrowFileWriter(root, null, channel)) {
+			Float8Vector vec = (Float8Vector) root.getVector(0);
+			writer.start();
+			for(int bi = 0; bi < rlen; bi += blen) {
+				final int bu = Math.min(bi + blen, rlen);
+				final int n = (bu - bi) * clen;
+				vec.allocateNew(n);
+				vec.getValidityBuffer().setOne(0, BitVectorHelper.getValidityBufferSize(n));
+				if(!mb.isEmptyBlock(false)) {
+					if(mb.isInSparseFormat())
+						copySparseRows(mb.getSparseBlock(), vec, bi, bu, clen);
+					else
+						copyDenseRows(mb.getDenseBlock(), vec, bi, bu, clen);
+				}
+				vec.setValueCount(n);
+				root.setRowCount(n);
+				writer.writeBatch();
+			}
+			writer.end();
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException("Failed to write arrow matrix to " + fname, ex);
+		}
+	}
+
+	public static FrameBlock convertArrowToFB(String fname) {
+		try(BufferAllocator alloc = new RootAllocator();
+			FileChannel channel = FileChannel.open(Paths.get(fname), StandardOpenOption.READ);
+			ArrowFileReader reader = new ArrowFileReader(channel, alloc)) {
+			VectorSchemaRoot root = reader.getVectorSchemaRoot();
+			List<Field> fields = root.getSchema().getFields();
+			final int ncol = fields.size();
+
+			// convert all batches, and concatenate them if there are multiple
+			List<Array<?>[]> batches = new ArrayList<>();
+			int nrow = 0;
+			while(reader.loadNextBatch()) {
+				Array<?>[] cols = new Array<?>[ncol];
+				for(int j = 0; j < ncol; j++)
+					cols[j] = toFrameArray(root.getVector(j));
+				batches.add(cols);
+				nrow += root.getRowCount();
+			}
+
+			String[] names = new String[ncol];
+			ValueType[] schema = new ValueType[ncol];
+			for(int j = 0; j < ncol; j++) {
+				names[j] = fields.get(j).getName();
+				schema[j] = batches.isEmpty() ? getValueType(fields.get(j).getType()) : batches.get(0)[j]
+					.getValueType();
+			}
+			FrameBlock ret = new FrameBlock(schema, names);
+			if(nrow == 0)
+				return ret;
+			ret.setNumRows(nrow);
+			for(int j = 0; j < ncol; j++)
+				ret.setColumn(j, combine(batches, j, schema[j], nrow));
+			return ret;
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException("Failed to read arrow frame from " + fname, ex);
+		}
+	}
+
+	public static void convertFBToArrow(FrameBlock fb, String fname) {
+		final int nrow = fb.getNumRows();
+		final int ncol = fb.getNumColumns();
+		final ValueType[] schema = fb.getSchema();
+		List<Field> fields = new ArrayList<>(ncol);
+		for(int j = 0; j < ncol; j++)
+			fields.add(Field.nullable(fb.getColumnName(j), getArrowType(schema[j])));
+
+		try(BufferAllocator alloc = new RootAllocator();
+			VectorSchemaRoot root = VectorSchemaRoot.create(new Schema(fields), alloc);
+			FileChannel channel = FileChannel.open(Paths.get(fname), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			ArrowFileWriter writer = new ArrowFileWriter(root, null, channel)) {
+			for(int j = 0; j < ncol; j++)
+				fromFrameArray(nrow > 0 ? fb.getColumn(j) : null, schema[j], root.getVector(j), nrow);
+			root.setRowCount(nrow);
+			writer.start();
+			writer.writeBatch();
+			writer.end();
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException("Failed to write arrow frame to " + fname, ex);
+		}
+	}
+
+	private static double[] toDoubleArray(FieldVector vec) {
+		final int n = vec.getValueCount();
+		double[] ret = new double[n];
+		if(vec instanceof Float8Vector) {
+			// bulk copy of the little-endian data buffer
+			if(n > 0)
+				vec.getDataBuffer().nioBuffer(0, n * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(ret);
+			if(vec.getNullCount() > 0)
+				for(int i = 0; i < n; i++)
+					if(vec.isNull(i))
+						ret[i] = Double.NaN;
+		}
+		else if(vec instanceof FloatingPointVector) {
+			FloatingPointVector fvec = (FloatingPointVector) vec;
+			for(int i = 0; i < n; i++)
+				ret[i] = vec.isNull(i) ? Double.NaN : fvec.getValueAsDouble(i);
+		}
+		else if(vec instanceof BaseIntVector) {
+			BaseIntVector ivec = (BaseIntVector) vec;
+			for(int i = 0; i < n; i++)
+				ret[i] = vec.isNull(i) ? Double.NaN : ivec.getValueAsLong(i);
+		}
+		else if(vec instanceof BitVector) {
+			BitVector bvec = (BitVector) vec;
+			for(int i = 0; i < n; i++)
+				ret[i] = vec.isNull(i) ? Double.NaN : bvec.get(i);
+		}
+		else
+			throw new DMLRuntimeException("Unsupported arrow type for matrix data: " + vec.getField().getType());
+		return ret;
+	}
+
+	private static void copyToDense(double[] src, DenseBlock db, long off, int clen) {
+		int pos = 0;
+		while(pos < src.length) {
+			final int r = (int) ((off + pos) / clen);
+			final int c = (int) ((off + pos) % clen);
+			final int len = Math.min(clen - c, src.length - pos);
+			System.arraycopy(src, pos, db.values(r), db.pos(r) + c, len);
+			pos += len;
+		}
+	}
+
+	private static void copyDenseRows(DenseBlock db, Float8Vector vec, int rl, int ru, int clen) {
+		DoubleBuffer buf = vec.getDataBuffer().nioBuffer(0, (ru - rl) * clen * 8).order(ByteOrder.LITTLE_ENDIAN)
+			.asDoubleBuffer();
+		for(int i = rl; i < ru; i++)
+			buf.put(db.values(i), db.pos(i), clen);
+	}
+
+	private static void copySparseRows(SparseBlock sb, Float8Vector vec, int rl, int ru, int clen) {
+		for(int i = rl; i < ru; i++) {
+			if(sb.isEmpty(i))
+				continue;
+			final int apos = sb.pos(i);
+			final int alen = sb.size(i);
+			final int[] aix = sb.indexes(i);
+			final double[] avals = sb.values(i);
+			final int off = (i - rl) * clen;
+			for(int k = apos; k < apos + alen; k++)
+				vec.set(off + aix[k], avals[k]);
+		}
+	}
+
+	private static Array<?> toFrameArray(FieldVector vec) {
+		final int n = vec.getValueCount();
+		if(vec instanceof Float8Vector) {
+			Float8Vector v = (Float8Vector) vec;
+			double[] ret = new double[n];
+			for(int i = 0; i < n; i++)
+				ret[i] = v.isNull(i) ? Double.NaN : v.get(i);
+			return ArrayFactory.create(ret);
+		}
+		else if(vec instanceof Float4Vector) {
+			Float4Vector v = (Float4Vector) vec;
+			float[] ret = new float[n];
+			for(int i = 0; i < n; i++)
+				ret[i] = v.isNull(i) ? Float.NaN : v.get(i);
+			return ArrayFactory.create(ret);
+		}
+		else if(vec instanceof BigIntVector) {
+			BigIntVector v = (BigIntVector) vec;
+			long[] ret = new long[n];
+			for(int i = 0; i < n; i++)
+				ret[i] = v.isNull(i) ? 0 : v.get(i);
+			return ArrayFactory.create(ret);
+		}
+		else if(vec instanceof BaseIntVector && getValueType(vec.getField().getType()) == ValueType.INT64) {
+			// uint32 and uint64, which do not fit into int32
+			BaseIntVector v = (BaseIntVector) vec;
+			long[] ret = new long[n];
+			for(int i = 0; i < n; i++)
+				ret[i] = vec.isNull(i) ? 0 : v.getValueAsLong(i);
+			return ArrayFactory.create(ret);
+		}
+		else if(vec instanceof BaseIntVector) {
+			// int32 and all narrower integer types
+			BaseIntVector v = (BaseIntVector) vec;
+			int[] ret = new int[n];
+			for(int i = 0; i < n; i++)
+				ret[i] = vec.isNull(i) ? 0 : (int) v.getValueAsLong(i);
+			return ArrayFactory.create(ret);
+		}
+		else if(vec instanceof BitVector) {
+			BitVector v = (BitVector) vec;
+			boolean[] ret = new boolean[n];
+			for(int i = 0; i < n; i++)
+				ret[i] = !v.isNull(i) && v.get(i) == 1;
+			return ArrayFactory.create(ret);
+		}
+		else if(vec instanceof VarCharVector) {
+			VarCharVector v = (VarCharVector) vec;
+			String[] ret = new String[n];
+			for(int i = 0; i < n; i++)
+				ret[i] = v.isNull(i) ? null : new String(v.get(i), StandardCharsets.UTF_8);
+			return ArrayFactory.create(ret);
+		}
+		else {
+			// fallback for other types such as timestamps or dates
+			String[] ret = new String[n];
+			for(int i = 0; i < n; i++) {
+				Object o = vec.getObject(i);
+				ret[i] = (o == null) ? null : o.toString();
+			}
+			return ArrayFactory.create(ret);
+		}
+	}
+
+	private static void fromFrameArray(Array<?> col, ValueType vt, FieldVector vec, int nrow) {
+		vec.setInitialCapacity(nrow);
+		vec.allocateNew();
+		if(col != null) {
+			switch(vt) {
+				case FP64: {
+					Float8Vector v = (Float8Vector) vec;
+					for(int i = 0; i < nrow; i++)
+						v.set(i, (Double) col.get(i));
+					break;
+				}
+				case FP32: {
+					Float4Vector v = (Float4Vector) vec;
+					for(int i = 0; i < nrow; i++)
+						v.set(i, (Float) col.get(i));
+					break;
+				}
+				case INT64: {
+					BigIntVector v = (BigIntVector) vec;
+					for(int i = 0; i < nrow; i++)
+						v.set(i, (Long) col.get(i));
+					break;
+				}
+				case UINT8:
+				case INT32: {
+					IntVector v = (IntVector) vec;
+					for(int i = 0; i < nrow; i++)
+						v.set(i, (Integer) col.get(i));
+					break;
+				}
+				case BOOLEAN: {
+					BitVector v = (BitVector) vec;
+					for(int i = 0; i < nrow; i++)
+						v.set(i, ((Boolean) col.get(i)) ? 1 : 0);
+					break;
+				}
+				default: {
+					VarCharVector v = (VarCharVector) vec;
+					for(int i = 0; i < nrow; i++) {
+						Object o = col.get(i);
+						if(o == null)
+							v.setNull(i);
+						else
+							v.setSafe(i, o.toString().getBytes(StandardCharsets.UTF_8));
+					}
+				}
+			}
+		}
+		vec.setValueCount(nrow);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Array<?> combine(List<Array<?>[]> batches, int col, ValueType vt, int nrow) {
+		if(batches.size() == 1)
+			return batches.get(0)[col];
+		Array<Object> ret = (Array<Object>) ArrayFactory.allocate(vt, nrow);
+		int off = 0;
+		for(Array<?>[] batch : batches) {
+			Array<Object> tmp = (Array<Object>) batch[col];
+			if(tmp.size() > 0)
+				ret.set(off, off + tmp.size() - 1, tmp);
+			off += tmp.size();
+		}
+		return ret;
+	}
+
+	private static ArrowType getArrowType(ValueType vt) {
+		switch(vt) {
+			case FP64:
+				return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+			case FP32:
+				return new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+			case INT64:
+				return new ArrowType.Int(64, true);
+			case UINT8:
+			case INT32:
+				return new ArrowType.Int(32, true);
+			case BOOLEAN:
+				return ArrowType.Bool.INSTANCE;
+			default:
+				return ArrowType.Utf8.INSTANCE;
+		}
+	}
+
+	private static ValueType getValueType(ArrowType type) {
+		switch(type.getTypeID()) {
+			case FloatingPoint:
+				return ((ArrowType.FloatingPoint) type).getPrecision() == FloatingPointPrecision.DOUBLE ?
+					ValueType.FP64 : ValueType.FP32;
+			case Int: {
+				// 64-bit and unsigned 32-bit integers do not fit into int32
+				ArrowType.Int itype = (ArrowType.Int) type;
+				return (itype.getBitWidth() == 64 || (itype.getBitWidth() == 32 && !itype.getIsSigned())) ?
+					ValueType.INT64 : ValueType.INT32;
+			}
+			case Bool:
+				return ValueType.BOOLEAN;
+			default:
+				return ValueType.STRING;
+		}
+	}
+}
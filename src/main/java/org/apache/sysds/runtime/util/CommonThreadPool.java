@@ -21,6 +21,7 @@ package org.apache.sysds.runtime.util;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -32,6 +33,7 @@ import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.lang.NotImplementedException;
 import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.BufferPoolSession;
 import org.apache.sysds.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 
 /**
@@ -39,6 +41,7 @@ import org.apache.sysds.runtime.controlprogram.parfor.stat.InfrastructureAnalyze
  * thread pool, specifically the ForkJoinPool.commonPool, for all requests
  * of the maximum degree of parallelism. If pools of different size are
  * requested, we create new pool instances of FixedThreadPool.
+ * Submitted tasks run with the buffer pool session of the submitting thread.
  */
 public class CommonThreadPool implements ExecutorService
 {
@@ -101,33 +104,40 @@ public class CommonThreadPool implements ExecutorService
 
 	@Override
 	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
-		return _pool.invokeAll(tasks);
+		return _pool.invokeAll(wrap(tasks));
 	}
 
 	@Override
 	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
 			throws InterruptedException {
-		return _pool.invokeAll(tasks, timeout, unit);
+		return _pool.invokeAll(wrap(tasks), timeout, unit);
 	}
 	
 	@Override
 	public void execute(Runnable command) {
-		_pool.execute(command);
+		_pool.execute(BufferPoolSession.wrap(command));
 	}
 
 	@Override
 	public <T> Future<T> submit(Callable<T> task) {
-		return _pool.submit(task);
+		return _pool.submit(BufferPoolSession.wrap(task));
 	}
 
 	@Override
 	public <T> Future<T> submit(Runnable task, T result) {
-		return _pool.submit(task, result);
+		return _pool.submit(BufferPoolSession.wrap(task), result);
 	}
 
 	@Override
 	public Future<?> submit(Runnable task) {
-		return _pool.submit(task);
+		return _pool.submit(BufferPoolSession.wrap(task));
+	}
+
+	private static <T> Collection<? extends Callable<T>> wrap(Collection<? extends Callable<T>> tasks) {
+		//propagate the buffer pool session of the calling thread (e.g., of a federated coordinator)
+		if( BufferPoolSession.getCurrent() == null )
+			return tasks;
+		return tasks.stream().map(t -> BufferPoolSession.wrap(t)).collect(Collectors.toList());
 	}
 
 	
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Utilities for the explicit deallocation of direct and memory-mapped
+ * byte buffers, which are otherwise only released on garbage collection.
+ */
+public class DirectBufferUtils
+{
+	private static final Log LOG = LogFactory.getLog(DirectBufferUtils.class.getName());
+
+	//reflective handle to unsafe.invokeCleaner (available since Java 9)
+	private static final Object UNSAFE;
+	private static final Method INVOKE_CLEANER;
+
+	static {
+		Object unsafe = null;
+		Method cleaner = null;
+		try {
+			Class<?> clazz = Class.forName("sun.misc.Unsafe");
+			Field f = clazz.getDeclaredField("theUnsafe");
+			f.setAccessible(true);
+			unsafe = f.get(null);
+			cleaner = clazz.getMethod("invokeCleaner", ByteBuffer.class);
+		}
+		catch(Exception ex) {
+			//fall back to deallocation on garbage collection
+			LOG.debug("Explicit release of direct buffers not supported: " + ex.getMessage());
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = cleaner;
+	}
+
+	/**
+	 * Releases the memory of the given direct or memory-mapped byte buffer.
+	 * The buffer (and all its views) must not be accessed afterwards.
+	 * 
+	 * @param buff direct byte buffer
+	 */
+	public static void free(ByteBuffer buff) {
+		if( buff == null || !buff.isDirect() || INVOKE_CLEANER == null )
+			return;
+		try {
+			INVOKE_CLEANER.invoke(UNSAFE, buff);
+		}
+		catch(Exception ex) {
+			LOG.debug("Failed to release direct buffer: " + ex.getMessage());
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive double keys to primitive long values,
+ * with entries stored in insertion order (see {@link StringLongHashMap}). Keys are
+ * compared by their bit representation, which means that NaN is a valid key, and
+ * 0.0 and -0.0 are distinct keys.
+ */
+public class DoubleLongHashMap
+{
+	private static final float LOAD_FACTOR = 0.5f;
+
+	// hash table of entry positions (+1, 0 indicates empty slot)
+	private int[] _table;
+	// dense arrays of keys and values in insertion order
+	private long[] _keys;
+	private long[] _values;
+	private int _size;
+
+	public DoubleLongHashMap() {
+		this(16);
+	}
+
+	public DoubleLongHashMap(int capacity) {
+		int tlen = Integer.highestOneBit(Math.max((int) (capacity / LOAD_FACTOR), 8) * 2 - 1);
+		_table = new int[tlen];
+		_keys = new long[Math.max(capacity, 4)];
+		_values = new long[Math.max(capacity, 4)];
+		_size = 0;
+	}
+
+	public int size() {
+		return _size;
+	}
+
+	public boolean containsKey(double key) {
+		return indexOf(Double.doubleToLongBits(key)) >= 0;
+	}
+
+	public long get(double key, long def) {
+		int ix = indexOf(Double.doubleToLongBits(key));
+		return (ix >= 0) ? _values[ix] : def;
+	}
+
+	public void put(double key, long value) {
+		final long bits = Double.doubleToLongBits(key);
+		final int slot = probe(bits);
+		if(_table[slot] != 0)
+			_values[_table[slot] - 1] = value;
+		else
+			insert(slot, bits, value);
+	}
+
+	/**
+	 * Put the given key-value pair if the key does not exist yet (single probe).
+	 * 
+	 * @param key   the key
+	 * @param value the value
+	 * @return true if the key was inserted
+	 */
+	public boolean putIfAbsent(double key, long value) {
+		final long bits = Double.doubleToLongBits(key);
+		final int slot = probe(bits);
+		if(_table[slot] != 0)
+			return false;
+		insert(slot, bits, value);
+		return true;
+	}
+
+	public double getKey(int pos) {
+		return Double.longBitsToDouble(_keys[pos]);
+	}
+
+	public long getValue(int pos) {
+		return _values[pos];
+	}
+
+	public void clear() {
+		Arrays.fill(_table, 0);
+		_size = 0;
+	}
+
+	private int indexOf(long bits) {
+		return _table[probe(bits)] - 1;
+	}
+
+	private int probe(long bits) {
+		final int mask = _table.length - 1;
+		int slot = hash(bits) & mask;
+		int pos;
+		while((pos = _table[slot]) != 0) {
+			if(_keys[pos - 1] == bits)
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void insert(int slot, long bits, long value) {
+		if(_size == _keys.length) {
+			_keys = Arrays.copyOf(_keys, _size * 2);
+			_values = Arrays.copyOf(_values, _size * 2);
+		}
+		_keys[_size] = bits;
+		_values[_size] = value;
+		_table[slot] = ++_size;
+		if(_size > _table.length * LOAD_FACTOR)
+			rehash();
+	}
+
+	private void rehash() {
+		_table = new int[_table.length * 2];
+		final int mask = _table.length - 1;
+		for(int i = 0; i < _size; i++) {
+			int slot = hash(_keys[i]) & mask;
+			while(_table[slot] != 0)
+				slot = (slot + 1) & mask;
+			_table[slot] = i + 1;
+		}
+	}
+
+	private static int hash(long bits) {
+		// mix all bits, as integer-valued doubles only differ in the upper bits
+		long h = bits * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
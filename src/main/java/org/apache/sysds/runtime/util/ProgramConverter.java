@@ -862,6 +862,32 @@ public class ProgramConverter
 		return rSerializeFunctionProgramBlocks(prog, cand, clsMap);
 	}
 
+	/**
+	 * Serializes a complete runtime program, i.e., all function program blocks
+	 * and the top-level program blocks, for instance, to persist compiled plans.
+	 * 
+	 * @param prog runtime program
+	 * @param clsMap map of generated classes, populated during serialization
+	 * @return serialized program
+	 */
+	public static String serializeRuntimeProgram(Program prog, HashMap<String, byte[]> clsMap) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(PROG_BEGIN);
+		sb.append(NEWLINE);
+		sb.append(rSerializeFunctionProgramBlocks(prog,
+			new HashSet<>(prog.getFunctionProgramBlocks().keySet()), clsMap));
+		sb.append(PROG_END);
+		sb.append(NEWLINE);
+		sb.append(COMPONENTS_DELIM);
+		sb.append(NEWLINE);
+		sb.append(PBS_BEGIN);
+		sb.append(NEWLINE);
+		sb.append(rSerializeProgramBlocks(prog.getProgramBlocks(), clsMap));
+		sb.append(PBS_END);
+		sb.append(NEWLINE);
+		return sb.toString();
+	}
+
 	private static void rFindSerializationCandidates( ArrayList<ProgramBlock> pbs, HashSet<String> cand)
 	{
 		for( ProgramBlock pb : pbs )
@@ -1380,6 +1406,23 @@ public class ProgramConverter
 		return prog;
 	}
 
+	/**
+	 * Parses a complete runtime program, serialized via
+	 * {@link #serializeRuntimeProgram(Program, HashMap)}. Generated classes
+	 * need to be loaded into the codegen class cache beforehand.
+	 * 
+	 * @param in serialized program
+	 * @return runtime program
+	 */
+	public static Program parseRuntimeProgram(String in) {
+		String tmpin = in.replaceAll(NEWLINE, ""); //normalization
+		HierarchyAwareStringTokenizer st = new HierarchyAwareStringTokenizer(tmpin, COMPONENTS_DELIM);
+		Program prog = parseProgram(st.nextToken(), 0);
+		for( ProgramBlock pb : rParseProgramBlocks(st.nextToken(), prog, 0) )
+			prog.addProgramBlock(pb);
+		return prog;
+	}
+
 	private static LocalVariableMap parseVariables(String in) {
 		LocalVariableMap ret = null;
 		if( in.length()> VARS_BEGIN.length() + VARS_END.length()) {
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Open-addressing hash map from String keys to primitive long values, which avoids
+ * the boxing of values and the allocation of an entry object per key as in
+ * HashMap&lt;String,Long&gt;. Keys and values are stored in insertion order in dense
+ * arrays, while the hash table (linear probing) only stores the cached hash and the
+ * position of the entry. Entries can be accessed by position in insertion order.
+ * 
+ * This map does not support removal of individual keys and null keys.
+ */
+public class StringLongHashMap
+{
+	private static final float LOAD_FACTOR = 0.5f;
+
+	// hash table of entry positions (+1, 0 indicates empty slot)
+	private int[] _table;
+	// dense arrays of hashes, keys, and values in insertion order
+	private int[] _hashes;
+	private String[] _keys;
+	private long[] _values;
+	private int _size;
+
+	public StringLongHashMap() {
+		this(16);
+	}
+
+	public StringLongHashMap(int capacity) {
+		int tlen = Integer.highestOneBit(Math.max((int) (capacity / LOAD_FACTOR), 8) * 2 - 1);
+		_table = new int[tlen];
+		_hashes = new int[Math.max(capacity, 4)];
+		_keys = new String[Math.max(capacity, 4)];
+		_values = new long[Math.max(capacity, 4)];
+		_size = 0;
+	}
+
+	public StringLongHashMap(Map<String, Long> map) {
+		this(map.size());
+		for(Entry<String, Long> e : map.entrySet())
+			put(e.getKey(), e.getValue());
+	}
+
+	public int size() {
+		return _size;
+	}
+
+	public boolean isEmpty() {
+		return _size == 0;
+	}
+
+	public boolean containsKey(String key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * Get the value of the given key.
+	 * 
+	 * @param key the key
+	 * @param def default value if the key does not exist
+	 * @return value or default value
+	 */
+	public long get(String key, long def) {
+		int ix = indexOf(key);
+		return (ix >= 0) ? _values[ix] : def;
+	}
+
+	/**
+	 * Put the given key-value pair, and overwrite the value of an existing key.
+	 * 
+	 * @param key   the key
+	 * @param value the value
+	 */
+	public void put(String key, long value) {
+		final int h = hash(key);
+		final int slot = probe(key, h);
+		if(_table[slot] != 0)
+			_values[_table[slot] - 1] = value;
+		else
+			insert(slot, key, h, value);
+	}
+
+	/**
+	 * Put the given key-value pair if the key does not exist yet (single probe).
+	 * 
+	 * @param key   the key
+	 * @param value the value
+	 * @return true if the key was inserted
+	 */
+	public boolean putIfAbsent(String key, long value) {
+		final int h = hash(key);
+		final int slot = probe(key, h);
+		if(_table[slot] != 0)
+			return false;
+		insert(slot, key, h, value);
+		return true;
+	}
+
+	/**
+	 * Get the key at the given position in insertion order.
+	 * 
+	 * @param pos position in [0, size)
+	 * @return the key
+	 */
+	public String getKey(int pos) {
+		return _keys[pos];
+	}
+
+	/**
+	 * Get the value at the given position in insertion order.
+	 * 
+	 * @param pos position in [0, size)
+	 * @return the value
+	 */
+	public long getValue(int pos) {
+		return _values[pos];
+	}
+
+	public String[] getKeys() {
+		return Arrays.copyOf(_keys, _size);
+	}
+
+	public Set<String> keySet() {
+		Set<String> ret = new HashSet<>();
+		for(int i = 0; i < _size; i++)
+			ret.add(_keys[i]);
+		return ret;
+	}
+
+	public HashMap<String, Long> toHashMap() {
+		HashMap<String, Long> ret = new HashMap<>();
+		for(int i = 0; i < _size; i++)
+			ret.put(_keys[i], _values[i]);
+		return ret;
+	}
+
+	public void clear() {
+		Arrays.fill(_table, 0);
+		Arrays.fill(_keys, 0, _size, null);
+		_size = 0;
+	}
+
+	private int indexOf(String key) {
+		final int h = hash(key);
+		final int slot = probe(key, h);
+		return _table[slot] - 1;
+	}
+
+	private int probe(String key, int h) {
+		final int mask = _table.length - 1;
+		int slot = h & mask;
+		int pos;
+		while((pos = _table[slot]) != 0) {
+			if(_hashes[pos - 1] == h && key.equals(_keys[pos - 1]))
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void insert(int slot, String key, int h, long value) {
+		if(_size == _keys.length) {
+			int len = _size * 2;
+			_hashes = Arrays.copyOf(_hashes, len);
+			_keys = Arrays.copyOf(_keys, len);
+			_values = Arrays.copyOf(_values, len);
+		}
+		_hashes[_size] = h;
+		_keys[_size] = key;
+		_values[_size] = value;
+		_table[slot] = ++_size;
+		if(_size > _table.length * LOAD_FACTOR)
+			rehash();
+	}
+
+	private void rehash() {
+		_table = new int[_table.length * 2];
+		final int mask = _table.length - 1;
+		for(int i = 0; i < _size; i++) {
+			int slot = _hashes[i] & mask;
+			while(_table[slot] != 0)
+				slot = (slot + 1) & mask;
+			_table[slot] = i + 1;
+		}
+	}
+
+	private static int hash(String key) {
+		// spread higher bits, as String hash codes are weak in the lower bits
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(this == o)
+			return true;
+		if(!(o instanceof StringLongHashMap))
+			return false;
+		StringLongHashMap that = (StringLongHashMap) o;
+		if(_size != that._size)
+			return false;
+		for(int i = 0; i < _size; i++) {
+			int ix = that.indexOf(_keys[i]);
+			if(ix < 0 || that._values[ix] != _values[i])
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		// order-independent as for java.util.Map
+		int h = 0;
+		for(int i = 0; i < _size; i++)
+			h += _keys[i].hashCode() ^ Long.hashCode(_values[i]);
+		return h;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(getClass().getSimpleName());
+		sb.append("{");
+		for(int i = 0; i < _size; i++) {
+			if(i > 0)
+				sb.append(", ");
+			sb.append(_keys[i]).append("=").append(_values[i]);
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+}
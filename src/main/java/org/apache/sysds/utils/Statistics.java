@@ -31,8 +31,10 @@ import org.apache.sysds.runtime.instructions.Instruction;
 import org.apache.sysds.runtime.instructions.InstructionUtils;
 import org.apache.sysds.runtime.instructions.cp.FunctionCallCPInstruction;
 import org.apache.sysds.runtime.instructions.spark.SPInstruction;
+import org.apache.sysds.runtime.lineage.LineageCacheAdmission;
 import org.apache.sysds.runtime.lineage.LineageCacheConfig.ReuseCacheType;
 import org.apache.sysds.runtime.lineage.LineageCacheStatistics;
+import org.apache.sysds.runtime.lineage.LineagePersistentCache;
 import org.apache.sysds.runtime.privacy.CheckedConstraintsLog;
 import org.apache.sysds.utils.stats.CodegenStatistics;
 import org.apache.sysds.utils.stats.RecompileStatistics;
@@ -626,6 +628,10 @@ public class Statistics
 			sb.append("Cache hits (Mem/Li/WB/FS/HDFS):\t" + CacheStatistics.displayHits() + ".\n");
 			sb.append("Cache writes (Li/WB/FS/HDFS):\t" + CacheStatistics.displayWrites() + ".\n");
 			sb.append("Cache times (ACQr/m, RLS, EXP):\t" + CacheStatistics.displayTime() + " sec.\n");
+			if( CacheStatistics.getOffHeapWrites() > 0 )
+				sb.append("Cache off-heap (Wr/Hits/Bytes):\t" + CacheStatistics.displayOffHeap() + ".\n");
+			if( CacheStatistics.getProjectionHits() > 0 )
+				sb.append("Cache projection hits:\t\t" + CacheStatistics.getProjectionHits() + ".\n");
 			if (DMLScript.JMLC_MEM_STATISTICS)
 				sb.append("Max size of live objects:\t" + byteCountToDisplaySize(getSizeofPinnedObjects()) + " ("  + getNumPinnedObjects() + " total objects)" + "\n");
 
@@ -643,6 +649,11 @@ public class Statistics
 				sb.append("LinCache FStimes (Rd/Wr): \t" + LineageCacheStatistics.displayFSTime() + " sec.\n");
 				sb.append("LinCache Computetime (S/M): \t" + LineageCacheStatistics.displayComputeTime() + " sec.\n");
 				sb.append("LinCache Rewrites:    \t\t" + LineageCacheStatistics.displayRewrites() + ".\n");
+				sb.append("LinCache contention (LF/Lck/Wt):" + LineageCacheStatistics.displayContention() + " sec.\n");
+				if (LineageCacheAdmission.isEnabled())
+					sb.append("LinCache admission (Adm/Rej):\t" + LineageCacheStatistics.displayAdmission() + ".\n");
+				if (LineagePersistentCache.isEnabled())
+					sb.append("LinCache persist (Hit/Wr/Inv):\t" + LineageCacheStatistics.displayPersistStats() + ".\n");
 			}
 
 			if( ConfigurationManager.isCodegenEnabled() )
@@ -35,6 +35,8 @@ public class CodegenStatistics {
 	private static final LongAdder opCacheTotal = new LongAdder(); //count
 	private static final LongAdder planCacheHits = new LongAdder(); //count
 	private static final LongAdder planCacheTotal = new LongAdder(); //count
+	private static final LongAdder persistHits = new LongAdder(); //count
+	private static final LongAdder persistMisses = new LongAdder(); //count
 
 
 	public static void incrementDAGCompile() {
@@ -86,6 +88,14 @@ public class CodegenStatistics {
 		planCacheTotal.increment();
 	}
 
+	public static void incrementPersistHits() {
+		persistHits.increment();
+	}
+
+	public static void incrementPersistMisses() {
+		persistMisses.increment();
+	}
+
 	public static long getDAGCompile() {
 		return hopCompile.longValue();
 	}
@@ -138,6 +148,14 @@ public class CodegenStatistics {
 		return planCacheTotal.longValue();
 	}
 
+	public static long getPersistHits() {
+		return persistHits.longValue();
+	}
+
+	public static long getPersistMisses() {
+		return persistMisses.longValue();
+	}
+
 	public static void reset() {
 		hopCompile.reset();
 		cPlanCompile.reset();
@@ -152,6 +170,8 @@ public class CodegenStatistics {
 		opCacheTotal.reset();
 		planCacheHits.reset();
 		planCacheTotal.reset();
+		persistHits.reset();
+		persistMisses.reset();
 	}
 
 	public static String displayStatistics() {
@@ -164,6 +184,9 @@ public class CodegenStatistics {
 				String.format("%.3f", (double)getClassCompileTime()/1000000000)  + " sec.\n");
 		sb.append("Codegen enum plan cache hits:\t" + getPlanCacheHits() + "/" + getPlanCacheTotal() + ".\n");
 		sb.append("Codegen op plan cache hits:\t" + getOpCacheHits() + "/" + getOpCacheTotal() + ".\n");
+		if( getPersistHits() + getPersistMisses() > 0 )
+			sb.append("Codegen persist cache hits:\t" + getPersistHits() + "/"
+				+ (getPersistHits() + getPersistMisses()) + ".\n");
 		return sb.toString();
 	}
 }
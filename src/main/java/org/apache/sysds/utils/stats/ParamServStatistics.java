@@ -36,6 +36,11 @@ public class ParamServStatistics {
 	private static final LongAdder batchIndexTime = new LongAdder();
 	private static final LongAdder rpcRequestTime = new LongAdder();
 	private static final LongAdder validationTime = new LongAdder();
+	private static final LongAdder asyncAggregationCount = new LongAdder();
+	private static final LongAdder asyncUpdateCount = new LongAdder();
+	// gradient compression (bytes of pushed gradients before and after compression)
+	private static final LongAdder gradBytesRaw = new LongAdder();
+	private static final LongAdder gradBytesCompressed = new LongAdder();
 	// Federated parameter server specifics (time is in milli sec)
 	private static final LongAdder fedDataPartitioningTime = new LongAdder();
 	private static final LongAdder fedWorkerComputingTime = new LongAdder();
@@ -98,6 +103,32 @@ public class ParamServStatistics {
 		rpcRequestTime.add(t);
 	}
 
+	public static void incAsyncAggregation(long numUpdates) {
+		asyncAggregationCount.increment();
+		asyncUpdateCount.add(numUpdates);
+	}
+
+	public static long getAsyncAggregationCount() {
+		return asyncAggregationCount.longValue();
+	}
+
+	public static long getAsyncUpdateCount() {
+		return asyncUpdateCount.longValue();
+	}
+
+	public static void accGradientBytes(long raw, long compressed) {
+		gradBytesRaw.add(raw);
+		gradBytesCompressed.add(compressed);
+	}
+
+	public static long getGradientBytesRaw() {
+		return gradBytesRaw.longValue();
+	}
+
+	public static long getGradientBytesCompressed() {
+		return gradBytesCompressed.longValue();
+	}
+
 	public static double getValidationTime() {
 		return validationTime.doubleValue();
 	}
@@ -161,6 +192,10 @@ public class ParamServStatistics {
 		batchIndexTime.reset();
 		rpcRequestTime.reset();
 		validationTime.reset();
+		asyncAggregationCount.reset();
+		asyncUpdateCount.reset();
+		gradBytesRaw.reset();
+		gradBytesCompressed.reset();
 		fedDataPartitioningTime.reset();
 		fedWorkerComputingTime.reset();
 		fedGradientWeightingTime.reset();
@@ -190,8 +225,14 @@ public class ParamServStatistics {
 					localModelUpdateTime.doubleValue() / 1000, aggregationTime.doubleValue() / 1000));
 				sb.append(String.format("Paramserv model broadcast time:\t%.3f secs.\n", modelBroadcastTime.doubleValue() / 1000));
 				sb.append(String.format("Paramserv batch slice time:\t%.3f secs.\n", batchIndexTime.doubleValue() / 1000));
+				if(asyncAggregationCount.longValue() > 0)
+					sb.append(String.format("Paramserv async agg (upd/agg):\t%d/%d.\n",
+						asyncUpdateCount.longValue(), asyncAggregationCount.longValue()));
 				sb.append(String.format("Paramserv RPC request time:\t%.3f secs.\n", rpcRequestTime.doubleValue() / 1000));
 			}
+			if(gradBytesRaw.longValue() > 0)
+				sb.append(String.format("Paramserv grad bytes (raw/comp):\t%d/%d.\n",
+					gradBytesRaw.longValue(), gradBytesCompressed.longValue()));
 			sb.append(String.format("Paramserv valdiation time:\t%.3f secs.\n", validationTime.doubleValue() / 1000));
 			return sb.toString();
 		}
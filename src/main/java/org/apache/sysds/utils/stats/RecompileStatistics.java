@@ -26,6 +26,10 @@ public class RecompileStatistics {
 	private static final LongAdder recompileTime = new LongAdder(); //in nano sec
 	private static final LongAdder recompilePred = new LongAdder(); //count
 	private static final LongAdder recompileSB = new LongAdder();   //count
+	private static final LongAdder cacheHits = new LongAdder();     //count
+	private static final LongAdder cacheMisses = new LongAdder();   //count
+	private static final LongAdder specSB = new LongAdder();        //count
+	private static final LongAdder specHits = new LongAdder();      //count
 
 
 	public static void incrementRecompileTime( long delta ) {
@@ -48,6 +52,22 @@ public class RecompileStatistics {
 		recompileSB.add(delta);
 	}
 
+	public static void incrementRecompileCacheHits() {
+		cacheHits.increment();
+	}
+
+	public static void incrementRecompileCacheMisses() {
+		cacheMisses.increment();
+	}
+
+	public static void incrementSpeculativeSB() {
+		specSB.increment();
+	}
+
+	public static void incrementSpeculativeHits() {
+		specHits.increment();
+	}
+
 	public static long getRecompileTime(){
 		return recompileTime.longValue();
 	}
@@ -60,15 +80,40 @@ public class RecompileStatistics {
 		return recompileSB.longValue();
 	}
 
+	public static long getRecompileCacheHits(){
+		return cacheHits.longValue();
+	}
+
+	public static long getRecompileCacheMisses(){
+		return cacheMisses.longValue();
+	}
+
+	public static long getSpeculativeSB(){
+		return specSB.longValue();
+	}
+
+	public static long getSpeculativeHits(){
+		return specHits.longValue();
+	}
+
 	public static void reset() {
 		recompileTime.reset();
 		recompilePred.reset();
 		recompileSB.reset();
+		cacheHits.reset();
+		cacheMisses.reset();
+		specSB.reset();
+		specHits.reset();
 	}
 
 	public static String displayStatistics() {
 		StringBuilder sb = new StringBuilder();
 		sb.append("HOP DAGs recompiled (PRED, SB):\t" + getRecompiledPredDAGs() + "/" + getRecompiledSBDAGs() + ".\n");
+		if( getRecompileCacheHits() + getRecompileCacheMisses() > 0 )
+			sb.append("HOP DAGs recompile cache hits:\t" + getRecompileCacheHits() + "/"
+				+ (getRecompileCacheHits() + getRecompileCacheMisses()) + ".\n");
+		if( getSpeculativeSB() > 0 )
+			sb.append("HOP DAGs speculative (SB, used):\t" + getSpeculativeSB() + "/" + getSpeculativeHits() + ".\n");
 		sb.append("HOP DAGs recompile time:\t" + String.format("%.3f", ((double)getRecompileTime())/1000000000) + " sec.\n");
 		return sb.toString();
 	}
@@ -70,6 +70,7 @@ setup(
     # Only include the systemds resources not generator and tests.
     packages=find_packages(include=["systemds"]),
     install_requires=REQUIRED_PACKAGES,
+    extras_require={'arrow': ['pyarrow >= 7.0.0']},
     include_package_data=True,
     python_requires='>=3.6',
     platforms=['Microsoft :: Windows', 'POSIX', 'Unix', 'MacOS'],
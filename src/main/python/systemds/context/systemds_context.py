@@ -155,7 +155,8 @@ class SystemDSContext(object):
         """Build the command line argument for the startup of the JVM
         :param port: The port address to use if -1 chose random port."""
 
-        command = ["java", "-cp"]
+        # the arrow data exchange requires access to direct buffers
+        command = ["java", "--add-opens=java.base/java.nio=ALL-UNNAMED", "-cp"]
         root = os.environ.get("SYSTEMDS_ROOT")
         if root == None:
             # If there is no systemds install default to use the PIP packaged java files.
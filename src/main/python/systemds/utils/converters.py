@@ -19,11 +19,57 @@
 #
 # -------------------------------------------------------------
 
+import os
+import tempfile
+import uuid
 
 import numpy as np
 import pandas as pd
 from py4j.java_gateway import JavaClass, JavaGateway, JavaObject, JVMView
 
+try:
+    import pyarrow as pa
+except ImportError:
+    pa = None
+
+# Minimum number of cells from which data is exchanged through Arrow IPC files
+# instead of byte arrays over the Py4J socket (if pyarrow is installed).
+ARROW_MIN_CELLS = 65536
+
+
+def _use_arrow(cells: int):
+    return pa is not None and cells >= ARROW_MIN_CELLS
+
+
+def _arrow_file():
+    """Returns a new file name for the Arrow IPC exchange, located in
+    shared memory if available."""
+    shm = "/dev/shm"
+    directory = shm if os.path.isdir(shm) and os.access(shm, os.W_OK) \
+        else tempfile.gettempdir()
+    return os.path.join(directory, "systemds_" + uuid.uuid4().hex + ".arrow")
+
+
+def _remove_file(path: str):
+    try:
+        os.remove(path)
+    except OSError:
+        pass
+
+
+def _write_arrow(path: str, table: "pa.Table"):
+    with pa.OSFile(path, "wb") as sink:
+        with pa.ipc.new_file(sink, table.schema) as writer:
+            writer.write_table(table)
+
+
+def _read_arrow(path: str):
+    # memory map the file such that numeric columns are not copied,
+    # except on windows which does not allow deleting mapped files
+    source = pa.OSFile(path, "rb") if os.name == "nt" else pa.memory_map(path, "r")
+    with source:
+        return pa.ipc.open_file(source).read_all()
+
 
 def numpy_to_matrix_block(sds: 'SystemDSContext', np_arr: np.array):
     """Converts a given numpy array, to internal matrix block representation.
@@ -41,6 +87,9 @@ def numpy_to_matrix_block(sds: 'SystemDSContext', np_arr: np.array):
 
     jvm: JVMView = sds.java_gateway.jvm
 
+    if _use_arrow(rows * cols):
+        return _numpy_to_matrix_block_arrow(sds, np_arr, rows, cols)
+
     # flatten and prepare byte buffer.
     if np_arr.dtype is np.dtype(np.uint8):
         arr = np_arr.ravel()
@@ -64,6 +113,24 @@ def numpy_to_matrix_block(sds: 'SystemDSContext', np_arr: np.array):
         sds.exception_and_close(e)
 
 
+def _numpy_to_matrix_block_arrow(sds: 'SystemDSContext', np_arr: np.array, rows: int, cols: int):
+    """Converts a numpy array to a matrix block through an Arrow IPC file."""
+    if np_arr.dtype not in (np.uint8, np.int32, np.float32, np.float64):
+        np_arr = np_arr.astype(np.float64)
+    data = pa.array(np.ascontiguousarray(np_arr).ravel())
+    schema = pa.schema([pa.field("data", data.type)],
+                       metadata={"rows": str(rows), "cols": str(cols)})
+    path = _arrow_file()
+    try:
+        _write_arrow(path, pa.Table.from_arrays([data], schema=schema))
+        j_class: JavaClass = sds.java_gateway.jvm.org.apache.sysds.runtime.util.ArrowConverterUtils
+        return j_class.convertArrowToMB(path)
+    except Exception as e:
+        sds.exception_and_close(e)
+    finally:
+        _remove_file(path)
+
+
 def matrix_block_to_numpy(jvm: JVMView, mb: JavaObject):
     """Converts a MatrixBlock object in the JVM to a numpy array.
 
@@ -72,6 +139,18 @@ def matrix_block_to_numpy(jvm: JVMView, mb: JavaObject):
     """
     num_ros = mb.getNumRows()
     num_cols = mb.getNumColumns()
+    if _use_arrow(num_ros * num_cols):
+        path = _arrow_file()
+        try:
+            jvm.org.apache.sysds.runtime.util.ArrowConverterUtils.convertMBToArrow(mb, path)
+            chunks = _read_arrow(path).column(0).chunks
+        finally:
+            _remove_file(path)
+        if len(chunks) == 1:
+            ret = chunks[0].to_numpy(zero_copy_only=False)
+        else:
+            ret = np.concatenate([c.to_numpy(zero_copy_only=False) for c in chunks])
+        return ret.reshape((num_ros, num_cols))
     buf = jvm.org.apache.sysds.runtime.util.Py4jConverterUtils.convertMBtoPy4JDenseArr(
         mb
     )
@@ -93,6 +172,11 @@ def pandas_to_frame_block(sds: "SystemDSContext", pd_df: pd.DataFrame):
     jvm: JVMView = sds.java_gateway.jvm
     java_gate: JavaGateway = sds.java_gateway
 
+    if _use_arrow(rows * cols):
+        fb = _pandas_to_frame_block_arrow(sds, pd_df)
+        if fb is not None:
+            return fb
+
     # pandas type mapping to systemds Valuetypes
     data_type_mapping = {
         np.dtype(np.object_): jvm.org.apache.sysds.common.Types.ValueType.STRING,
@@ -134,10 +218,40 @@ def pandas_to_frame_block(sds: "SystemDSContext", pd_df: pd.DataFrame):
         sds.exception_and_close(e)
 
 
+def _pandas_to_frame_block_arrow(sds: "SystemDSContext", pd_df: pd.DataFrame):
+    """Converts a pandas data frame to a frame block through an Arrow IPC
+    file, returns None if the data frame cannot be represented in Arrow."""
+    df = pd_df.copy(deep=False)
+    df.columns = [str(c) for c in df.columns]
+    for col_name, dtype in dict(df.dtypes).items():
+        if dtype == np.dtype("<M8[ns]"):
+            df[col_name] = df[col_name].astype(str)
+    try:
+        table = pa.Table.from_pandas(df, preserve_index=False)
+    except (pa.ArrowException, ValueError):
+        return None
+    path = _arrow_file()
+    try:
+        _write_arrow(path, table)
+        j_class: JavaClass = sds.java_gateway.jvm.org.apache.sysds.runtime.util.ArrowConverterUtils
+        return j_class.convertArrowToFB(path)
+    except Exception as e:
+        sds.exception_and_close(e)
+    finally:
+        _remove_file(path)
+
+
 def frame_block_to_pandas(sds: "SystemDSContext", fb: JavaObject):
 
     num_rows = fb.getNumRows()
     num_cols = fb.getNumColumns()
+    if _use_arrow(num_rows * num_cols):
+        path = _arrow_file()
+        try:
+            sds.java_gateway.jvm.org.apache.sysds.runtime.util.ArrowConverterUtils.convertFBToArrow(fb, path)
+            return _read_arrow(path).to_pandas()
+        finally:
+            _remove_file(path)
     data = []
     df = pd.DataFrame()
 
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.performance.caching;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysds.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.LocalFileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Contention of the buffer pool under concurrent parfor-like workers, which
+ * repeatedly write (dirty release), read (restore), and delete many small
+ * matrix blocks. The aggregate throughput across 1, 8, 32, and 64 threads
+ * indicates the scaling of the buffer pool bookkeeping. The pool limit is
+ * configured relative to the number of blocks in order to include evictions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BufferPoolContentionBenchmark
+{
+	@Param({"10x10", "100x100"})
+	public String shape;
+
+	//buffer pool capacity in number of blocks
+	@Param({"1000000", "64"})
+	public int capacity;
+
+	private MatrixBlock _mb;
+	private long _limit;
+
+	@State(Scope.Thread)
+	public static class Worker {
+		private String _fname;
+
+		@Setup(Level.Iteration)
+		public void setup() {
+			_fname = LocalFileUtils.getUniqueWorkingDir(LocalFileUtils.CATEGORY_CACHE);
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		String[] dims = shape.split("x");
+		_mb = MatrixBlock.randOperations(Integer.parseInt(dims[0]),
+			Integer.parseInt(dims[1]), 1.0, -1, 1, "uniform", 7);
+		CacheableData.initCaching("tmp_bufferpool_benchmark");
+		_limit = LazyWriteBuffer.getWriteBufferLimit();
+		LazyWriteBuffer.setWriteBufferLimit(Math.min(_limit,
+			LazyWriteBuffer.getCacheBlockSize(_mb) * capacity));
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown() throws Exception {
+		LazyWriteBuffer.setWriteBufferLimit(_limit);
+		CacheableData.cleanupCacheDir();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public CacheBlock<?> threads1(Worker w) throws Exception {
+		return pinUnpin(w);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public CacheBlock<?> threads8(Worker w) throws Exception {
+		return pinUnpin(w);
+	}
+
+	@Benchmark
+	@Threads(32)
+	public CacheBlock<?> threads32(Worker w) throws Exception {
+		return pinUnpin(w);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public CacheBlock<?> threads64(Worker w) throws Exception {
+		return pinUnpin(w);
+	}
+
+	private CacheBlock<?> pinUnpin(Worker w) throws Exception {
+		LazyWriteBuffer.writeBlock(w._fname, _mb);
+		CacheBlock<?> ret = LazyWriteBuffer.readBlock(w._fname, true);
+		LazyWriteBuffer.deleteBlock(w._fname);
+		return ret;
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.performance.compress;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlockFactory;
+import org.apache.sysds.runtime.compress.lib.CLALibMatrixMult;
+import org.apache.sysds.runtime.compress.lib.CLALibRightMultBy;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of compressed matrix-vector (X %*% v) and vector-matrix
+ * (t(y) %*% X) multiplications as used in LM/GLM solvers, compared to
+ * {@link LibMatrixMult} on the uncompressed input. The number of distinct
+ * values per column controls the mapping width of the DDC column groups
+ * (2: bit, 16/200: byte, 1000: char).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressedMatrixMultBenchmark
+{
+	@Param({"100000x10", "100000x100", "1000000x10"})
+	public String shape;
+
+	@Param({"2", "16", "200", "1000"})
+	public int distinct;
+
+	@Param({"1", "8"})
+	public int threads;
+
+	private MatrixBlock _x;
+	private MatrixBlock _cx;
+	private MatrixBlock _v;
+	private MatrixBlock _y;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		String[] parts = shape.toLowerCase().split("x");
+		int n = Integer.parseInt(parts[0]);
+		int m = Integer.parseInt(parts[1]);
+		_x = createCategorical(n, m, distinct, 7);
+		_cx = CompressedMatrixBlockFactory.compress(_x, threads).getLeft();
+		if( !(_cx instanceof CompressedMatrixBlock) )
+			throw new RuntimeException("Input not compressible: " + shape + " w/ " + distinct + " distinct");
+		_v = MatrixBlock.randOperations(m, 1, 1.0, -1, 1, "uniform", 13);
+		_y = MatrixBlock.randOperations(1, n, 1.0, -1, 1, "uniform", 17);
+	}
+
+	@Benchmark
+	public MatrixBlock mvUncompressed() {
+		return LibMatrixMult.matrixMult(_x, _v, threads);
+	}
+
+	@Benchmark
+	public MatrixBlock mvCompressed() {
+		//disallow overlapping outputs to include the decompression of the result vector
+		return CLALibRightMultBy.rightMultByMatrix((CompressedMatrixBlock) _cx, _v, null, threads, false);
+	}
+
+	@Benchmark
+	public MatrixBlock vmUncompressed() {
+		return LibMatrixMult.matrixMult(_y, _x, threads);
+	}
+
+	@Benchmark
+	public MatrixBlock vmCompressed() {
+		return CLALibMatrixMult.matrixMult(_y, _cx, null, threads);
+	}
+
+	private static MatrixBlock createCategorical(int rows, int cols, int distinct, long seed) {
+		//dense matrix of integer codes in [1, distinct], e.g., binned or recoded features
+		MatrixBlock mb = new MatrixBlock(rows, cols, false);
+		mb.allocateDenseBlock();
+		double[] vals = mb.getDenseBlockValues();
+		Random r = new Random(seed);
+		for( int i = 0; i < vals.length; i++ )
+			vals[i] = r.nextInt(distinct) + 1;
+		mb.recomputeNonZeros();
+		return mb;
+	}
+}
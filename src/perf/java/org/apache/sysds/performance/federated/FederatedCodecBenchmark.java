@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.performance.federated;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysds.runtime.controlprogram.federated.FederatedData.FederatedRequestEncoder;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedRequest;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedRequest.RequestType;
+import org.apache.sysds.runtime.controlprogram.federated.FederationUtils;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * Round-trip (encode and decode) throughput of federated request batches through the Netty pipeline, comparing
+ * java object serialization with the binary wire codec, for small control messages (an instruction string) and
+ * large broadcasts (a dense matrix of the given number of rows and 1000 columns).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FederatedCodecBenchmark
+{
+	@Param({"false", "true"})
+	public boolean binary;
+
+	@Param({"control", "broadcast"})
+	public String payload;
+
+	@Param({"1000"})
+	public int rows;
+
+	private FederatedRequest[] _request;
+	private EmbeddedChannel _out;
+	private EmbeddedChannel _in;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		if(payload.equals("control")) {
+			_request = new FederatedRequest[] {new FederatedRequest(RequestType.EXEC_INST, -1,
+				"CP°+°_mVar1·MATRIX·FP64°_mVar2·MATRIX·FP64°_mVar3·MATRIX·FP64°8")};
+		}
+		else {
+			MatrixBlock mb = MatrixBlock.randOperations(rows, 1000, 1.0, -1, 1, "uniform", 7);
+			_request = new FederatedRequest[] {new FederatedRequest(RequestType.PUT_VAR, 1, mb)};
+		}
+		_out = new EmbeddedChannel(new FederatedRequestEncoder(binary));
+		_in = new EmbeddedChannel(FederationUtils.decoder());
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown() {
+		_out.finishAndReleaseAll();
+		_in.finishAndReleaseAll();
+	}
+
+	@Benchmark
+	public Object roundTrip() {
+		_out.writeOutbound((Object) _request);
+		ByteBuf buf = _out.readOutbound();
+		_in.writeInbound(buf);
+		return _in.readInbound();
+	}
+}
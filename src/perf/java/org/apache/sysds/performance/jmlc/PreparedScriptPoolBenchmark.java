@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.performance.jmlc;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysds.api.jmlc.Connection;
+import org.apache.sysds.api.jmlc.PreparedScript;
+import org.apache.sysds.api.jmlc.PreparedScriptPool;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of concurrent JMLC scoring requests across 1, 8, 32, and 64
+ * callers, which score a small batch against a pinned model. The pooled
+ * mode uses a shared {@link PreparedScriptPool}, while the synchronized
+ * mode serializes all requests over a single {@link PreparedScript} (the
+ * alternative without cloning or re-preparing scripts per request).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreparedScriptPoolBenchmark
+{
+	private static final String SCRIPT =
+		  "X = read('tmp/X', rows=-1, cols=-1);"
+		+ "W = read('tmp/W', rows=-1, cols=-1);"
+		+ "P = exp(X %*% W);"
+		+ "P = P / rowSums(P);"
+		+ "out = rowIndexMax(P);"
+		+ "write(out, 'tmp/out');";
+	
+	@Param({"pooled", "synchronized"})
+	public String mode;
+	
+	//number of rows per scoring request
+	@Param({"1", "100"})
+	public int batch;
+	
+	private Connection _conn;
+	private PreparedScriptPool _pool;
+	private PreparedScript _pscript;
+	
+	@State(Scope.Thread)
+	public static class Request {
+		private MatrixBlock _X;
+		
+		@Setup(Level.Trial)
+		public void setup(PreparedScriptPoolBenchmark bench) {
+			_X = MatrixBlock.randOperations(bench.batch, 100, 1.0, -1, 1, "uniform", 7);
+		}
+	}
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		MatrixBlock W = MatrixBlock.randOperations(100, 10, 1.0, -1, 1, "uniform", 3);
+		String[] inputs = new String[] {"X", "W"};
+		String[] outputs = new String[] {"out"};
+		_conn = new Connection();
+		if( mode.equals("pooled") ) {
+			_pool = _conn.prepareScriptPool(SCRIPT, inputs, outputs, 64);
+			_pool.setPinnedInput("W", W);
+		}
+		else {
+			_pscript = _conn.prepareScript(SCRIPT, inputs, outputs);
+			_pscript.setMatrix("W", W, true);
+		}
+	}
+	
+	@TearDown(Level.Trial)
+	public void teardown() {
+		_conn.close();
+	}
+	
+	@Benchmark
+	@Threads(1)
+	public MatrixBlock threads1(Request r) {
+		return score(r);
+	}
+	
+	@Benchmark
+	@Threads(8)
+	public MatrixBlock threads8(Request r) {
+		return score(r);
+	}
+	
+	@Benchmark
+	@Threads(32)
+	public MatrixBlock threads32(Request r) {
+		return score(r);
+	}
+	
+	@Benchmark
+	@Threads(64)
+	public MatrixBlock threads64(Request r) {
+		return score(r);
+	}
+	
+	private MatrixBlock score(Request r) {
+		if( _pool != null ) {
+			HashMap<String, Object> inputs = new HashMap<>();
+			inputs.put("X", r._X);
+			return _pool.executeScript(inputs).getMatrixBlock("out");
+		}
+		synchronized( _pscript ) {
+			_pscript.setMatrix("X", r._X, false);
+			return _pscript.executeScript().getMatrixBlock("out");
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.performance.matrix;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.matrix.data.LibMatrixAgg;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.operators.AggregateUnaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link LibMatrixAgg#aggregateUnaryMatrix(MatrixBlock, MatrixBlock, AggregateUnaryOperator, int)}
+ * for full, row and column aggregates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregateUnaryBenchmark
+{
+	@Param({"uak+", "uark+", "uack+", "uamax", "uarimax"})
+	public String opcode;
+
+	@Param({"10000x1000", "1000000x10"})
+	public String shape;
+
+	@Param({"1.0", "0.1", "0.01"})
+	public double sparsity;
+
+	@Param({"DENSE", "MCSR", "CSR", "COO"})
+	public KernelInputs.Format format;
+
+	@Param({"1", "8"})
+	public int threads;
+
+	private MatrixBlock _in;
+	private AggregateUnaryOperator _op;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		int[] dims = KernelInputs.parseShape(shape);
+		_in = KernelInputs.create(dims[0], dims[1], sparsity, format, 7);
+		_op = InstructionUtils.parseBasicAggregateUnaryOperator(opcode, threads);
+	}
+
+	@Benchmark
+	public MatrixBlock aggregateUnary() {
+		MatrixBlock out = _in.prepareAggregateUnaryOutput(_op, null, _in.getNumRows());
+		LibMatrixAgg.aggregateUnaryMatrix(_in, out, _op, threads);
+		return out;
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.performance.matrix;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.matrix.data.LibMatrixBincell;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysds.runtime.matrix.operators.ScalarOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link LibMatrixBincell} matrix-matrix, matrix-row vector
+ * and matrix-scalar operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryCellwiseBenchmark
+{
+	@Param({"+", "*", ">"})
+	public String opcode;
+
+	@Param({"10000x1000", "1000000x10"})
+	public String shape;
+
+	@Param({"1.0", "0.1", "0.01"})
+	public double sparsity;
+
+	@Param({"DENSE", "MCSR", "CSR", "COO"})
+	public KernelInputs.Format format;
+
+	@Param({"1", "8"})
+	public int threads;
+
+	private MatrixBlock _m1;
+	private MatrixBlock _m2;
+	private MatrixBlock _rowVector;
+	private BinaryOperator _bop;
+	private ScalarOperator _sop;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		int[] dims = KernelInputs.parseShape(shape);
+		_m1 = KernelInputs.create(dims[0], dims[1], sparsity, format, 7);
+		_m2 = KernelInputs.create(dims[0], dims[1], sparsity, format, 13);
+		_rowVector = KernelInputs.create(1, dims[1], 1.0, KernelInputs.Format.DENSE, 17);
+		_bop = InstructionUtils.parseBinaryOperator(opcode);
+		_sop = InstructionUtils.parseScalarBinaryOperator(opcode, false, 0.5);
+	}
+
+	@Benchmark
+	public MatrixBlock matrixMatrix() {
+		MatrixBlock ret = allocateOutput(_bop.sparseSafe);
+		LibMatrixBincell.bincellOp(_m1, _m2, ret, _bop, threads);
+		return ret;
+	}
+
+	@Benchmark
+	public MatrixBlock matrixRowVector() {
+		MatrixBlock ret = allocateOutput(_bop.sparseSafe);
+		LibMatrixBincell.bincellOp(_m1, _rowVector, ret, _bop, threads);
+		return ret;
+	}
+
+	@Benchmark
+	public MatrixBlock matrixScalar() {
+		MatrixBlock ret = allocateOutput(_sop.sparseSafe);
+		LibMatrixBincell.bincellOp(_m1, ret, _sop, threads);
+		return ret;
+	}
+
+	private MatrixBlock allocateOutput(boolean sparseSafe) {
+		//same output format decision as the matrix block operations
+		return new MatrixBlock(_m1.getNumRows(), _m1.getNumColumns(),
+			_m1.isInSparseFormat() && sparseSafe, _m1.getNonZeros());
+	}
+}
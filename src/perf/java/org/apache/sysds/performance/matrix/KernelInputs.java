@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.performance.matrix;
+
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Utilities for creating deterministic benchmark inputs in a specific
+ * physical representation (dense, or one of the sparse block formats).
+ */
+public final class KernelInputs
+{
+	public enum Format {
+		DENSE, MCSR, CSR, COO
+	}
+
+	private KernelInputs() {
+		//prevent instantiation
+	}
+
+	/**
+	 * Creates a uniform random matrix with the given shape and sparsity
+	 * and converts it into the requested physical format.
+	 *
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param sparsity fraction of non-zero cells
+	 * @param format physical representation
+	 * @param seed random seed
+	 * @return matrix block in the requested format
+	 */
+	public static MatrixBlock create(int rows, int cols, double sparsity, Format format, long seed) {
+		MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", seed);
+		switch( format ) {
+			case DENSE:
+				if( mb.isInSparseFormat() )
+					mb.sparseToDense();
+				return mb;
+			case MCSR:
+				return toSparse(mb, SparseBlock.Type.MCSR);
+			case CSR:
+				return toSparse(mb, SparseBlock.Type.CSR);
+			case COO:
+				return toSparse(mb, SparseBlock.Type.COO);
+			default:
+				throw new IllegalArgumentException("Unsupported format: " + format);
+		}
+	}
+
+	/**
+	 * Parses a shape specification of the form "rowsxcols".
+	 * 
+	 * @param shape shape specification
+	 * @return array of rows and columns
+	 */
+	public static int[] parseShape(String shape) {
+		String[] parts = shape.toLowerCase().split("x");
+		if( parts.length != 2 )
+			throw new IllegalArgumentException("Invalid shape (expected rowsxcols): " + shape);
+		return new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+	}
+
+	private static MatrixBlock toSparse(MatrixBlock mb, SparseBlock.Type type) {
+		if( !mb.isInSparseFormat() )
+			mb.denseToSparse(true);
+		return new MatrixBlock(mb, type, true);
+	}
+}
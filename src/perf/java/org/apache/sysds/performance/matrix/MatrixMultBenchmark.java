@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.performance.matrix;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link LibMatrixMult#matrixMult(MatrixBlock, MatrixBlock, int)}
+ * for matrix-vector, vector-matrix and matrix-matrix shapes. The shape
+ * parameter is given as "m x n x p", i.e., an (m x n) left-hand side times
+ * an (n x p) right-hand side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatrixMultBenchmark
+{
+	@Param({"10000x1000x1", "1x10000x1000", "1000x1000x1000", "100000x100x100"})
+	public String shape;
+
+	@Param({"1.0", "0.1", "0.01"})
+	public double sparsity;
+
+	@Param({"DENSE", "MCSR", "CSR"})
+	public KernelInputs.Format format;
+
+	@Param({"1", "8"})
+	public int threads;
+
+	private MatrixBlock _m1;
+	private MatrixBlock _m2;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		String[] parts = shape.toLowerCase().split("x");
+		int m = Integer.parseInt(parts[0]);
+		int n = Integer.parseInt(parts[1]);
+		int p = Integer.parseInt(parts[2]);
+		_m1 = KernelInputs.create(m, n, sparsity, format, 7);
+		_m2 = KernelInputs.create(n, p, 1.0, KernelInputs.Format.DENSE, 13);
+	}
+
+	@Benchmark
+	public MatrixBlock matrixMult() {
+		return LibMatrixMult.matrixMult(_m1, _m2, threads);
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.performance.paramserv;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.parser.Statement.PSFrequency;
+import org.apache.sysds.parser.Statement.PSUpdateType;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysds.runtime.controlprogram.paramserv.LocalParamServer;
+import org.apache.sysds.runtime.controlprogram.paramserv.ParamservUtils;
+import org.apache.sysds.runtime.functionobjects.Minus;
+import org.apache.sysds.runtime.functionobjects.Multiply;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.cp.ListObject;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysds.runtime.matrix.operators.RightScalarOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of ASP model updates (pushed gradients per second) of the local parameter
+ * server over the number of workers, with the synchronized one-update-per-push aggregation
+ * (baseline) and the striped accumulate-then-swap aggregation. The DML aggregation function
+ * is replaced by a plain SGD update to isolate the synchronization overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncAggregationBenchmark
+{
+	private static final int UPDATES = 256;
+	private static final double LR = 0.01;
+
+	@Param({"1", "2", "4", "8", "16", "32"})
+	public int workers;
+
+	@Param({"false", "true"})
+	public boolean async;
+
+	@Param({"4"})
+	public int layers;
+
+	@Param({"256"})
+	public int size;
+
+	private ExecutorService _pool;
+	private MatrixBlock _grad;
+	private LocalParamServer _ps;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		ConfigurationManager.getDMLConfig()
+			.setTextValue(DMLConfig.PARAMSERV_ASYNC_AGGREGATION, String.valueOf(async));
+		_pool = Executors.newFixedThreadPool(workers);
+		_grad = MatrixBlock.randOperations(size, size, 1.0, -1, 1, "uniform", 7);
+	}
+
+	@Setup(Level.Invocation)
+	public void setupServer() {
+		_ps = new SGDParamServer(createList(new MatrixBlock(size, size, 0.5)), workers);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		_pool.shutdown();
+		ConfigurationManager.getDMLConfig()
+			.setTextValue(DMLConfig.PARAMSERV_ASYNC_AGGREGATION, "false");
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(UPDATES)
+	public ListObject pushUpdates() throws Exception {
+		List<Future<?>> tasks = new ArrayList<>();
+		for(int w = 0; w < workers; w++) {
+			final int workerID = w;
+			final int num = UPDATES / workers + (w < UPDATES % workers ? 1 : 0);
+			tasks.add(_pool.submit(() -> {
+				for(int i = 0; i < num; i++) {
+					_ps.pull(workerID);
+					_ps.push(workerID, createList(new MatrixBlock(_grad)));
+				}
+			}));
+		}
+		for(Future<?> task : tasks)
+			task.get();
+		return _ps.getResult();
+	}
+
+	private ListObject createList(MatrixBlock mb) {
+		List<Data> data = new ArrayList<>();
+		for(int i = 0; i < layers; i++)
+			data.add(ParamservUtils.newMatrixObject(i == 0 ? mb : new MatrixBlock(mb)));
+		return new ListObject(data);
+	}
+
+	private static class SGDParamServer extends LocalParamServer {
+		private SGDParamServer(ListObject model, int workers) {
+			super(model, "sgd", PSUpdateType.ASP, PSFrequency.BATCH, ExecutionContextFactory.createContext(),
+				workers, null, -1, null, null, 0, false, 0);
+		}
+
+		@Override
+		protected void setupAggFunc(ExecutionContext ec, String aggFunc) {
+			// no aggregation function
+		}
+
+		@Override
+		protected ListObject updateLocalModel(ExecutionContext ec, ListObject gradients, ListObject model) {
+			List<Data> data = new ArrayList<>();
+			for(int i = 0; i < model.getLength(); i++) {
+				MatrixBlock mb = ((MatrixObject) model.getData().get(i)).acquireReadAndRelease();
+				MatrixBlock grad = ((MatrixObject) gradients.getData().get(i)).acquireReadAndRelease();
+				MatrixBlock upd = grad.scalarOperations(
+					new RightScalarOperator(Multiply.getMultiplyFnObject(), LR), new MatrixBlock());
+				data.add(ParamservUtils.newMatrixObject(
+					mb.binaryOperations(new BinaryOperator(Minus.getMinusFnObject()), upd, new MatrixBlock())));
+			}
+			return new ListObject(data);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.performance.transform;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.frame.data.columns.ArrayFactory;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.transform.encode.ColumnEncoderRecode;
+import org.apache.sysds.runtime.transform.encode.EncoderFactory;
+import org.apache.sysds.runtime.transform.encode.MultiColumnEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Build and apply throughput of {@link ColumnEncoderRecode} (primitive open-addressing
+ * recode maps) in comparison to the previous implementation, which built and probed a
+ * HashMap&lt;String,Long&gt; from the string representation of every row (baseline).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecodeBenchmark
+{
+	@Param({"1000000"})
+	public int rows;
+
+	@Param({"100", "100000", "1000000"})
+	public int distinct;
+
+	@Param({"STRING", "FP64"})
+	public ValueType type;
+
+	private FrameBlock _in;
+	private MultiColumnEncoder _encoder;
+	private HashMap<String, Long> _map;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random r = new Random(7);
+		_in = new FrameBlock(new ValueType[] {type});
+		_in.ensureAllocatedColumns(rows);
+		if(type == ValueType.STRING) {
+			String[] col = new String[rows];
+			for(int i = 0; i < rows; i++)
+				col[i] = "id" + r.nextInt(distinct);
+			_in.setColumn(0, ArrayFactory.create(col));
+		}
+		else {
+			double[] col = new double[rows];
+			for(int i = 0; i < rows; i++)
+				col[i] = r.nextInt(distinct);
+			_in.setColumn(0, ArrayFactory.create(col));
+		}
+		_encoder = buildRecode();
+		_map = buildBaseline();
+	}
+
+	@Benchmark
+	public MultiColumnEncoder buildRecode() {
+		MultiColumnEncoder enc = EncoderFactory.createEncoder("{recode:[C1]}", _in.getColumnNames(), 1, null);
+		enc.build(_in);
+		return enc;
+	}
+
+	@Benchmark
+	public HashMap<String, Long> buildBaseline() {
+		HashMap<String, Long> map = new HashMap<>();
+		for(int i = 0; i < rows; i++) {
+			String key = _in.getString(i, 0);
+			if(key != null && !key.isEmpty() && !map.containsKey(key))
+				map.put(key, (long) (map.size() + 1));
+		}
+		return map;
+	}
+
+	@Benchmark
+	public MatrixBlock applyRecode() {
+		return _encoder.apply(_in);
+	}
+
+	@Benchmark
+	public double[] applyBaseline() {
+		double[] ret = new double[rows];
+		for(int i = 0; i < rows; i++) {
+			Long code = _map.get(_in.getString(i, 0));
+			ret[i] = (code != null) ? code : Double.NaN;
+		}
+		return ret;
+	}
+}
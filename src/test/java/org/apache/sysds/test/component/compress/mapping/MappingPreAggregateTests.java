@@ -287,6 +287,37 @@ public class MappingPreAggregateTests {
 		}
 	}
 
+	@Test
+	public void testDecompressToRange() {
+		testDecompressToRange(0, size);
+	}
+
+	@Test
+	public void testDecompressToRangeSubPart() {
+		testDecompressToRange(size / 3, Math.max(size / 3, size - 2));
+	}
+
+	public void testDecompressToRange(int rl, int ru) {
+		try {
+			final Random r = new Random(seed);
+			final double[] values = new double[m.getUnique()];
+			for(int i = 0; i < values.length; i++)
+				values[i] = r.nextDouble();
+			final int offR = 2;
+			final double[] exp = new double[size + offR];
+			final double[] act = new double[size + offR];
+			for(int i = rl; i < ru; i++)
+				exp[offR + i] += values[m.getIndex(i)];
+			m.decompressToRange(act, rl, ru, offR, values);
+			for(int i = 0; i < exp.length; i++)
+				assertEquals("\nNot equal elements with " + type + "  " + m.getUnique(), exp[i], act[i], 0.0);
+		}
+		catch(Exception e) {
+			e.printStackTrace();
+			fail(e.toString());
+		}
+	}
+
 	private void compareRes(double[] expectedFull, double[] actual, int row) {
 		String error = "\nNot equal elements with " + type + "  " + m.getUnique();
 		int nVal = m.getUnique();
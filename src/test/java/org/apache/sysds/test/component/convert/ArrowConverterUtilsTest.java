@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.convert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.UInt4Vector;
+import org.apache.arrow.vector.UInt8Vector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.ArrowConverterUtils;
+import org.apache.sysds.runtime.util.HDFSTool;
+import org.apache.sysds.test.TestUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ArrowConverterUtilsTest {
+	private static final String DIR = "target/testTemp/component/convert/ArrowConverterUtilsTest/";
+
+	@BeforeClass
+	public static void setup() {
+		new File(DIR).mkdirs();
+	}
+
+	@AfterClass
+	public static void cleanup() throws Exception {
+		HDFSTool.deleteFileIfExistOnHDFS(DIR);
+	}
+
+	@Test
+	public void testMatrixDense() {
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(321, 17, -1, 1, 0.9, 7);
+		TestUtils.compareMatrices(mb, writeAndRead(mb, "dense"), 0);
+	}
+
+	@Test
+	public void testMatrixSparse() {
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(500, 300, -1, 1, 0.01, 3);
+		MatrixBlock ret = writeAndRead(mb, "sparse");
+		TestUtils.compareMatrices(mb, ret, 0);
+		assertEquals(mb.getNonZeros(), ret.getNonZeros());
+		assertTrue(ret.isInSparseFormat());
+	}
+
+	@Test
+	public void testMatrixEmpty() {
+		MatrixBlock mb = new MatrixBlock(10, 4, true);
+		MatrixBlock ret = writeAndRead(mb, "empty");
+		assertEquals(10, ret.getNumRows());
+		assertEquals(4, ret.getNumColumns());
+		assertEquals(0, ret.getNonZeros());
+	}
+
+	@Test
+	public void testMatrixMultipleBatches() {
+		// more than 2^24 cells are split into multiple record batches
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(1 << 15, 513, 0, 1, 1.0, 11);
+		TestUtils.compareMatrices(mb, writeAndRead(mb, "batches"), 0);
+	}
+
+	@Test
+	public void testFrameTyped() {
+		ValueType[] schema = new ValueType[] {ValueType.STRING, ValueType.FP64, ValueType.INT64, ValueType.BOOLEAN,
+			ValueType.INT32, ValueType.FP32};
+		FrameBlock fb = TestUtils.generateRandomFrameBlock(1000, schema, 7);
+		FrameBlock ret = writeAndRead(fb, "typed");
+		TestUtils.compareFrames(fb, ret, true);
+		for(int j = 0; j < schema.length; j++) {
+			assertEquals(schema[j], ret.getSchema()[j]);
+			assertEquals(fb.getColumnName(j), ret.getColumnName(j));
+		}
+	}
+
+	@Test
+	public void testFrameNullStrings() {
+		FrameBlock fb = new FrameBlock(new ValueType[] {ValueType.STRING},
+			new String[][] {{"a"}, {null}, {"äöü"}});
+		FrameBlock ret = writeAndRead(fb, "nulls");
+		assertEquals("a", ret.get(0, 0));
+		assertEquals(null, ret.get(1, 0));
+		assertEquals("äöü", ret.get(2, 0));
+	}
+
+	@Test
+	public void testFrameEmpty() {
+		FrameBlock fb = new FrameBlock(new ValueType[] {ValueType.STRING, ValueType.FP64});
+		FrameBlock ret = writeAndRead(fb, "emptyFrame");
+		assertEquals(0, ret.getNumRows());
+		assertEquals(2, ret.getNumColumns());
+		assertEquals(ValueType.FP64, ret.getSchema()[1]);
+	}
+
+	@Test
+	public void testFrameUnsignedInts() throws Exception {
+		FrameBlock ret = readUnsigned("unsigned", 3);
+		assertEquals(ValueType.INT64, ret.getSchema()[0]);
+		assertEquals(ValueType.INT64, ret.getSchema()[1]);
+		assertEquals(4000000000L, ret.get(2, 0));
+		assertEquals(5000000000L, ret.get(2, 1));
+	}
+
+	@Test
+	public void testFrameUnsignedIntsEmpty() throws Exception {
+		FrameBlock ret = readUnsigned("unsignedEmpty", 0);
+		assertEquals(0, ret.getNumRows());
+		assertEquals(ValueType.INT64, ret.getSchema()[0]);
+		assertEquals(ValueType.INT64, ret.getSchema()[1]);
+	}
+
+	private static FrameBlock readUnsigned(String name, int nrow) throws Exception {
+		Schema schema = new Schema(Arrays.asList(Field.nullable("u32", new ArrowType.Int(32, false)),
+			Field.nullable("u64", new ArrowType.Int(64, false))));
+		String fname = DIR + name + ".arrow";
+		try(BufferAllocator alloc = new RootAllocator();
+			VectorSchemaRoot root = VectorSchemaRoot.create(schema, alloc);
+			FileOutputStream out = new FileOutputStream(fname);
+			ArrowFileWriter writer = new ArrowFileWriter(root, null, out.getChannel())) {
+			writer.start();
+			if(nrow > 0) {
+				UInt4Vector u32 = (UInt4Vector) root.getVector(0);
+				UInt8Vector u64 = (UInt8Vector) root.getVector(1);
+				u32.allocateNew(nrow);
+				u64.allocateNew(nrow);
+				for(int i = 0; i < nrow; i++) {
+					u32.set(i, (int) (4000000000L * i / (nrow - 1)));
+					u64.set(i, 5000000000L * i / (nrow - 1));
+				}
+				u32.setValueCount(nrow);
+				u64.setValueCount(nrow);
+				root.setRowCount(nrow);
+				writer.writeBatch();
+			}
+			writer.end();
+		}
+		return ArrowConverterUtils.convertArrowToFB(fname);
+	}
+
+	private static MatrixBlock writeAndRead(MatrixBlock mb, String name) {
+		ArrowConverterUtils.convertMBToArrow(mb, DIR + name + ".arrow");
+		return ArrowConverterUtils.convertArrowToMB(DIR + name + ".arrow");
+	}
+
+	private static FrameBlock writeAndRead(FrameBlock fb, String name) {
+		ArrowConverterUtils.convertFBToArrow(fb, DIR + name + ".arrow");
+		return ArrowConverterUtils.convertArrowToFB(DIR + name + ".arrow");
+	}
+}
@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.federated;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.Future;
+
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlockFactory;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedData;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedData.FederatedRequestEncoder;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedRequest;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedRequest.RequestType;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedRequestBatcher;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedResponse;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedResponse.ResponseType;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedStatistics;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedWireCodec;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedWorker.FederatedResponseEncoder;
+import org.apache.sysds.runtime.controlprogram.federated.FederationUtils;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.instructions.cp.DoubleObject;
+import org.apache.sysds.runtime.instructions.cp.IntObject;
+import org.apache.sysds.runtime.instructions.cp.ScalarObject;
+import org.apache.sysds.runtime.lineage.LineageItem;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.meta.MatrixCharacteristics;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.serialization.ClassResolvers;
+import io.netty.handler.codec.serialization.ObjectDecoder;
+
+@net.jcip.annotations.NotThreadSafe
+public class FederatedWireCodecTest {
+
+	@Test
+	public void testRequestControl() throws Exception {
+		FederatedRequest req = new FederatedRequest(RequestType.EXEC_INST, 7, "CP°+°a°b°c");
+		req.setTID(3);
+		FederatedRequest ret = roundTrip(new FederatedRequest[] {req}, true)[0];
+		assertEquals(RequestType.EXEC_INST, ret.getType());
+		assertEquals(7, ret.getID());
+		assertEquals(3, ret.getTID());
+		assertEquals(req.getPID(), ret.getPID());
+		assertEquals("CP°+°a°b°c", ret.getParam(0));
+	}
+
+	@Test
+	public void testRequestBlocksAndScalars() throws Exception {
+		MatrixBlock dense = TestUtils.generateTestMatrixBlock(100, 50, -1, 1, 0.9, 7);
+		MatrixBlock sparse = TestUtils.generateTestMatrixBlock(300, 200, -1, 1, 0.01, 3);
+		FrameBlock fb = TestUtils.generateRandomFrameBlock(100,
+			new ValueType[] {ValueType.STRING, ValueType.FP64, ValueType.BOOLEAN}, 7);
+		FederatedRequest req = new FederatedRequest(RequestType.PUT_VAR, 1, dense, sparse, fb,
+			new DoubleObject(0.1), new IntObject(-3), 5L, 2.5, true, null,
+			new MatrixCharacteristics(10, 20, 1000, 17), new long[] {1, 2});
+		FederatedRequest[] reqs = roundTrip(new FederatedRequest[] {req, new FederatedRequest(RequestType.NOOP)}, true);
+		assertEquals(2, reqs.length);
+		FederatedRequest ret = reqs[0];
+		assertEquals(11, ret.getNumParams());
+		TestUtils.compareMatrices(dense, (MatrixBlock) ret.getParam(0), 0);
+		TestUtils.compareMatrices(sparse, (MatrixBlock) ret.getParam(1), 0);
+		assertEquals(sparse.getNonZeros(), ((MatrixBlock) ret.getParam(1)).getNonZeros());
+		TestUtils.compareFrames(fb, (FrameBlock) ret.getParam(2), true);
+		assertEquals(0.1, ((ScalarObject) ret.getParam(3)).getDoubleValue(), 0);
+		assertEquals(-3, ((ScalarObject) ret.getParam(4)).getLongValue());
+		assertEquals(5L, ret.getParam(5));
+		assertEquals(2.5, ret.getParam(6));
+		assertEquals(true, ret.getParam(7));
+		assertNull(ret.getParam(8));
+		assertEquals(new MatrixCharacteristics(10, 20, 1000, 17), ret.getParam(9));
+		assertArrayEquals(new long[] {1, 2}, (long[]) ret.getParam(10));
+		assertEquals(RequestType.NOOP, reqs[1].getType());
+	}
+
+	@Test
+	public void testRequestJavaSerialization() throws Exception {
+		// the decoder also accepts java-serialized requests of older clients
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(10, 10, 0, 1, 1.0, 7);
+		FederatedRequest req = new FederatedRequest(RequestType.PUT_VAR, 2, mb);
+		FederatedRequest ret = roundTrip(new FederatedRequest[] {req}, false)[0];
+		TestUtils.compareMatrices(mb, (MatrixBlock) ret.getParam(0), 0);
+	}
+
+	@Test
+	public void testBinarySmallerThanJava() {
+		FederatedRequest[] req = new FederatedRequest[] {new FederatedRequest(RequestType.EXEC_INST, 7, "CP°+°a°b°c")};
+		ByteBuf bin = encode(new EmbeddedChannel(new FederatedRequestEncoder(true)), req);
+		ByteBuf java = encode(new EmbeddedChannel(new FederatedRequestEncoder(false)), req);
+		assertTrue(bin.readableBytes() * 4 < java.readableBytes());
+		bin.release();
+		java.release();
+	}
+
+	@Test
+	public void testResponse() throws Exception {
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(40, 30, -1, 1, 0.5, 7);
+		FederatedResponse resp = new FederatedResponse(ResponseType.SUCCESS, new Object[] {mb, 3L});
+		FederatedResponse ret = roundTripResponse(resp);
+		assertTrue(ret.isSuccessful());
+		TestUtils.compareMatrices(mb, (MatrixBlock) ret.getData()[0], 0);
+		assertEquals(3L, ret.getData()[1]);
+	}
+
+	@Test
+	public void testResponseEmpty() throws Exception {
+		FederatedResponse ret = roundTripResponse(new FederatedResponse(ResponseType.SUCCESS_EMPTY));
+		assertTrue(ret.isSuccessful());
+		assertNull(ret.getData());
+	}
+
+	@Test
+	public void testResponseError() throws Exception {
+		FederatedResponse ret = roundTripResponse(
+			new FederatedResponse(ResponseType.ERROR, new IllegalStateException("failed on worker")));
+		assertTrue(!ret.isSuccessful());
+		assertTrue(ret.getErrorMessage().contains("failed on worker"));
+	}
+
+	@Test
+	public void testCompressedTransfer() throws Exception {
+		// low number of distinct values compresses well
+		MatrixBlock mb = TestUtils.round(TestUtils.generateTestMatrixBlock(1000, 100, 0, 9, 1.0, 7));
+		FederatedStatistics.reset();
+		ByteBuf plain = encode(new EmbeddedChannel(new FederatedRequestEncoder(true, false)),
+			new FederatedRequest[] {new FederatedRequest(RequestType.PUT_VAR, 1, mb)});
+		FederatedRequest ret = roundTrip(new FederatedRequest[] {new FederatedRequest(RequestType.PUT_VAR, 1, mb)},
+			true, true)[0];
+		TestUtils.compareMatrices(mb, (MatrixBlock) ret.getParam(0), 0);
+		assertEquals(1, FederatedStatistics.getCompressedTransferCount());
+		assertTrue(FederatedStatistics.getCompressionWireBytes() * 2 < FederatedStatistics.getCompressionRawBytes());
+		assertTrue(FederatedStatistics.getCompressionWireBytes() < plain.readableBytes());
+		plain.release();
+	}
+
+	@Test
+	public void testCompressedTransferSkipped() throws Exception {
+		// random doubles are not compressible, and small blocks are not considered
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(1000, 100, -1, 1, 1.0, 7);
+		FrameBlock fb = TestUtils.generateRandomFrameBlock(10, new ValueType[] {ValueType.STRING}, 7);
+		FederatedStatistics.reset();
+		FederatedRequest ret = roundTrip(new FederatedRequest[] {new FederatedRequest(RequestType.PUT_VAR, 1, mb, fb)},
+			true, true)[0];
+		TestUtils.compareMatrices(mb, (MatrixBlock) ret.getParam(0), 0);
+		TestUtils.compareFrames(fb, (FrameBlock) ret.getParam(1), true);
+		assertEquals(0, FederatedStatistics.getCompressedTransferCount());
+		assertEquals(1, FederatedStatistics.getCompressedTransferSkipped());
+	}
+
+	@Test
+	public void testCompressedMatrixBlock() throws Exception {
+		MatrixBlock mb = TestUtils.round(TestUtils.generateTestMatrixBlock(1000, 10, 0, 3, 1.0, 7));
+		MatrixBlock cmb = CompressedMatrixBlockFactory.compress(mb).getLeft();
+		assertTrue(cmb instanceof CompressedMatrixBlock);
+		FederatedRequest ret = roundTrip(new FederatedRequest[] {new FederatedRequest(RequestType.PUT_VAR, 1, cmb)},
+			true, false)[0];
+		assertTrue(ret.getParam(0) instanceof CompressedMatrixBlock);
+		TestUtils.compareMatrices(mb, (MatrixBlock) ret.getParam(0), 0);
+	}
+
+	@Test
+	public void testProbe() {
+		ByteBuf buf = Unpooled.buffer();
+		FederatedWireCodec.encodeProbe(buf);
+		EmbeddedChannel in = new EmbeddedChannel(FederationUtils.decoder());
+		in.writeInbound(buf);
+		assertTrue(in.readInbound() == FederatedWireCodec.PROBE);
+	}
+
+	@Test
+	public void testProbeJavaDecoder() {
+		// decoders without binary support fail on the probe, which closes the connection on workers
+		ByteBuf buf = Unpooled.buffer();
+		FederatedWireCodec.encodeProbe(buf);
+		EmbeddedChannel in = new EmbeddedChannel(
+			new ObjectDecoder(ClassResolvers.weakCachingResolver(null)));
+		try {
+			in.writeInbound(buf);
+			fail("expected failed decoding of the probe");
+		}
+		catch(Exception ex) {
+			assertNull(in.readInbound());
+		}
+	}
+
+	@Test
+	public void testLineageKey() {
+		LineageItem li = new LineageItem("X");
+		LineageItem java = FederatedWireCodec.getLineageKey(li, false, true);
+		LineageItem bin = FederatedWireCodec.getLineageKey(li, true, false);
+		LineageItem lz4 = FederatedWireCodec.getLineageKey(li, true, true);
+		assertEquals(li, java);
+		assertNotEquals(java, bin);
+		assertNotEquals(bin, lz4);
+		assertEquals(bin, FederatedWireCodec.getLineageKey(li, true, false));
+	}
+
+	@Test
+	public void testLinkTraffic() {
+		FederatedStatistics.reset();
+		FederatedStatistics.logServerLinkTraffic(new InetSocketAddress("localhost", 8001), 10, 20);
+		FederatedStatistics.logServerLinkTraffic(new InetSocketAddress("localhost", 8001), 1, 2);
+		FederatedStatistics.logWorkerLinkTraffic(new InetSocketAddress("localhost", 43210), 5, 6);
+		assertArrayEquals(new long[] {11, 22}, FederatedStatistics.getLinkTrafficBytes("localhost:8001"));
+		assertArrayEquals(new long[] {5, 6}, FederatedStatistics.getLinkTrafficBytes("localhost"));
+		assertTrue(FederatedStatistics.displayFedLinkStatistics().contains("localhost:8001\t11/22"));
+	}
+
+	@Test
+	public void testPipelinedBatch() {
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(20, 10, 0, 1, 1.0, 7);
+		FederatedRequest[][] batch = new FederatedRequest[][] {
+			{new FederatedRequest(RequestType.PUT_VAR, 1, mb)},
+			{new FederatedRequest(RequestType.EXEC_INST, 2, "CP°+°a°b°c"), new FederatedRequest(RequestType.NOOP)}};
+		for(boolean binary : new boolean[] {true, false}) {
+			ByteBuf buf = encode(new EmbeddedChannel(new FederatedRequestEncoder(binary)), batch);
+			EmbeddedChannel in = new EmbeddedChannel(FederationUtils.decoder());
+			in.writeInbound(buf);
+			FederatedRequest[][] ret = in.readInbound();
+			assertEquals(2, ret.length);
+			assertEquals(2, ret[1].length);
+			TestUtils.compareMatrices(mb, (MatrixBlock) ret[0][0].getParam(0), 0);
+			assertEquals("CP°+°a°b°c", ret[1][0].getParam(0));
+			assertEquals(RequestType.NOOP, ret[1][1].getType());
+		}
+	}
+
+	@Test
+	public void testPipelinedBatchResponse() throws Exception {
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(40, 30, -1, 1, 0.5, 7);
+		FederatedResponse resp = new FederatedResponse(ResponseType.SUCCESS, new Object[] {
+			new FederatedResponse(ResponseType.SUCCESS_EMPTY), new FederatedResponse(ResponseType.SUCCESS, mb),
+			new FederatedResponse(ResponseType.ERROR, new IllegalStateException("failed on worker"))});
+		Object[] ret = roundTripResponse(resp).getData();
+		assertEquals(3, ret.length);
+		assertTrue(((FederatedResponse) ret[0]).isSuccessful());
+		TestUtils.compareMatrices(mb, (MatrixBlock) ((FederatedResponse) ret[1]).getData()[0], 0);
+		assertTrue(((FederatedResponse) ret[2]).getErrorMessage().contains("failed on worker"));
+	}
+
+	@Test
+	public void testPipelinedBatcher() {
+		// requests are deferred until a result is consumed, and sent as one batch per worker
+		FederatedStatistics.reset();
+		InetSocketAddress address = new InetSocketAddress("localhost", 1);
+		Future<FederatedResponse> f1 = FederatedRequestBatcher.submit(address, new FederatedRequest(RequestType.NOOP));
+		Future<FederatedResponse> f2 = FederatedRequestBatcher.submit(address,
+			new FederatedRequest(RequestType.NOOP), new FederatedRequest(RequestType.NOOP));
+		assertEquals(2, FederatedRequestBatcher.getNumPending());
+		assertEquals(0, FederatedStatistics.getPipelinedBatchCount());
+		try {
+			f2.get(); // flushes, but the worker is not reachable
+			fail("expected failed federated request");
+		}
+		catch(Exception ex) {
+			assertTrue(f1.isDone());
+		}
+		finally {
+			FederatedData.clearWorkGroup();
+		}
+		assertEquals(0, FederatedRequestBatcher.getNumPending());
+		assertEquals(1, FederatedStatistics.getPipelinedBatchCount());
+		assertEquals(2, FederatedStatistics.getPipelinedMessageCount());
+		assertEquals(3, FederatedStatistics.getPipelinedRequestCount());
+		assertEquals(2, FederatedStatistics.getPipelinedMaxBatchSize());
+	}
+
+	private static FederatedRequest[] roundTrip(FederatedRequest[] req, boolean binary) {
+		return roundTrip(req, binary, false);
+	}
+
+	private static FederatedRequest[] roundTrip(FederatedRequest[] req, boolean binary, boolean compress) {
+		ByteBuf buf = encode(new EmbeddedChannel(new FederatedRequestEncoder(binary, compress)), req);
+		assertEquals(binary, buf.getByte(buf.readerIndex() + 4) == FederatedWireCodec.MAGIC);
+		EmbeddedChannel in = new EmbeddedChannel(FederationUtils.decoder());
+		in.writeInbound(buf);
+		assertEquals(binary, in.attr(FederatedWireCodec.BINARY).get());
+		return in.readInbound();
+	}
+
+	private static FederatedResponse roundTripResponse(FederatedResponse resp) {
+		// the worker answers in binary format, if the request was binary
+		EmbeddedChannel out = new EmbeddedChannel(new FederatedResponseEncoder());
+		out.attr(FederatedWireCodec.BINARY).set(true);
+		ByteBuf buf = encode(out, resp);
+		assertEquals(FederatedWireCodec.MAGIC, buf.getByte(buf.readerIndex() + 4));
+		EmbeddedChannel in = new EmbeddedChannel(FederationUtils.decoder());
+		in.writeInbound(buf);
+		return in.readInbound();
+	}
+
+	private static ByteBuf encode(EmbeddedChannel ch, Object msg) {
+		ch.writeOutbound(msg);
+		return ch.readOutbound();
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.component.federated;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.BufferPoolSession;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedStatistics;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedWorkerScheduler;
+import org.apache.sysds.runtime.controlprogram.federated.monitoring.models.SessionModel;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class FederatedWorkerSchedulerTest {
+
+	@Test
+	public void testFairOrder() throws Exception {
+		// a late coordinator is interleaved with the queued requests of a heavy coordinator
+		List<String> order = runTasks("", 12, 3);
+		assertEquals("a", order.get(0));
+		assertEquals(3, Collections.frequency(order.subList(0, 8), "b"));
+	}
+
+	@Test
+	public void testWeightedOrder() throws Exception {
+		// with weight 4, the late coordinator gets four slots per slot of the heavy coordinator
+		List<String> order = runTasks("hostB=4", 12, 8);
+		assertEquals(8, Collections.frequency(order.subList(0, 12), "b"));
+	}
+
+	@Test
+	public void testSessionStatistics() throws Exception {
+		FederatedStatistics.reset();
+		FederatedWorkerScheduler sched = new FederatedWorkerScheduler(2, "hostA=2");
+		FederatedStatistics.setWorkerScheduler(sched);
+		try {
+			CountDownLatch done = new CountDownLatch(4);
+			List<BufferPoolSession> sessions = Collections.synchronizedList(new ArrayList<>());
+			for(int i = 0; i < 4; i++)
+				sched.submit("hostA", 7, 1, () -> {
+					sessions.add(BufferPoolSession.getCurrent());
+					done.countDown();
+				});
+			assertTrue(done.await(10, TimeUnit.SECONDS));
+			// tasks run with the buffer pool session of their coordinator
+			assertEquals(4, sessions.size());
+			assertTrue(sessions.stream().allMatch(s -> s == sched.getSession("hostA", 7).getMemory()));
+			List<SessionModel> models = FederatedStatistics.getWorkerSessions();
+			assertEquals(1, models.size());
+			assertEquals(4, models.get(0).numTasks.longValue());
+			assertEquals(2, models.get(0).weight, 0);
+			assertEquals("hostA-7", models.get(0).getCoordinatorHostId());
+			assertEquals(4, FederatedStatistics.getSchedulerTaskCount());
+		}
+		finally {
+			FederatedStatistics.setWorkerScheduler(null);
+			sched.shutdown();
+		}
+	}
+
+	@Test
+	public void testSessionPropagation() throws Exception {
+		// tasks of multi-threaded operators run with the session of the submitting thread
+		BufferPoolSession session = new BufferPoolSession("hostA-7");
+		BufferPoolSession.setCurrent(session);
+		ExecutorService pool = CommonThreadPool.get(3);
+		try {
+			List<Callable<BufferPoolSession>> tasks = new ArrayList<>();
+			for(int i = 0; i < 6; i++)
+				tasks.add(BufferPoolSession::getCurrent);
+			for(Future<BufferPoolSession> f : pool.invokeAll(tasks))
+				assertTrue(f.get() == session);
+			assertTrue(pool.submit(BufferPoolSession::getCurrent).get() == session);
+		}
+		finally {
+			pool.shutdown();
+			BufferPoolSession.setCurrent(null);
+		}
+	}
+
+	@Test(expected = DMLRuntimeException.class)
+	public void testInvalidWeights() {
+		new FederatedWorkerScheduler(1, "hostA=0.5,hostB").shutdown();
+	}
+
+	@Test
+	public void testMalformedWeights() {
+		for(String weights : new String[] {"hostA=1=2", "hostA=abc", "hostA=-1", "=1", "hostA="}) {
+			try {
+				new FederatedWorkerScheduler(1, weights).shutdown();
+				fail("Expected exception for weights: " + weights);
+			}
+			catch(DMLRuntimeException ex) {
+				assertTrue(ex.getMessage().contains("Invalid federated session weight"));
+			}
+		}
+	}
+
+	private static List<String> runTasks(String weights, int numA, int numB) throws Exception {
+		FederatedWorkerScheduler sched = new FederatedWorkerScheduler(1, weights);
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(numA + numB);
+		try {
+			// the first task blocks the only thread until all tasks are queued
+			for(int i = 0; i < numA; i++) {
+				final boolean first = (i == 0);
+				sched.submit("hostA", 1, 1, () -> {
+					if(first)
+						await(blocked);
+					order.add("a");
+					done.countDown();
+				});
+			}
+			for(int i = 0; i < numB; i++)
+				sched.submit("hostB", 1, 1, () -> {
+					order.add("b");
+					done.countDown();
+				});
+			blocked.countDown();
+			assertTrue(done.await(10, TimeUnit.SECONDS));
+			return order;
+		}
+		finally {
+			sched.shutdown();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch(InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.component.frame;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import org.apache.sysds.common.Types.FileFormat;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.controlprogram.caching.FrameObject;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.frame.data.columns.DDCArray;
+import org.apache.sysds.runtime.io.FrameReaderColumnar;
+import org.apache.sysds.runtime.io.FrameReaderFactory;
+import org.apache.sysds.runtime.io.FrameWriterColumnar;
+import org.apache.sysds.runtime.io.FrameWriterFactory;
+import org.apache.sysds.runtime.meta.MatrixCharacteristics;
+import org.apache.sysds.runtime.meta.MetaDataFormat;
+import org.apache.sysds.runtime.util.HDFSTool;
+import org.apache.sysds.test.TestUtils;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class FrameColumnarIOTest {
+	private static final String DIR = "target/testTemp/component/frame/FrameColumnarIOTest/";
+
+	@AfterClass
+	public static void cleanup() throws Exception {
+		HDFSTool.deleteFileIfExistOnHDFS(DIR);
+	}
+
+	@Test
+	public void testRoundTripRandom() throws Exception {
+		ValueType[] schema = new ValueType[] {ValueType.STRING, ValueType.FP64, ValueType.INT64, ValueType.BOOLEAN,
+			ValueType.INT32, ValueType.FP32};
+		FrameBlock fb = TestUtils.generateRandomFrameBlock(1000, schema, 7);
+		TestUtils.compareFrames(fb, writeAndRead(fb, "rand"), true);
+	}
+
+	@Test
+	public void testRoundTripEmpty() throws Exception {
+		FrameBlock fb = new FrameBlock(new ValueType[] {ValueType.STRING, ValueType.FP64});
+		FrameBlock ret = writeAndRead(fb, "empty");
+		assertEquals(0, ret.getNumRows());
+		assertEquals(2, ret.getNumColumns());
+	}
+
+	@Test
+	public void testRoundTripMultiGroupEncoded() throws Exception {
+		FrameBlock fb = createEncodableFrame(2 * FrameWriterColumnar.ROW_GROUP_SIZE + 1017);
+		FrameBlock ret = writeAndRead(fb, "multi");
+		TestUtils.compareFrames(fb, ret, true);
+		//dictionary-encoded chunks are kept as dictionary-encoded column
+		assertTrue(ret.getColumn(0) instanceof DDCArray);
+	}
+
+	@Test
+	public void testEncodedSmallerThanPlain() throws Exception {
+		FrameBlock fb = createEncodableFrame(100000);
+		String fname = DIR + "size";
+		FrameWriterFactory.createFrameWriter(FileFormat.COLUMNAR)
+			.writeFrameToHDFS(fb, fname, fb.getNumRows(), fb.getNumColumns());
+		FrameWriterFactory.createFrameWriter(FileFormat.BINARY)
+			.writeFrameToHDFS(fb, fname + "_bin", fb.getNumRows(), fb.getNumColumns());
+		long sizeCol = HDFSTool.getFilesizeOnHDFS(new org.apache.hadoop.fs.Path(fname));
+		long sizeBin = HDFSTool.getFilesizeOnHDFS(new org.apache.hadoop.fs.Path(fname + "_bin"));
+		assertTrue("columnar " + sizeCol + " vs binary " + sizeBin, sizeCol < sizeBin / 2);
+	}
+
+	@Test
+	public void testColumnProjection() throws Exception {
+		FrameBlock fb = createEncodableFrame(FrameWriterColumnar.ROW_GROUP_SIZE + 5);
+		String fname = DIR + "proj";
+		write(fb, fname);
+		FrameBlock ret = new FrameReaderColumnar(3).readFrameFromHDFS(fname, 1, 2);
+		TestUtils.compareFrames(fb.slice(0, fb.getNumRows() - 1, 1, 2), ret, true);
+	}
+
+	@Test
+	public void testInvalidColumnProjection() throws Exception {
+		FrameBlock fb = createEncodableFrame(100);
+		String fname = DIR + "proj_invalid";
+		write(fb, fname);
+		try {
+			new FrameReaderColumnar().readFrameFromHDFS(fname, 2, 7);
+			fail("expected exception for invalid column range");
+		}
+		catch(Exception ex) {
+			assertTrue(ex.getMessage().contains("Invalid column range"));
+		}
+	}
+
+	@Test
+	public void testReadFromInputStream() throws Exception {
+		FrameBlock fb = createEncodableFrame(1000);
+		String fname = DIR + "stream";
+		write(fb, fname);
+		try(InputStream is = new FileInputStream(new File(fname))) {
+			FrameBlock ret = FrameReaderFactory.createFrameReader(FileFormat.COLUMNAR)
+				.readFrameFromInputStream(is, null, null, fb.getNumRows(), fb.getNumColumns());
+			TestUtils.compareFrames(fb, ret, true);
+		}
+	}
+
+	@Test
+	public void testFrameObjectProjection() throws Exception {
+		FrameBlock fb = createEncodableFrame(500);
+		String fname = DIR + "fo";
+		write(fb, fname);
+		FrameObject fo = new FrameObject(fname, new MetaDataFormat(
+			new MatrixCharacteristics(fb.getNumRows(), fb.getNumColumns()), FileFormat.COLUMNAR), fb.getSchema());
+		assertTrue(fo.isColumnProjectable());
+		TestUtils.compareFrames(fb.slice(0, fb.getNumRows() - 1, 3, 3), fo.readColumns(3, 3), true);
+		//projection does not pin the frame in memory
+		assertTrue(fo.isColumnProjectable());
+		TestUtils.compareFrames(fb, fo.acquireRead(), true);
+		fo.release();
+		assertFalse(fo.isColumnProjectable());
+	}
+
+	@Test
+	public void testFrameObjectRepeatedProjection() throws Exception {
+		FrameBlock fb = createEncodableFrame(500);
+		String fname = DIR + "fo_repeat";
+		write(fb, fname);
+		FrameObject fo = new FrameObject(fname, new MetaDataFormat(
+			new MatrixCharacteristics(fb.getNumRows(), fb.getNumColumns()), FileFormat.COLUMNAR), fb.getSchema());
+		//repeated projections of the same columns are served from memory
+		FrameBlock ret1 = fo.readColumns(1, 2);
+		assertSame(ret1, fo.readColumns(1, 2));
+		FrameBlock ret2 = fo.readColumns(3, 3);
+		assertNotSame(ret1, ret2);
+		TestUtils.compareFrames(fb.slice(0, fb.getNumRows() - 1, 1, 2), ret1, true);
+		TestUtils.compareFrames(fb.slice(0, fb.getNumRows() - 1, 3, 3), ret2, true);
+		//modifications invalidate the cached projections
+		fo.setDirty(true);
+		fo.setDirty(false);
+		assertNotSame(ret1, fo.readColumns(1, 2));
+	}
+
+	private static FrameBlock writeAndRead(FrameBlock fb, String name) throws Exception {
+		String fname = DIR + name;
+		write(fb, fname);
+		return FrameReaderFactory.createFrameReader(FileFormat.COLUMNAR)
+			.readFrameFromHDFS(fname, fb.getSchema(), fb.getNumRows(), fb.getNumColumns());
+	}
+
+	private static void write(FrameBlock fb, String fname) throws Exception {
+		FrameWriterFactory.createFrameWriter(FileFormat.COLUMNAR)
+			.writeFrameToHDFS(fb, fname, fb.getNumRows(), fb.getNumColumns());
+	}
+
+	private static FrameBlock createEncodableFrame(int rows) {
+		ValueType[] schema = new ValueType[] {ValueType.STRING, ValueType.STRING, ValueType.INT64, ValueType.FP64};
+		FrameBlock fb = new FrameBlock(schema, new String[] {"city", "const", "sorted", "rand"});
+		fb.ensureAllocatedColumns(rows);
+		String[] cities = new String[] {"Graz", "Berlin", "Vienna", null, "Zurich"};
+		for(int i = 0; i < rows; i++) {
+			fb.set(i, 0, cities[(i * 7) % cities.length]); //low cardinality -> dict
+			fb.set(i, 1, "A"); //single run -> rle
+			fb.set(i, 2, (long) (i / 1000)); //few runs -> rle
+			fb.set(i, 3, (double) ((i * 31L) % 1009) / 7); //plain
+		}
+		return fb;
+	}
+}
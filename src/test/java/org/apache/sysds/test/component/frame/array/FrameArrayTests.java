@@ -71,6 +71,9 @@ public class FrameArrayTests {
 			tests.add(new Object[] {ArrayFactory.create(new String[] {"True", "False", "False"}), FrameArrayType.STRING});
 			tests.add(new Object[] {ArrayFactory.create(new String[] {"False", "False", "False"}), FrameArrayType.STRING});
 			tests.add(new Object[] {ArrayFactory.create(new String[] {"true", "false", "BLAA"}), FrameArrayType.STRING});
+			tests.add(new Object[] {ArrayFactory.createDDC(new String[] {"1", "0", "1"}), FrameArrayType.DDC});
+			tests.add(new Object[] {ArrayFactory.createDDC(new String[] {"true", "false", "false"}), FrameArrayType.DDC});
+			tests.add(new Object[] {ArrayFactory.createDDC(generateRandomString(300, 7)), FrameArrayType.DDC});
 			tests.add(new Object[] {ArrayFactory.create(new float[] {0.0f, 1.0f, 1.0f, 0.0f}), FrameArrayType.FP32});
 			tests.add(new Object[] {ArrayFactory.create(new double[] {0.0, 1.0, 1.0, 0.0}), FrameArrayType.FP64});
 			tests.add(new Object[] {ArrayFactory.create(new long[] {0, 1, 1, 0, 0, 1}), FrameArrayType.INT64});
@@ -256,6 +259,8 @@ public class FrameArrayTests {
 				return ArrayFactory.create(generateRandomFloat(size, seed));
 			case FP64:
 				return ArrayFactory.create(generateRandomDouble(size, seed));
+			case DDC:
+				return ArrayFactory.createDDC(generateRandomStringLowCard(size, seed));
 			default:
 				throw new DMLRuntimeException("Unsupported value type: " + t);
 
@@ -270,6 +275,14 @@ public class FrameArrayTests {
 		return ArrayFactory.create(ret);
 	}
 
+	public static String[] generateRandomStringLowCard(int size, int seed) {
+		Random r = new Random(seed);
+		String[] ret = new String[size];
+		for(int i = 0; i < size; i++)
+			ret[i] = "cat" + r.nextInt(5);
+		return ret;
+	}
+
 	public static String[] generateRandomString(int size, int seed) {
 		Random r = new Random(seed);
 		String[] ret = new String[size];
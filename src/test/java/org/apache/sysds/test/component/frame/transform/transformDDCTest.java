@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.component.frame.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.frame.data.columns.ArrayFactory;
+import org.apache.sysds.runtime.frame.data.columns.DDCArray;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.transform.encode.EncoderFactory;
+import org.apache.sysds.runtime.transform.encode.MultiColumnEncoder;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class transformDDCTest {
+
+	final FrameBlock data;
+	final FrameBlock dataDDC;
+
+	public transformDDCTest() {
+		Random r = new Random(7);
+		String[] c1 = new String[1000];
+		String[] c2 = new String[1000];
+		for(int i = 0; i < c1.length; i++) {
+			c1[i] = r.nextInt(20) == 0 ? null : "country" + r.nextInt(12);
+			c2[i] = "device" + r.nextInt(3);
+		}
+		data = new FrameBlock(new ValueType[] {ValueType.STRING, ValueType.STRING});
+		data.ensureAllocatedColumns(c1.length);
+		data.setColumn(0, ArrayFactory.create(c1));
+		data.setColumn(1, ArrayFactory.create(c2));
+		dataDDC = new FrameBlock(new ValueType[] {ValueType.STRING, ValueType.STRING});
+		dataDDC.ensureAllocatedColumns(c1.length);
+		dataDDC.setColumn(0, ArrayFactory.createDDC(c1));
+		dataDDC.setColumn(1, ArrayFactory.createDDC(c2));
+	}
+
+	@Test
+	public void testRecode() {
+		test("{recode:[C1,C2]}", 1);
+	}
+
+	@Test
+	public void testRecodeParallel() {
+		test("{recode:[C1,C2]}", 4);
+	}
+
+	@Test
+	public void testDummycode() {
+		test("{recode:[C1], dummycode:[C2]}", 1);
+	}
+
+	@Test
+	public void testSliceAppendDDC() {
+		FrameBlock slice = dataDDC.slice(10, 99);
+		assertTrue(slice.getColumn(0) instanceof DDCArray);
+		FrameBlock ret = slice.append(dataDDC.slice(100, 199), false);
+		for(int i = 0; i < 190; i++)
+			for(int j = 0; j < 2; j++)
+				assertEquals(data.get(i + 10, j), ret.get(i, j));
+	}
+
+	private void test(String spec, int k) {
+		try {
+			MultiColumnEncoder encoder = EncoderFactory.createEncoder(spec, data.getColumnNames(), 2, null);
+			MatrixBlock out = encoder.encode(data, k);
+			FrameBlock meta = encoder.getMetaData(new FrameBlock(2, ValueType.STRING));
+			MultiColumnEncoder encoder2 = EncoderFactory.createEncoder(spec, data.getColumnNames(), 2, null);
+			MatrixBlock out2 = encoder2.encode(dataDDC, k);
+			FrameBlock meta2 = encoder2.getMetaData(new FrameBlock(2, ValueType.STRING));
+			TestUtils.compareMatrices(out, out2, 0, "Not Equal after encode");
+			TestUtils.compareFrames(meta, meta2, true);
+			MatrixBlock out3 = encoder2.apply(dataDDC, k);
+			TestUtils.compareMatrices(out, out3, 0, "Not Equal after apply");
+		}
+		catch(Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.component.frame.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.apache.sysds.common.Types.FileFormat;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.lops.Lop;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.frame.data.columns.ArrayFactory;
+import org.apache.sysds.runtime.io.FileFormatPropertiesCSV;
+import org.apache.sysds.runtime.io.FrameWriterFactory;
+import org.apache.sysds.runtime.io.MatrixReaderFactory;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.meta.DataCharacteristics;
+import org.apache.sysds.runtime.meta.MatrixCharacteristics;
+import org.apache.sysds.runtime.transform.encode.EncoderFactory;
+import org.apache.sysds.runtime.transform.encode.MultiColumnEncoder;
+import org.apache.sysds.runtime.transform.encode.StreamingEncoder;
+import org.apache.sysds.runtime.util.HDFSTool;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class transformStreamingTest {
+	private static final String DIR = "target/testTemp/component/frame/transform/transformStreamingTest/";
+	private static final int rows = 5432;
+	private static final int blen = 1000;
+
+	private final FrameBlock data;
+
+	public transformStreamingTest() {
+		Random r = new Random(7);
+		String[] c1 = new String[rows];
+		double[] c2 = new double[rows];
+		String[] c3 = new String[rows];
+		for(int i = 0; i < rows; i++) {
+			c1[i] = "country" + r.nextInt(i < rows / 2 ? 10 : 40);
+			c2[i] = r.nextGaussian() * 100;
+			c3[i] = String.valueOf(r.nextInt(1000));
+		}
+		data = new FrameBlock(new ValueType[] {ValueType.STRING, ValueType.FP64, ValueType.STRING},
+			new String[] {"country", "amount", "id"});
+		data.ensureAllocatedColumns(rows);
+		data.setColumn(0, ArrayFactory.create(c1));
+		data.setColumn(1, ArrayFactory.create(c2));
+		data.setColumn(2, ArrayFactory.create(c3));
+	}
+
+	@Test
+	public void testRecode() {
+		runStreamingTest("{ids:true, recode:[1,3]}", 1);
+	}
+
+	@Test
+	public void testRecodeNames() {
+		runStreamingTest("{recode:[country, id]}", 4);
+	}
+
+	@Test
+	public void testDummycodeBin() {
+		runStreamingTest("{ids:true, recode:[1], dummycode:[1,2], bin:[{id:2, method:equi-width, numbins:7}]}", 4);
+	}
+
+	@Test
+	public void testHash() {
+		runStreamingTest("{ids:true, recode:[1], hash:[3], K:13, dummycode:[3]}", 1);
+	}
+
+	@Test
+	public void testSupported() {
+		assertTrue(StreamingEncoder.isSupported("{ids:true, recode:[1], bin:[{id:2, method:equi-width, numbins:3}]}"));
+		assertFalse(StreamingEncoder.isSupported("{ids:true, bin:[{id:2, method:equi-height, numbins:3}]}"));
+		assertFalse(StreamingEncoder.isSupported("{ids:true, omit:[1]}"));
+		assertFalse(StreamingEncoder.isSupported("{ids:true, impute:[{id:2, method:global_mean}]}"));
+	}
+
+	private void runStreamingTest(String spec, int k) {
+		try {
+			String fin = DIR + "in.csv";
+			String fout = DIR + "out";
+			FileFormatPropertiesCSV props = new FileFormatPropertiesCSV(true, ",", false);
+			FrameWriterFactory.createFrameWriter(FileFormat.CSV, props)
+				.writeFrameToHDFS(data, fin, rows, data.getNumColumns());
+
+			// in-memory reference
+			MultiColumnEncoder encoder = EncoderFactory.createEncoder(spec, data.getColumnNames(), 3, null);
+			MatrixBlock expected = encoder.encode(data, k);
+			FrameBlock expectedMeta = encoder.getMetaData(new FrameBlock(3, ValueType.STRING), k);
+
+			// streaming encode with small chunks not aligned to blocks
+			DataCharacteristics dc = new MatrixCharacteristics(-1, -1, blen);
+			StreamingEncoder senc = new StreamingEncoder(spec, props, 8 * 4096, k);
+			FrameBlock meta = senc.encode(fin, data.getSchema(), 3, fout, dc);
+
+			assertEquals(rows, dc.getRows());
+			assertEquals(expected.getNumColumns(), dc.getCols());
+			assertEquals(expected.getNonZeros(), dc.getNonZeros());
+			assertTrue(HDFSTool.existsFileOnHDFS(fout + ".mtd"));
+			MatrixBlock out = MatrixReaderFactory.createMatrixReader(FileFormat.BINARY)
+				.readMatrixFromHDFS(fout, dc.getRows(), dc.getCols(), blen, dc.getNonZeros());
+			TestUtils.compareMatrices(expected, out, 0);
+			assertEquals(expectedMeta.getNumRows(), meta.getNumRows());
+			for(int i = 0; i < meta.getNumRows(); i++)
+				for(int j = 0; j < meta.getNumColumns(); j++)
+					compareMetaEntry(expectedMeta.getString(i, j), meta.getString(i, j));
+			HDFSTool.deleteFileIfExistOnHDFS(DIR);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static void compareMetaEntry(String expected, String actual) {
+		if(expected == null || expected.equals(actual)) {
+			assertEquals(expected, actual);
+			return;
+		}
+		// bin boundaries (min/max pairs) up to rounding errors of the merge
+		String[] e = expected.split(Lop.DATATYPE_PREFIX);
+		String[] a = actual.split(Lop.DATATYPE_PREFIX);
+		assertEquals(e.length, a.length);
+		for(int i = 0; i < e.length; i++)
+			assertEquals(Double.parseDouble(e[i]), Double.parseDouble(a[i]), 1e-10);
+	}
+}
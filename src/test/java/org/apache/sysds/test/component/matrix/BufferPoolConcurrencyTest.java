@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.component.matrix;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.sysds.runtime.controlprogram.caching.BufferPoolSession;
+import org.apache.sysds.runtime.controlprogram.caching.ByteBuffer;
+import org.apache.sysds.runtime.controlprogram.caching.CacheEvictionQueue;
+import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.LocalFileUtils;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class BufferPoolConcurrencyTest
+{
+	private final static int rows = 100;
+	private final static int cols = 10;
+	private final static int threads = 32;
+
+	@Test
+	public void testQueueOrderFIFO() throws Exception {
+		CacheableData.initCaching("tmp_bufferpool_test");
+		CacheEvictionQueue queue = new CacheEvictionQueue(8);
+		String[] fnames = createEntries(queue, 20);
+		queue.remove(fnames[3]);
+		for( int i=0; i<20; i++ ) {
+			if( i == 3 ) continue;
+			Assert.assertEquals(getSize(i), queue.evictFirst(null));
+			Assert.assertTrue(new File(fnames[i]).exists());
+		}
+		Assert.assertTrue(queue.isEmpty());
+		Assert.assertEquals(-1, queue.evictFirst(null));
+	}
+
+	@Test
+	public void testQueueOrderLRU() throws Exception {
+		CacheableData.initCaching("tmp_bufferpool_test");
+		CacheEvictionQueue queue = new CacheEvictionQueue(8);
+		String[] fnames = createEntries(queue, 10);
+		Assert.assertNotNull(queue.get(fnames[0], true));
+		Assert.assertNotNull(queue.get(fnames[1], false));
+		for( int i=1; i<10; i++ )
+			Assert.assertEquals(getSize(i), queue.evictFirst(null));
+		Assert.assertEquals(getSize(0), queue.evictFirst(null));
+	}
+
+	@Test
+	public void testQueuePinned() throws Exception {
+		CacheableData.initCaching("tmp_bufferpool_test");
+		CacheEvictionQueue queue = new CacheEvictionQueue(8);
+		String[] fnames = createEntries(queue, 4);
+		List<String> pinned = Arrays.asList(fnames[0], fnames[2]);
+		Assert.assertEquals(getSize(1), queue.evictFirst(pinned));
+		Assert.assertEquals(getSize(3), queue.evictFirst(pinned));
+		Assert.assertEquals(-1, queue.evictFirst(pinned));
+		Assert.assertEquals(2, queue.size());
+	}
+
+	@Test
+	public void testConcurrentWriteReadDelete() throws Exception {
+		CacheableData.initCaching("tmp_bufferpool_test");
+		long limit = LazyWriteBuffer.getWriteBufferLimit();
+		MatrixBlock mb = MatrixBlock.randOperations(rows, cols, 1.0, -1, 1, "uniform", 7);
+		//limit the buffer pool to a few blocks to force concurrent evictions
+		LazyWriteBuffer.setWriteBufferLimit(LazyWriteBuffer.getCacheBlockSize(mb) * threads / 2);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Void>> tasks = new ArrayList<>();
+			for( int k=0; k<threads; k++ ) {
+				final int tid = k;
+				tasks.add(pool.submit(() -> {
+					for( int i=0; i<50; i++ ) {
+						String fname = LocalFileUtils.getUniqueWorkingDir(LocalFileUtils.CATEGORY_CACHE)+"_"+tid;
+						LazyWriteBuffer.writeBlock(fname, mb);
+						MatrixBlock mb2 = (MatrixBlock) LazyWriteBuffer.readBlock(fname, true);
+						TestUtils.compareMatrices(mb, mb2, 0);
+						LazyWriteBuffer.deleteBlock(fname);
+					}
+					return null;
+				}));
+			}
+			for( Future<Void> task : tasks )
+				task.get();
+			Assert.assertEquals(0, LazyWriteBuffer.getQueueSize());
+			Assert.assertEquals(0, LazyWriteBuffer.getWriteBufferSize());
+		}
+		finally {
+			pool.shutdown();
+			LazyWriteBuffer.setWriteBufferLimit(limit);
+		}
+	}
+
+	@Test
+	public void testSessionQuota() throws Exception {
+		CacheableData.initCaching("tmp_bufferpool_test");
+		MatrixBlock mb = MatrixBlock.randOperations(rows, cols, 1.0, -1, 1, "uniform", 7);
+		long size = LazyWriteBuffer.getCacheBlockSize(mb);
+		BufferPoolSession s1 = new BufferPoolSession("s1");
+		BufferPoolSession s2 = new BufferPoolSession("s2");
+		LazyWriteBuffer.setSessionLimit(3 * size);
+		try {
+			String prefix = LocalFileUtils.getUniqueWorkingDir(LocalFileUtils.CATEGORY_CACHE);
+			new File(prefix).getParentFile().mkdirs();
+			BufferPoolSession.setCurrent(s2);
+			for( int i=0; i<2; i++ )
+				LazyWriteBuffer.writeBlock(prefix+"_s2_"+i, mb);
+			//the heavy session only evicts its own entries
+			BufferPoolSession.setCurrent(s1);
+			for( int i=0; i<6; i++ )
+				LazyWriteBuffer.writeBlock(prefix+"_s1_"+i, mb);
+			Assert.assertEquals(3 * size, s1.getSize());
+			Assert.assertEquals(3, s1.getNumEvicted());
+			Assert.assertEquals(2 * size, s2.getSize());
+			Assert.assertEquals(0, s2.getNumEvicted());
+			Assert.assertEquals(5, LazyWriteBuffer.getQueueSize());
+			TestUtils.compareMatrices(mb, (MatrixBlock) LazyWriteBuffer.readBlock(prefix+"_s1_0", true), 0);
+			//deletes release the session memory
+			for( int i=0; i<6; i++ )
+				LazyWriteBuffer.deleteBlock(prefix+"_s1_"+i);
+			Assert.assertEquals(0, s1.getSize());
+		}
+		finally {
+			BufferPoolSession.setCurrent(null);
+			LazyWriteBuffer.setSessionLimit(-1);
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.init();
+		}
+	}
+
+	private static String[] createEntries(CacheEvictionQueue queue, int num) throws Exception {
+		String[] fnames = new String[num];
+		for( int i=0; i<num; i++ ) {
+			MatrixBlock mb = MatrixBlock.randOperations(rows+i, cols, 1.0, -1, 1, "uniform", i);
+			ByteBuffer bb = new ByteBuffer(getSize(i));
+			bb.serializeBlock(mb);
+			fnames[i] = LocalFileUtils.getUniqueWorkingDir(LocalFileUtils.CATEGORY_CACHE);
+			new File(fnames[i]).getParentFile().mkdirs();
+			queue.addLast(fnames[i], bb);
+		}
+		return fnames;
+	}
+
+	private static long getSize(int i) {
+		return MatrixBlock.estimateSizeInMemory(rows+i, cols, 1.0);
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.component.matrix;
+
+import java.io.File;
+import java.lang.reflect.Method;
+
+import org.apache.sysds.common.Types.FileFormat;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.hops.OptimizerUtils;
+import org.apache.sysds.runtime.controlprogram.caching.CacheMappedIO;
+import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.controlprogram.caching.UnifiedMemoryManager;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.meta.MatrixCharacteristics;
+import org.apache.sysds.runtime.meta.MetaDataFormat;
+import org.apache.sysds.runtime.util.LocalFileUtils;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class MMapEvictionTest
+{
+	private final static int rows = 1234;
+	private final static int cols = 56;
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.05;
+
+	@Test
+	public void testReadWriteDense() {
+		runReadWriteTest(MatrixBlock.randOperations(rows, cols, sparsity1, -1, 1, "uniform", 7));
+	}
+
+	@Test
+	public void testReadWriteCSR() {
+		MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity2, -1, 1, "uniform", 7);
+		runReadWriteTest(new MatrixBlock(mb, SparseBlock.Type.CSR, true));
+	}
+
+	@Test
+	public void testReadWriteDenseUnknownNnz() {
+		MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity1, -1, 1, "uniform", 7);
+		MatrixBlock ref = new MatrixBlock(mb);
+		mb.setNonZeros(-1);
+		runReadWriteTest(mb, ref);
+	}
+
+	@Test
+	public void testReadWriteCSRUnknownNnz() {
+		MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity2, -1, 1, "uniform", 7);
+		mb = new MatrixBlock(mb, SparseBlock.Type.CSR, true);
+		MatrixBlock ref = new MatrixBlock(mb);
+		mb.setNonZeros(-1);
+		runReadWriteTest(mb, ref);
+	}
+
+	@Test
+	public void testReadWriteCSRStaleNnz() {
+		MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity2, -1, 1, "uniform", 7);
+		mb = new MatrixBlock(mb, SparseBlock.Type.CSR, true);
+		MatrixBlock ref = new MatrixBlock(mb);
+		mb.setNonZeros(mb.getNonZeros() + 17);
+		runReadWriteTest(mb, ref);
+	}
+
+	@Test
+	public void testNotApplicable() {
+		MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity2, -1, 1, "uniform", 7);
+		Assert.assertFalse(CacheMappedIO.isApplicable(new MatrixBlock(mb, SparseBlock.Type.MCSR, true)));
+		Assert.assertFalse(CacheMappedIO.isApplicable(new MatrixBlock(rows, cols, true)));
+	}
+
+	@Test
+	public void testEvictionDense() {
+		runEvictionTest(MatrixBlock.randOperations(rows, cols, sparsity1, -1, 1, "uniform", 7));
+	}
+
+	@Test
+	public void testEvictionCSR() {
+		MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity2, -1, 1, "uniform", 7);
+		runEvictionTest(new MatrixBlock(mb, SparseBlock.Type.CSR, true));
+	}
+
+	private static void runReadWriteTest(MatrixBlock mb) {
+		runReadWriteTest(mb, mb);
+	}
+
+	private static void runReadWriteTest(MatrixBlock mb, MatrixBlock ref) {
+		try {
+			Assert.assertTrue(CacheMappedIO.isApplicable(mb));
+			String fname = LocalFileUtils.getUniqueWorkingDir(LocalFileUtils.CATEGORY_CACHE);
+			new File(fname).getParentFile().mkdirs();
+			CacheMappedIO.writeMatrixBlock(fname, mb);
+			Assert.assertTrue(CacheMappedIO.isMappedFile(fname));
+			MatrixBlock mb2 = CacheMappedIO.readMatrixBlock(fname);
+			Assert.assertEquals(mb.isInSparseFormat(), mb2.isInSparseFormat());
+			Assert.assertEquals(ref.getNonZeros(), mb2.getNonZeros());
+			TestUtils.compareMatrices(ref, mb2, 0);
+			LocalFileUtils.deleteFileIfExists(fname);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static void runEvictionTest(MatrixBlock mb) {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		DMLConfig conf2 = new DMLConfig(conf);
+		conf2.setTextValue(DMLConfig.CACHING_MMAP, "true");
+		ConfigurationManager.setLocalConfig(conf2);
+		try {
+			CacheableData.initCaching("tmp_mmap_eviction_test");
+
+			//write matrix into buffer pool (dirty release)
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, -1, -1);
+			MatrixObject mo = new MatrixObject(ValueType.FP64, "mA", new MetaDataFormat(mc, FileFormat.BINARY));
+			mo.acquireModify(mb);
+			mo.release();
+
+			//evict matrix and clear in-memory reference
+			if (OptimizerUtils.isUMMEnabled())
+				UnifiedMemoryManager.forceEviction();
+			else
+				LazyWriteBuffer.forceEviction();
+			Method clearmo = CacheableData.class.getDeclaredMethod("clearCache");
+			clearmo.setAccessible(true);
+			clearmo.invoke(mo);
+
+			//read matrix from mapped eviction file
+			MatrixBlock mb2 = mo.acquireRead();
+			mo.release();
+			Assert.assertNotSame(mb, mb2);
+			TestUtils.compareMatrices(mb, mb2, 0);
+			mo.clearData();
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			ConfigurationManager.setLocalConfig(conf);
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import java.lang.reflect.Method;
+
+import org.apache.sysds.common.Types.FileFormat;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.data.DenseBlockFP64OffHeap;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.meta.MatrixCharacteristics;
+import org.apache.sysds.runtime.meta.MetaDataFormat;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class OffHeapEvictionTest
+{
+	private final static int rows = 1234;
+	private final static int cols = 56;
+	private final static long size = (long) rows * cols * Double.BYTES;
+
+	@Test
+	public void testEvictionDirect() {
+		runOffHeapEvictionTest("direct");
+	}
+
+	@Test
+	public void testEvictionMMap() {
+		runOffHeapEvictionTest("mmap");
+	}
+
+	@Test
+	public void testEvictionLimit() {
+		runOffHeapLimitTest("direct");
+	}
+
+	private static void runOffHeapEvictionTest(String storage) {
+		DMLConfig conf = setOffHeapConfig(storage);
+		try {
+			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, 1.0, -1, 1, "uniform", 7);
+			CacheableData.initCaching("tmp_offheap_eviction_test");
+			long before = DenseBlockFP64OffHeap.getAllocatedSize();
+
+			//write matrix into cache (dirty release), which keeps a shallow
+			//reference in the buffer pool without copying it off-heap
+			MatrixObject mo = createMatrixObject("mA", mb);
+			Assert.assertEquals(before, DenseBlockFP64OffHeap.getAllocatedSize());
+			Assert.assertEquals(0, LazyWriteBuffer.getOffHeapBufferSize());
+
+			//eviction from the buffer pool copies the block off-heap
+			LazyWriteBuffer.forceEviction();
+			Assert.assertEquals(before + size, DenseBlockFP64OffHeap.getAllocatedSize());
+			Assert.assertEquals(size, LazyWriteBuffer.getOffHeapBufferSize());
+
+			//clear in-memory reference and restore from off-heap data
+			MatrixBlock mb2 = restore(mo);
+			Assert.assertNotSame(mb, mb2);
+			TestUtils.compareMatrices(mb, mb2, 0);
+
+			//cleanup releases off-heap memory
+			mo.clearData();
+			Assert.assertEquals(before, DenseBlockFP64OffHeap.getAllocatedSize());
+			Assert.assertEquals(0, LazyWriteBuffer.getOffHeapBufferSize());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			ConfigurationManager.setLocalConfig(conf);
+		}
+	}
+
+	private static void runOffHeapLimitTest(String storage) {
+		DMLConfig conf = setOffHeapConfig(storage);
+		long limit = LazyWriteBuffer.getWriteBufferLimit();
+		try {
+			CacheableData.initCaching("tmp_offheap_eviction_test");
+			LazyWriteBuffer.setWriteBufferLimit(size * 3 / 2);
+			long before = DenseBlockFP64OffHeap.getAllocatedSize();
+
+			//the 2nd and 3rd write evict the 1st and 2nd block, where only
+			//the 1st block fits into the off-heap share of the buffer pool
+			MatrixBlock[] mb = new MatrixBlock[3];
+			MatrixObject[] mo = new MatrixObject[3];
+			for( int i = 0; i < 3; i++ ) {
+				mb[i] = MatrixBlock.randOperations(rows, cols, 1.0, -1, 1, "uniform", 7 + i);
+				mo[i] = createMatrixObject("m" + i, mb[i]);
+			}
+			Assert.assertEquals(size, LazyWriteBuffer.getOffHeapBufferSize());
+			Assert.assertEquals(before + size, DenseBlockFP64OffHeap.getAllocatedSize());
+
+			//restore from off-heap data, local FS, and buffer pool
+			for( int i = 0; i < 3; i++ )
+				TestUtils.compareMatrices(mb[i], restore(mo[i]), 0);
+
+			for( MatrixObject m : mo )
+				m.clearData();
+			Assert.assertEquals(0, LazyWriteBuffer.getOffHeapBufferSize());
+			Assert.assertEquals(before, DenseBlockFP64OffHeap.getAllocatedSize());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			LazyWriteBuffer.setWriteBufferLimit(limit);
+			ConfigurationManager.setLocalConfig(conf);
+		}
+	}
+
+	private static DMLConfig setOffHeapConfig(String storage) {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		DMLConfig conf2 = new DMLConfig(conf);
+		conf2.setTextValue(DMLConfig.CACHING_OFFHEAP, storage);
+		ConfigurationManager.setLocalConfig(conf2);
+		return conf;
+	}
+
+	private static MatrixObject createMatrixObject(String name, MatrixBlock mb) {
+		MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, -1, -1);
+		MatrixObject mo = new MatrixObject(ValueType.FP64, name, new MetaDataFormat(mc, FileFormat.BINARY));
+		mo.acquireModify(mb);
+		mo.release();
+		return mo;
+	}
+
+	private static MatrixBlock restore(MatrixObject mo) throws Exception {
+		Method clearmo = CacheableData.class.getDeclaredMethod("clearCache");
+		clearmo.setAccessible(true);
+		clearmo.invoke(mo);
+		MatrixBlock ret = mo.acquireRead();
+		mo.release();
+		return ret;
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.component.misc;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.apache.sysds.runtime.util.DoubleLongHashMap;
+import org.apache.sysds.runtime.util.StringLongHashMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrimitiveHashMapTest {
+
+	@Test
+	public void testStringLongVsHashMap() {
+		Random r = new Random(7);
+		StringLongHashMap map = new StringLongHashMap(4);
+		HashMap<String, Long> ref = new HashMap<>();
+		for(int i = 0; i < 100000; i++) {
+			String key = "k" + r.nextInt(20000);
+			long value = r.nextLong();
+			if(r.nextBoolean()) {
+				map.put(key, value);
+				ref.put(key, value);
+			}
+			else
+				Assert.assertEquals(ref.putIfAbsent(key, value) == null, map.putIfAbsent(key, value));
+		}
+		Assert.assertEquals(ref.size(), map.size());
+		Assert.assertEquals(ref.keySet(), map.keySet());
+		Assert.assertEquals(ref, map.toHashMap());
+		Assert.assertEquals(-1, map.get("k20001", -1));
+		Assert.assertEquals(new StringLongHashMap(ref), map);
+		Assert.assertEquals(new StringLongHashMap(ref).hashCode(), map.hashCode());
+	}
+
+	@Test
+	public void testStringLongInsertionOrder() {
+		StringLongHashMap map = new StringLongHashMap();
+		for(int i = 0; i < 1000; i++)
+			Assert.assertTrue(map.putIfAbsent("v" + (999 - i), i + 1));
+		Assert.assertFalse(map.putIfAbsent("v3", 7));
+		for(int i = 0; i < 1000; i++) {
+			Assert.assertEquals("v" + (999 - i), map.getKey(i));
+			Assert.assertEquals(i + 1, map.getValue(i));
+		}
+		map.clear();
+		Assert.assertEquals(0, map.size());
+		Assert.assertFalse(map.containsKey("v3"));
+	}
+
+	@Test
+	public void testDoubleLong() {
+		DoubleLongHashMap map = new DoubleLongHashMap(2);
+		for(int i = 0; i < 10000; i++)
+			Assert.assertTrue(map.putIfAbsent(i, i));
+		Assert.assertTrue(map.putIfAbsent(Double.NaN, -1));
+		Assert.assertTrue(map.putIfAbsent(-0.0, -2));
+		Assert.assertFalse(map.putIfAbsent(0.0, 3));
+		Assert.assertFalse(map.putIfAbsent(Double.NaN, 3));
+		Assert.assertEquals(10002, map.size());
+		for(int i = 0; i < 10000; i++) {
+			Assert.assertEquals(i, map.get(i, -7));
+			Assert.assertEquals(i, map.getKey(i), 0);
+		}
+		Assert.assertEquals(-1, map.get(Double.NaN, -7));
+		Assert.assertEquals(-2, map.get(-0.0, -7));
+		Assert.assertEquals(-7, map.get(0.5, -7));
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.paramserv;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.parser.Statement.PSFrequency;
+import org.apache.sysds.parser.Statement.PSUpdateType;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysds.runtime.controlprogram.paramserv.LocalParamServer;
+import org.apache.sysds.runtime.controlprogram.paramserv.ParamservUtils;
+import org.apache.sysds.runtime.functionobjects.Minus;
+import org.apache.sysds.runtime.functionobjects.Multiply;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.cp.ListObject;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysds.runtime.matrix.operators.RightScalarOperator;
+import org.apache.sysds.utils.stats.ParamServStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.jcip.annotations.NotThreadSafe;
+
+@NotThreadSafe
+public class AsyncAggregationTest {
+	private static final int NUM_LAYERS = 3;
+	private static final int NUM_WORKERS = 8;
+	private static final int NUM_PUSHES = 50;
+	private static final double LR = 0.1;
+	private static final double MU = 0.9;
+
+	@Test
+	public void testSynchronousASP() throws Exception {
+		SGDParamServer ps = run(false, false);
+		Assert.assertFalse(ps.isAsyncAggregation());
+		checkModel(ps.getResult(), -LR * NUM_WORKERS * NUM_PUSHES);
+		Assert.assertEquals(0, ParamServStatistics.getAsyncUpdateCount());
+	}
+
+	@Test
+	public void testAsyncAggregationASP() throws Exception {
+		SGDParamServer ps = run(true, false);
+		Assert.assertTrue(ps.isAsyncAggregation());
+		checkModel(ps.getResult(), -LR * NUM_WORKERS * NUM_PUSHES);
+		Assert.assertEquals(NUM_WORKERS * NUM_PUSHES, ps.getNumCalls());
+		Assert.assertEquals(NUM_WORKERS * NUM_PUSHES, ParamServStatistics.getAsyncUpdateCount());
+		Assert.assertTrue(ParamServStatistics.getAsyncAggregationCount() <= NUM_WORKERS * NUM_PUSHES);
+	}
+
+	@Test
+	public void testAsyncAggregationMomentumASP() throws Exception {
+		// momentum is not linear in the gradients, so the async mode must apply them one by one
+		SGDParamServer ps = run(true, true);
+		Assert.assertTrue(ps.isAsyncAggregation());
+		checkModel(ps.getResult(), getMomentumModel(NUM_WORKERS * NUM_PUSHES));
+		Assert.assertEquals(NUM_WORKERS * NUM_PUSHES, ps.getNumCalls());
+	}
+
+	@Test
+	public void testAsyncAggregationOnlyASP() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		conf.setTextValue(DMLConfig.PARAMSERV_ASYNC_AGGREGATION, "true");
+		try {
+			SGDParamServer ps = new SGDParamServer(createModel(), PSUpdateType.BSP, NUM_WORKERS, false);
+			Assert.assertFalse(ps.isAsyncAggregation());
+		}
+		finally {
+			conf.setTextValue(DMLConfig.PARAMSERV_ASYNC_AGGREGATION, "false");
+		}
+	}
+
+	private static SGDParamServer run(boolean async, boolean momentum) throws Exception {
+		ParamServStatistics.reset();
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		conf.setTextValue(DMLConfig.PARAMSERV_ASYNC_AGGREGATION, String.valueOf(async));
+		ExecutorService pool = Executors.newFixedThreadPool(NUM_WORKERS);
+		try {
+			SGDParamServer ps = new SGDParamServer(createModel(), PSUpdateType.ASP, NUM_WORKERS, momentum);
+			List<Future<?>> tasks = new ArrayList<>();
+			for(int w = 0; w < NUM_WORKERS; w++) {
+				final int workerID = w;
+				tasks.add(pool.submit(() -> {
+					for(int i = 0; i < NUM_PUSHES; i++) {
+						ps.pull(workerID);
+						ps.push(workerID, createGradients());
+					}
+				}));
+			}
+			for(Future<?> task : tasks)
+				task.get();
+			return ps;
+		}
+		finally {
+			pool.shutdown();
+			conf.setTextValue(DMLConfig.PARAMSERV_ASYNC_AGGREGATION, "false");
+		}
+	}
+
+	private static void checkModel(ListObject model, double expected) {
+		// all gradients are equal, so the final model is independent of the interleaving
+		for(int i = 0; i < NUM_LAYERS; i++) {
+			MatrixBlock mb = ((MatrixObject) model.getData().get(i)).acquireReadAndRelease();
+			for(int r = 0; r < mb.getNumRows(); r++)
+				for(int c = 0; c < mb.getNumColumns(); c++)
+					Assert.assertEquals(expected, mb.getValue(r, c), 1e-9);
+		}
+	}
+
+	private static double getMomentumModel(int numUpdates) {
+		double model = 0, velocity = 0;
+		for(int i = 0; i < numUpdates; i++) {
+			velocity = MU * velocity - LR;
+			model += velocity;
+		}
+		return model;
+	}
+
+	private static ListObject createModel() {
+		return createList(0);
+	}
+
+	private static ListObject createGradients() {
+		return createList(1);
+	}
+
+	private static ListObject createList(double val) {
+		List<Data> data = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		for(int i = 0; i < NUM_LAYERS; i++) {
+			data.add(ParamservUtils.newMatrixObject(new MatrixBlock(20, 10, val)));
+			names.add("W" + i);
+		}
+		return new ListObject(data, names);
+	}
+
+	/**
+	 * Parameter server with a plain SGD or SGD with momentum update in place of a DML
+	 * aggregation function. The momentum velocity is state carried across updates.
+	 */
+	private static class SGDParamServer extends LocalParamServer {
+		private final boolean _momentum;
+		private double _velocity = 0;
+		private int _numCalls = 0;
+
+		private SGDParamServer(ListObject model, PSUpdateType updateType, int workers, boolean momentum) {
+			super(model, "sgd", updateType, PSFrequency.BATCH, ExecutionContextFactory.createContext(),
+				workers, null, -1, null, null, 0, false, 0);
+			_momentum = momentum;
+		}
+
+		@Override
+		protected void setupAggFunc(ExecutionContext ec, String aggFunc) {
+			// no aggregation function
+		}
+
+		@Override
+		protected ListObject updateLocalModel(ExecutionContext ec, ListObject gradients, ListObject model) {
+			_numCalls++;
+			// constant gradients, so a scalar velocity suffices for all cells
+			double scale = LR;
+			if(_momentum) {
+				_velocity = MU * _velocity - LR;
+				scale = -_velocity;
+			}
+			List<Data> data = new ArrayList<>();
+			for(int i = 0; i < model.getLength(); i++) {
+				MatrixBlock mb = ((MatrixObject) model.getData().get(i)).acquireReadAndRelease();
+				MatrixBlock grad = ((MatrixObject) gradients.getData().get(i)).acquireReadAndRelease();
+				MatrixBlock upd = grad.scalarOperations(
+					new RightScalarOperator(Multiply.getMultiplyFnObject(), scale), new MatrixBlock());
+				data.add(ParamservUtils.newMatrixObject(
+					mb.binaryOperations(new BinaryOperator(Minus.getMinusFnObject()), upd, new MatrixBlock())));
+			}
+			return new ListObject(data, model.getNames());
+		}
+
+		private int getNumCalls() {
+			return _numCalls;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.paramserv;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.sysds.parser.Statement.PSGradCompression;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.controlprogram.paramserv.CompressedGradients;
+import org.apache.sysds.runtime.controlprogram.paramserv.GradientCompressor;
+import org.apache.sysds.runtime.controlprogram.paramserv.ParamservUtils;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.cp.ListObject;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.DataConverter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GradientCompressionTest {
+	private static final int ROWS = 40;
+	private static final int COLS = 25;
+
+	@Test
+	public void testTopK() {
+		ListObject grad = createGradients(7);
+		double[] in = getValues(grad, 0);
+		CompressedGradients cgrad = new GradientCompressor(PSGradCompression.TOPK, 0.1).compress(grad);
+		double[] out = getValues(cgrad.decompress(), 0);
+
+		// exactly the 10% entries with largest magnitude are kept
+		double minKept = Double.MAX_VALUE, maxDropped = 0;
+		int nnz = 0;
+		for(int i = 0; i < in.length; i++) {
+			if(out[i] != 0) {
+				Assert.assertEquals(in[i], out[i], 0);
+				minKept = Math.min(minKept, Math.abs(in[i]));
+				nnz++;
+			}
+			else
+				maxDropped = Math.max(maxDropped, Math.abs(in[i]));
+		}
+		Assert.assertEquals(ROWS * COLS / 10, nnz);
+		Assert.assertTrue(minKept >= maxDropped);
+		Assert.assertTrue(cgrad.getExactSerializedSize() < cgrad.getRawSize() / 4);
+	}
+
+	@Test
+	public void testQuantization() {
+		ListObject grad = createGradients(3);
+		double[] in = getValues(grad, 1);
+		double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+		for(double v : in) {
+			min = Math.min(min, v);
+			max = Math.max(max, v);
+		}
+		CompressedGradients cgrad = new GradientCompressor(PSGradCompression.QUANT8, 0.1).compress(grad);
+		double[] out = getValues(cgrad.decompress(), 1);
+		double tol = (max - min) / 255 / 2 + 1e-12;
+		for(int i = 0; i < in.length; i++)
+			Assert.assertEquals(in[i], out[i], tol);
+		Assert.assertTrue(cgrad.getExactSerializedSize() < cgrad.getRawSize() / 6);
+	}
+
+	@Test(expected = DMLRuntimeException.class)
+	public void testTooLargeLayer() {
+		List<Data> data = new ArrayList<>();
+		data.add(ParamservUtils.newMatrixObject(new MatrixBlock(100000, 100000, true), false));
+		new GradientCompressor(PSGradCompression.TOPK, 0.1).compress(new ListObject(data));
+	}
+
+	@Test
+	public void testErrorFeedbackTopK() {
+		testErrorFeedback(PSGradCompression.TOPK);
+	}
+
+	@Test
+	public void testErrorFeedbackTopKQuant8() {
+		testErrorFeedback(PSGradCompression.TOPK_QUANT8);
+	}
+
+	@Test
+	public void testErrorFeedbackQuant8() {
+		testErrorFeedback(PSGradCompression.QUANT8);
+	}
+
+	@Test(expected = DMLRuntimeException.class)
+	public void testInvalidRatio() {
+		new GradientCompressor(PSGradCompression.TOPK, 1.5);
+	}
+
+	private static void testErrorFeedback(PSGradCompression type) {
+		// the transferred gradients plus the remaining residual sum up to the pushed gradients
+		GradientCompressor compressor = new GradientCompressor(type, 0.05);
+		double[] in = new double[ROWS * COLS];
+		double[] out = new double[ROWS * COLS];
+		for(int t = 0; t < 10; t++) {
+			ListObject grad = createGradients(t);
+			add(in, getValues(grad, 0));
+			add(out, getValues(compressor.compress(grad).decompress(), 0));
+		}
+		add(out, getValues(compressor.getResiduals(), 0));
+		for(int i = 0; i < in.length; i++)
+			Assert.assertEquals(in[i], out[i], 1e-9);
+	}
+
+	private static void add(double[] a, double[] b) {
+		for(int i = 0; i < a.length; i++)
+			a[i] += b[i];
+	}
+
+	private static double[] getValues(ListObject lo, int pos) {
+		MatrixBlock mb = ((MatrixObject) lo.getData().get(pos)).acquireReadAndRelease();
+		return DataConverter.convertToDoubleVector(mb, true);
+	}
+
+	private static ListObject createGradients(int seed) {
+		List<Data> data = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		for(int i = 0; i < 2; i++) {
+			data.add(ParamservUtils.newMatrixObject(
+				MatrixBlock.randOperations(ROWS, COLS, 1.0, -1, 1, "uniform", seed * 2 + i), false));
+			names.add("W" + i);
+		}
+		return new ListObject(data, names);
+	}
+}
@@ -24,7 +24,10 @@ import java.util.Arrays;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.apache.sysds.parser.Statement.PSGradCompression;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.controlprogram.paramserv.CompressedGradients;
+import org.apache.sysds.runtime.controlprogram.paramserv.GradientCompressor;
 import org.apache.sysds.runtime.controlprogram.paramserv.rpc.PSRpcCall;
 import org.apache.sysds.runtime.controlprogram.paramserv.rpc.PSRpcObject;
 import org.apache.sysds.runtime.controlprogram.paramserv.rpc.PSRpcResponse;
@@ -47,6 +50,16 @@ public class RpcObjectTest {
 			actual.serialize().array()));
 	}
 
+	@Test
+	public void testPSRpcCallCompressed() throws IOException {
+		CompressedGradients cgrad = new GradientCompressor(PSGradCompression.TOPK_QUANT8, 0.1).compress(generateData());
+		PSRpcCall expected = new PSRpcCall(1, cgrad);
+		PSRpcCall actual = new PSRpcCall(expected.serialize());
+		Assert.assertEquals(PSRpcObject.PUSH_COMPRESSED, actual.getMethod());
+		Assert.assertEquals(cgrad.getExactSerializedSize() + 8, expected.serialize().array().length);
+		Assert.assertTrue(Arrays.equals(expected.serialize().array(), actual.serialize().array()));
+	}
+
 	@Test
 	public void testPSRpcResponse() throws IOException {
 		PSRpcResponse expected = new PSRpcResponse(PSRpcResponse.Type.SUCCESS, generateData());
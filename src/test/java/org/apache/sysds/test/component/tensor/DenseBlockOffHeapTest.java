@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.tensor;
+
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.DenseBlockFP64OffHeap;
+import org.apache.sysds.runtime.data.DenseBlockFP64OffHeap.Storage;
+import org.apache.sysds.runtime.data.DenseBlockFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DenseBlockOffHeapTest
+{
+	private static final int ROWS = 37;
+	private static final int COLS = 11;
+
+	@Test
+	public void testGetSetDirect() {
+		runGetSetTest(Storage.DIRECT);
+	}
+
+	@Test
+	public void testGetSetMMap() {
+		runGetSetTest(Storage.MMAP);
+	}
+
+	@Test
+	public void testCopyRoundtripDirect() {
+		runCopyRoundtripTest(Storage.DIRECT);
+	}
+
+	@Test
+	public void testCopyRoundtripMMap() {
+		runCopyRoundtripTest(Storage.MMAP);
+	}
+
+	@Test
+	public void testIncrementAndNnzDirect() {
+		runIncrementAndNnzTest(Storage.DIRECT);
+	}
+
+	@Test
+	public void testIncrementAndNnzMMap() {
+		runIncrementAndNnzTest(Storage.MMAP);
+	}
+
+	@Test
+	public void testFactoryType() {
+		DenseBlockFP64OffHeap db = new DenseBlockFP64OffHeap(new int[] {ROWS, COLS}, Storage.DIRECT);
+		Assert.assertTrue(DenseBlockFactory.isDenseBlockType(db, DenseBlock.Type.OFFHEAP));
+		db.release();
+	}
+
+	@Test(expected = DMLRuntimeException.class)
+	public void testFactoryCreateUnsupported() {
+		DenseBlockFactory.createDenseBlock(ValueType.FP64, DenseBlock.Type.OFFHEAP, new int[] {ROWS, COLS});
+	}
+
+	@Test
+	public void testReleaseAccounting() {
+		long before = DenseBlockFP64OffHeap.getAllocatedSize();
+		DenseBlockFP64OffHeap db = new DenseBlockFP64OffHeap(new int[] {ROWS, COLS}, Storage.DIRECT);
+		Assert.assertEquals(before + (long) ROWS * COLS * Double.BYTES, DenseBlockFP64OffHeap.getAllocatedSize());
+		db.release();
+		Assert.assertTrue(db.isReleased());
+		Assert.assertEquals(before, DenseBlockFP64OffHeap.getAllocatedSize());
+	}
+
+	@Test
+	public void testGarbageCollectionAccounting() throws InterruptedException {
+		long before = DenseBlockFP64OffHeap.getAllocatedSize();
+		DenseBlockFP64OffHeap db = new DenseBlockFP64OffHeap(new int[] {ROWS, COLS}, Storage.DIRECT);
+		Assert.assertEquals(before + (long) ROWS * COLS * Double.BYTES, DenseBlockFP64OffHeap.getAllocatedSize());
+		db = null;
+		//unreachable blocks are released by the cleaner after garbage collection
+		for( int i = 0; i < 100 && DenseBlockFP64OffHeap.getAllocatedSize() != before; i++ ) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		Assert.assertEquals(before, DenseBlockFP64OffHeap.getAllocatedSize());
+	}
+
+	private static void runGetSetTest(Storage storage) {
+		DenseBlockFP64OffHeap db = new DenseBlockFP64OffHeap(new int[] {ROWS, COLS}, storage);
+		try {
+			Assert.assertEquals(0, db.countNonZeros());
+			for( int i = 0; i < ROWS; i++ )
+				for( int j = 0; j < COLS; j++ )
+					db.set(i, j, i * COLS + j);
+			for( int i = 0; i < ROWS; i++ )
+				for( int j = 0; j < COLS; j++ ) {
+					Assert.assertEquals(i * COLS + j, db.get(i, j), 0);
+					Assert.assertEquals(i * COLS + j, db.get(new int[] {i, j}), 0);
+				}
+			double[] row = new double[COLS];
+			for( int j = 0; j < COLS; j++ )
+				row[j] = -j;
+			db.set(3, row);
+			for( int j = 0; j < COLS; j++ )
+				Assert.assertEquals(-j, db.get(3, j), 0);
+		}
+		finally {
+			db.release();
+		}
+	}
+
+	private static void runCopyRoundtripTest(Storage storage) {
+		DenseBlock in = DenseBlockFactory.createDenseBlock(ROWS, COLS);
+		for( int i = 0; i < ROWS; i++ )
+			for( int j = 0; j < COLS; j++ )
+				in.set(i, j, (i % 3 == 0) ? 0 : i * 0.5 - j);
+		DenseBlockFP64OffHeap db = DenseBlockFP64OffHeap.copyOf(in, storage);
+		try {
+			Assert.assertEquals(in.countNonZeros(), db.countNonZeros());
+			DenseBlock out = db.toOnHeap();
+			for( int i = 0; i < ROWS; i++ )
+				for( int j = 0; j < COLS; j++ )
+					Assert.assertEquals(in.get(i, j), out.get(i, j), 0);
+		}
+		finally {
+			db.release();
+		}
+	}
+
+	private static void runIncrementAndNnzTest(Storage storage) {
+		DenseBlockFP64OffHeap db = new DenseBlockFP64OffHeap(new int[] {ROWS, COLS}, storage);
+		try {
+			db.set(1, 3, 3, 4, 7);
+			db.incr(1, 3);
+			db.incr(2, 3, -7);
+			Assert.assertEquals(8, db.get(1, 3), 0);
+			Assert.assertEquals(0, db.get(2, 3), 0);
+			Assert.assertEquals(1, db.countNonZeros());
+			Assert.assertEquals(1, db.countNonZeros(1));
+			Assert.assertEquals(0, db.countNonZeros(2));
+			db.reset(ROWS, COLS, 1);
+			Assert.assertEquals((long) ROWS * COLS, db.countNonZeros());
+		}
+		finally {
+			db.release();
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.functions.codegen;
+
+import java.io.File;
+import java.util.HashMap;
+
+import org.apache.sysds.hops.codegen.SpoofCompiler.CompilerType;
+import org.apache.sysds.runtime.codegen.CodegenPersistentCache;
+import org.apache.sysds.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysds.runtime.util.LocalFileUtils;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.apache.sysds.utils.stats.CodegenStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class PersistentClassCacheTest extends AutomatedTestBase
+{
+	private static final String TEST_NAME1 = "PersistentClassCache1";
+	private static final String TEST_NAME2 = "PersistentClassCache2";
+	private static final String TEST_DIR = "functions/codegen/";
+	private static final String TEST_CLASS_DIR = TEST_DIR + PersistentClassCacheTest.class.getSimpleName() + "/";
+	private static final String PERSIST_DIR = "target/testTemp/functions/codegen/PersistentClassCacheTest/persist";
+
+	private CompilerType _compiler = CompilerType.JANINO;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[] { "R" }));
+		addTestConfiguration(TEST_NAME2, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[] { "R" }));
+	}
+
+	@Test
+	public void testPersistentClassCacheJanino() {
+		runPersistentClassCacheTest(TEST_NAME1, CompilerType.JANINO);
+	}
+
+	@Test
+	public void testPersistentClassCacheJavac() {
+		runPersistentClassCacheTest(TEST_NAME1, CompilerType.JAVAC);
+	}
+
+	@Test
+	public void testFrameMapJanino() {
+		runFrameMapTest(TEST_NAME2, CompilerType.JANINO);
+	}
+
+	@Test
+	public void testFrameMapJavac() {
+		runFrameMapTest(TEST_NAME2, CompilerType.JAVAC);
+	}
+
+	private void runFrameMapTest(String testname, CompilerType compiler) {
+		_compiler = compiler;
+		LocalFileUtils.deleteFileIfExists(PERSIST_DIR);
+
+		TestConfiguration config = getTestConfiguration(testname);
+		loadTestConfiguration(config);
+		fullDMLScriptName = SCRIPT_DIR + TEST_DIR + testname + ".dml";
+		programArgs = new String[] {"-stats"};
+		setOutputBuffering(true);
+
+		// frame map functions are compiled regularly, not via the persistent cache
+		String out = runTest(true, false, null, -1).toString();
+		Assert.assertTrue(out.contains("A") && out.contains("B") && out.contains("C"));
+		Assert.assertEquals(0, CodegenPersistentCache.getNumEntries());
+	}
+
+	private void runPersistentClassCacheTest(String testname, CompilerType compiler) {
+		_compiler = compiler;
+		LocalFileUtils.deleteFileIfExists(PERSIST_DIR);
+
+		TestConfiguration config = getTestConfiguration(testname);
+		loadTestConfiguration(config);
+		fullDMLScriptName = SCRIPT_DIR + TEST_DIR + testname + ".dml";
+		programArgs = new String[] {"-stats", "-args", input("X"), output("R")};
+		writeInputMatrixWithMTD("X", getRandomMatrix(500, 20, -1, 1, 0.9, 7), true);
+
+		// first invocation compiles the fused operators and populates the cache
+		runTest(true, false, null, -1);
+		HashMap<CellIndex, Double> R1 = readDMLMatrixFromOutputDir("R");
+		Assert.assertTrue(heavyHittersContainsSubString("spoof"));
+		long compiled = CodegenStatistics.getClassCompile();
+		Assert.assertTrue(compiled > 0);
+		Assert.assertEquals(0, CodegenStatistics.getPersistHits());
+		Assert.assertEquals(compiled, CodegenPersistentCache.getNumEntries());
+
+		// second invocation w/ cleared class caches and new generated names
+		// (emulates a new process) loads all classes from the persistent cache
+		runTest(true, false, null, -1);
+		HashMap<CellIndex, Double> R2 = readDMLMatrixFromOutputDir("R");
+		Assert.assertTrue(heavyHittersContainsSubString("spoof"));
+		Assert.assertEquals(0, CodegenStatistics.getClassCompile());
+		Assert.assertEquals(compiled, CodegenStatistics.getPersistHits());
+		TestUtils.compareMatrices(R1, R2, 1e-10, "First", "Persistent");
+	}
+
+	@Override
+	protected File getConfigTemplateFile() {
+		return new File(SCRIPT_DIR + TEST_DIR, "SystemDS-config-codegen-persist-"
+			+ _compiler.name().toLowerCase() + ".xml");
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.federated.paramserv;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.sysds.common.Types.ExecMode;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.apache.sysds.utils.stats.ParamServStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(value = Parameterized.class)
+@net.jcip.annotations.NotThreadSafe
+public class CompressedFederatedParamservTest extends AutomatedTestBase {
+	private final static String TEST_DIR = "functions/federated/paramserv/";
+	private final static String TEST_NAME = "CompressedFederatedParamservTest";
+	private final static String TEST_CLASS_DIR = TEST_DIR + CompressedFederatedParamservTest.class.getSimpleName() + "/";
+
+	private final static int NUM_WORKERS = 2;
+	private final static int ROWS = 1000;
+	private final static int COLS = 10;
+	private final static int SEED = 7;
+
+	private final String _compression;
+	private final double _ratio;
+
+	@Parameterized.Parameters
+	public static Collection<Object[]> parameters() {
+		return Arrays.asList(new Object[][] {
+			// compression, compression ratio (fraction of entries kept by top-k)
+			{"TOPK", 0.3},
+			{"QUANT8", 0.01},
+			{"TOPK_QUANT8", 0.3},
+		});
+	}
+
+	public CompressedFederatedParamservTest(String compression, double ratio) {
+		_compression = compression;
+		_ratio = ratio;
+	}
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] {"R"}));
+	}
+
+	@Test
+	public void federatedParamservCompressedSingleNode() {
+		runCompressedParamservTest(ExecMode.SINGLE_NODE);
+	}
+
+	private void runCompressedParamservTest(ExecMode mode) {
+		getAndLoadTestConfiguration(TEST_NAME);
+		String HOME = SCRIPT_DIR + TEST_DIR;
+		setOutputBuffering(true);
+		ExecMode platformOld = setExecMode(mode);
+
+		List<Thread> threads = new ArrayList<>();
+		try {
+			List<Integer> ports = new ArrayList<>();
+			for(int i = 0; i < NUM_WORKERS; i++) {
+				ports.add(getRandomAvailablePort());
+				threads.add(startLocalFedWorkerThread(ports.get(i),
+					(i == (NUM_WORKERS - 1) ? FED_WORKER_WAIT : FED_WORKER_WAIT_S)));
+			}
+
+			// linear regression data without noise, y = X %*% w
+			double[][] features = getRandomMatrix(ROWS, COLS, 0, 1, 1, SEED);
+			double[][] w = getRandomMatrix(COLS, 1, -1, 1, 1, SEED + 1);
+			double[][] labels = new double[ROWS][1];
+			for(int i = 0; i < ROWS; i++)
+				for(int j = 0; j < COLS; j++)
+					labels[i][0] += features[i][j] * w[j][0];
+
+			double[][] ranges = generateBalancedFederatedRowRanges(NUM_WORKERS, ROWS);
+			rowFederateLocallyAndWriteInputMatrixWithMTD("X", features, NUM_WORKERS, ports, ranges);
+			rowFederateLocallyAndWriteInputMatrixWithMTD("y", labels, NUM_WORKERS, ports, ranges);
+
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[] {"-stats", "-nvargs",
+				"features=" + input("X"), "labels=" + input("y"),
+				"epochs=10", "batch_size=32", "eta=0.05", "seed=" + SEED,
+				"compression=" + _compression, "compression_ratio=" + _ratio,
+				"out=" + output("R")};
+			ParamServStatistics.reset();
+			runTest(null);
+
+			// the training loss decreases despite the lossy compression (w/ error feedback)
+			double ratio = TestUtils.readDMLScalar(output("R"));
+			Assert.assertTrue("Loss ratio " + ratio + " with " + _compression, ratio < 0.5);
+
+			// the pushed gradients were compressed
+			long raw = ParamServStatistics.getGradientBytesRaw();
+			long compressed = ParamServStatistics.getGradientBytesCompressed();
+			Assert.assertTrue(raw > 0);
+			Assert.assertTrue("Compressed " + compressed + " vs raw " + raw + " bytes", compressed < raw);
+		}
+		finally {
+			for(Thread thread : threads)
+				TestUtils.shutdownThreads(thread);
+			resetExecMode(platformOld);
+		}
+	}
+}
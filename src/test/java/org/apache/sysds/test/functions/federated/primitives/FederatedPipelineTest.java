@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.functions.federated.primitives;
+
+import java.io.File;
+
+import org.apache.sysds.common.Types;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedRequestBatcher;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedStatistics;
+import org.apache.sysds.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysds.runtime.meta.MatrixCharacteristics;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class FederatedPipelineTest extends AutomatedTestBase {
+	private final static String TEST_DIR = "functions/federated/";
+	private final static String TEST_NAME = "FederatedPipelineTest";
+	private final static String TEST_CLASS_DIR = TEST_DIR + FederatedPipelineTest.class.getSimpleName() + "/";
+	private final static String TEST_CONF = "SystemDS-config-pipeline.xml";
+
+	private final static int rows = 1000;
+	private final static int cols = 100;
+	private final static int blocksize = 1024;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] {"S"}));
+	}
+
+	@Override
+	protected File getConfigTemplateFile() {
+		return new File(SCRIPT_DIR + TEST_DIR, TEST_CONF);
+	}
+
+	@Test
+	public void federatedPipelineSingleBatch() {
+		runPipelineTest(10);
+	}
+
+	@Test
+	public void federatedPipelineDependentBatches() {
+		// more dependent requests per worker than fit into one batch
+		runPipelineTest(3 * FederatedRequestBatcher.MAX_BATCH_SIZE);
+	}
+
+	private void runPipelineTest(int iter) {
+		Types.ExecMode platformOld = setExecMode(Types.ExecMode.SINGLE_NODE);
+		Thread t1 = null, t2 = null;
+		try {
+			getAndLoadTestConfiguration(TEST_NAME);
+			String HOME = SCRIPT_DIR + TEST_DIR;
+
+			double[][] X1 = getRandomMatrix(rows / 2, cols, -10, 10, 1, 3);
+			double[][] X2 = getRandomMatrix(rows / 2, cols, -10, 10, 1, 7);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows / 2, cols, blocksize, (rows / 2) * cols);
+			writeInputMatrixWithMTD("X1", X1, false, mc);
+			writeInputMatrixWithMTD("X2", X2, false, mc);
+
+			int port1 = getRandomAvailablePort();
+			int port2 = getRandomAvailablePort();
+			// workers with multiple event loops execute concurrent messages in parallel
+			String[] workerArgs = new String[] {"-config", getConfigTemplateFile().getPath()};
+			t1 = startLocalFedWorkerThread(port1, workerArgs, FED_WORKER_WAIT_S);
+			t2 = startLocalFedWorkerThread(port2, workerArgs);
+
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[] {"-nvargs",
+				"in_X1=" + TestUtils.federatedAddress(port1, input("X1")),
+				"in_X2=" + TestUtils.federatedAddress(port2, input("X2")),
+				"rows=" + rows, "cols=" + cols, "iter=" + iter, "out_S=" + output("S")};
+			runTest(true, false, null, -1);
+
+			// expected result of the same chain of operations
+			double expected = 0;
+			for(double[][] X : new double[][][] {X1, X2})
+				for(double[] row : X)
+					for(double v : row) {
+						for(int i = 1; i <= iter; i++)
+							v = v * 0.5 + i;
+						expected += v;
+					}
+			double actual = readDMLScalarFromOutputDir("S").get(new CellIndex(1, 1));
+			Assert.assertEquals(expected, actual, 1e-9 * Math.abs(expected));
+
+			Assert.assertTrue(FederatedStatistics.getPipelinedBatchCount() > 0);
+			// requests w/o consumed results (e.g., rmvar) are not left behind
+			Assert.assertEquals(0, FederatedRequestBatcher.getNumPending());
+			if(iter > FederatedRequestBatcher.MAX_BATCH_SIZE)
+				Assert.assertEquals(FederatedRequestBatcher.MAX_BATCH_SIZE,
+					FederatedStatistics.getPipelinedMaxBatchSize());
+		}
+		finally {
+			TestUtils.shutdownThreads(t1, t2);
+			resetExecMode(platformOld);
+		}
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.functions.io.parquet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.sysds.common.Types.FileFormat;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.io.FrameReaderFactory;
+import org.apache.sysds.runtime.io.FrameReaderParquet;
+import org.apache.sysds.runtime.io.FrameWriterFactory;
+import org.apache.sysds.runtime.io.FrameWriterParquet;
+import org.apache.sysds.runtime.io.MatrixReaderFactory;
+import org.apache.sysds.runtime.io.MatrixWriterFactory;
+import org.apache.sysds.runtime.io.ParquetUtils;
+import org.apache.sysds.runtime.io.ParquetUtils.ParquetInfo;
+import org.apache.sysds.runtime.io.ReaderParquet;
+import org.apache.sysds.runtime.io.WriterParquet;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.DataConverter;
+import org.apache.sysds.runtime.util.HDFSTool;
+import org.apache.sysds.test.TestUtils;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class ReaderWriterParquetTest {
+
+	private static final String DIR = "target/testTemp/functions/data/ReaderWriterParquetTest/";
+	private static final long SEED = 4669201;
+
+	@AfterClass
+	public static void cleanup() throws IOException {
+		HDFSTool.deleteFileIfExistOnHDFS(DIR);
+	}
+
+	@Test
+	public void testMatrixDense() throws IOException {
+		testMatrix(123, 17, 0.9, 1);
+	}
+
+	@Test
+	public void testMatrixSparse() throws IOException {
+		testMatrix(1234, 45, 0.02, 1);
+	}
+
+	@Test
+	public void testMatrixParallelPartFiles() throws IOException {
+		testMatrix(200000, 3, 0.7, 4);
+	}
+
+	@Test
+	public void testMatrixMetaData() throws IOException {
+		MatrixBlock mb = MatrixBlock.randOperations(150, 7, 0.3, -1, 1, "uniform", SEED);
+		String fname = DIR + "meta.parquet";
+		MatrixWriterFactory.createMatrixWriter(FileFormat.PARQUET)
+			.writeMatrixToHDFS(mb, fname, mb.getNumRows(), mb.getNumColumns(), -1, mb.getNonZeros());
+		ParquetInfo info = ParquetUtils.readInfo(fname);
+		assertEquals(150, info.rows);
+		assertEquals(7, info.getNumColumns());
+		assertEquals(mb.getNonZeros(), info.nnz);
+		assertEquals("C1", info.names[0]);
+	}
+
+	@Test
+	public void testMatrixUnknownDims() throws IOException {
+		MatrixBlock mb = MatrixBlock.randOperations(99, 5, 0.5, 0, 10, "uniform", SEED);
+		String fname = DIR + "unknown.parquet";
+		MatrixWriterFactory.createMatrixWriter(FileFormat.PARQUET)
+			.writeMatrixToHDFS(mb, fname, mb.getNumRows(), mb.getNumColumns(), -1, mb.getNonZeros());
+		MatrixBlock ret = MatrixReaderFactory.createMatrixReader(FileFormat.PARQUET)
+			.readMatrixFromHDFS(fname, -1, -1, -1, -1);
+		TestUtils.compareMatrices(mb, ret, 0);
+	}
+
+	@Test
+	public void testFrameRandomSchema() throws IOException {
+		Random random = new Random(SEED);
+		ValueType[] schema = TestUtils.generateRandomSchema(23, random);
+		testFrame(TestUtils.generateRandomFrameBlock(421, schema, random), 1);
+	}
+
+	@Test
+	public void testFrameParallelPartFiles() throws IOException {
+		Random random = new Random(SEED);
+		ValueType[] schema = new ValueType[] {ValueType.STRING, ValueType.FP64, ValueType.INT64, ValueType.BOOLEAN};
+		testFrame(TestUtils.generateRandomFrameBlock(150000, schema, random), 3);
+	}
+
+	@Test
+	public void testFrameNullsAndNames() throws IOException {
+		FrameBlock fb = new FrameBlock(new ValueType[] {ValueType.STRING, ValueType.FP64},
+			new String[] {"name", "score"});
+		fb.appendRow(new Object[] {"a", 1.5});
+		fb.appendRow(new Object[] {null, 2.5});
+		fb.appendRow(new Object[] {"c", 3.0});
+		String fname = DIR + "nulls.parquet";
+		FrameWriterFactory.createFrameWriter(FileFormat.PARQUET).writeFrameToHDFS(fb, fname, 3, 2);
+		FrameBlock ret = FrameReaderFactory.createFrameReader(FileFormat.PARQUET)
+			.readFrameFromHDFS(fname, null, null, -1, -1);
+		assertArrayEquals(new String[] {"name", "score"}, ret.getColumnNames());
+		assertArrayEquals(fb.getSchema(), ret.getSchema());
+		assertNull(ret.get(1, 0));
+		assertEquals("c", ret.get(2, 0));
+		assertEquals(2.5, (Double) ret.get(1, 1), 0);
+	}
+
+	@Test
+	public void testFrameSchemaAndNames() throws IOException {
+		FrameBlock fb = new FrameBlock(new ValueType[] {ValueType.STRING, ValueType.FP64},
+			new String[] {"name", "score"});
+		fb.appendRow(new Object[] {"a", 1.5});
+		fb.appendRow(new Object[] {"b", 2.5});
+		String fname = DIR + "schema.parquet";
+		FrameWriterFactory.createFrameWriter(FileFormat.PARQUET).writeFrameToHDFS(fb, fname, 2, 2);
+		ValueType[] schema = new ValueType[] {ValueType.STRING, ValueType.STRING};
+
+		// the caller's schema and names are applied, default names keep the parquet names
+		FrameBlock ret = new FrameReaderParquet().readFrameFromHDFS(fname, schema, new String[] {"n", "s"}, 2, 2);
+		assertArrayEquals(schema, ret.getSchema());
+		assertArrayEquals(new String[] {"n", "s"}, ret.getColumnNames());
+		assertEquals("2.5", ret.get(1, 1));
+		ret = new FrameReaderParquet().readFrameFromHDFS(fname, schema, 2, 2);
+		assertArrayEquals(new String[] {"name", "score"}, ret.getColumnNames());
+
+		try {
+			new FrameReaderParquet().readFrameFromHDFS(fname,
+				new ValueType[] {ValueType.STRING, ValueType.FP64, ValueType.FP64}, null, -1, -1);
+			fail("expected schema mismatch");
+		}
+		catch(IOException ex) {
+			assertTrue(ex.getMessage().contains("schema mismatch"));
+		}
+	}
+
+	private static void testMatrix(int rows, int cols, double sparsity, int k) throws IOException {
+		MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", SEED);
+		String fname = DIR + "matrix_" + rows + "_" + k + ".parquet";
+		new WriterParquet(k).writeMatrixToHDFS(mb, fname, rows, cols, -1, mb.getNonZeros());
+		if( k > 1 ) //directory of part files
+			assertTrue(HDFSTool.isDirectory(fname));
+		MatrixBlock ret = new ReaderParquet(k).readMatrixFromHDFS(fname, rows, cols, -1, -1);
+		assertEquals(mb.getNonZeros(), ret.getNonZeros());
+		TestUtils.compareMatrices(mb, ret, 0);
+	}
+
+	private static void testFrame(FrameBlock fb, int k) throws IOException {
+		int rows = fb.getNumRows(), cols = fb.getNumColumns();
+		String fname = DIR + "frame_" + rows + "_" + k + ".parquet";
+		new FrameWriterParquet(k).writeFrameToHDFS(fb, fname, rows, cols);
+		assertEquals(rows, ParquetUtils.readInfo(fname).rows);
+		FrameBlock ret = new FrameReaderParquet(k).readFrameFromHDFS(fname, fb.getSchema(), rows, cols);
+		TestUtils.compareFrames(DataConverter.convertToStringFrame(fb),
+			DataConverter.convertToStringFrame(ret), rows, cols);
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.jmlc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.sysds.api.jmlc.Connection;
+import org.apache.sysds.api.jmlc.PreparedScriptPool;
+import org.apache.sysds.conf.CompilerConfig;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JMLCPreparedScriptPoolTest extends AutomatedTestBase
+{
+	//scoring script with pinned model and per-call inputs
+	private static final String SCRIPT1 =
+		  "X = read('tmp/X', rows=-1, cols=-1);"
+		+ "W = read('tmp/W', rows=-1, cols=-1);"
+		+ "s = read('tmp/s', data_type='scalar', value_type='int');"
+		+ "P = X %*% W * s;"
+		+ "out = sum(P);"
+		+ "write(out, 'tmp/out');";
+	
+	//script with parfor loop and dml-bodied functions
+	private static final String SCRIPT2 =
+		  "foo = function(Matrix[double] A) return (Matrix[double] B) {"
+		+ "  while(FALSE){}"
+		+ "  B = A * 2;"
+		+ "}"
+		+ "X = read('tmp/X', rows=-1, cols=-1);"
+		+ "W = read('tmp/W', rows=-1, cols=-1);"
+		+ "s = read('tmp/s', data_type='scalar', value_type='int');"
+		+ "R = matrix(0, nrow(X), 1);"
+		+ "parfor(i in 1:nrow(X))"
+		+ "  R[i,] = sum(foo(X[i,] %*% W)) * s;"
+		+ "out = sum(R);"
+		+ "write(out, 'tmp/out');";
+	
+	private static final int rows = 10;
+	private static final int cols = 5;
+	
+	@Override
+	public void setUp() {
+		//do nothing
+	}
+	
+	@Test
+	public void testPreparedScriptPool1T128() {
+		runJMLCPoolTest(SCRIPT1, 128, 1, false);
+	}
+	
+	@Test
+	public void testPreparedScriptPool2T128() {
+		runJMLCPoolTest(SCRIPT2, 128, 2, false);
+	}
+	
+	@Test
+	public void testPreparedScriptPoolSize2T128() {
+		runJMLCPoolTest(SCRIPT1, 128, 1, false, 2);
+	}
+	
+	@Test
+	public void testPreparedScriptPoolPinUpdateT128() {
+		runJMLCPoolTest(SCRIPT1, 128, 1, true);
+	}
+	
+	private static void runJMLCPoolTest(String script, int num, int factor, boolean update) {
+		runJMLCPoolTest(script, num, factor, update, -1);
+	}
+	
+	private static void runJMLCPoolTest(String script, int num, int factor, boolean update, int size) {
+		try( Connection conn = new Connection() ) {
+			conn.setConfigTypes(false, CompilerConfig.ConfigType.PARALLEL_LOCAL_OR_REMOTE_PARFOR);
+			PreparedScriptPool pool = conn.prepareScriptPool(script,
+				new String[]{"X", "W", "s"}, new String[]{"out"}, size);
+			pool.setPinnedInput("W", new double[cols][1]);
+			
+			//concurrent calls with different inputs (incl update of pinned model)
+			ExecutorService threads = Executors.newFixedThreadPool(16);
+			ArrayList<Callable<Double>> tasks = new ArrayList<>();
+			for(int i=0; i<num; i++) {
+				final int pos = i;
+				tasks.add(() -> score(pool, pos));
+			}
+			pool.setPinnedInput("W", createModel(1));
+			List<Future<Double>> rets = threads.invokeAll(tasks);
+			if( update ) {
+				pool.setPinnedInput("W", createModel(2));
+				rets = threads.invokeAll(tasks);
+			}
+			threads.shutdown();
+			
+			//check results, where each call sees its own inputs
+			double w = update ? 2 : 1;
+			for(int i=0; i<num; i++)
+				Assert.assertEquals(factor * rows * cols * w * (i % 7) * i,
+					rets.get(i).get(), 1e-8);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private static double score(PreparedScriptPool pool, int pos) {
+		HashMap<String, Object> inputs = new HashMap<>();
+		inputs.put("X", new MatrixBlock(rows, cols, (double)(pos % 7)));
+		inputs.put("s", pos);
+		return pool.executeScript(inputs).getDouble("out");
+	}
+	
+	private static double[][] createModel(double val) {
+		double[][] ret = new double[cols][1];
+		for(int i=0; i<cols; i++)
+			ret[i][0] = val;
+		return ret;
+	}
+}
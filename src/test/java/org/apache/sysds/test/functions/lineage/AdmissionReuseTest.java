@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.lineage;
+
+import java.io.File;
+import java.util.HashMap;
+
+import org.apache.sysds.hops.OptimizerUtils;
+import org.apache.sysds.hops.recompile.Recompiler;
+import org.apache.sysds.runtime.lineage.Lineage;
+import org.apache.sysds.runtime.lineage.LineageCacheConfig.ReuseCacheType;
+import org.apache.sysds.runtime.lineage.LineageCacheStatistics;
+import org.apache.sysds.runtime.matrix.data.MatrixValue;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class AdmissionReuseTest extends LineageBase {
+
+	protected static final String TEST_DIR = "functions/lineage/";
+	protected static final String TEST_NAME1 = "CacheEviction2";
+
+	protected String TEST_CLASS_DIR = TEST_DIR + AdmissionReuseTest.class.getSimpleName() + "/";
+	private final static String TEST_CONF = "SystemDS-config-admission.xml";
+	private final static File   TEST_CONF_FILE = new File(SCRIPT_DIR + TEST_DIR, TEST_CONF);
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1));
+	}
+
+	@Test
+	public void testAdmissionLRU() {
+		runAdmissionTest(TEST_NAME1, "policy_lru");
+	}
+
+	@Test
+	public void testAdmissionCostnsize() {
+		runAdmissionTest(TEST_NAME1, "policy_costnsize");
+	}
+
+	private void runAdmissionTest(String testname, String policy) {
+		boolean old_simplification = OptimizerUtils.ALLOW_ALGEBRAIC_SIMPLIFICATION;
+		boolean old_sum_product = OptimizerUtils.ALLOW_SUM_PRODUCT_REWRITES;
+		try {
+			LOG.debug("------------ BEGIN " + testname + "------------");
+			
+			/* The test script pollutes the cache with many cheap and never
+			 * reused elementwise intermediates, while the scaled batches are
+			 * reused across epochs. The admission filter rejects the polluting
+			 * entries once the cache is full, which keeps the reusable ones.
+			 */
+			OptimizerUtils.ALLOW_ALGEBRAIC_SIMPLIFICATION = false;
+			OptimizerUtils.ALLOW_SUM_PRODUCT_REWRITES = false;
+
+			getAndLoadTestConfiguration(testname);
+			fullDMLScriptName = getScript();
+
+			// reuse w/ admission filter
+			programArgs = new String[] {"-stats", "-lineage",
+				ReuseCacheType.REUSE_FULL.name().toLowerCase(), policy, "-args", output("R")};
+			Lineage.resetInternalState();
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+			HashMap<MatrixValue.CellIndex, Double> R_reuse = readDMLMatrixFromOutputDir("R");
+			Assert.assertTrue(LineageCacheStatistics.getRejections() > 0);
+			Assert.assertTrue(LineageCacheStatistics.getInstHits() > 0);
+
+			// reference w/o lineage-based reuse
+			programArgs = new String[] {"-stats", "-args", output("R")};
+			Lineage.resetInternalState();
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+			HashMap<MatrixValue.CellIndex, Double> R_base = readDMLMatrixFromOutputDir("R");
+			TestUtils.compareMatrices(R_reuse, R_base, 1e-6, "Admission", "Base");
+		}
+		finally {
+			OptimizerUtils.ALLOW_ALGEBRAIC_SIMPLIFICATION = old_simplification;
+			OptimizerUtils.ALLOW_SUM_PRODUCT_REWRITES = old_sum_product;
+			Lineage.resetInternalState();
+			Recompiler.reinitRecompiler();
+		}
+	}
+
+	@Override
+	protected File getConfigTemplateFile() {
+		return TEST_CONF_FILE;
+	}
+}
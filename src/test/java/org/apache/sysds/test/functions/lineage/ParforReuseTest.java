@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.lineage;
+
+import java.util.HashMap;
+
+import org.apache.sysds.runtime.lineage.Lineage;
+import org.apache.sysds.runtime.lineage.LineageCacheConfig.ReuseCacheType;
+import org.apache.sysds.runtime.lineage.LineageCacheStatistics;
+import org.apache.sysds.runtime.matrix.data.MatrixValue;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class ParforReuseTest extends LineageBase {
+
+	protected static final String TEST_DIR = "functions/lineage/";
+	protected static final String TEST_NAME1 = "ParforReuse1";
+
+	protected String TEST_CLASS_DIR = TEST_DIR + ParforReuseTest.class.getSimpleName() + "/";
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1));
+	}
+
+	@Test
+	public void testConcurrentReuse() {
+		runParforReuseTest(TEST_NAME1);
+	}
+
+	private void runParforReuseTest(String testname) {
+		try {
+			LOG.debug("------------ BEGIN " + testname + "------------");
+			getAndLoadTestConfiguration(testname);
+			fullDMLScriptName = getScript();
+
+			// w/o reuse
+			programArgs = new String[] {"-stats", "-args", output("R")};
+			Lineage.resetInternalState();
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+			HashMap<MatrixValue.CellIndex, Double> R_orig = readDMLMatrixFromOutputDir("R");
+
+			// w/ concurrent reuse across parfor workers
+			programArgs = new String[] {"-stats", "-lineage",
+				ReuseCacheType.REUSE_FULL.name().toLowerCase(), "-args", output("R")};
+			Lineage.resetInternalState();
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+			HashMap<MatrixValue.CellIndex, Double> R_reused = readDMLMatrixFromOutputDir("R");
+
+			TestUtils.compareMatrices(R_orig, R_reused, 1e-6, "Origin", "Reused");
+			Assert.assertTrue(LineageCacheStatistics.getInstHits() > 0);
+			Assert.assertTrue(LineageCacheStatistics.getLockFreeProbes() > 0);
+		}
+		finally {
+			Lineage.setLinReuseNone();
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.lineage;
+
+import java.io.File;
+import java.util.HashMap;
+
+import org.apache.sysds.hops.recompile.Recompiler;
+import org.apache.sysds.runtime.lineage.Lineage;
+import org.apache.sysds.runtime.lineage.LineageCacheConfig.ReuseCacheType;
+import org.apache.sysds.runtime.lineage.LineageCacheStatistics;
+import org.apache.sysds.runtime.lineage.LineagePersistentCache;
+import org.apache.sysds.runtime.matrix.data.MatrixValue;
+import org.apache.sysds.runtime.util.LocalFileUtils;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class PersistentReuseTest extends LineageBase {
+
+	protected static final String TEST_DIR = "functions/lineage/";
+	protected static final String TEST_NAME1 = "PersistentReuse1";
+
+	protected String TEST_CLASS_DIR = TEST_DIR + PersistentReuseTest.class.getSimpleName() + "/";
+	private final static String TEST_CONF = "SystemDS-config-persist.xml";
+	private final static File   TEST_CONF_FILE = new File(SCRIPT_DIR + TEST_DIR, TEST_CONF);
+	private final static String PERSIST_DIR = "target/testTemp/functions/lineage/PersistentReuseTest/persist";
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1));
+	}
+
+	@Test
+	public void testReuseAcrossInvocations() throws Exception {
+		runPersistentReuseTest(TEST_NAME1, false);
+	}
+
+	@Test
+	public void testInvalidationOnModifiedInput() throws Exception {
+		runPersistentReuseTest(TEST_NAME1, true);
+	}
+
+	private void runPersistentReuseTest(String testname, boolean modify) throws Exception {
+		long oldMinTime = LineagePersistentCache.MIN_COMPUTE_TIME;
+		try {
+			LOG.debug("------------ BEGIN " + testname + "------------");
+			LineagePersistentCache.MIN_COMPUTE_TIME = 0;
+			LocalFileUtils.deleteFileIfExists(PERSIST_DIR);
+
+			getAndLoadTestConfiguration(testname);
+			fullDMLScriptName = getScript();
+			writeInputMatrixWithMTD("X", getRandomMatrix(300, 100, 0, 1, 1.0, 7), false);
+
+			// first invocation populates the persistent cache
+			programArgs = new String[] {"-stats", "-lineage",
+				ReuseCacheType.REUSE_FULL.name().toLowerCase(), "-args", input("X"), output("R")};
+			Lineage.resetInternalState();
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+			HashMap<MatrixValue.CellIndex, Double> R1 = readDMLMatrixFromOutputDir("R");
+			Assert.assertTrue(LineageCacheStatistics.getPersistWrites() > 0);
+			Assert.assertEquals(0, LineageCacheStatistics.getPersistHits());
+			// persistence keeps the lock-free probes of full reuse
+			Assert.assertTrue(LineageCacheStatistics.getLockFreeProbes() > 0);
+			// the index log is compacted into the index at the end of the run
+			Assert.assertTrue(new File(PERSIST_DIR, LineagePersistentCache.INDEX_FILE).exists());
+			Assert.assertFalse(new File(PERSIST_DIR, LineagePersistentCache.LOG_FILE).exists());
+
+			if( modify ) {
+				// same dimensions and nnz but different data and modification time
+				writeInputMatrixWithMTD("X", getRandomMatrix(300, 100, 0, 1, 1.0, 8), false);
+				File fX = new File(input("X"));
+				fX.setLastModified(fX.lastModified() + 5000);
+			}
+
+			// unreferenced block (e.g., of an aborted run) is deleted on load
+			File orphan = new File(PERSIST_DIR, "0123456789abcdef.blk");
+			Assert.assertTrue(orphan.createNewFile());
+
+			// second invocation w/ empty in-memory cache (emulates a new process)
+			Lineage.resetInternalState();
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+			Assert.assertFalse(orphan.exists());
+			HashMap<MatrixValue.CellIndex, Double> R2 = readDMLMatrixFromOutputDir("R");
+			if( modify ) {
+				Assert.assertEquals(0, LineageCacheStatistics.getPersistHits());
+				Assert.assertTrue(LineageCacheStatistics.getPersistInvalidations() > 0);
+			}
+			else
+				Assert.assertTrue(LineageCacheStatistics.getPersistHits() > 0);
+
+			// reference w/o lineage-based reuse
+			programArgs = new String[] {"-stats", "-args", input("X"), output("R")};
+			Lineage.resetInternalState();
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+			HashMap<MatrixValue.CellIndex, Double> R3 = readDMLMatrixFromOutputDir("R");
+			TestUtils.compareMatrices(R2, R3, 1e-8, "Persistent", "Base");
+			if( !modify )
+				TestUtils.compareMatrices(R1, R3, 1e-8, "First", "Base");
+		}
+		finally {
+			LineagePersistentCache.MIN_COMPUTE_TIME = oldMinTime;
+			Lineage.resetInternalState();
+			Recompiler.reinitRecompiler();
+		}
+	}
+
+	@Override
+	protected File getConfigTemplateFile() {
+		return TEST_CONF_FILE;
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.misc;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+
+import org.apache.sysds.api.PlanArtifact;
+import org.apache.sysds.common.Types.ExecMode;
+import org.apache.sysds.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PlanArtifactTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME1 = "PlanArtifact1";
+	private final static String TEST_NAME2 = "PlanArtifact2";
+	private final static String TEST_NAME3 = "PlanArtifact3";
+	private final static String TEST_DIR = "functions/misc/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + PlanArtifactTest.class.getSimpleName() + "/";
+	private final static double eps = 1e-10;
+
+	private final static int rows = 100;
+	private final static int cols = 7;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[] { "R" }));
+		addTestConfiguration(TEST_NAME2, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[] { "R" }));
+		addTestConfiguration(TEST_NAME3, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME3, new String[] { "R" }));
+	}
+
+	@Test
+	public void testPlanReuse() {
+		runPlanArtifactTest(false, false);
+	}
+
+	@Test
+	public void testPlanDynamicRecompile() {
+		ExecMode platformOld = setExecMode(ExecMode.SINGLE_NODE);
+		try {
+			TestConfiguration config = getTestConfiguration(TEST_NAME2);
+			loadTestConfiguration(config);
+			fullDMLScriptName = SCRIPT_DIR + TEST_DIR + TEST_NAME2 + ".dml";
+			String plan = output("plan.properties");
+			writeInputMatrixWithMTD("X", getRandomMatrix(rows, cols, -1, 1, 1.0, 7), true);
+
+			//blocks with unknown sizes require dynamic recompilation, so no plan is written
+			PlanArtifact.resetStatistics();
+			programArgs = new String[] {"-plan", plan, "-args", input("X"), "3", output("R")};
+			runTest(true, false, null, -1);
+			runTest(true, false, null, -1);
+			Assert.assertEquals(0, PlanArtifact.getNumWritten());
+			Assert.assertEquals(0, PlanArtifact.getNumLoaded());
+		}
+		finally {
+			resetExecMode(platformOld);
+		}
+	}
+
+	@Test
+	public void testPlanStaleArguments() {
+		runPlanArtifactTest(true, false);
+	}
+
+	@Test
+	public void testPlanStaleInputs() {
+		runPlanArtifactTest(false, true);
+	}
+
+	@Test
+	public void testPlanStaleSource() throws Exception {
+		ExecMode platformOld = setExecMode(ExecMode.SINGLE_NODE);
+		try {
+			TestConfiguration config = getTestConfiguration(TEST_NAME3);
+			loadTestConfiguration(config);
+			fullDMLScriptName = SCRIPT_DIR + TEST_DIR + TEST_NAME3 + ".dml";
+			File dir = new File(output("scripts"));
+			dir.mkdirs();
+			String plan = output("plan.properties");
+			writeInputMatrixWithMTD("X", getRandomMatrix(rows, cols, -1, 1, 1.0, 7), true);
+
+			//first run: compile and write plan
+			writeLibScript(dir, "2");
+			PlanArtifact.resetStatistics();
+			programArgs = new String[] {"-plan", plan, "-nvargs", "X=" + input("X"),
+				"lib=" + new File(dir, "lib.dml").getPath(), "R=" + output("R")};
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> R1 = readDMLMatrixFromOutputDir("R");
+			Assert.assertEquals(1, PlanArtifact.getNumWritten());
+
+			//second run: unchanged sourced script, reuse plan
+			PlanArtifact.resetStatistics();
+			runTest(true, false, null, -1);
+			Assert.assertEquals(1, PlanArtifact.getNumLoaded());
+			TestUtils.compareMatrices(R1, readDMLMatrixFromOutputDir("R"), eps, "Compiled", "Loaded");
+
+			//third run: modified sourced script, recompile
+			writeLibScript(dir, "-2");
+			PlanArtifact.resetStatistics();
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> R3 = readDMLMatrixFromOutputDir("R");
+			Assert.assertEquals(0, PlanArtifact.getNumLoaded());
+			Assert.assertEquals(1, PlanArtifact.getNumWritten());
+			for( CellIndex ix : R1.keySet() )
+				Assert.assertEquals(-R1.get(ix), R3.get(ix), eps);
+		}
+		finally {
+			resetExecMode(platformOld);
+		}
+	}
+
+	private static void writeLibScript(File dir, String factor) throws Exception {
+		String lib = "scale = function(Matrix[Double] X, Double s) return (Matrix[Double] Y) {\n"
+			+ "  Y = X * s * " + factor + ";\n}\n";
+		Files.write(new File(dir, "lib.dml").toPath(), lib.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void runPlanArtifactTest(boolean changeArgs, boolean changeInputs) {
+		ExecMode platformOld = setExecMode(ExecMode.SINGLE_NODE);
+		try {
+			TestConfiguration config = getTestConfiguration(TEST_NAME1);
+			loadTestConfiguration(config);
+			fullDMLScriptName = SCRIPT_DIR + TEST_DIR + TEST_NAME1 + ".dml";
+			String plan = output("plan.properties");
+			writeInputMatrixWithMTD("X", getRandomMatrix(rows, cols, -1, 1, 1.0, 7), true);
+
+			//first run: compile and write plan
+			PlanArtifact.resetStatistics();
+			programArgs = new String[] {"-plan", plan, "-args", input("X"), "3", output("R")};
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> R1 = readDMLMatrixFromOutputDir("R");
+			Assert.assertEquals(0, PlanArtifact.getNumLoaded());
+			Assert.assertEquals(1, PlanArtifact.getNumWritten());
+
+			//second run: reuse plan if still valid
+			if( changeArgs )
+				programArgs[programArgs.length-2] = "4";
+			if( changeInputs )
+				writeInputMatrixWithMTD("X", getRandomMatrix(rows+1, cols, -1, 1, 1.0, 7), true);
+			boolean stale = changeArgs || changeInputs;
+			PlanArtifact.resetStatistics();
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> R2 = readDMLMatrixFromOutputDir("R");
+			Assert.assertEquals(stale ? 0 : 1, PlanArtifact.getNumLoaded());
+			Assert.assertEquals(stale ? 1 : 0, PlanArtifact.getNumWritten());
+			if( !stale )
+				TestUtils.compareMatrices(R1, R2, eps, "Compiled", "Loaded");
+		}
+		finally {
+			resetExecMode(platformOld);
+		}
+	}
+}
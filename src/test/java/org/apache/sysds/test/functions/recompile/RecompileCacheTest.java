@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.functions.recompile;
+
+import java.util.HashMap;
+
+import org.apache.sysds.hops.OptimizerUtils;
+import org.apache.sysds.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.apache.sysds.utils.stats.RecompileStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RecompileCacheTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME1 = "recompile_cache1";
+	private final static String TEST_NAME2 = "recompile_cache2";
+	private final static String TEST_DIR = "functions/recompile/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + RecompileCacheTest.class.getSimpleName() + "/";
+	private final static double eps = 1e-10;
+
+	private final static int rows = 300;
+	private final static int cols = 20;
+	private final static int iterations = 20;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[] { "R" }));
+		addTestConfiguration(TEST_NAME2, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[] { "R" }));
+	}
+
+	@Test
+	public void testStableShapes() {
+		runRecompileCacheTest(TEST_NAME1, true);
+	}
+
+	@Test
+	public void testChangingShapes() {
+		runRecompileCacheTest(TEST_NAME2, false);
+	}
+
+	private void runRecompileCacheTest(String testname, boolean stable) {
+		int oldCacheSize = OptimizerUtils.RECOMPILE_CACHE_SIZE;
+		try {
+			TestConfiguration config = getTestConfiguration(testname);
+			loadTestConfiguration(config);
+			fullDMLScriptName = SCRIPT_DIR + TEST_DIR + testname + ".dml";
+			programArgs = new String[] {"-stats", "-args", input("X"),
+				String.valueOf(iterations), output("R")};
+			writeInputMatrixWithMTD("X", getRandomMatrix(rows, cols, 0, 1, 0.7, 7), true);
+
+			//run w/o recompile cache
+			OptimizerUtils.RECOMPILE_CACHE_SIZE = 0;
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> R1 = readDMLMatrixFromOutputDir("R");
+			Assert.assertEquals(0, RecompileStatistics.getRecompileCacheHits()
+				+ RecompileStatistics.getRecompileCacheMisses());
+
+			//run w/ recompile cache
+			OptimizerUtils.RECOMPILE_CACHE_SIZE = oldCacheSize;
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> R2 = readDMLMatrixFromOutputDir("R");
+			if( stable ) //misses for first iteration and first change of iter
+				Assert.assertEquals(iterations - 2, RecompileStatistics.getRecompileCacheHits());
+			else
+				Assert.assertEquals(0, RecompileStatistics.getRecompileCacheHits());
+			Assert.assertTrue(RecompileStatistics.getRecompileCacheMisses() > 0);
+			TestUtils.compareMatrices(R1, R2, eps, "Base", "Cached");
+		}
+		finally {
+			OptimizerUtils.RECOMPILE_CACHE_SIZE = oldCacheSize;
+		}
+	}
+}
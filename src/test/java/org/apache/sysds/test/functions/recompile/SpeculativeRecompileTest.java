@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.functions.recompile;
+
+import java.util.HashMap;
+
+import org.apache.sysds.hops.OptimizerUtils;
+import org.apache.sysds.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.apache.sysds.utils.stats.RecompileStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpeculativeRecompileTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME1 = "speculative_recompile1";
+	private final static String TEST_DIR = "functions/recompile/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + SpeculativeRecompileTest.class.getSimpleName() + "/";
+	private final static double eps = 1e-10;
+
+	private final static int rows = 300;
+	private final static int cols = 20;
+	private final static int iterations = 10;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[] { "R" }));
+	}
+
+	@Test
+	public void testSpeculativeRecompileLoopBody() {
+		runSpeculativeRecompileTest(TEST_NAME1);
+	}
+
+	private void runSpeculativeRecompileTest(String testname) {
+		boolean oldFlag = OptimizerUtils.ASYNC_RECOMPILE;
+		try {
+			TestConfiguration config = getTestConfiguration(testname);
+			loadTestConfiguration(config);
+			fullDMLScriptName = SCRIPT_DIR + TEST_DIR + testname + ".dml";
+			programArgs = new String[] {"-stats", "-args", input("X"),
+				String.valueOf(iterations), output("R")};
+			writeInputMatrixWithMTD("X", getRandomMatrix(rows, cols, 1, 2, 1.0, 7), true);
+
+			//run w/o speculative recompilation
+			OptimizerUtils.ASYNC_RECOMPILE = false;
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> R1 = readDMLMatrixFromOutputDir("R");
+			long misses1 = RecompileStatistics.getRecompileCacheMisses();
+			Assert.assertEquals(0, RecompileStatistics.getSpeculativeSB());
+
+			//run w/ speculative recompilation of the loop body
+			OptimizerUtils.ASYNC_RECOMPILE = true;
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> R2 = readDMLMatrixFromOutputDir("R");
+			Assert.assertEquals(1, RecompileStatistics.getSpeculativeSB());
+			Assert.assertEquals(1, RecompileStatistics.getSpeculativeHits());
+			Assert.assertEquals(misses1 - 1, RecompileStatistics.getRecompileCacheMisses());
+			TestUtils.compareMatrices(R1, R2, eps, "Base", "Speculative");
+		}
+		finally {
+			OptimizerUtils.ASYNC_RECOMPILE = oldFlag;
+		}
+	}
+}